@@ -0,0 +1,36 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.api;
+
+import java.util.concurrent.Future;
+
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+
+/**
+ * Governor client resolving its annotations in the background, so the governor can wait for the decisions of a whole
+ * test class at once instead of one request after another.
+ *
+ * Clients only implementing {@link GovernorClient} are adapted by {@link GovernorClients#async}.
+ */
+public interface AsyncGovernorClient<ANNOTATION, T extends GovernorStrategy> extends GovernorClient<ANNOTATION, T> {
+
+    /**
+     * @param annotation
+     * @return pending decision about the annotation, the same {@link #resolve(Object)} would return
+     */
+    Future<ExecutionDecision> resolveAsync(ANNOTATION annotation);
+}
@@ -28,6 +28,8 @@ public interface ClosePassedDecider {
 
     /**
      * Returns {@code Map} with annotations and their closable flags in the scope of the whole test suite.
+     * Annotations of the same issue are merged, the map holds one entry per annotation type and issue id, grouped by
+     * annotation type and ordered by issue id.
      *
      * @return {@code Map} with annotations and their closable flags.
      */
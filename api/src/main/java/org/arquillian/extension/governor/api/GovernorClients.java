@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.api;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.jboss.arquillian.core.spi.Validate;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+
+/**
+ * Helpers for {@link GovernorClient}s.
+ */
+public final class GovernorClients {
+
+    private GovernorClients() {
+    }
+
+    /**
+     * Adapts a client to {@link AsyncGovernorClient}. Its {@link GovernorClient#resolve(Object)} is run by the
+     * executor, or by the caller when there is no executor. Clients which already are asynchronous are returned as
+     * they are.
+     *
+     * @param client client to adapt
+     * @param executor executor resolving the annotations, null to resolve them in the calling thread
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <ANNOTATION, T extends GovernorStrategy> AsyncGovernorClient<ANNOTATION, T> async(
+        GovernorClient<ANNOTATION, T> client, Executor executor) {
+        Validate.notNull(client, "Governor client must be specified.");
+
+        if (client instanceof AsyncGovernorClient) {
+            return (AsyncGovernorClient<ANNOTATION, T>) client;
+        }
+
+        return new AsyncGovernorClientAdapter<ANNOTATION, T>(client, executor);
+    }
+
+    private static class AsyncGovernorClientAdapter<ANNOTATION, T extends GovernorStrategy>
+        implements AsyncGovernorClient<ANNOTATION, T> {
+
+        private final GovernorClient<ANNOTATION, T> client;
+
+        private final Executor executor;
+
+        AsyncGovernorClientAdapter(GovernorClient<ANNOTATION, T> client, Executor executor) {
+            this.client = client;
+            this.executor = executor;
+        }
+
+        @Override
+        public Future<ExecutionDecision> resolveAsync(final ANNOTATION annotation) {
+            final FutureTask<ExecutionDecision> task = new FutureTask<ExecutionDecision>(new Callable<ExecutionDecision>() {
+                @Override
+                public ExecutionDecision call() throws Exception {
+                    return client.resolve(annotation);
+                }
+            });
+
+            if (executor == null) {
+                task.run();
+            } else {
+                executor.execute(task);
+            }
+
+            return task;
+        }
+
+        @Override
+        public ExecutionDecision resolve(ANNOTATION annotation) {
+            return client.resolve(annotation);
+        }
+
+        @Override
+        public void close(String id) {
+            client.close(id);
+        }
+
+        @Override
+        public void setGovernorStrategy(T strategy) {
+            client.setGovernorStrategy(strategy);
+        }
+    }
+}
@@ -36,7 +36,7 @@ public class DetectorProcessor {
     public boolean process(Annotation annotation) {
         boolean detected = true;
         try {
-            final Detector detector = ReflectionUtils.getAnnotationProperty(annotation, "detector", Detector.class);
+            final Detector detector = ReflectionUtils.getNestedAnnotation(annotation, "detector", Detector.class);
             final DeciderStrategy strategy = detector.strategy().newInstance();
             final List<Detectable> detectables = new ArrayList<Detectable>();
             for (final Class<? extends Detectable> detectableClass : detector.value()) {
@@ -17,32 +17,103 @@
 package org.arquillian.extension.governor.utils;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Reads properties of annotations. The property methods of every annotation type are looked up once and cached, a read
+ * is a map lookup followed by a direct invocation of the property method.
+ *
+ * The cache holds its annotation types and their methods weakly, so it does not keep the class loaders of deployments
+ * and test classes alive. Property methods collected meanwhile are looked up again.
+ */
 public final class ReflectionUtils {
 
     private static final Logger logger = Logger.getLogger(ReflectionUtils.class.getName());
 
+    private static final Map<Class<? extends Annotation>, Reference<Map<String, Method>>> accessors =
+        new WeakHashMap<Class<? extends Annotation>, Reference<Map<String, Method>>>();
+
     private ReflectionUtils() {
     }
 
     public static String getAnnotationValue(Annotation annotation) {
-        return getAnnotationProperty(annotation, "value", String.class);
+        return getStringProperty(annotation, "value");
+    }
+
+    public static String getStringProperty(Annotation annotation, String name) {
+        return getAnnotationProperty(annotation, name, String.class);
     }
 
+    /**
+     * @return value of the boolean property, {@code defaultValue} when the annotation does not declare it
+     */
+    public static boolean getBooleanProperty(Annotation annotation, String name, boolean defaultValue) {
+        final Boolean value = getAnnotationProperty(annotation, name, Boolean.class);
+        return value == null ? defaultValue : value.booleanValue();
+    }
+
+    /**
+     * @return annotation nested in the property {@code name}, null when the annotation does not declare it
+     */
+    public static <A extends Annotation> A getNestedAnnotation(Annotation annotation, String name, Class<A> annotationType) {
+        return getAnnotationProperty(annotation, name, annotationType);
+    }
+
+    /**
+     * @return value of the property, null when the annotation does not declare it or when it is not of type
+     * {@code clazz}
+     */
     public static <T> T getAnnotationProperty(Annotation annotation, String name, Class<T> clazz) {
-        for (final Method method : annotation.annotationType().getDeclaredMethods()) {
-            if (name.equals(method.getName())) {
-                try {
-                    return (T) method.invoke(annotation);
-                } catch (Exception e) {
-                    logger.log(Level.SEVERE, String.format("Invocation of method \"%s\" on annotation %s failed",
-                            name, annotation.annotationType().getName()), e);
+        final Method accessor = getAccessors(annotation.annotationType()).get(name);
+
+        if (accessor == null) {
+            return null;
+        }
+
+        final Object value;
+        try {
+            value = accessor.invoke(annotation);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, String.format("Invocation of method \"%s\" on annotation %s failed",
+                    name, annotation.annotationType().getName()), e);
+            return null;
+        }
+
+        return clazz.isInstance(value) ? clazz.cast(value) : null;
+    }
+
+    private static Map<String, Method> getAccessors(Class<? extends Annotation> annotationType) {
+        synchronized (accessors) {
+            final Reference<Map<String, Method>> cached = accessors.get(annotationType);
+            Map<String, Method> typeAccessors = cached == null ? null : cached.get();
+
+            if (typeAccessors == null) {
+                final Map<String, Method> created = new HashMap<String, Method>();
+                for (final Method method : annotationType.getDeclaredMethods()) {
+                    if (method.getParameterTypes().length == 0) {
+                        try {
+                            method.setAccessible(true);
+                        } catch (SecurityException e) {
+                            // public annotations are still readable
+                        }
+                        created.put(method.getName(), method);
+                    }
                 }
+
+                // the methods refer to their annotation type, a strong value would never let the key go
+                typeAccessors = Collections.unmodifiableMap(created);
+                accessors.put(annotationType, new WeakReference<Map<String, Method>>(typeAccessors));
             }
+
+            return typeAccessors;
         }
-        return null;
     }
 }
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+import org.arquillian.extension.governor.api.detector.Detector;
+import org.arquillian.extension.governor.api.detector.DetectorProcessor;
+import org.arquillian.extension.governor.utils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads of the properties of governor annotations and processing of their detectors, done for every governed test
+ * method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnnotationBenchmark {
+
+    private Annotation issue;
+
+    private DetectorProcessor detectorProcessor;
+
+    @Setup
+    public void setUp() throws Exception {
+        issue = SyntheticTestClasses.getIssues(SyntheticTestClasses.withMethods(10)).get(0);
+        detectorProcessor = new DetectorProcessor();
+    }
+
+    @Benchmark
+    public String getAnnotationValue() {
+        return ReflectionUtils.getAnnotationValue(issue);
+    }
+
+    @Benchmark
+    public Detector getAnnotationProperty() {
+        return ReflectionUtils.getAnnotationProperty(issue, "detector", Detector.class);
+    }
+
+    @Benchmark
+    public boolean process() {
+        return detectorProcessor.process(issue);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Test;
+
+/**
+ * Test classes with any number of test methods, compiled when a benchmark first asks for them.
+ *
+ * Every test method is annotated by {@link Test} and {@link BenchmarkIssue}, two consecutive methods share the same
+ * issue like tests covering the same bug do. The benchmarks have to run on a JDK.
+ */
+public final class SyntheticTestClasses {
+
+    public static final String PACKAGE = "org.arquillian.extension.governor.benchmarks.synthetic";
+
+    private static final String CHARSET = "UTF-8";
+
+    private static final Map<Integer, Class<?>> classes = new HashMap<Integer, Class<?>>();
+
+    private SyntheticTestClasses() {
+    }
+
+    /**
+     * @param methods number of test methods
+     * @return test class with the given number of test methods, compiled once per JVM
+     */
+    public static synchronized Class<?> withMethods(int methods) throws IOException, ClassNotFoundException {
+        if (methods <= 0) {
+            throw new IllegalArgumentException("Number of test methods has to be a positive number.");
+        }
+
+        Class<?> testClass = classes.get(methods);
+
+        if (testClass == null) {
+            testClass = compile("SyntheticTest" + methods, methods);
+            classes.put(methods, testClass);
+        }
+
+        return testClass;
+    }
+
+    /**
+     * @return test methods of the class sorted by name, so every fork sees them in the same order
+     */
+    public static List<Method> getTestMethods(Class<?> testClass) {
+        final List<Method> testMethods = new ArrayList<Method>();
+
+        for (final Method method : testClass.getMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                testMethods.add(method);
+            }
+        }
+
+        Collections.sort(testMethods, new Comparator<Method>() {
+            @Override
+            public int compare(Method first, Method second) {
+                return first.getName().compareTo(second.getName());
+            }
+        });
+
+        return testMethods;
+    }
+
+    /**
+     * @return issue annotations of the test methods of the class, in the order of {@link #getTestMethods(Class)}
+     */
+    public static List<Annotation> getIssues(Class<?> testClass) {
+        final List<Annotation> issues = new ArrayList<Annotation>();
+
+        for (final Method method : getTestMethods(testClass)) {
+            issues.add(method.getAnnotation(BenchmarkIssue.class));
+        }
+
+        return issues;
+    }
+
+    private static Class<?> compile(String simpleName, int methods) throws IOException, ClassNotFoundException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        if (compiler == null) {
+            throw new IllegalStateException("Benchmarks have to run on a JDK to compile the synthetic test classes.");
+        }
+
+        final File directory = createDirectory();
+        final File source = new File(directory, simpleName + ".java");
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(source), CHARSET);
+
+        try {
+            writer.write("package " + PACKAGE + ";\n\n");
+            writer.write("public class " + simpleName + " {\n");
+            for (int i = 0; i < methods; i++) {
+                writer.write(String.format("    @%s @%s(\"SYN-%d\") public void test%05d() {}\n",
+                    Test.class.getName(), BenchmarkIssue.class.getName(), i / 2, i));
+            }
+            writer.write("}\n");
+        } finally {
+            writer.close();
+        }
+
+        final int result = compiler.run(null, null, null, "-nowarn", "-proc:none", "-encoding", CHARSET,
+            "-cp", System.getProperty("java.class.path"), "-d", directory.getPath(), source.getPath());
+
+        if (result != 0) {
+            throw new IllegalStateException("Unable to compile synthetic test class " + simpleName);
+        }
+
+        final ClassLoader classLoader = new URLClassLoader(new URL[] {directory.toURI().toURL()},
+            SyntheticTestClasses.class.getClassLoader());
+
+        return classLoader.loadClass(PACKAGE + "." + simpleName);
+    }
+
+    private static File createDirectory() throws IOException {
+        final File directory = File.createTempFile("governor-benchmarks", "");
+
+        if (!directory.delete() || !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory);
+        }
+        directory.deleteOnExit();
+
+        return directory;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.arquillian.extension.governor.jira.xray.api.validation.TestExecutionLookup;
+import org.arquillian.extension.governor.jira.xray.api.validation.ValidationRuleEngine;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+/**
+ * Validation of the Test Runs of a Test by the Xray validation rules, with the Test Execution already looked up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValidationRuleBenchmark {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Param({"testRunTodo", "testRunTodo and testExecutionInProgress",
+        "not testRunTodo or (testRunTodo and not testExecutionInProgress and testExecutionTodo)"})
+    public String rule;
+
+    private ValidationRuleEngine engine;
+
+    private TestExecutionLookup lookup;
+
+    private TestExecutionRun[] testRuns;
+
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        engine = ValidationRuleEngine.parse(rule);
+
+        final long now = System.currentTimeMillis();
+        final TestExecutionIssue testExecution = new TestExecutionIssue(null, "SYN-EXEC", 1L, null, now - DAY, now + DAY);
+
+        lookup = new TestExecutionLookup() {
+            @Override
+            public TestExecutionIssue getTestExecution(String keyTestExec) {
+                return testExecution;
+            }
+
+            @Override
+            public boolean isTestExecutionActive(String keyTestExec) {
+                return testExecution.isActiveAt(System.currentTimeMillis());
+            }
+        };
+
+        final Status[] statuses = Status.values();
+        testRuns = new TestExecutionRun[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            testRuns[i] = new TestExecutionRun((long) i, "SYN-" + i, "SYN-EXEC", statuses[i]);
+        }
+    }
+
+    @Benchmark
+    public ValidationRuleEngine parse() {
+        return ValidationRuleEngine.parse(rule);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        final TestExecutionRun testRun = testRuns[next];
+        next = (next + 1) % testRuns.length;
+
+        return engine.validate(testRun, lookup);
+    }
+}
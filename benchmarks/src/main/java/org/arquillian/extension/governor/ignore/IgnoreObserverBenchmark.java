@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.ignore;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.arquillian.extension.governor.benchmarks.SyntheticTestClasses;
+import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
+import org.jboss.arquillian.config.descriptor.api.ExtensionDef;
+import org.jboss.arquillian.core.api.Instance;
+import org.jboss.shrinkwrap.descriptor.api.Descriptors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matching of a test method against the expression and the methods ignored by {@code governor-ignore}, done before
+ * every test method runs. Every other test method of the synthetic class is listed as ignored.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IgnoreObserverBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int methods;
+
+    private IgnoreObserver observer;
+
+    private String[] fqns;
+
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Class<?> testClass = SyntheticTestClasses.withMethods(methods);
+        final List<Method> testMethods = SyntheticTestClasses.getTestMethods(testClass);
+
+        final ArquillianDescriptor descriptor = Descriptors.create(ArquillianDescriptor.class);
+        final ExtensionDef extension = descriptor.extension(IgnoreObserver.EXTENSION_NAME)
+            .property(IgnoreObserver.EXTENSION_PROPERTY_EXP, ".*\\.Slow[^#]*#.*");
+
+        final StringBuilder ignored = new StringBuilder();
+        fqns = new String[testMethods.size()];
+
+        for (int i = 0; i < fqns.length; i++) {
+            fqns[i] = testClass.getName() + "#" + testMethods.get(i).getName();
+            if (i % 2 == 0) {
+                ignored.append(ignored.length() == 0 ? "" : ",").append(fqns[i]);
+            }
+        }
+        extension.property(IgnoreObserver.EXTENSION_PROPERTY_METHODS, ignored.toString());
+
+        observer = new IgnoreObserver();
+        inject(observer, "desciptorInst", new Instance<ArquillianDescriptor>() {
+            @Override
+            public ArquillianDescriptor get() {
+                return descriptor;
+            }
+        });
+    }
+
+    @Benchmark
+    public boolean isIgnored() {
+        final String fqn = fqns[next];
+        next = (next + 1) % fqns.length;
+
+        return observer.isIgnored(fqn);
+    }
+
+    private static void inject(Object target, String name, Object value) throws Exception {
+        final Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
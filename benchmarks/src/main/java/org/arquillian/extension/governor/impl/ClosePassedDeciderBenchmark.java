@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.arquillian.extension.governor.api.ClosePassedDecider;
+import org.arquillian.extension.governor.benchmarks.SyntheticTestClasses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Closable flags of every governed test method of a test class merged into a new decider, as the deciders do after
+ * each test method passes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClosePassedDeciderBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int methods;
+
+    private Annotation[] issues;
+
+    @Setup
+    public void setUp() throws Exception {
+        final List<Annotation> issueList = SyntheticTestClasses.getIssues(SyntheticTestClasses.withMethods(methods));
+        issues = issueList.toArray(new Annotation[issueList.size()]);
+    }
+
+    @Benchmark
+    public ClosePassedDecider setClosable() {
+        final ClosePassedDecider decider = new ClosePassedDeciderImpl();
+
+        for (final Annotation issue : issues) {
+            decider.setClosable(issue, true);
+        }
+
+        return decider;
+    }
+}
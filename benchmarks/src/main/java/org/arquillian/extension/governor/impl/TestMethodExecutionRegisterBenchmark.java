@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.arquillian.extension.governor.benchmarks.BenchmarkIssue;
+import org.arquillian.extension.governor.benchmarks.SyntheticTestClasses;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookup of the execution decision of a test method, done before every test method runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TestMethodExecutionRegisterBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int methods;
+
+    private Method[] testMethods;
+
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Class<?> testClass = SyntheticTestClasses.withMethods(methods);
+        final List<Method> methodList = SyntheticTestClasses.getTestMethods(testClass);
+
+        TestMethodExecutionRegister.setConfigration(new GovernorConfiguration());
+        TestMethodExecutionRegister.clear();
+
+        for (final Method method : methodList) {
+            TestMethodExecutionRegister.put(testClass, method, BenchmarkIssue.class, ExecutionDecision.execute());
+        }
+
+        testMethods = methodList.toArray(new Method[methodList.size()]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TestMethodExecutionRegister.clear();
+    }
+
+    @Benchmark
+    public ExecutionDecision resolve() {
+        final Method testMethod = testMethods[next];
+        next = (next + 1) % testMethods.length;
+
+        return TestMethodExecutionRegister.resolve(testMethod, BenchmarkIssue.class);
+    }
+}
@@ -17,6 +17,7 @@
 package org.arquillian.extension.governor.github.api;
 
 import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.api.IssueKey;
 import org.arquillian.extension.governor.api.detector.Detectable;
 import org.arquillian.extension.governor.api.detector.Detector;
 
@@ -32,6 +33,7 @@ import java.lang.annotation.Target;
  * @author <a href="mailto:asotobu@gmail.com">Alex Soto</a>
  */
 @Governor
+@IssueKey("[0-9]+")
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Documented
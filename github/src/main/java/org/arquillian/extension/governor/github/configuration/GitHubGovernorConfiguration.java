@@ -41,6 +41,8 @@ public class GitHubGovernorConfiguration extends Configuration {
 
     private boolean closePassed = resolveClosePassed();
 
+    private String cacheFile = resolveCacheFile();
+
     public String getUsername() {
         return getProperty("username", username);
     }
@@ -105,6 +107,17 @@ public class GitHubGovernorConfiguration extends Configuration {
         setProperty("closingMessage", closingMessage);
     }
 
+    /**
+     * File the issue states are cached in between runs, no cache is used when empty.
+     */
+    public String getCacheFile() {
+        return getProperty("cacheFile", cacheFile);
+    }
+
+    public void setCacheFile(String cacheFile) {
+        setProperty("cacheFile", cacheFile);
+    }
+
     @Override
     public void validate() throws GovernorConfigurationException {
         if (EMPTY_STRING.equals(getRepositoryUser()) || EMPTY_STRING.equals(getRepository())) {
@@ -125,6 +138,7 @@ public class GitHubGovernorConfiguration extends Configuration {
         sb.append(String.format("%-40s %s\n", "force", getForce()));
         sb.append(String.format("%-40s %s\n", "closePassed", getClosePassed()));
         sb.append(String.format("%-40s %s\n", "closingMessage", getClosingMessage()));
+        sb.append(String.format("%-40s %s\n", "cacheFile", getCacheFile()));
 
         return sb.toString();
     }
@@ -189,5 +203,13 @@ public class GitHubGovernorConfiguration extends Configuration {
         return Boolean.valueOf(System.getProperty("github.governor.closepassed"));
     }
 
-}
+    private String resolveCacheFile() {
+        final String cacheFile = System.getProperty("github.governor.cachefile");
 
+        if (cacheFile != null && cacheFile.length() != 0) {
+            return cacheFile;
+        }
+
+        return EMPTY_STRING;
+    }
+}
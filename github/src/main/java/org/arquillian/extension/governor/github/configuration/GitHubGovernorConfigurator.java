@@ -16,10 +16,11 @@
  */
 package org.arquillian.extension.governor.github.configuration;
 
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
 import org.arquillian.extension.governor.github.impl.GitHubGovernorClient;
-import org.arquillian.extension.governor.github.impl.GitHubGovernorClientFactory;
+import org.arquillian.extension.governor.github.impl.LazyGitHubGovernorClient;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
 import org.arquillian.extension.governor.spi.event.GovernorExtensionConfigured;
-import org.eclipse.egit.github.core.client.GitHubClient;
 import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
 import org.jboss.arquillian.config.descriptor.api.ExtensionDef;
 import org.jboss.arquillian.core.api.Instance;
@@ -27,6 +28,7 @@ import org.jboss.arquillian.core.api.InstanceProducer;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.core.api.event.ManagerStopping;
 import org.jboss.arquillian.core.spi.ServiceLoader;
 
 import java.util.logging.Level;
@@ -44,18 +46,18 @@ public class GitHubGovernorConfigurator {
     private Instance<ServiceLoader> serviceLoader;
 
     @Inject
-    @ApplicationScoped
-    private InstanceProducer<GitHubGovernorConfiguration> gitHubGovernorConfiguration;
+    private Instance<GovernorOutbox> governorOutbox;
 
     @Inject
     @ApplicationScoped
-    private InstanceProducer<GitHubGovernorClient> gitHubGovernorClient;
+    private InstanceProducer<GitHubGovernorConfiguration> gitHubGovernorConfiguration;
 
     @Inject
     @ApplicationScoped
-    private InstanceProducer<GitHubClient> gitHubClient;
+    private InstanceProducer<LazyGitHubGovernorClient> gitHubGovernorClient;
 
-    public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor) throws Exception {
+    public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor,
+                                              GovernorConfiguration governorConfiguration) throws Exception {
         final GitHubGovernorConfiguration gitHubGovernorConfiguration = new GitHubGovernorConfiguration();
 
         for (final ExtensionDef extension : arquillianDescriptor.getExtensions()) {
@@ -68,14 +70,24 @@ public class GitHubGovernorConfigurator {
 
         this.gitHubGovernorConfiguration.set(gitHubGovernorConfiguration);
 
-        final GitHubGovernorClient gitHubGovernorClient = new GitHubGovernorClientFactory().build(this.gitHubGovernorConfiguration.get());
+        final LazyGitHubGovernorClient gitHubGovernorClient = new LazyGitHubGovernorClient(gitHubGovernorConfiguration, governorConfiguration, governorOutbox.get());
+
+        // issues left to close by a previous run are closed once the client registers with the outbox
+        if (governorOutbox.get() != null && governorOutbox.get().hasPending(GitHubGovernorClient.OUTBOX_PROVIDER)) {
+            gitHubGovernorClient.get();
+        }
 
         this.gitHubGovernorClient.set(gitHubGovernorClient);
-        this.gitHubClient.set(gitHubGovernorClient.getGitHubClient());
 
         if (logger.isLoggable(Level.INFO)) {
             System.out.println("Configuration of Arquillian GitHub extension: ");
             System.out.println(gitHubGovernorConfiguration.toString());
         }
     }
+
+    public void onManagerStopping(@Observes ManagerStopping event) {
+        if (gitHubGovernorClient.get() != null && gitHubGovernorClient.get().isCreated()) {
+            gitHubGovernorClient.get().get().release();
+        }
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.arquillian.extension.governor.github.enricher;
 
+import org.arquillian.extension.governor.github.impl.LazyGitHubGovernorClient;
 import org.eclipse.egit.github.core.client.GitHubClient;
 import org.jboss.arquillian.core.api.Instance;
 import org.jboss.arquillian.core.api.annotation.Inject;
@@ -30,7 +31,7 @@ import java.lang.annotation.Annotation;
 public class GitHubClientProvider implements ResourceProvider {
 
     @Inject
-    private Instance<GitHubClient> gitHubClient;
+    private Instance<LazyGitHubGovernorClient> gitHubGovernorClient;
 
     @Override
     public boolean canProvide(Class<?> type) {
@@ -39,13 +40,13 @@ public class GitHubClientProvider implements ResourceProvider {
 
     @Override
     public Object lookup(ArquillianResource resource, Annotation... qualifiers) {
-        final GitHubClient gitHubClient = this.gitHubClient.get();
+        final LazyGitHubGovernorClient gitHubGovernorClient = this.gitHubGovernorClient.get();
 
-        if (gitHubClient == null) {
+        if (gitHubGovernorClient == null) {
             throw new IllegalStateException("GitHub Client was not found.");
         }
 
-        return gitHubClient;
+        return gitHubGovernorClient.get().getGitHubClient();
     }
 
 }
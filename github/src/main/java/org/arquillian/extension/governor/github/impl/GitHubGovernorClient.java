@@ -17,28 +17,55 @@
 package org.arquillian.extension.governor.github.impl;
 
 import org.arquillian.extension.governor.api.GovernorClient;
+import org.arquillian.extension.governor.cache.IssueStateCache;
+import org.arquillian.extension.governor.circuit.CircuitBreaker;
+import org.arquillian.extension.governor.circuit.CircuitBreakerFallback;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
 import org.arquillian.extension.governor.github.api.GitHub;
 import org.arquillian.extension.governor.github.configuration.GitHubGovernorConfiguration;
+import org.arquillian.extension.governor.metrics.CallOutcome;
+import org.arquillian.extension.governor.metrics.GovernorMetrics;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
+import org.arquillian.extension.governor.outbox.OutboxHandler;
+import org.arquillian.extension.governor.outbox.OutboxOperation;
+import org.arquillian.extension.governor.registry.GovernorClientRegistry;
 import org.eclipse.egit.github.core.Comment;
 import org.eclipse.egit.github.core.Issue;
 import org.eclipse.egit.github.core.client.GitHubClient;
+import org.eclipse.egit.github.core.client.RequestException;
 import org.eclipse.egit.github.core.service.IssueService;
 import org.jboss.arquillian.core.spi.Validate;
 import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
 
 import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
  * @author <a href="mailto:asotobu@gmail.com">Alex Soto</a>
  */
-public class GitHubGovernorClient implements GovernorClient<GitHub, GitHubGovernorStrategy> {
+public class GitHubGovernorClient implements GovernorClient<GitHub, GitHubGovernorStrategy>, OutboxHandler {
     private static final Logger logger = Logger.getLogger(GitHubGovernorClient.class.getName());
 
+    private static final String CACHE_PROVIDER = "github";
+
+    public static final String OUTBOX_PROVIDER = "github";
+
+    private static final String METRICS_CACHE = "issueState";
+
     private GitHubClient gitHubClient;
     private GitHubGovernorConfiguration gitHubGovernorConfiguration;
     private IssueService issueService;
     private GitHubGovernorStrategy gitHubGovernorStrategy;
+    private IssueStateCache issueStateCache;
+    private GovernorOutbox governorOutbox;
+    private CircuitBreaker circuitBreaker;
 
     public GitHubGovernorClient(GitHubClient gitHubClient, GitHubGovernorConfiguration gitHubGovernorConfiguration) {
         this.initializeGitHubClient(gitHubClient);
@@ -56,36 +83,106 @@ public class GitHubGovernorClient implements GovernorClient<GitHub, GitHubGovern
             return ExecutionDecision.execute();
         }
 
-        final Issue gitHubIssue = getIssue(gitHubIssueKey);
+        String gitHubIssueState = issueStateCache == null ? null : issueStateCache.get(CACHE_PROVIDER, getCacheServer(), gitHubIssueKey);
 
-        // when there is some error while we are getting the issue, we execute that test
-        if (gitHubIssue == null) {
-            logger.warning(String.format("GitHub Issue %s couldn't be retrieved from configured repository.", gitHubIssueKey));
-            return ExecutionDecision.execute();
+        if (issueStateCache != null) {
+            GovernorMetrics.getInstance().recordCacheLookup(CACHE_PROVIDER, METRICS_CACHE, gitHubIssueState != null);
         }
 
-        return gitHubGovernorStrategy.annotation(annotation).issue(gitHubIssue).resolve();
+        if (gitHubIssueState == null) {
+            if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+                GovernorMetrics.getInstance().recordFallback(CACHE_PROVIDER, GovernorMetrics.RESOLVE);
+                return getFallbackDecision(annotation, gitHubIssueKey);
+            }
+
+            final Issue gitHubIssue = getIssue(gitHubIssueKey);
+
+            // when there is some error while we are getting the issue, we execute that test
+            if (gitHubIssue == null) {
+                logger.warning(String.format("GitHub Issue %s couldn't be retrieved from configured repository.", gitHubIssueKey));
+                return ExecutionDecision.execute();
+            }
+
+            gitHubIssueState = gitHubIssue.getState();
+
+            if (issueStateCache != null && gitHubIssueState != null) {
+                issueStateCache.put(CACHE_PROVIDER, getCacheServer(), gitHubIssueKey, gitHubIssueState);
+            }
+        }
+
+        if (circuitBreaker != null) {
+            circuitBreaker.remember(gitHubIssueKey, gitHubIssueState);
+        }
+
+        return gitHubGovernorStrategy.resolve(annotation, gitHubIssueKey, gitHubIssueState);
     }
 
+    /**
+     * Closes the issue, in the background when an outbox is set.
+     */
     @Override
     public void close(String issueId) {
         Validate.notNull(gitHubClient, "GitHub REST client must be specified.");
 
+        if (governorOutbox != null) {
+            governorOutbox.enqueue(new OutboxOperation(OUTBOX_PROVIDER, getCacheServer(), OutboxOperation.CLOSE, issueId, null));
+            return;
+        }
+
+        final long start = System.nanoTime();
+
+        try {
+            closeIssue(issueId);
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, OutboxOperation.CLOSE, CallOutcome.SUCCESS, start);
+        } catch (Exception e) {
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, OutboxOperation.CLOSE, CallOutcome.FAILURE, start);
+            logger.warning(String.format("An exception has occured while closing the issue %s. Exception: %s", issueId, e.getMessage()));
+        }
+    }
+
+    @Override
+    public void execute(OutboxOperation operation) throws Exception {
+        if (!OutboxOperation.CLOSE.equals(operation.getOperation())) {
+            throw new IllegalArgumentException("Unsupported GitHub operation " + operation);
+        }
+
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            throw new IllegalStateException("GitHub repository " + getCacheServer() + " is not reachable.");
+        }
+
+        try {
+            closeIssue(operation.getIssueKey());
+            if (circuitBreaker != null) {
+                circuitBreaker.success();
+            }
+        } catch (IOException e) {
+            recordFailure(e);
+            throw e;
+        }
+    }
+
+    private void closeIssue(String issueId) throws IOException {
+        final Issue issue = this.issueService.getIssue(this.gitHubGovernorConfiguration.getRepositoryUser(), this.gitHubGovernorConfiguration.getRepository(), issueId);
+
+        if (IssueService.STATE_CLOSED.equals(issue.getState())) {
+            // closed by an earlier attempt
+            return;
+        }
+
         Comment comment = null;
+        boolean closed = false;
 
         try {
-            final Issue issue = getIssue(issueId);
             issue.setState(IssueService.STATE_CLOSED);
             comment =
                     this.issueService.createComment(this.gitHubGovernorConfiguration.getRepositoryUser(), this.gitHubGovernorConfiguration.getRepository(), issueId,
                             getClosingMessage());
             this.issueService.editIssue(this.gitHubGovernorConfiguration.getRepositoryUser(), this.gitHubGovernorConfiguration.getRepository(), issue);
-        } catch (Exception e) {
-            if (comment != null) {
+            closed = true;
+        } finally {
+            if (!closed && comment != null) {
                 deleteComment(comment);
             }
-
-            logger.warning(String.format("An exception has occured while closing the issue %s. Exception: %s", issueId, e.getMessage()));
         }
     }
 
@@ -106,6 +203,31 @@ public class GitHubGovernorClient implements GovernorClient<GitHub, GitHubGovern
         return gitHubClient;
     }
 
+    /**
+     * Makes the issues be closed by the outbox instead of the calling thread.
+     */
+    public void setGovernorOutbox(GovernorOutbox governorOutbox) {
+        Validate.notNull(governorOutbox, "Governor outbox must be specified.");
+        this.governorOutbox = governorOutbox;
+
+        governorOutbox.register(OUTBOX_PROVIDER, getCacheServer(), this);
+    }
+
+    /**
+     * Gives the shared GitHub client back to the client registry, it stays open for later runs.
+     */
+    public void release() {
+        GovernorClientRegistry.getInstance().release(gitHubClient);
+    }
+
+    /**
+     * Stops sending requests to GitHub while it is not reachable, the fallback decision of the configuration is taken
+     * instead.
+     */
+    public void configureCircuitBreaker(GovernorConfiguration governorConfiguration) {
+        this.circuitBreaker = CircuitBreaker.forServer(CACHE_PROVIDER, getCacheServer(), governorConfiguration);
+    }
+
     private void setConfiguration(GitHubGovernorConfiguration gitHubGovernorConfiguration) {
         Validate.notNull(gitHubGovernorConfiguration, "GitHub Governor configuration must be specified.");
         this.gitHubGovernorConfiguration = gitHubGovernorConfiguration;
@@ -118,15 +240,94 @@ public class GitHubGovernorClient implements GovernorClient<GitHub, GitHubGovern
         this.issueService = new IssueService(this.gitHubClient);
     }
 
+    /**
+     * Uses the issue state cache and brings the cached states changed since its last synchronization up to date. When
+     * they can not be refreshed, they are dropped.
+     */
+    void initializeIssueStateCache(final IssueStateCache issueStateCache) {
+        Validate.notNull(issueStateCache, "Issue state cache must be specified.");
+        this.issueStateCache = issueStateCache;
+
+        final String server = getCacheServer();
+        final long now = System.currentTimeMillis();
+        final long lastSync = issueStateCache.getLastSync(CACHE_PROVIDER, server);
+
+        if (lastSync == 0) {
+            // states never synchronized can not be trusted
+            issueStateCache.invalidate(CACHE_PROVIDER, server);
+            issueStateCache.synced(CACHE_PROVIDER, server, now);
+            return;
+        }
+
+        try {
+            final SimpleDateFormat iso8601 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+            iso8601.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+            // the extra minute covers clock differences with the server
+            final Map<String, String> filter = new HashMap<String, String>();
+            filter.put(IssueService.FILTER_STATE, "all");
+            filter.put(IssueService.FIELD_SINCE, iso8601.format(new Date(lastSync - TimeUnit.MINUTES.toMillis(1))));
+
+            final Set<String> keys = issueStateCache.getIssueKeys(CACHE_PROVIDER, server);
+            for (final Issue issue : this.issueService.getIssues(this.gitHubGovernorConfiguration.getRepositoryUser(), this.gitHubGovernorConfiguration.getRepository(), filter)) {
+                final String key = String.valueOf(issue.getNumber());
+                if (keys.contains(key)) {
+                    issueStateCache.put(CACHE_PROVIDER, server, key, issue.getState());
+                }
+            }
+
+            issueStateCache.synced(CACHE_PROVIDER, server, now);
+        } catch (Exception e) {
+            logger.warning(String.format("Cached GitHub issue states couldn't be refreshed. Exception: %s", e.getMessage()));
+            issueStateCache.invalidate(CACHE_PROVIDER, server);
+        }
+    }
+
+    private String getCacheServer() {
+        return this.gitHubGovernorConfiguration.getRepositoryUser() + "/" + this.gitHubGovernorConfiguration.getRepository();
+    }
+
     private Issue getIssue(String issueNumber) {
+        final long start = System.nanoTime();
+
         try {
-            return this.issueService.getIssue(this.gitHubGovernorConfiguration.getRepositoryUser(), this.gitHubGovernorConfiguration.getRepository(), issueNumber);
+            final Issue issue = this.issueService.getIssue(this.gitHubGovernorConfiguration.getRepositoryUser(), this.gitHubGovernorConfiguration.getRepository(), issueNumber);
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, GovernorMetrics.RESOLVE, CallOutcome.SUCCESS, start);
+            if (circuitBreaker != null) {
+                circuitBreaker.success();
+            }
+            return issue;
         } catch (Exception e) {
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, GovernorMetrics.RESOLVE, CallOutcome.FAILURE, start);
+            recordFailure(e);
             logger.warning(String.format("An exception has occured while getting the issue %s. Exception: %s", issueNumber, e.getMessage()));
             return null;
         }
     }
 
+    private ExecutionDecision getFallbackDecision(GitHub annotation, String gitHubIssueKey) {
+        final String lastState = circuitBreaker.getLastState(gitHubIssueKey);
+
+        if (circuitBreaker.getFallback() == CircuitBreakerFallback.CACHED && lastState != null) {
+            return gitHubGovernorStrategy.resolve(annotation, gitHubIssueKey, lastState);
+        }
+
+        return circuitBreaker.getFallbackDecision();
+    }
+
+    private void recordFailure(Exception e) {
+        if (circuitBreaker == null) {
+            return;
+        }
+
+        // an error response, like a missing issue, still comes from a reachable server
+        if (e instanceof RequestException) {
+            circuitBreaker.success();
+        } else {
+            circuitBreaker.failure(e);
+        }
+    }
+
     private String getClosingMessage() {
         Validate.notNull(gitHubGovernorConfiguration, "GitHub Governor configuration must be set.");
 
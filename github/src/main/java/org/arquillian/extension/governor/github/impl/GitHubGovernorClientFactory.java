@@ -17,35 +17,77 @@
 package org.arquillian.extension.governor.github.impl;
 
 import org.arquillian.extension.governor.api.GovernorClientFactory;
+import org.arquillian.extension.governor.cache.IssueStateCache;
 import org.arquillian.extension.governor.github.configuration.GitHubGovernorConfiguration;
+import org.arquillian.extension.governor.registry.GovernorClientRegistry;
+import org.arquillian.extension.governor.transport.GovernorTransport;
 import org.eclipse.egit.github.core.client.GitHubClient;
 import org.jboss.arquillian.core.spi.Validate;
 
+import java.io.File;
+
 /**
  * @author <a href="mailto:asotobu@gmail.com">Alex Soto</a>
  */
 public class GitHubGovernorClientFactory implements GovernorClientFactory<GitHubGovernorConfiguration, GitHubGovernorClient> {
 
+    private static final String CLIENT_KIND = "github";
+
+    private static final String GITHUB_SERVER = "api.github.com";
+
     private GitHubGovernorConfiguration gitHubGovernorConfiguration;
 
+    private GovernorTransport governorTransport = GovernorTransport.live();
+
+    /**
+     * @param governorTransport transport the built clients reach GitHub through, live when not set
+     */
+    public void setGovernorTransport(GovernorTransport governorTransport) {
+        Validate.notNull(governorTransport, "Governor transport has to be set.");
+        this.governorTransport = governorTransport;
+    }
+
     @Override
     public GitHubGovernorClient build(
             GitHubGovernorConfiguration governorConfiguration) throws Exception {
         Validate.notNull(governorConfiguration, "GitHub governor configuration has to be set.");
         this.gitHubGovernorConfiguration = governorConfiguration;
 
-        final GitHubClient gitHubClient = new GitHubClient();
-        if (this.gitHubGovernorConfiguration.getUsername() != null && this.gitHubGovernorConfiguration.getUsername().length() > 0 && this.gitHubGovernorConfiguration.getPassword() != null && this.gitHubGovernorConfiguration.getPassword().length() > 0) {
-            gitHubClient.setCredentials(this.gitHubGovernorConfiguration.getUsername(), this.gitHubGovernorConfiguration.getPassword());
-        }
+        final String username = this.gitHubGovernorConfiguration.getUsername();
+        final String password = this.gitHubGovernorConfiguration.getPassword();
+        final String token = this.gitHubGovernorConfiguration.getToken();
 
-        if (this.gitHubGovernorConfiguration.getToken() != null && this.gitHubGovernorConfiguration.getToken().length() > 0) {
-            gitHubClient.setOAuth2Token(gitHubGovernorConfiguration.getToken());
-        }
+        final GovernorTransport transport = this.governorTransport;
+
+        final GitHubClient gitHubClient = GovernorClientRegistry.getInstance().acquire(transport.kind(CLIENT_KIND), GITHUB_SERVER, username, password + ":" + token,
+            new GovernorClientRegistry.Connector<GitHubClient>() {
+                @Override
+                public GitHubClient connect() throws Exception {
+                    final GitHubClient gitHubClient = transport.isLive() ? new GitHubClient() : new TransportGitHubClient(transport);
+                    if (username != null && username.length() > 0 && password != null && password.length() > 0) {
+                        gitHubClient.setCredentials(username, password);
+                    }
+
+                    if (token != null && token.length() > 0) {
+                        gitHubClient.setOAuth2Token(token);
+                    }
+
+                    return gitHubClient;
+                }
+
+                @Override
+                public void disconnect(GitHubClient client) {
+                    // connections are not kept by the client
+                }
+            });
 
         final GitHubGovernorClient gitHubGovernorClient = new GitHubGovernorClient(gitHubClient, gitHubGovernorConfiguration);
         gitHubGovernorClient.setGovernorStrategy(new GitHubGovernorStrategy(this.gitHubGovernorConfiguration));
 
+        if (this.gitHubGovernorConfiguration.getCacheFile().length() != 0) {
+            gitHubGovernorClient.initializeIssueStateCache(IssueStateCache.forFile(new File(this.gitHubGovernorConfiguration.getCacheFile())));
+        }
+
         return gitHubGovernorClient;
     }
 
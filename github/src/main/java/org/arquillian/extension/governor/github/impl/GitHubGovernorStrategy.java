@@ -34,7 +34,8 @@ public class GitHubGovernorStrategy implements GovernorStrategy {
 
     private GitHubGovernorConfiguration gitHubGovernorConfiguration;
     private GitHub annotation;
-    private Issue gitHubIssue;
+    private String issueNumber;
+    private String issueState;
 
     public GitHubGovernorStrategy(GitHubGovernorConfiguration gitHubGovernorConfiguration) {
         Validate.notNull(gitHubGovernorConfiguration, "GitHub Governor configuration has to be set.");
@@ -47,13 +48,30 @@ public class GitHubGovernorStrategy implements GovernorStrategy {
     }
 
     public GitHubGovernorStrategy issue(Issue gitHubIssue) {
-        this.gitHubIssue = gitHubIssue;
+        Validate.notNull(gitHubIssue, "GitHub issue must be specified.");
+        return issue(String.valueOf(gitHubIssue.getNumber()), gitHubIssue.getState());
+    }
+
+    /**
+     * Sets the issue the decision is made for by its number and state, for example taken from the issue state cache.
+     */
+    public GitHubGovernorStrategy issue(String issueNumber, String issueState) {
+        this.issueNumber = issueNumber;
+        this.issueState = issueState;
         return this;
     }
 
     @Override
     public ExecutionDecision resolve() {
-        Validate.notNull(gitHubIssue, "GitHub issue must be specified.");
+        return resolve(annotation, issueNumber, issueState);
+    }
+
+    /**
+     * Resolves the decision for the given annotation and issue state only, the fields set by
+     * {@link #annotation(GitHub)} and {@link #issue(String, String)} are left untouched.
+     */
+    public ExecutionDecision resolve(GitHub annotation, String issueNumber, String issueState) {
+        Validate.notNull(issueNumber, "GitHub issue must be specified.");
         Validate.notNull(annotation, "Annotation must be specified.");
 
         // Execute test if detector failed because GitHub issue is not related to specified environment.
@@ -61,7 +79,7 @@ public class GitHubGovernorStrategy implements GovernorStrategy {
             return ExecutionDecision.execute();
         }
 
-        final String gitHubStatus = gitHubIssue.getState();
+        final String gitHubStatus = issueState;
 
         if (gitHubStatus == null || gitHubStatus.length() == 0) {
             return ExecutionDecision.execute();
@@ -79,7 +97,7 @@ public class GitHubGovernorStrategy implements GovernorStrategy {
             return ExecutionDecision.execute();
         }
 
-        return ExecutionDecision.dontExecute(String.format(SKIPPING_EXECUTION_REASON_STRING, gitHubIssue.getNumber(), gitHubStatus));
+        return ExecutionDecision.dontExecute(String.format(SKIPPING_EXECUTION_REASON_STRING, issueNumber, gitHubStatus));
     }
 
 }
@@ -17,9 +17,11 @@
 package org.arquillian.extension.governor.github.impl;
 
 import org.arquillian.extension.governor.api.ClosePassedDecider;
+import org.arquillian.extension.governor.api.GovernorClients;
 import org.arquillian.extension.governor.api.GovernorRegistry;
 import org.arquillian.extension.governor.github.api.GitHub;
 import org.arquillian.extension.governor.github.configuration.GitHubGovernorConfiguration;
+import org.arquillian.extension.governor.impl.LifecycleCountRegister;
 import org.arquillian.extension.governor.impl.TestMethodExecutionRegister;
 import org.arquillian.extension.governor.spi.GovernorProvider;
 import org.arquillian.extension.governor.spi.event.ExecutionDecisionEvent;
@@ -38,7 +40,6 @@ import org.jboss.arquillian.test.spi.execution.TestExecutionDecider;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -46,7 +47,7 @@ import java.util.Map;
  * @author <a href="mailto:asotobu@gmail.com">Alex Soto</a>
  */
 public class GitHubTestExecutionDecider implements TestExecutionDecider, GovernorProvider {
-    private static final Map<Method, Integer> lifecycleCountRegister = new HashMap<Method, Integer>();
+    private static final LifecycleCountRegister lifecycleCountRegister = new LifecycleCountRegister();
 
     @Inject
     @ClassScoped
@@ -71,7 +72,7 @@ public class GitHubTestExecutionDecider implements TestExecutionDecider, Governo
         return GitHub.class;
     }
 
-    public void on(@Observes ExecutionDecisionEvent event, GitHubGovernorClient gitHubGovernorClient) {
+    public void on(@Observes ExecutionDecisionEvent event, LazyGitHubGovernorClient gitHubGovernorClient) {
         final ExecutionDecision executionDecision = this.executionDecision.get();
 
         if (executionDecision == null || executionDecision.getDecision() == Decision.DONT_EXECUTE) {
@@ -81,7 +82,8 @@ public class GitHubTestExecutionDecider implements TestExecutionDecider, Governo
         if (event.getAnnotation().annotationType() == provides()) {
             final GitHub gitHubIssue = (GitHub) event.getAnnotation();
 
-            this.executionDecision.set(gitHubGovernorClient.resolve(gitHubIssue));
+            // resolved in the background, the governor waits for all the annotations of the class at once
+            event.setDecision(GovernorClients.async(gitHubGovernorClient.get(), event.getExecutor()).resolveAsync(gitHubIssue));
         }
     }
 
@@ -90,46 +92,39 @@ public class GitHubTestExecutionDecider implements TestExecutionDecider, Governo
                    GovernorRegistry governorRegistry,
                    GitHubGovernorConfiguration gitHubGovernorConfiguration) {
 
-        int count = 0;
-        try {
-            final Integer c = lifecycleCountRegister.get(event.getTestMethod());
-            count = (c != null ? c.intValue() : 0);
-            if (count == 0) { //skip first event - see https://github.com/arquillian/arquillian-governor/pull/16#issuecomment-166590210
-                return;
-            }
+        if (lifecycleCountRegister.increment(event.getTestMethod()) == 0) { //skip first event - see https://github.com/arquillian/arquillian-governor/pull/16#issuecomment-166590210
+            return;
+        }
 
-            final ExecutionDecision decision = TestMethodExecutionRegister.resolve(event.getTestMethod(), provides());
+        final ExecutionDecision decision = TestMethodExecutionRegister.resolve(event.getTestMethod(), provides());
 
-            // if we passed some test method annotated with GitHub, we may eventually close it
+        // if we passed some test method annotated with GitHub, we may eventually close it
 
-            if (gitHubGovernorConfiguration.getClosePassed()) {
-                // we decided we run this test method even it has annotation on it
-                if (decision.getDecision() == Decision.EXECUTE
-                        && (GitHubGovernorStrategy.FORCING_EXECUTION_REASON_STRING).equals(decision.getReason())) {
+        if (gitHubGovernorConfiguration.getClosePassed()) {
+            // we decided we run this test method even it has annotation on it
+            if (decision.getDecision() == Decision.EXECUTE
+                    && (GitHubGovernorStrategy.FORCING_EXECUTION_REASON_STRING).equals(decision.getReason())) {
 
-                    for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
-                        if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
-                            for (final Annotation annotation : entry.getValue()) {
-                                if (annotation.annotationType() == provides()) {
-                                    closePassedDecider.get().setClosable(annotation, testResult.getStatus() == Status.PASSED);
-                                    return;
-                                }
+                for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
+                    if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
+                        for (final Annotation annotation : entry.getValue()) {
+                            if (annotation.annotationType() == provides()) {
+                                closePassedDecider.get().setClosable(annotation, testResult.getStatus() == Status.PASSED);
+                                return;
                             }
                         }
                     }
                 }
             }
-        } finally {
-            lifecycleCountRegister.put(event.getTestMethod(), ++count);
         }
     }
 
-    public void on(@Observes AfterSuite event, GitHubGovernorClient githubGovernorClient) {
+    public void on(@Observes AfterSuite event, LazyGitHubGovernorClient githubGovernorClient) {
         for (final Map.Entry<Annotation, Boolean> entry : closePassedDecider.get().get().entrySet()) {
             final Annotation annotation = entry.getKey();
             if (annotation.annotationType() == provides() && entry.getValue()) {
                 final String id = ((GitHub) annotation).value();
-                githubGovernorClient.close(id);
+                githubGovernorClient.get().close(id);
             }
         }
     }
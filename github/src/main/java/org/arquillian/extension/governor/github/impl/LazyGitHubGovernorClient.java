@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.github.impl;
+
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.arquillian.extension.governor.github.configuration.GitHubGovernorConfiguration;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
+import org.arquillian.extension.governor.registry.LazyGovernorClient;
+import org.arquillian.extension.governor.transport.GovernorTransport;
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * GitHub governor client built by {@link GitHubGovernorClientFactory} when a decider needs it first.
+ */
+public class LazyGitHubGovernorClient extends LazyGovernorClient<GitHubGovernorClient> {
+
+    private final GitHubGovernorConfiguration gitHubGovernorConfiguration;
+
+    private final GovernorConfiguration governorConfiguration;
+
+    private final GovernorOutbox governorOutbox;
+
+    /**
+     * @param gitHubGovernorConfiguration
+     * @param governorConfiguration configuration of the circuit breaker and the transport
+     * @param governorOutbox outbox the client sends its updates through, null to send them inline
+     */
+    public LazyGitHubGovernorClient(GitHubGovernorConfiguration gitHubGovernorConfiguration, GovernorConfiguration governorConfiguration, GovernorOutbox governorOutbox) {
+        Validate.notNull(gitHubGovernorConfiguration, "GitHub governor configuration has to be set.");
+        Validate.notNull(governorConfiguration, "Governor configuration has to be set.");
+
+        this.gitHubGovernorConfiguration = gitHubGovernorConfiguration;
+        this.governorConfiguration = governorConfiguration;
+        this.governorOutbox = governorOutbox;
+    }
+
+    @Override
+    protected GitHubGovernorClient create() throws Exception {
+        final GitHubGovernorClientFactory factory = new GitHubGovernorClientFactory();
+        factory.setGovernorTransport(GovernorTransport.forConfiguration(governorConfiguration));
+
+        final GitHubGovernorClient client = factory.build(gitHubGovernorConfiguration);
+
+        client.configureCircuitBreaker(governorConfiguration);
+
+        if (governorOutbox != null) {
+            client.setGovernorOutbox(governorOutbox);
+        }
+
+        return client;
+    }
+}
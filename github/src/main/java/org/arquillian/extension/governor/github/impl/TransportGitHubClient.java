@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.github.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.util.zip.GZIPInputStream;
+
+import org.arquillian.extension.governor.transport.GovernorTransport;
+import org.arquillian.extension.governor.transport.RecordedResponse;
+import org.eclipse.egit.github.core.client.GitHubClient;
+
+/**
+ * GitHub client which records the responses of GitHub or replays them, see {@link GovernorTransport}.
+ *
+ * Credentials are sent in headers, so they never reach the recording.
+ */
+public class TransportGitHubClient extends GitHubClient {
+
+    private static final String CHARSET = "UTF-8";
+
+    private final GovernorTransport transport;
+
+    public TransportGitHubClient(GovernorTransport transport) {
+        if (transport.isLive()) {
+            throw new IllegalArgumentException("Live transport does not need a transport GitHub client.");
+        }
+
+        this.transport = transport;
+    }
+
+    @Override
+    protected HttpURLConnection createConnection(String uri) throws IOException {
+        final URL url = new URL(createUri(uri));
+        final HttpURLConnection delegate = transport.isReplaying() ? null : (HttpURLConnection) url.openConnection();
+
+        return new TransportConnection(url, delegate, transport);
+    }
+
+    /**
+     * Connection answered from the recording when replaying, or by the delegate whose response is recorded.
+     */
+    private static class TransportConnection extends HttpURLConnection {
+
+        private final HttpURLConnection delegate;
+
+        private final GovernorTransport transport;
+
+        private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+
+        private RecordedResponse response;
+
+        TransportConnection(URL url, HttpURLConnection delegate, GovernorTransport transport) {
+            super(url);
+            this.delegate = delegate;
+            this.transport = transport;
+        }
+
+        @Override
+        public void setRequestMethod(String method) throws ProtocolException {
+            super.setRequestMethod(method);
+            if (delegate != null) {
+                delegate.setRequestMethod(method);
+            }
+        }
+
+        @Override
+        public void setRequestProperty(String key, String value) {
+            super.setRequestProperty(key, value);
+            if (delegate != null) {
+                delegate.setRequestProperty(key, value);
+            }
+        }
+
+        @Override
+        public void addRequestProperty(String key, String value) {
+            super.addRequestProperty(key, value);
+            if (delegate != null) {
+                delegate.addRequestProperty(key, value);
+            }
+        }
+
+        @Override
+        public void setDoOutput(boolean doOutput) {
+            super.setDoOutput(doOutput);
+            if (delegate != null) {
+                delegate.setDoOutput(doOutput);
+            }
+        }
+
+        @Override
+        public void setFixedLengthStreamingMode(int contentLength) {
+            // the body is buffered to compute the key of the request
+        }
+
+        @Override
+        public void setConnectTimeout(int timeout) {
+            super.setConnectTimeout(timeout);
+            if (delegate != null) {
+                delegate.setConnectTimeout(timeout);
+            }
+        }
+
+        @Override
+        public void setReadTimeout(int timeout) {
+            super.setReadTimeout(timeout);
+            if (delegate != null) {
+                delegate.setReadTimeout(timeout);
+            }
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            return requestBody;
+        }
+
+        @Override
+        public void connect() throws IOException {
+            connected = true;
+        }
+
+        @Override
+        public void disconnect() {
+            if (delegate != null) {
+                delegate.disconnect();
+            }
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return delegate != null && delegate.usingProxy();
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            return resolve().getStatus();
+        }
+
+        @Override
+        public String getResponseMessage() throws IOException {
+            return delegate == null ? null : delegate.getResponseMessage();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            final RecordedResponse resolved = resolve();
+
+            if (resolved.getStatus() >= HTTP_BAD_REQUEST) {
+                throw new IOException("Server returned HTTP response code: " + resolved.getStatus() + " for URL: " + url);
+            }
+
+            return toStream(resolved.getBody());
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            if (response == null || response.getStatus() < HTTP_BAD_REQUEST) {
+                return null;
+            }
+
+            return toStream(response.getBody());
+        }
+
+        @Override
+        public String getContentEncoding() {
+            // recorded bodies are always decoded
+            return null;
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            if (delegate == null || "Content-Encoding".equalsIgnoreCase(name)) {
+                return null;
+            }
+
+            return delegate.getHeaderField(name);
+        }
+
+        private synchronized RecordedResponse resolve() throws IOException {
+            if (response != null) {
+                return response;
+            }
+
+            final String body = requestBody.size() == 0 ? null : requestBody.toString(CHARSET);
+            final String key = GovernorTransport.key(getRequestMethod(), url.toString(), body);
+
+            if (transport.isReplaying()) {
+                response = transport.replay(key);
+                return response;
+            }
+
+            if (body != null) {
+                final OutputStream out = delegate.getOutputStream();
+                try {
+                    out.write(requestBody.toByteArray());
+                } finally {
+                    out.close();
+                }
+            }
+
+            final int status = delegate.getResponseCode();
+            InputStream stream = status >= HTTP_BAD_REQUEST ? delegate.getErrorStream() : delegate.getInputStream();
+
+            if (stream != null && "gzip".equalsIgnoreCase(delegate.getContentEncoding())) {
+                stream = new GZIPInputStream(stream);
+            }
+
+            response = new RecordedResponse(status, stream == null ? null : read(stream));
+            transport.record(key, response.getStatus(), response.getBody());
+
+            return response;
+        }
+
+        private static String read(InputStream stream) throws IOException {
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toString(CHARSET);
+            } finally {
+                stream.close();
+            }
+        }
+
+        private static InputStream toStream(String body) {
+            try {
+                return new ByteArrayInputStream(body == null ? new byte[0] : body.getBytes(CHARSET));
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -21,9 +21,8 @@ import org.arquillian.extension.governor.configuration.GovernorConfigurator;
 import org.arquillian.extension.governor.github.api.GitHub;
 import org.arquillian.extension.governor.github.configuration.GitHubGovernorConfiguration;
 import org.arquillian.extension.governor.github.configuration.GitHubGovernorConfigurator;
-import org.arquillian.extension.governor.github.impl.GitHubGovernorClient;
-import org.arquillian.extension.governor.github.impl.GitHubGovernorClientFactory;
 import org.arquillian.extension.governor.github.impl.GitHubTestExecutionDecider;
+import org.arquillian.extension.governor.github.impl.LazyGitHubGovernorClient;
 import org.arquillian.extension.governor.impl.GovernorExecutionDecider;
 import org.arquillian.extension.governor.impl.GovernorTestClassScanner;
 import org.arquillian.extension.governor.spi.GovernorProvider;
@@ -193,8 +192,7 @@ public class GitHubGovernorTestCase extends AbstractGovernorTestCase {
 
         bind(ApplicationScoped.class, GitHubGovernorConfiguration.class, gitHubGovernorConfiguration);
 
-        final GitHubGovernorClient gitHubGovernorClient = new GitHubGovernorClientFactory().build(gitHubGovernorConfiguration);
-        bind(ApplicationScoped.class, GitHubGovernorClient.class, gitHubGovernorClient);
+        bind(ApplicationScoped.class, LazyGitHubGovernorClient.class, new LazyGitHubGovernorClient(gitHubGovernorConfiguration, governorConfiguration, null));
     }
 
     @Test
@@ -91,7 +91,14 @@ public class IgnoreObserver {
     }
 
     private boolean shouldCancelExecution(ExecutionEvent event) {
-        final String fqn = toFqn(event);
+        return isIgnored(toFqn(event));
+    }
+
+    /**
+     * @param fqn test method as {@code class name#method name}
+     * @return true when the configuration ignores the test method
+     */
+    boolean isIgnored(String fqn) {
         return fqn.matches(getExpression()) || getMethods().contains(fqn);
     }
 
@@ -19,6 +19,8 @@ package org.arquillian.extension.governor;
 import org.arquillian.extension.governor.configuration.GovernorConfigurator;
 import org.arquillian.extension.governor.impl.GovernorExecutionDecider;
 import org.arquillian.extension.governor.impl.GovernorTestClassScanner;
+import org.arquillian.extension.governor.metrics.GovernorMetricsObserver;
+import org.arquillian.extension.governor.outbox.GovernorOutboxObserver;
 import org.jboss.arquillian.core.spi.LoadableExtension;
 
 /**
@@ -31,6 +33,8 @@ public class GovernorExtension implements LoadableExtension {
         builder.observer(GovernorConfigurator.class);
         builder.observer(GovernorTestClassScanner.class);
         builder.observer(GovernorExecutionDecider.class);
+        builder.observer(GovernorOutboxObserver.class);
+        builder.observer(GovernorMetricsObserver.class);
     }
 
 }
@@ -0,0 +1,268 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * Issue states of every provider kept between runs, so a provider only asks its server for the issues changed since
+ * its last synchronization.
+ *
+ * States are scoped by provider and server. The file is memory mapped when loaded and written back at JVM shutdown
+ * when something changed. Every file is loaded once per JVM, providers configured with the same file share it.
+ */
+public class IssueStateCache {
+
+    private static final Logger logger = Logger.getLogger(IssueStateCache.class.getName());
+
+    private static final int MAGIC = 0x47564e43;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String CHARSET = "UTF-8";
+
+    private static final Map<File, IssueStateCache> caches = new HashMap<File, IssueStateCache>();
+
+    private final File file;
+
+    private final Map<String, Scope> scopes = new HashMap<String, Scope>();
+
+    private boolean dirty = false;
+
+    IssueStateCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * @param file file the cache is stored in, it does not need to exist
+     * @return cache stored in the file, loaded on the first call for that file
+     */
+    public static synchronized IssueStateCache forFile(File file) {
+        Validate.notNull(file, "Cache file must be specified.");
+
+        final File key = file.getAbsoluteFile();
+        IssueStateCache cache = caches.get(key);
+
+        if (cache == null) {
+            cache = new IssueStateCache(key);
+            try {
+                cache.load();
+            } catch (Exception ex) {
+                // a cache which can not be read is started again from scratch
+                logger.log(Level.WARNING, String.format("Unable to load issue state cache %s: %s", key, ex.getMessage()));
+                cache.scopes.clear();
+            }
+            Runtime.getRuntime().addShutdownHook(new StoreOnShutdown(cache));
+            caches.put(key, cache);
+        }
+
+        return cache;
+    }
+
+    /**
+     * @return cached state of the issue, null when it is not cached
+     */
+    public synchronized String get(String provider, String server, String issueKey) {
+        final Scope scope = scopes.get(scopeKey(provider, server));
+        return scope == null ? null : scope.states.get(issueKey);
+    }
+
+    public synchronized void put(String provider, String server, String issueKey, String state) {
+        Validate.notNull(issueKey, "Issue key must be specified.");
+        Validate.notNull(state, "Issue state must be specified.");
+
+        final String previous = getScope(provider, server).states.put(issueKey, state);
+        dirty |= !state.equals(previous);
+    }
+
+    /**
+     * @return keys of the issues cached for the provider and server
+     */
+    public synchronized Set<String> getIssueKeys(String provider, String server) {
+        final Scope scope = scopes.get(scopeKey(provider, server));
+        return scope == null ? Collections.<String>emptySet() : new HashSet<String>(scope.states.keySet());
+    }
+
+    /**
+     * @return time in milliseconds of the last synchronization of the provider and server, 0 when never synchronized
+     */
+    public synchronized long getLastSync(String provider, String server) {
+        final Scope scope = scopes.get(scopeKey(provider, server));
+        return scope == null ? 0 : scope.lastSync;
+    }
+
+    /**
+     * Marks the cached states of the provider and server as up to date at {@code timestamp}.
+     */
+    public synchronized void synced(String provider, String server, long timestamp) {
+        getScope(provider, server).lastSync = timestamp;
+        dirty = true;
+    }
+
+    /**
+     * Drops every state of the provider and server, for example when they could not be synchronized.
+     */
+    public synchronized void invalidate(String provider, String server) {
+        dirty |= scopes.remove(scopeKey(provider, server)) != null;
+    }
+
+    public synchronized void store() throws IOException {
+        if (!dirty) {
+            return;
+        }
+
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory " + parent);
+        }
+
+        final File temporary = new File(file.getPath() + ".tmp");
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(scopes.size());
+
+            for (final Map.Entry<String, Scope> scope : scopes.entrySet()) {
+                writeString(out, scope.getKey());
+                out.writeLong(scope.getValue().lastSync);
+                out.writeInt(scope.getValue().states.size());
+
+                for (final Map.Entry<String, String> state : scope.getValue().states.entrySet()) {
+                    writeString(out, state.getKey());
+                    writeString(out, state.getValue());
+                }
+            }
+        } finally {
+            out.close();
+        }
+
+        if (!temporary.renameTo(file) && !(file.delete() && temporary.renameTo(file))) {
+            throw new IOException("Unable to replace " + file);
+        }
+
+        dirty = false;
+    }
+
+    // helpers
+
+    void load() throws IOException {
+        if (!file.isFile()) {
+            return;
+        }
+
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+        try {
+            final FileChannel channel = raf.getChannel();
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown format of " + file);
+            }
+
+            final int scopeCount = buffer.getInt();
+            for (int i = 0; i < scopeCount; i++) {
+                final Scope scope = new Scope();
+                scopes.put(readString(buffer), scope);
+
+                scope.lastSync = buffer.getLong();
+
+                final int stateCount = buffer.getInt();
+                for (int j = 0; j < stateCount; j++) {
+                    scope.states.put(readString(buffer), readString(buffer));
+                }
+            }
+        } catch (RuntimeException ex) {
+            // truncated or corrupted file
+            throw new IOException("Unable to read " + file + ": " + ex);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private Scope getScope(String provider, String server) {
+        final String key = scopeKey(provider, server);
+        Scope scope = scopes.get(key);
+
+        if (scope == null) {
+            scope = new Scope();
+            scopes.put(key, scope);
+        }
+
+        return scope;
+    }
+
+    private static String scopeKey(String provider, String server) {
+        Validate.notNull(provider, "Provider must be specified.");
+        Validate.notNull(server, "Server must be specified.");
+
+        return provider + " " + server;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(CHARSET);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, CHARSET);
+    }
+
+    private static class Scope {
+        private long lastSync = 0;
+        private final Map<String, String> states = new HashMap<String, String>();
+    }
+
+    private static class StoreOnShutdown extends Thread {
+        private final IssueStateCache cache;
+
+        StoreOnShutdown(IssueStateCache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void run() {
+            try {
+                cache.store();
+            } catch (IOException ex) {
+                logger.log(Level.WARNING, String.format("Unable to store issue state cache %s: %s", cache.file, ex.getMessage()));
+            }
+        }
+    }
+}
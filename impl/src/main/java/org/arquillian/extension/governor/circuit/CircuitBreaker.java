@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.circuit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.jboss.arquillian.core.spi.Validate;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+
+/**
+ * Circuit breaker of the requests to the server of an issue tracker.
+ *
+ * After {@code failureThreshold} consecutive failures the circuit opens and requests are not sent anymore, the
+ * governed test methods get the fallback decision instead. Once {@code openTime} milliseconds passed a single probe
+ * request is let through: the circuit closes again when it succeeds and stays open for another period otherwise.
+ *
+ * Breakers are shared per provider and server during a suite, so every client of the same server trips the same
+ * circuit. They also remember the last state seen of every issue, for the {@link CircuitBreakerFallback#CACHED}
+ * fallback. The breakers are dropped once the suite is done, the next suite starts with closed circuits.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    private static final Map<String, CircuitBreaker> breakers = new HashMap<String, CircuitBreaker>();
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+
+    private final int failureThreshold;
+
+    private final long openTime;
+
+    private final CircuitBreakerFallback fallback;
+
+    private final Map<String, String> lastStates = new ConcurrentHashMap<String, String>();
+
+    private State state = State.CLOSED;
+
+    private int failures = 0;
+
+    private long openedAt = 0;
+
+    private long probeStartedAt = 0;
+
+    CircuitBreaker(String name, int failureThreshold, long openTime, CircuitBreakerFallback fallback) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Circuit breaker failure threshold must be greater than 0.");
+        }
+        Validate.notNull(fallback, "Circuit breaker fallback must be specified.");
+
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openTime = openTime;
+        this.fallback = fallback;
+    }
+
+    /**
+     * @param provider provider the breaker belongs to, like {@code jira}
+     * @param server server of the provider
+     * @param failureThreshold consecutive failures opening the circuit
+     * @param openTime milliseconds the circuit stays open before a probe request is let through
+     * @param fallback decision taken while the circuit is open
+     * @return breaker of the provider and server, created again when the settings differ from the ones it was created
+     *         with
+     */
+    public static synchronized CircuitBreaker forServer(String provider, String server, int failureThreshold, long openTime,
+        CircuitBreakerFallback fallback) {
+        Validate.notNull(provider, "Provider must be specified.");
+        Validate.notNull(server, "Server must be specified.");
+
+        final String key = provider + " " + server;
+        CircuitBreaker breaker = breakers.get(key);
+
+        if (breaker == null || !breaker.hasSettings(failureThreshold, openTime, fallback)) {
+            breaker = new CircuitBreaker(key, failureThreshold, openTime, fallback);
+            breakers.put(key, breaker);
+        }
+
+        return breaker;
+    }
+
+    /**
+     * Drops the breakers of every provider and server, clients keep the breakers they already have.
+     */
+    public static synchronized void clear() {
+        breakers.clear();
+    }
+
+    /**
+     * @return breaker of the provider and server with the settings of the configuration
+     */
+    public static CircuitBreaker forServer(String provider, String server, GovernorConfiguration governorConfiguration) {
+        Validate.notNull(governorConfiguration, "Governor configuration must be specified.");
+
+        return forServer(provider, server, governorConfiguration.getCircuitFailureThreshold(),
+            TimeUnit.SECONDS.toMillis(governorConfiguration.getCircuitOpenTime()), governorConfiguration.getCircuitFallback());
+    }
+
+    /**
+     * @return true when a request can be sent, false when the fallback has to be used instead
+     */
+    public synchronized boolean allowRequest() {
+        final long now = currentTimeMillis();
+
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedAt < openTime) {
+                    return false;
+                }
+                transition(State.HALF_OPEN, "letting a probe request through");
+                probeStartedAt = now;
+                return true;
+            default:
+                // a probe never reported is given up after another period
+                if (now - probeStartedAt < openTime) {
+                    return false;
+                }
+                probeStartedAt = now;
+                return true;
+        }
+    }
+
+    /**
+     * Records a request which reached the server.
+     */
+    public synchronized void success() {
+        failures = 0;
+
+        if (state != State.CLOSED) {
+            transition(State.CLOSED, "a request reached the server");
+        }
+    }
+
+    /**
+     * Records a request which could not reach the server.
+     */
+    public synchronized void failure(Throwable cause) {
+        failures++;
+
+        final String reason = cause == null ? "unknown error" : String.valueOf(cause.getMessage());
+
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            openedAt = currentTimeMillis();
+            transition(State.OPEN, String.format("%d consecutive failures, last one: %s", failures, reason));
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public CircuitBreakerFallback getFallback() {
+        return fallback;
+    }
+
+    /**
+     * @return decision while the circuit is open, when the {@link CircuitBreakerFallback#CACHED} fallback has no state
+     *         to resolve it from the test method is executed
+     */
+    public ExecutionDecision getFallbackDecision() {
+        if (fallback == CircuitBreakerFallback.SKIP) {
+            return ExecutionDecision.dontExecute(String.format("Issue tracker %s is not reachable.", name));
+        }
+
+        return ExecutionDecision.execute(String.format("Issue tracker %s is not reachable.", name));
+    }
+
+    /**
+     * Remembers the last state seen of an issue.
+     */
+    public void remember(String issueKey, String issueState) {
+        if (issueKey != null && issueState != null) {
+            lastStates.put(issueKey, issueState);
+        }
+    }
+
+    /**
+     * @return last state seen of the issue, null when it was never seen
+     */
+    public String getLastState(String issueKey) {
+        return issueKey == null ? null : lastStates.get(issueKey);
+    }
+
+    private boolean hasSettings(int failureThreshold, long openTime, CircuitBreakerFallback fallback) {
+        return this.failureThreshold == failureThreshold && this.openTime == openTime && this.fallback == fallback;
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void transition(State to, String reason) {
+        final Level level = to == State.OPEN ? Level.WARNING : Level.INFO;
+        logger.log(level, String.format("Circuit of issue tracker %s changed from %s to %s: %s", name, state, to, reason));
+
+        state = to;
+    }
+}
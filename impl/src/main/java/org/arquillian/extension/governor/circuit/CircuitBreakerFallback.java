@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.circuit;
+
+/**
+ * Decision taken for a governed test method while the circuit of its issue tracker is open.
+ */
+public enum CircuitBreakerFallback {
+
+    /**
+     * The test method is executed.
+     */
+    EXECUTE,
+
+    /**
+     * The test method is not executed.
+     */
+    SKIP,
+
+    /**
+     * The decision is resolved from the last known state of the issue, the test method is executed when there is none.
+     */
+    CACHED;
+
+    /**
+     * @param value name of the fallback, case insensitive
+     * @return fallback of the given name
+     * @throws IllegalArgumentException when there is no fallback of that name
+     */
+    public static CircuitBreakerFallback parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Circuit breaker fallback must be specified.");
+        }
+
+        for (final CircuitBreakerFallback fallback : values()) {
+            if (fallback.name().equalsIgnoreCase(value.trim())) {
+                return fallback;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown circuit breaker fallback " + value);
+    }
+}
@@ -18,6 +18,8 @@ package org.arquillian.extension.governor.configuration;
 
 import org.arquillian.extension.governor.api.Configuration;
 import org.arquillian.extension.governor.api.GovernorConfigurationException;
+import org.arquillian.extension.governor.circuit.CircuitBreakerFallback;
+import org.arquillian.extension.governor.transport.TransportMode;
 import org.jboss.arquillian.core.spi.Validate;
 
 /**
@@ -25,10 +27,38 @@ import org.jboss.arquillian.core.spi.Validate;
  */
 public class GovernorConfiguration extends Configuration {
 
+    private static final int DEFAULT_OUTBOX_WORKERS = 4;
+
+    private static final int DEFAULT_OUTBOX_ATTEMPTS = 3;
+
+    private static final long DEFAULT_OUTBOX_BACKOFF = 1000;
+
+    private static final long DEFAULT_OUTBOX_TIMEOUT = 120;
+
+    private static final int DEFAULT_RESOLVE_CONCURRENCY = 4;
+
+    private static final int DEFAULT_CIRCUIT_FAILURE_THRESHOLD = 5;
+
+    private static final long DEFAULT_CIRCUIT_OPEN_TIME = 30;
+
     private boolean ignore = false;
 
     private String ignoreOnly = "";
 
+    private boolean outbox = false;
+
+    private String outboxJournal = "";
+
+    private String circuitFallback = "execute";
+
+    private String metricsFile = "";
+
+    private boolean metricsReport = false;
+
+    private String transport = "live";
+
+    private String transportFile = "";
+
     public Boolean getIgnore() {
         return Boolean.valueOf(getProperty("ignore", Boolean.toString(ignore)));
     }
@@ -46,6 +76,165 @@ public class GovernorConfiguration extends Configuration {
         setProperty("ignoreOnly", ignoreOnly);
     }
 
+    /**
+     * Whether the issue tracker operations are queued and executed in the background instead of inline. Setting an
+     * outbox journal turns the outbox on as well.
+     */
+    public Boolean getOutbox() {
+        return Boolean.valueOf(getProperty("outbox", Boolean.toString(outbox)));
+    }
+
+    public void setOutbox(boolean outbox) {
+        setProperty("outbox", Boolean.toString(outbox));
+    }
+
+    /**
+     * File the pending issue tracker operations are journaled in, so they are executed again in the next run when
+     * this one dies before they are done. Empty to keep them in memory only.
+     */
+    public String getOutboxJournal() {
+        return getProperty("outboxJournal", outboxJournal);
+    }
+
+    public void setOutboxJournal(String outboxJournal) {
+        setProperty("outboxJournal", outboxJournal);
+    }
+
+    /**
+     * Number of issue tracker operations executed concurrently.
+     */
+    public int getOutboxWorkers() {
+        return Integer.parseInt(getProperty("outboxWorkers", Integer.toString(DEFAULT_OUTBOX_WORKERS)));
+    }
+
+    public void setOutboxWorkers(int outboxWorkers) {
+        setProperty("outboxWorkers", Integer.toString(outboxWorkers));
+    }
+
+    /**
+     * Number of attempts to execute an issue tracker operation before it is left for the next run.
+     */
+    public int getOutboxAttempts() {
+        return Integer.parseInt(getProperty("outboxAttempts", Integer.toString(DEFAULT_OUTBOX_ATTEMPTS)));
+    }
+
+    public void setOutboxAttempts(int outboxAttempts) {
+        setProperty("outboxAttempts", Integer.toString(outboxAttempts));
+    }
+
+    /**
+     * Milliseconds to wait before retrying a failed issue tracker operation, doubled on every further retry.
+     */
+    public long getOutboxBackoff() {
+        return Long.parseLong(getProperty("outboxBackoff", Long.toString(DEFAULT_OUTBOX_BACKOFF)));
+    }
+
+    public void setOutboxBackoff(long outboxBackoff) {
+        setProperty("outboxBackoff", Long.toString(outboxBackoff));
+    }
+
+    /**
+     * Seconds to wait after the suite for the issue tracker operations of all the providers.
+     */
+    public long getOutboxTimeout() {
+        return Long.parseLong(getProperty("outboxTimeout", Long.toString(DEFAULT_OUTBOX_TIMEOUT)));
+    }
+
+    public void setOutboxTimeout(long outboxTimeout) {
+        setProperty("outboxTimeout", Long.toString(outboxTimeout));
+    }
+
+    /**
+     * Number of governor annotations of a test class resolved concurrently, 1 to resolve them one after another.
+     */
+    public int getResolveConcurrency() {
+        return Integer.parseInt(getProperty("resolveConcurrency", Integer.toString(DEFAULT_RESOLVE_CONCURRENCY)));
+    }
+
+    public void setResolveConcurrency(int resolveConcurrency) {
+        setProperty("resolveConcurrency", Integer.toString(resolveConcurrency));
+    }
+
+    /**
+     * Number of consecutive failed requests to an issue tracker opening its circuit.
+     */
+    public int getCircuitFailureThreshold() {
+        return Integer.parseInt(getProperty("circuitFailureThreshold", Integer.toString(DEFAULT_CIRCUIT_FAILURE_THRESHOLD)));
+    }
+
+    public void setCircuitFailureThreshold(int circuitFailureThreshold) {
+        setProperty("circuitFailureThreshold", Integer.toString(circuitFailureThreshold));
+    }
+
+    /**
+     * Seconds the circuit of an issue tracker stays open before a request probes whether it is reachable again.
+     */
+    public long getCircuitOpenTime() {
+        return Long.parseLong(getProperty("circuitOpenTime", Long.toString(DEFAULT_CIRCUIT_OPEN_TIME)));
+    }
+
+    public void setCircuitOpenTime(long circuitOpenTime) {
+        setProperty("circuitOpenTime", Long.toString(circuitOpenTime));
+    }
+
+    /**
+     * Decision taken for governed test methods while the circuit of their issue tracker is open.
+     */
+    public CircuitBreakerFallback getCircuitFallback() {
+        return CircuitBreakerFallback.parse(getProperty("circuitFallback", circuitFallback));
+    }
+
+    public void setCircuitFallback(String circuitFallback) {
+        setProperty("circuitFallback", circuitFallback);
+    }
+
+    /**
+     * File the JSON summary of the time the governor and its providers took is written to after the suite. Empty to
+     * not write it.
+     */
+    public String getMetricsFile() {
+        return getProperty("metricsFile", metricsFile);
+    }
+
+    public void setMetricsFile(String metricsFile) {
+        setProperty("metricsFile", metricsFile);
+    }
+
+    /**
+     * Whether the time the governor and its providers took is put in the Arquillian Recorder report as well. The
+     * Skipper has to be on the class path.
+     */
+    public Boolean getMetricsReport() {
+        return Boolean.valueOf(getProperty("metricsReport", Boolean.toString(metricsReport)));
+    }
+
+    public void setMetricsReport(boolean metricsReport) {
+        setProperty("metricsReport", Boolean.toString(metricsReport));
+    }
+
+    /**
+     * Whether the providers reach their issue trackers, record the responses in the transport file as well or replay
+     * them from it without reaching the issue trackers.
+     */
+    public TransportMode getTransport() {
+        return TransportMode.parse(getProperty("transport", transport));
+    }
+
+    public void setTransport(String transport) {
+        setProperty("transport", transport);
+    }
+
+    /**
+     * File the responses of the issue trackers are recorded in or replayed from.
+     */
+    public String getTransportFile() {
+        return getProperty("transportFile", transportFile);
+    }
+
+    public void setTransportFile(String transportFile) {
+        setProperty("transportFile", transportFile);
+    }
+
     @Override
     public void validate() throws GovernorConfigurationException {
         if (getIgnore() && getIgnoreOnly() != null && getIgnoreOnly().length() != 0) {
@@ -53,6 +242,46 @@ public class GovernorConfiguration extends Configuration {
                     + "Either set 'ignore' and left ignoreOnly unset or left 'ignore' flag unset "
                     + "and set 'ignoreOnly' property.");
         }
+
+        try {
+            if (getOutboxWorkers() <= 0) {
+                throw new GovernorConfigurationException("Outbox workers has to be a positive number.");
+            }
+            if (getOutboxAttempts() <= 0) {
+                throw new GovernorConfigurationException("Outbox attempts has to be a positive number.");
+            }
+            if (getOutboxBackoff() < 0) {
+                throw new GovernorConfigurationException("Outbox backoff can not be a negative number.");
+            }
+            if (getOutboxTimeout() <= 0) {
+                throw new GovernorConfigurationException("Outbox timeout has to be a positive number.");
+            }
+            if (getResolveConcurrency() <= 0) {
+                throw new GovernorConfigurationException("Resolve concurrency has to be a positive number.");
+            }
+            if (getCircuitFailureThreshold() <= 0) {
+                throw new GovernorConfigurationException("Circuit failure threshold has to be a positive number.");
+            }
+            if (getCircuitOpenTime() < 0) {
+                throw new GovernorConfigurationException("Circuit open time can not be a negative number.");
+            }
+        } catch (NumberFormatException ex) {
+            throw new GovernorConfigurationException("Unable to parse number: " + ex.getMessage());
+        }
+
+        try {
+            getCircuitFallback();
+        } catch (IllegalArgumentException ex) {
+            throw new GovernorConfigurationException(ex.getMessage() + ", use execute, skip or cached.");
+        }
+
+        try {
+            if (getTransport() != TransportMode.LIVE && getTransportFile().length() == 0) {
+                throw new GovernorConfigurationException("Transport file has to be set to record or replay.");
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new GovernorConfigurationException(ex.getMessage() + ", use live, record or replay.");
+        }
     }
 
     @Override
@@ -61,6 +290,20 @@ public class GovernorConfiguration extends Configuration {
 
         sb.append(String.format("%-40s %s\n", "ignore", getIgnore()));
         sb.append(String.format("%-40s %s\n", "ignoreOnly", getIgnoreOnly()));
+        sb.append(String.format("%-40s %s\n", "outbox", getOutbox()));
+        sb.append(String.format("%-40s %s\n", "outboxJournal", getOutboxJournal()));
+        sb.append(String.format("%-40s %s\n", "outboxWorkers", getOutboxWorkers()));
+        sb.append(String.format("%-40s %s\n", "outboxAttempts", getOutboxAttempts()));
+        sb.append(String.format("%-40s %s\n", "outboxBackoff", getOutboxBackoff()));
+        sb.append(String.format("%-40s %s\n", "outboxTimeout", getOutboxTimeout()));
+        sb.append(String.format("%-40s %s\n", "resolveConcurrency", getResolveConcurrency()));
+        sb.append(String.format("%-40s %s\n", "circuitFailureThreshold", getCircuitFailureThreshold()));
+        sb.append(String.format("%-40s %s\n", "circuitOpenTime", getCircuitOpenTime()));
+        sb.append(String.format("%-40s %s\n", "circuitFallback", getCircuitFallback()));
+        sb.append(String.format("%-40s %s\n", "metricsFile", getMetricsFile()));
+        sb.append(String.format("%-40s %s\n", "metricsReport", getMetricsReport()));
+        sb.append(String.format("%-40s %s\n", "transport", getTransport()));
+        sb.append(String.format("%-40s %s\n", "transportFile", getTransportFile()));
 
         return sb.toString();
     }
@@ -20,42 +20,138 @@ import org.arquillian.extension.governor.api.ClosePassedDecider;
 import org.arquillian.extension.governor.utils.ReflectionUtils;
 
 import java.lang.annotation.Annotation;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Closable flags are kept per annotation type and issue id, the flag of an issue is merged in constant time no matter
+ * how many issues are already known. Test methods finishing in parallel do not lose each other's flags, a flag only
+ * ever changes from closable to not closable.
+ *
  * @author <a href="mailto:mbasovni@redhat.com">Martin Basovnik</a>
  */
 public class ClosePassedDeciderImpl implements ClosePassedDecider {
 
-    private static final Logger logger = Logger.getLogger(ClosePassedDeciderImpl.class.getName());
+    private static final Comparator<IssueFlag> BATCH_ORDER = new Comparator<IssueFlag>() {
+        @Override
+        public int compare(IssueFlag first, IssueFlag second) {
+            final int byType = first.key.annotationType.getName().compareTo(second.key.annotationType.getName());
+            if (byType != 0) {
+                return byType;
+            }
+            if (first.key.id == null || second.key.id == null) {
+                return first.key.id == null ? (second.key.id == null ? 0 : 1) : -1;
+            }
+            return first.key.id.compareTo(second.key.id);
+        }
+    };
 
-    private Map<Annotation, Boolean> closableAnnotationMap = new HashMap<Annotation, Boolean>();
+    private final ConcurrentMap<IssueKey, IssueFlag> closableIssues = new ConcurrentHashMap<IssueKey, IssueFlag>();
 
+    /**
+     * @return annotations and their closable flags grouped by annotation type and ordered by issue id, so the issues of
+     * one provider can be closed in a single pass
+     */
     @Override
     public Map<Annotation, Boolean> get() {
-        return closableAnnotationMap;
+        final List<IssueFlag> flags = new ArrayList<IssueFlag>(closableIssues.values());
+        Collections.sort(flags, BATCH_ORDER);
+
+        final Map<Annotation, Boolean> closable = new LinkedHashMap<Annotation, Boolean>(flags.size() * 2);
+        for (final IssueFlag flag : flags) {
+            closable.put(flag.annotation, flag.closable);
+        }
+
+        return Collections.unmodifiableMap(closable);
     }
 
     @Override
     public void setClosable(Annotation annotation, boolean closeable) {
-        for (final Map.Entry<Annotation, Boolean> entry : closableAnnotationMap.entrySet()) {
-            final Annotation oldAnnotation = entry.getKey();
-            if (oldAnnotation.annotationType().equals(annotation.annotationType())) {
-                final String oldId = ReflectionUtils.getAnnotationValue(oldAnnotation);
-                final String id = ReflectionUtils.getAnnotationValue(annotation);
-                if (oldId != null && oldId.equals(id)) {
-                    closableAnnotationMap.put(oldAnnotation, entry.getValue().booleanValue() & closeable);
-                    return;
-                }
+        final IssueKey key = IssueKey.of(annotation);
+        IssueFlag flag = closableIssues.get(key);
+
+        if (flag == null) {
+            final IssueFlag created = new IssueFlag(key, annotation, closeable);
+            flag = closableIssues.putIfAbsent(key, created);
+            if (flag == null) {
+                return;
             }
         }
-        closableAnnotationMap.put(annotation, closeable);
+
+        if (!closeable) {
+            flag.closable = false;
+        }
     }
 
     @Override
     public boolean isCloseable(Annotation annotation) {
-        return closableAnnotationMap.get(annotation);
+        final IssueFlag flag = closableIssues.get(IssueKey.of(annotation));
+        return flag != null && flag.closable;
+    }
+
+    private static final class IssueKey {
+
+        private final Class<? extends Annotation> annotationType;
+
+        private final String id;
+
+        // annotations without an id are never merged with each other
+        private final Annotation anonymous;
+
+        private final int hash;
+
+        private IssueKey(Class<? extends Annotation> annotationType, String id, Annotation anonymous) {
+            this.annotationType = annotationType;
+            this.id = id;
+            this.anonymous = anonymous;
+            this.hash = 31 * annotationType.hashCode()
+                + (id != null ? id.hashCode() : System.identityHashCode(anonymous));
+        }
+
+        static IssueKey of(Annotation annotation) {
+            final String id = ReflectionUtils.getAnnotationValue(annotation);
+            return new IssueKey(annotation.annotationType(), id, id == null ? annotation : null);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof IssueKey)) {
+                return false;
+            }
+            final IssueKey other = (IssueKey) obj;
+            return hash == other.hash
+                && annotationType == other.annotationType
+                && (id != null ? id.equals(other.id) : other.id == null && anonymous == other.anonymous);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class IssueFlag {
+
+        private final IssueKey key;
+
+        // first annotation seen for the issue, it stands for the issue in get()
+        private final Annotation annotation;
+
+        private volatile boolean closable;
+
+        IssueFlag(IssueKey key, Annotation annotation, boolean closable) {
+            this.key = key;
+            this.annotation = annotation;
+            this.closable = closable;
+        }
     }
 }
@@ -17,6 +17,8 @@
 package org.arquillian.extension.governor.impl;
 
 import org.arquillian.extension.governor.api.GovernorRegistry;
+import org.arquillian.extension.governor.circuit.CircuitBreaker;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
 import org.arquillian.extension.governor.spi.event.DecideMethodExecutions;
 import org.arquillian.extension.governor.spi.event.ExecutionDecisionEvent;
 import org.jboss.arquillian.core.api.Event;
@@ -25,14 +27,30 @@ import org.jboss.arquillian.core.api.InstanceProducer;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.core.api.annotation.Observes;
 import org.jboss.arquillian.test.spi.annotation.ClassScoped;
+import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
 import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision.Decision;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Decides every governed test method of a test class before the class runs.
+ *
+ * The lookups of all the annotations of the class are started before waiting for any of them, so providers resolving
+ * their annotations in the background reach their issue trackers concurrently. The decisions are combined in the
+ * order of the annotations of every method: once an annotation skips the method, the following ones do not change it.
+ *
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
  */
 public class GovernorExecutionDecider {
@@ -40,6 +58,12 @@ public class GovernorExecutionDecider {
     @Inject
     private Instance<GovernorRegistry> governorRegistry;
 
+    @Inject
+    private Instance<GovernorProviders> governorProviders;
+
+    @Inject
+    private Instance<GovernorConfiguration> governorConfiguration;
+
     @Inject
     @ClassScoped
     private InstanceProducer<ExecutionDecision> executionDecisionProducer;
@@ -50,26 +74,137 @@ public class GovernorExecutionDecider {
     @Inject
     private Event<ExecutionDecisionEvent> executionDecisionEvent;
 
+    private ExecutorService executor;
+
     public void on(@Observes DecideMethodExecutions decodeMethodExecution) {
-        for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().get().entrySet()) {
-            final Method testMethod = entry.getKey();
+        final Class<?> testClass = decodeMethodExecution.getTestClass();
+        final GovernorProviders providers = governorProviders.get();
+        final ExecutorService executor = getExecutor();
+
+        final Map<Method, List<PendingDecision>> pendingDecisions = new LinkedHashMap<Method, List<PendingDecision>>();
 
-            executionDecisionProducer.set(ExecutionDecision.execute());
+        for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().get().entrySet()) {
+            final List<PendingDecision> pending = new ArrayList<PendingDecision>(entry.getValue().size());
 
             for (final Annotation annotation : entry.getValue()) {
-                executionDecisionEvent.fire(new ExecutionDecisionEvent(annotation));
+                // annotations no provider of the suite provides are not decided by anybody
+                if (providers == null || providers.getProvider(annotation.annotationType()) != null) {
+                    pending.add(decide(annotation, executor));
+                } else {
+                    pending.add(new PendingDecision(annotation, null, null));
+                }
+            }
 
-                // we get here after all TestExecutionDeciders which observe above event are treated
-                // and eventually set final execution decision about that annotation
-                ExecutionDecision decision = this.executionDecision.get();
+            pendingDecisions.put(entry.getKey(), pending);
+        }
 
-                if (decision == null) {
-                    decision = ExecutionDecision.execute();
+        ExecutionDecision decision = ExecutionDecision.execute();
+
+        for (final Map.Entry<Method, List<PendingDecision>> entry : pendingDecisions.entrySet()) {
+            decision = ExecutionDecision.execute();
+
+            for (final PendingDecision pending : entry.getValue()) {
+                if (decision.getDecision() != Decision.DONT_EXECUTE) {
+                    final ExecutionDecision resolved = pending.await();
+
+                    if (resolved != null) {
+                        decision = resolved;
+                    }
                 }
 
-                TestMethodExecutionRegister.put(testMethod.toString(), annotation.annotationType(), decision);
+                TestMethodExecutionRegister.put(testClass, entry.getKey(), pending.annotation.annotationType(), decision);
             }
         }
+
+        executionDecisionProducer.set(decision);
+    }
+
+    public void onAfterSuite(@Observes AfterSuite event) {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+
+        // circuits opened during the suite are not carried into the next one
+        CircuitBreaker.clear();
     }
 
+    // helpers
+
+    private PendingDecision decide(Annotation annotation, ExecutorService executor) {
+        // every annotation is decided on its own, the decisions are combined once all of them are known
+        final ExecutionDecision undecided = ExecutionDecision.execute();
+        executionDecisionProducer.set(undecided);
+
+        final ExecutionDecisionEvent event = new ExecutionDecisionEvent(annotation, executor);
+        executionDecisionEvent.fire(event);
+
+        if (event.getDecision() != null) {
+            return new PendingDecision(annotation, event.getDecision(), null);
+        }
+
+        // deciders not resolving in the background have set the decision already
+        final ExecutionDecision decision = this.executionDecision.get();
+
+        return new PendingDecision(annotation, null, decision == undecided ? null : decision);
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null && governorConfiguration.get() != null) {
+            final int concurrency = governorConfiguration.get().getResolveConcurrency();
+
+            if (concurrency > 1) {
+                executor = Executors.newFixedThreadPool(concurrency, new ResolveThreadFactory());
+            }
+        }
+
+        return executor;
+    }
+
+    private static class PendingDecision {
+        private final Annotation annotation;
+        private final Future<ExecutionDecision> future;
+        private final ExecutionDecision decision;
+
+        PendingDecision(Annotation annotation, Future<ExecutionDecision> future, ExecutionDecision decision) {
+            this.annotation = annotation;
+            this.future = future;
+            this.decision = decision;
+        }
+
+        /**
+         * @return decision about the annotation, null when nobody decided it
+         */
+        ExecutionDecision await() {
+            if (future == null) {
+                return decision;
+            }
+
+            try {
+                return future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while resolving @" + annotation.annotationType().getName(), ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                if (ex.getCause() instanceof Error) {
+                    throw (Error) ex.getCause();
+                }
+                throw new IllegalStateException("Unable to resolve @" + annotation.annotationType().getName(), ex.getCause());
+            }
+        }
+    }
+
+    private static class ResolveThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "governor-resolve-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
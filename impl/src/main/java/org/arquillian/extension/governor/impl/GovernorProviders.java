@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.spi.GovernorProvider;
+import org.jboss.arquillian.core.spi.ServiceLoader;
+import org.jboss.arquillian.test.spi.execution.TestExecutionDecider;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Governor providers of the suite indexed by the governor annotation they provide.
+ *
+ * Providers are discovered once per suite among the {@link GovernorProvider} services and the
+ * {@link TestExecutionDecider} services implementing {@link GovernorProvider}, as the governor extensions register
+ * their deciders.
+ */
+public class GovernorProviders {
+
+    private final Map<Class<? extends Annotation>, GovernorProvider> providers;
+
+    GovernorProviders(Collection<GovernorProvider> governorProviders) {
+        final Map<Class<? extends Annotation>, GovernorProvider> table = new HashMap<Class<? extends Annotation>, GovernorProvider>();
+
+        for (final GovernorProvider governorProvider : governorProviders) {
+            final Class<? extends Annotation> governorClass = governorProvider.provides();
+
+            if (governorClass == null) {
+                throw new IllegalStateException(
+                        String.format("Governor provider's provides() method (%s) returns null object.",
+                                governorProvider.getClass().getName()));
+            }
+
+            final Governor governorAnnotation = governorClass.getAnnotation(Governor.class);
+
+            if (governorAnnotation == null) {
+                throw new IllegalStateException(
+                        String.format("Governor provider (%s) does not provide annotation annotated by Governor class.",
+                                governorProvider.getClass().getName()));
+            }
+
+            if (table.put(governorClass, governorProvider) != null) {
+                throw new IllegalStateException(
+                        String.format("You have put on class path providers which provide the same governor annotation (%s).",
+                                governorAnnotation.annotationType()));
+            }
+        }
+
+        this.providers = Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * Discovers the governor providers of the suite.
+     *
+     * @param serviceLoader
+     * @return
+     * @throws IllegalStateException when a provider does not provide a governor annotation or when several providers
+     * provide the same one
+     */
+    public static GovernorProviders discover(ServiceLoader serviceLoader) {
+        final List<GovernorProvider> governorProviders = new ArrayList<GovernorProvider>();
+        final Set<Class<?>> providerClasses = new HashSet<Class<?>>();
+
+        for (final GovernorProvider governorProvider : serviceLoader.all(GovernorProvider.class)) {
+            if (providerClasses.add(governorProvider.getClass())) {
+                governorProviders.add(governorProvider);
+            }
+        }
+
+        for (final TestExecutionDecider decider : serviceLoader.all(TestExecutionDecider.class)) {
+            // deciders registered both as decider and as provider are discovered once
+            if (decider instanceof GovernorProvider && providerClasses.add(decider.getClass())) {
+                governorProviders.add((GovernorProvider) decider);
+            }
+        }
+
+        return new GovernorProviders(governorProviders);
+    }
+
+    /**
+     * @param governorClass governor annotation
+     * @return provider of the governor annotation, null when no provider provides it
+     */
+    public GovernorProvider getProvider(Class<? extends Annotation> governorClass) {
+        return providers.get(governorClass);
+    }
+
+    public Collection<GovernorProvider> getProviders() {
+        return providers.values();
+    }
+}
@@ -20,7 +20,8 @@ import org.arquillian.extension.governor.api.ClosePassedDecider;
 import org.arquillian.extension.governor.api.Governor;
 import org.arquillian.extension.governor.api.GovernorRegistry;
 import org.arquillian.extension.governor.configuration.GovernorConfiguration;
-import org.arquillian.extension.governor.spi.GovernorProvider;
+import org.arquillian.extension.governor.index.GovernorIndex;
+import org.arquillian.extension.governor.metrics.GovernorMetrics;
 import org.arquillian.extension.governor.spi.event.DecideMethodExecutions;
 import org.jboss.arquillian.core.api.Event;
 import org.jboss.arquillian.core.api.Instance;
@@ -31,18 +32,21 @@ import org.jboss.arquillian.core.api.annotation.Observes;
 import org.jboss.arquillian.core.spi.ServiceLoader;
 import org.jboss.arquillian.core.spi.Validate;
 import org.jboss.arquillian.test.spi.TestClass;
+import org.jboss.arquillian.test.spi.event.suite.AfterClass;
 import org.jboss.arquillian.test.spi.event.suite.BeforeClass;
 import org.jboss.arquillian.test.spi.event.suite.BeforeSuite;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
@@ -57,6 +61,10 @@ public class GovernorTestClassScanner {
     @ApplicationScoped
     private InstanceProducer<ClosePassedDecider> closePassedDecider;
 
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<GovernorProviders> governorProviders;
+
     @Inject
     private Instance<ServiceLoader> serviceLoader;
 
@@ -66,112 +74,176 @@ public class GovernorTestClassScanner {
     @Inject
     private Instance<GovernorConfiguration> governorConfiguration;
 
+    private final ConcurrentMap<Class<?>, Map<Method, List<Annotation>>> scannedTestClasses =
+        new ConcurrentHashMap<Class<?>, Map<Method, List<Annotation>>>();
+
+    private final ConcurrentMap<ClassLoader, List<Class<? extends Annotation>>> testAnnotationsByClassLoader =
+        new ConcurrentHashMap<ClassLoader, List<Class<? extends Annotation>>>();
+
     public void onBeforeSuite(@Observes BeforeSuite event) {
         closePassedDecider.set(new ClosePassedDeciderImpl());
     }
 
     public void onBeforeClass(@Observes BeforeClass event) {
         TestMethodExecutionRegister.setConfigration(governorConfiguration.get());
-        TestMethodExecutionRegister.clear();
+        TestMethodExecutionRegister.clear(event.getTestClass().getJavaClass());
 
         if (governorConfiguration.get().getIgnore()) {
             return;
         }
 
-        final Collection<GovernorProvider> governorProviders = serviceLoader.get().all(GovernorProvider.class);
+        final long start = System.nanoTime();
 
-        checkGovernorProviderUniqueness(governorProviders);
+        try {
+            // providers are discovered before the first test class of the suite
+            if (governorProviders.get() == null) {
+                governorProviders.set(GovernorProviders.discover(serviceLoader.get()));
+            }
 
-        final Map<Method, List<Annotation>> scannedTestMethods = scanTestMethods(event.getTestClass(), Governor.class);
+            final Map<Method, List<Annotation>> scannedTestMethods = scanTestMethods(event.getTestClass(), Governor.class);
 
-        final GovernorRegistryImpl governorRegistry = new GovernorRegistryImpl();
-        governorRegistry.put(scannedTestMethods);
-        this.governorRegistry.set(governorRegistry);
+            final GovernorRegistryImpl governorRegistry = new GovernorRegistryImpl();
+            governorRegistry.put(scannedTestMethods);
+            this.governorRegistry.set(governorRegistry);
 
-        decideMethodExecution.fire(new DecideMethodExecutions());
+            decideMethodExecution.fire(new DecideMethodExecutions(event.getTestClass().getJavaClass()));
+        } finally {
+            GovernorMetrics.getInstance().recordScan(event.getTestClass().getJavaClass(), System.nanoTime() - start);
+        }
     }
 
-    private void checkGovernorProviderUniqueness(final Collection<GovernorProvider> governorProviders) {
-        final Set<Class<? extends Annotation>> uniqueProviders = new HashSet<Class<? extends Annotation>>();
+    public void onAfterClass(@Observes AfterClass event) {
+        TestMethodExecutionRegister.clear(event.getTestClass().getJavaClass());
+    }
 
-        for (final GovernorProvider governorProvider : governorProviders) {
-            final Class<? extends Annotation> governorClass = governorProvider.provides();
+    /**
+     * Scans every test class only once, a test class entered again, for example by another container or TestNG
+     * group, gets the same immutable result.
+     */
+    Map<Method, List<Annotation>> scanTestMethods(TestClass testClass, Class<? extends Annotation> governorAnnotation) {
+        Validate.notNull(testClass, "Test class to scan must be specified.");
 
-            if (governorClass == null) {
-                throw new IllegalStateException(
-                        String.format("Governor provider's provides() method (%s) returns null object.",
-                                governorProvider.getClass().getName()));
-            }
+        final Class<?> javaClass = testClass.getJavaClass();
 
-            final Governor governorAnnotation = governorClass.getAnnotation(Governor.class);
+        if (governorAnnotation != Governor.class) {
+            return scan(javaClass, governorAnnotation);
+        }
 
-            if (governorAnnotation == null) {
-                throw new IllegalStateException(
-                        String.format("Governor provider (%s) does not provide annotation annotated by Governor class.",
-                                governorProvider.getClass().getName()));
-            }
+        Map<Method, List<Annotation>> scanned = scannedTestClasses.get(javaClass);
 
-            if (!uniqueProviders.add(governorClass)) {
-                throw new IllegalStateException(
-                        String.format("You have put on class path providers which provide the same governor annotation (%s).",
-                                governorAnnotation.annotationType()));
+        if (scanned == null) {
+            scanned = scan(javaClass, governorAnnotation);
+            final Map<Method, List<Annotation>> previous = scannedTestClasses.putIfAbsent(javaClass, scanned);
+            if (previous != null) {
+                scanned = previous;
             }
         }
+
+        return scanned;
     }
 
-    private Map<Method, List<Annotation>> scanTestMethods(TestClass testClass, Class<? extends Annotation> governorAnnotation) {
-        Validate.notNull(testClass, "Test class to scan must be specified.");
+    Map<Method, List<Annotation>> scan(Class<?> javaClass, Class<? extends Annotation> governorAnnotation) {
+        // the index of the annotation processor only knows Governor annotations
+        if (governorAnnotation == Governor.class) {
+            final Map<Method, List<Annotation>> indexed = GovernorIndex.forClassLoader(javaClass.getClassLoader())
+                .getGovernedMethods(javaClass);
+            if (indexed != null) {
+                return compact(indexed);
+            }
+        }
 
         final Map<Method, List<Annotation>> methodAnnotationsMap = new HashMap<Method, List<Annotation>>();
 
-        final Annotation[] classAnnotations = testClass.getJavaClass().getAnnotations();
+        final List<Annotation> classAnnotations = new ArrayList<Annotation>();
+        for (final Annotation cAnnotation : javaClass.getAnnotations()) {
+            if (cAnnotation.annotationType().isAnnotationPresent(governorAnnotation)) {
+                classAnnotations.add(cAnnotation);
+            }
+        }
 
-        final Method[] methods = testClass.getJavaClass().getMethods();
+        final List<Class<? extends Annotation>> testAnnotations = getTestAnnotations(javaClass.getClassLoader());
 
-        for (final Method method : methods) {
-            if (!isTestMethod(method)) {
+        for (final Method method : javaClass.getMethods()) {
+            if (!isTestMethod(method, testAnnotations)) {
                 continue;
             }
 
-            final List<Annotation> methodAnnotations = new ArrayList<Annotation>();
+            List<Annotation> methodAnnotations = null;
 
             for (final Annotation annotation : method.getAnnotations()) {
                 if (annotation.annotationType().isAnnotationPresent(governorAnnotation)) {
+                    if (methodAnnotations == null) {
+                        methodAnnotations = new ArrayList<Annotation>(1 + classAnnotations.size());
+                    }
                     methodAnnotations.add(annotation);
                 }
             }
 
-            for (final Annotation cAnnotation : classAnnotations) {
-                if (cAnnotation.annotationType().isAnnotationPresent(governorAnnotation)) {
-                    if (methodAnnotations.isEmpty()) {
-                        methodAnnotations.add(cAnnotation);
-                    } else {
-                        for (final Annotation mAnnotation : methodAnnotations) {
-                            if (!mAnnotation.annotationType().equals(cAnnotation.annotationType())) {
-                                methodAnnotations.add(cAnnotation);
-                            }
-                        }
-                    }
+            if (methodAnnotations == null) {
+                if (!classAnnotations.isEmpty()) {
+                    methodAnnotationsMap.put(method, classAnnotations);
                 }
+                continue;
             }
 
-            if (!methodAnnotations.isEmpty()) {
-                methodAnnotationsMap.put(method, methodAnnotations);
+            for (final Annotation cAnnotation : classAnnotations) {
+                boolean annotatedMethod = false;
+                for (final Annotation mAnnotation : methodAnnotations) {
+                    annotatedMethod |= mAnnotation.annotationType().equals(cAnnotation.annotationType());
+                }
+                if (!annotatedMethod) {
+                    methodAnnotations.add(cAnnotation);
+                }
             }
 
+            methodAnnotationsMap.put(method, methodAnnotations);
         }
 
-        return methodAnnotationsMap;
+        return compact(methodAnnotationsMap);
     }
 
-    private boolean isTestMethod(Method method) {
-        for (final Annotation annotation : method.getAnnotations()) {
-            for (final TestFramework tf : TestFramework.values()) {
-                if (tf.getClassName().equals(annotation.annotationType().getName())) {
-                    return true;
-                }
+    private List<Class<? extends Annotation>> getTestAnnotations(ClassLoader classLoader) {
+        final ClassLoader key = classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+        List<Class<? extends Annotation>> annotations = testAnnotationsByClassLoader.get(key);
+
+        if (annotations == null) {
+            annotations = TestFramework.getTestAnnotations(key);
+            testAnnotationsByClassLoader.putIfAbsent(key, annotations);
+        }
+
+        return annotations;
+    }
+
+    private static boolean isTestMethod(Method method, List<Class<? extends Annotation>> testAnnotations) {
+        for (final Class<? extends Annotation> testAnnotation : testAnnotations) {
+            if (method.isAnnotationPresent(testAnnotation)) {
+                return true;
             }
         }
         return false;
     }
+
+    private static Map<Method, List<Annotation>> compact(Map<Method, List<Annotation>> methodAnnotationsMap) {
+        if (methodAnnotationsMap.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // lists shared by several methods, like the class annotations, stay shared
+        final Map<List<Annotation>, List<Annotation>> compacted = new IdentityHashMap<List<Annotation>, List<Annotation>>();
+        final Map<Method, List<Annotation>> compactMap = new HashMap<Method, List<Annotation>>(
+            (int) (methodAnnotationsMap.size() / 0.75f) + 1);
+
+        for (final Map.Entry<Method, List<Annotation>> entry : methodAnnotationsMap.entrySet()) {
+            List<Annotation> annotations = compacted.get(entry.getValue());
+            if (annotations == null) {
+                annotations = entry.getValue().size() == 1
+                    ? Collections.singletonList(entry.getValue().get(0))
+                    : Collections.unmodifiableList(Arrays.asList(entry.getValue().toArray(new Annotation[entry.getValue().size()])));
+                compacted.put(entry.getValue(), annotations);
+            }
+            compactMap.put(entry.getKey(), annotations);
+        }
+
+        return Collections.unmodifiableMap(compactMap);
+    }
 }
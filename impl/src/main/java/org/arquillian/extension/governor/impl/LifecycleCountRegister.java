@@ -0,0 +1,58 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import org.jboss.arquillian.core.spi.Validate;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the lifecycle events every test method went through, safe to be shared by test methods running in parallel.
+ */
+public class LifecycleCountRegister {
+
+    private final ConcurrentMap<Method, AtomicInteger> counts = new ConcurrentHashMap<Method, AtomicInteger>();
+
+    /**
+     * Counts one more lifecycle event of the test method.
+     *
+     * @param testMethod
+     * @return number of events of the test method counted before this one
+     */
+    public int increment(Method testMethod) {
+        Validate.notNull(testMethod, "Test method has to be specified.");
+
+        AtomicInteger count = counts.get(testMethod);
+        if (count == null) {
+            final AtomicInteger created = new AtomicInteger();
+            count = counts.putIfAbsent(testMethod, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+
+        return count.getAndIncrement();
+    }
+
+    public int get(Method testMethod) {
+        final AtomicInteger count = counts.get(testMethod);
+        return count == null ? 0 : count.get();
+    }
+}
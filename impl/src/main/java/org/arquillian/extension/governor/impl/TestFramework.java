@@ -16,6 +16,10 @@
  */
 package org.arquillian.extension.governor.impl;
 
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Supported testing frameworks.
  */
@@ -36,4 +40,23 @@ public enum TestFramework {
     public String getClassName() {
         return className;
     }
+
+    /**
+     * @param classLoader class loader of the test classes
+     * @return test annotations of the testing frameworks the class loader is able to load
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Class<? extends Annotation>> getTestAnnotations(ClassLoader classLoader) {
+        final List<Class<? extends Annotation>> testAnnotations = new ArrayList<Class<? extends Annotation>>();
+
+        for (final TestFramework testFramework : values()) {
+            try {
+                testAnnotations.add((Class<? extends Annotation>) Class.forName(testFramework.className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                // testing framework not used by the test classes
+            }
+        }
+
+        return testAnnotations;
+    }
 }
@@ -25,43 +25,102 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
+ * Execution decisions of the test methods, registered per test class so test classes running in parallel do not
+ * clear the decisions of each other.
+ *
+ * Decisions are indexed by test method, so resolving the decision of a test method neither scans the decisions of
+ * the other test methods nor allocates. Registering and clearing decisions is serialized, resolving them is not.
+ *
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
  */
 public final class TestMethodExecutionRegister {
 
-    private static final List<MethodExecutionDecision> methodExecutionDecisions = new ArrayList<TestMethodExecutionRegister.MethodExecutionDecision>();
+    private static final ConcurrentMap<Class<?>, List<MethodExecutionDecision>> methodExecutionDecisions = new ConcurrentHashMap<Class<?>, List<MethodExecutionDecision>>();
+    private static final ConcurrentMap<Method, MethodExecutionDecision[]> decisionsByTestMethod = new ConcurrentHashMap<Method, MethodExecutionDecision[]>();
     private static final ExecutionDecision DEFAULT_EXECUTION_DECISION = ExecutionDecision.execute("default execution");
-    private static GovernorConfiguration governorConfiguration;
+    private static volatile GovernorConfiguration governorConfiguration;
 
     private TestMethodExecutionRegister() {
     }
 
-    public static void clear() {
+    public static synchronized void clear() {
         methodExecutionDecisions.clear();
+        decisionsByTestMethod.clear();
     }
 
-    public static void put(String testMethod, Class<? extends Annotation> annotation, ExecutionDecision executionDecision) {
-        final MethodExecutionDecision methodExecutionDecision = new MethodExecutionDecision(testMethod, annotation, executionDecision);
+    /**
+     * Drops the decisions registered for the test class only.
+     *
+     * @param testClass
+     */
+    public static synchronized void clear(Class<?> testClass) {
+        Validate.notNull(testClass, "Test class has to be specified.");
+
+        final List<MethodExecutionDecision> decisions = methodExecutionDecisions.remove(testClass);
 
-        methodExecutionDecisions.add(methodExecutionDecision);
+        if (decisions == null) {
+            return;
+        }
+
+        for (final MethodExecutionDecision decision : decisions) {
+            unindex(decision);
+        }
+    }
+
+    /**
+     * Registers the decision of a test method for a governor annotation, replacing the one already registered for
+     * the same test class, test method and annotation.
+     */
+    public static synchronized void put(Class<?> testClass, Method testMethod, Class<? extends Annotation> annotation, ExecutionDecision executionDecision) {
+        Validate.notNull(testClass, "Test class has to be specified.");
+
+        final MethodExecutionDecision methodExecutionDecision = new MethodExecutionDecision(testClass, testMethod, annotation, executionDecision);
+
+        List<MethodExecutionDecision> decisions = methodExecutionDecisions.get(testClass);
+        if (decisions == null) {
+            decisions = new CopyOnWriteArrayList<MethodExecutionDecision>();
+            methodExecutionDecisions.put(testClass, decisions);
+        }
+
+        for (final MethodExecutionDecision registered : decisions) {
+            if (registered.isFor(testMethod, annotation)) {
+                decisions.remove(registered);
+                unindex(registered);
+                break;
+            }
+        }
+
+        decisions.add(methodExecutionDecision);
+        index(methodExecutionDecision);
     }
 
     public static List<MethodExecutionDecision> getAll() {
-        return Collections.unmodifiableList(methodExecutionDecisions);
+        final List<MethodExecutionDecision> all = new ArrayList<MethodExecutionDecision>();
+
+        for (final List<MethodExecutionDecision> decisions : methodExecutionDecisions.values()) {
+            all.addAll(decisions);
+        }
+
+        return Collections.unmodifiableList(all);
     }
 
     public static ExecutionDecision resolve(Method testMethod, Class<? extends Annotation> annotation) {
-        final String annotationName = annotation.getName();
-
-        if (annotationName.equals(TestMethodExecutionRegister.governorConfiguration.getIgnoreOnly())) {
+        if (annotation.getName().equals(TestMethodExecutionRegister.governorConfiguration.getIgnoreOnly())) {
             return DEFAULT_EXECUTION_DECISION;
         }
 
-        for (final MethodExecutionDecision methodExecutionDecision : methodExecutionDecisions) {
-            if (methodExecutionDecision.getTestMethod().equals(testMethod.toString()) && methodExecutionDecision.getAnnotation() == annotation) {
-                return methodExecutionDecision.getExecutionDecision();
+        final MethodExecutionDecision[] decisions = decisionsByTestMethod.get(testMethod);
+
+        if (decisions != null) {
+            for (final MethodExecutionDecision methodExecutionDecision : decisions) {
+                if (methodExecutionDecision.annotation == annotation) {
+                    return methodExecutionDecision.executionDecision;
+                }
             }
         }
 
@@ -73,26 +132,77 @@ public final class TestMethodExecutionRegister {
         TestMethodExecutionRegister.governorConfiguration = governorConfiguration;
     }
 
+    // the arrays of the index are never modified once published, they are replaced
+
+    private static void index(MethodExecutionDecision decision) {
+        final MethodExecutionDecision[] indexed = decisionsByTestMethod.get(decision.method);
+
+        if (indexed == null) {
+            decisionsByTestMethod.put(decision.method, new MethodExecutionDecision[] {decision});
+        } else {
+            final MethodExecutionDecision[] updated = new MethodExecutionDecision[indexed.length + 1];
+            System.arraycopy(indexed, 0, updated, 0, indexed.length);
+            updated[indexed.length] = decision;
+            decisionsByTestMethod.put(decision.method, updated);
+        }
+    }
+
+    private static void unindex(MethodExecutionDecision decision) {
+        final MethodExecutionDecision[] indexed = decisionsByTestMethod.get(decision.method);
+
+        if (indexed == null) {
+            return;
+        }
+
+        final List<MethodExecutionDecision> remaining = new ArrayList<MethodExecutionDecision>(indexed.length);
+        for (final MethodExecutionDecision candidate : indexed) {
+            if (candidate != decision) {
+                remaining.add(candidate);
+            }
+        }
+
+        if (remaining.isEmpty()) {
+            decisionsByTestMethod.remove(decision.method);
+        } else {
+            decisionsByTestMethod.put(decision.method, remaining.toArray(new MethodExecutionDecision[remaining.size()]));
+        }
+    }
+
     public static final class MethodExecutionDecision {
 
-        private final String testMethod;
+        private final Class<?> testClass;
+
+        private final Method method;
 
         private final Class<? extends Annotation> annotation;
 
         private final ExecutionDecision executionDecision;
 
-        public MethodExecutionDecision(String testMethod, Class<? extends Annotation> annotation, ExecutionDecision executionDecision) {
+        public MethodExecutionDecision(Class<?> testClass, Method testMethod, Class<? extends Annotation> annotation, ExecutionDecision executionDecision) {
+            Validate.notNull(testClass, "Test class has to be specified.");
             Validate.notNull(testMethod, "Test method has to be specified.");
             Validate.notNull(annotation, "Annotation has to be specified.");
             Validate.notNull(executionDecision, "Execution decision has to be specified.");
 
-            this.testMethod = testMethod;
+            this.testClass = testClass;
+            this.method = testMethod;
             this.annotation = annotation;
             this.executionDecision = executionDecision;
         }
 
+        public Class<?> getTestClass() {
+            return testClass;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * @return test method as reported, like {@link Method#toString()}
+         */
         public String getTestMethod() {
-            return testMethod;
+            return method.toString();
         }
 
         public Class<? extends Annotation> getAnnotation() {
@@ -102,5 +212,9 @@ public final class TestMethodExecutionRegister {
         public ExecutionDecision getExecutionDecision() {
             return executionDecision;
         }
+
+        boolean isFor(Method testMethod, Class<? extends Annotation> annotation) {
+            return this.annotation == annotation && method.equals(testMethod);
+        }
     }
 }
@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Governor annotations of the test methods, indexed at compile time by the governor annotation processor. Only the
+ * indexed methods of a class are looked up, by their signature. A class whose superclasses are not the indexed ones
+ * any more is not resolved from the index, its inherited test methods may have changed.
+ *
+ * Every index found on the class path of a class loader is loaded once per JVM. Classes compiled without the
+ * processor are not indexed and have to be scanned by reflection.
+ */
+public class GovernorIndex {
+
+    /**
+     * Location of the index on the class path, written by {@code GovernorIndexProcessor}.
+     */
+    public static final String RESOURCE = "META-INF/arquillian-governor/test-methods.idx";
+
+    private static final Logger logger = Logger.getLogger(GovernorIndex.class.getName());
+
+    private static final String CHARSET = "UTF-8";
+
+    private static final Map<ClassLoader, GovernorIndex> indexes = new WeakHashMap<ClassLoader, GovernorIndex>();
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<String, Class<?>>();
+
+    static {
+        for (final Class<?> primitiveType : new Class<?>[] {boolean.class, byte.class, char.class, short.class, int.class,
+            long.class, float.class, double.class}) {
+            PRIMITIVE_TYPES.put(primitiveType.getName(), primitiveType);
+        }
+    }
+
+    private final Map<String, IndexedClass> classes = new HashMap<String, IndexedClass>();
+
+    GovernorIndex() {
+    }
+
+    /**
+     * @param classLoader class loader of the test classes
+     * @return indexes on the class path of the class loader, loaded on the first call for that class loader
+     */
+    public static synchronized GovernorIndex forClassLoader(ClassLoader classLoader) {
+        final ClassLoader key = classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+        GovernorIndex index = indexes.get(key);
+
+        if (index == null) {
+            index = new GovernorIndex();
+            try {
+                final Enumeration<URL> resources = key.getResources(RESOURCE);
+                while (resources.hasMoreElements()) {
+                    final URL resource = resources.nextElement();
+                    final Reader reader = new InputStreamReader(resource.openStream(), CHARSET);
+                    try {
+                        index.load(reader);
+                    } finally {
+                        reader.close();
+                    }
+                }
+            } catch (IOException ex) {
+                // classes missing in the index are scanned by reflection
+                logger.log(Level.WARNING, String.format("Unable to load governor index %s: %s", RESOURCE, ex.getMessage()));
+            }
+            indexes.put(key, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * @param testClass
+     * @return governor annotations of the governed test methods of the class, null when the class is not indexed or
+     * the index does not match the class any more
+     */
+    public Map<Method, List<Annotation>> getGovernedMethods(Class<?> testClass) {
+        final IndexedClass indexed = classes.get(testClass.getName());
+
+        if (indexed == null || !indexed.hasSuperclasses(testClass)) {
+            return null;
+        }
+
+        final Map<Method, List<Annotation>> governedMethods = new HashMap<Method, List<Annotation>>();
+
+        // only the indexed methods are looked up, the class is not scanned
+        for (final Map.Entry<String, String[]> entry : indexed.methods.entrySet()) {
+            final Method method = getMethod(testClass, entry.getKey());
+            if (method == null) {
+                return null;
+            }
+
+            final List<Annotation> annotations = new ArrayList<Annotation>(entry.getValue().length);
+            for (final String annotationType : entry.getValue()) {
+                final Annotation annotation = getAnnotation(testClass, method, annotationType);
+                if (annotation == null) {
+                    return null;
+                }
+                annotations.add(annotation);
+            }
+            governedMethods.put(method, annotations);
+        }
+
+        return governedMethods;
+    }
+
+    public boolean isEmpty() {
+        return classes.isEmpty();
+    }
+
+    // helpers
+
+    void load(Reader reader) throws IOException {
+        final BufferedReader lines = new BufferedReader(reader);
+        IndexedClass indexed = null;
+        String line;
+
+        while ((line = lines.readLine()) != null) {
+            if (line.startsWith("\t")) {
+                if (indexed == null) {
+                    throw new IOException("Test method without test class in " + RESOURCE + ": " + line);
+                }
+                final String[] fields = line.substring(1).split(" ");
+                final String[] annotationTypes = new String[fields.length - 1];
+                System.arraycopy(fields, 1, annotationTypes, 0, annotationTypes.length);
+
+                indexed.methods.put(fields[0], annotationTypes);
+            } else if (line.length() != 0 && !line.startsWith("#")) {
+                final String[] types = line.split(" ");
+                indexed = new IndexedClass(Arrays.copyOfRange(types, 1, types.length));
+                classes.put(types[0], indexed);
+            }
+        }
+    }
+
+    static String signature(Method method) {
+        final StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(parameterTypes[i].getCanonicalName());
+        }
+
+        return signature.append(')').toString();
+    }
+
+    /**
+     * @return public method of the class with the signature, null when it has no such method any more
+     */
+    private static Method getMethod(Class<?> testClass, String signature) {
+        final int parameters = signature.indexOf('(');
+        final String parameterList = signature.substring(parameters + 1, signature.length() - 1);
+        final String[] parameterTypeNames = parameterList.length() == 0 ? new String[0] : parameterList.split(",");
+        final Class<?>[] parameterTypes = new Class<?>[parameterTypeNames.length];
+
+        try {
+            for (int i = 0; i < parameterTypeNames.length; i++) {
+                parameterTypes[i] = loadType(parameterTypeNames[i], testClass.getClassLoader());
+            }
+            return testClass.getMethod(signature.substring(0, parameters), parameterTypes);
+        } catch (ClassNotFoundException ex) {
+            return null;
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @param canonicalName canonical name of a type, as in a signature of the index
+     */
+    private static Class<?> loadType(String canonicalName, ClassLoader classLoader) throws ClassNotFoundException {
+        if (canonicalName.endsWith("[]")) {
+            final Class<?> componentType = loadType(canonicalName.substring(0, canonicalName.length() - 2), classLoader);
+            return Array.newInstance(componentType, 0).getClass();
+        }
+
+        final Class<?> primitiveType = PRIMITIVE_TYPES.get(canonicalName);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        // nested classes have a '$' instead of the last dots of their canonical name
+        String name = canonicalName;
+        while (true) {
+            try {
+                return Class.forName(name, false, classLoader);
+            } catch (ClassNotFoundException ex) {
+                final int dot = name.lastIndexOf('.');
+                if (dot < 0) {
+                    throw ex;
+                }
+                name = name.substring(0, dot) + '$' + name.substring(dot + 1);
+            }
+        }
+    }
+
+    private static Annotation getAnnotation(Class<?> testClass, Method method, String annotationTypeName) {
+        final Class<? extends Annotation> annotationType;
+        try {
+            annotationType = Class.forName(annotationTypeName, false, testClass.getClassLoader()).asSubclass(Annotation.class);
+        } catch (Exception ex) {
+            return null;
+        }
+
+        final Annotation annotation = method.getAnnotation(annotationType);
+        return annotation != null ? annotation : testClass.getAnnotation(annotationType);
+    }
+
+    private static class IndexedClass {
+        private final String[] superclasses;
+        private final Map<String, String[]> methods = new HashMap<String, String[]>();
+
+        IndexedClass(String[] superclasses) {
+            this.superclasses = superclasses;
+        }
+
+        boolean hasSuperclasses(Class<?> testClass) {
+            Class<?> superclass = testClass.getSuperclass();
+
+            for (final String superclassName : superclasses) {
+                if (superclass == null || !superclass.getName().equals(superclassName)) {
+                    return false;
+                }
+                superclass = superclass.getSuperclass();
+            }
+
+            return superclass == null || superclass == Object.class;
+        }
+    }
+}
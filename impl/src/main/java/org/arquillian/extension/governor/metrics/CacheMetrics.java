@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hits and misses of a cache of a provider.
+ */
+public class CacheMetrics {
+
+    private final String provider;
+
+    private final String cache;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    CacheMetrics(String provider, String cache) {
+        this.provider = provider;
+        this.cache = cache;
+    }
+
+    void record(boolean hit) {
+        (hit ? hits : misses).incrementAndGet();
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return hits per lookup, 0 when there was no lookup
+     */
+    public double getHitRatio() {
+        final long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0 : (double) hits.get() / lookups;
+    }
+}
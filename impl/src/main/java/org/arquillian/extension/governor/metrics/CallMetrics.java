@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and outcomes of one operation of a provider.
+ */
+public class CallMetrics {
+
+    private final String provider;
+
+    private final String operation;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final Map<CallOutcome, AtomicLong> outcomes = new EnumMap<CallOutcome, AtomicLong>(CallOutcome.class);
+
+    CallMetrics(String provider, String operation) {
+        this.provider = provider;
+        this.operation = operation;
+
+        // filled once, so the map is only read afterwards
+        for (final CallOutcome outcome : CallOutcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+    }
+
+    void record(CallOutcome outcome, long nanos) {
+        outcomes.get(outcome).incrementAndGet();
+
+        // calls never sent took no time on the server
+        if (outcome != CallOutcome.FALLBACK) {
+            latency.record(nanos);
+        }
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getCount(CallOutcome outcome) {
+        return outcomes.get(outcome).get();
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * Time the governor adds to a suite: latencies and outcomes of the calls every provider makes to its issue tracker,
+ * hits and misses of their caches and the time spent scanning and deciding every test class.
+ *
+ * Metrics are collected for the whole JVM from any thread and reset when a suite starts. They are written as a JSON
+ * summary after the suite when the {@code metricsFile} property of the governor is set.
+ */
+public class GovernorMetrics {
+
+    /**
+     * Retrieval of the issue a test method is governed by.
+     */
+    public static final String RESOLVE = "resolve";
+
+    /**
+     * Remote lookup of the facts a validation rule needs, like the Test Runs of a Test.
+     */
+    public static final String VALIDATION = "validation";
+
+    private static final GovernorMetrics metrics = new GovernorMetrics();
+
+    private final ConcurrentMap<String, CallMetrics> calls = new ConcurrentHashMap<String, CallMetrics>();
+
+    private final ConcurrentMap<String, CacheMetrics> caches = new ConcurrentHashMap<String, CacheMetrics>();
+
+    private final ConcurrentMap<String, AtomicLong> scans = new ConcurrentHashMap<String, AtomicLong>();
+
+    GovernorMetrics() {
+    }
+
+    /**
+     * @return metrics of the JVM
+     */
+    public static GovernorMetrics getInstance() {
+        return metrics;
+    }
+
+    /**
+     * Records a call started at {@code startNanos}, as returned by {@link System#nanoTime()}, and ended now.
+     *
+     * @param provider provider making the call, like {@code jira}
+     * @param operation operation of the call, like {@link #RESOLVE}
+     */
+    public void recordCall(String provider, String operation, CallOutcome outcome, long startNanos) {
+        Validate.notNull(outcome, "Call outcome must be specified.");
+
+        getCallMetrics(provider, operation).record(outcome, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a call which was not sent because the circuit of the server was open.
+     */
+    public void recordFallback(String provider, String operation) {
+        getCallMetrics(provider, operation).record(CallOutcome.FALLBACK, 0);
+    }
+
+    /**
+     * @param cache name of the cache of the provider, like {@code issueState}
+     * @param hit true when the value was found in the cache
+     */
+    public void recordCacheLookup(String provider, String cache, boolean hit) {
+        final String key = key(provider, cache);
+        CacheMetrics cacheMetrics = caches.get(key);
+
+        if (cacheMetrics == null) {
+            final CacheMetrics created = new CacheMetrics(provider, cache);
+            cacheMetrics = caches.putIfAbsent(key, created);
+            if (cacheMetrics == null) {
+                cacheMetrics = created;
+            }
+        }
+
+        cacheMetrics.record(hit);
+    }
+
+    /**
+     * Records the time spent scanning the test class and deciding the execution of its test methods.
+     */
+    public void recordScan(Class<?> testClass, long nanos) {
+        Validate.notNull(testClass, "Test class must be specified.");
+
+        AtomicLong scanNanos = scans.get(testClass.getName());
+
+        if (scanNanos == null) {
+            final AtomicLong created = new AtomicLong();
+            scanNanos = scans.putIfAbsent(testClass.getName(), created);
+            if (scanNanos == null) {
+                scanNanos = created;
+            }
+        }
+
+        scanNanos.addAndGet(nanos);
+    }
+
+    /**
+     * @return metrics of every operation called, ordered by provider and operation
+     */
+    public List<CallMetrics> getCalls() {
+        final List<CallMetrics> result = new ArrayList<CallMetrics>(new TreeMap<String, CallMetrics>(calls).values());
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return metrics of every cache looked up, ordered by provider and cache
+     */
+    public List<CacheMetrics> getCaches() {
+        final List<CacheMetrics> result = new ArrayList<CacheMetrics>(new TreeMap<String, CacheMetrics>(caches).values());
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return nanoseconds spent on every test class, slowest first
+     */
+    public Map<String, Long> getScans() {
+        final List<Map.Entry<String, AtomicLong>> entries = new ArrayList<Map.Entry<String, AtomicLong>>(scans.entrySet());
+
+        Collections.sort(entries, new Comparator<Map.Entry<String, AtomicLong>>() {
+            @Override
+            public int compare(Map.Entry<String, AtomicLong> first, Map.Entry<String, AtomicLong> second) {
+                final long difference = second.getValue().get() - first.getValue().get();
+                return difference > 0 ? 1 : difference < 0 ? -1 : first.getKey().compareTo(second.getKey());
+            }
+        });
+
+        final Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (final Map.Entry<String, AtomicLong> entry : entries) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return nanoseconds every provider spent in calls to its issue tracker, ordered by provider
+     */
+    public Map<String, Long> getProviderNanos() {
+        final Map<String, Long> result = new TreeMap<String, Long>();
+
+        for (final CallMetrics callMetrics : calls.values()) {
+            final Long nanos = result.get(callMetrics.getProvider());
+            result.put(callMetrics.getProvider(), (nanos == null ? 0 : nanos) + callMetrics.getLatency().getTotalNanos());
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Forgets every metric, done when a suite starts.
+     */
+    public void reset() {
+        calls.clear();
+        caches.clear();
+        scans.clear();
+    }
+
+    /**
+     * Writes the metrics as a JSON document.
+     */
+    public void writeSummary(File file) throws IOException {
+        Validate.notNull(file, "Metrics file must be specified.");
+
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory " + parent);
+        }
+
+        final Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+
+        try {
+            out.write(toJson());
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @return metrics as a JSON document, times in milliseconds
+     */
+    public String toJson() {
+        final StringBuilder json = new StringBuilder("{\n");
+
+        json.append("  \"providers\": [");
+        String separator = "\n";
+        for (final Map.Entry<String, Long> provider : getProviderNanos().entrySet()) {
+            json.append(separator).append("    {\"provider\": ").append(quote(provider.getKey()))
+                .append(", \"totalMillis\": ").append(millis(provider.getValue())).append("}");
+            separator = ",\n";
+        }
+        json.append("\n  ],\n");
+
+        json.append("  \"calls\": [");
+        separator = "\n";
+        for (final CallMetrics callMetrics : getCalls()) {
+            final LatencyHistogram latency = callMetrics.getLatency();
+
+            json.append(separator).append("    {\"provider\": ").append(quote(callMetrics.getProvider()))
+                .append(", \"operation\": ").append(quote(callMetrics.getOperation()));
+            for (final CallOutcome outcome : CallOutcome.values()) {
+                json.append(", \"").append(outcome.name().toLowerCase(Locale.ENGLISH)).append("\": ").append(callMetrics.getCount(outcome));
+            }
+            json.append(", \"totalMillis\": ").append(millis(latency.getTotalNanos()))
+                .append(", \"meanMillis\": ").append(millis(latency.getMeanNanos()))
+                .append(", \"p50Millis\": ").append(millis(latency.getPercentileNanos(50)))
+                .append(", \"p90Millis\": ").append(millis(latency.getPercentileNanos(90)))
+                .append(", \"p99Millis\": ").append(millis(latency.getPercentileNanos(99)))
+                .append(", \"maxMillis\": ").append(millis(latency.getMaxNanos())).append("}");
+            separator = ",\n";
+        }
+        json.append("\n  ],\n");
+
+        json.append("  \"caches\": [");
+        separator = "\n";
+        for (final CacheMetrics cacheMetrics : getCaches()) {
+            json.append(separator).append("    {\"provider\": ").append(quote(cacheMetrics.getProvider()))
+                .append(", \"cache\": ").append(quote(cacheMetrics.getCache()))
+                .append(", \"hits\": ").append(cacheMetrics.getHits())
+                .append(", \"misses\": ").append(cacheMetrics.getMisses())
+                .append(", \"hitRatio\": ").append(String.format(Locale.ENGLISH, "%.3f", cacheMetrics.getHitRatio())).append("}");
+            separator = ",\n";
+        }
+        json.append("\n  ],\n");
+
+        json.append("  \"testClasses\": [");
+        separator = "\n";
+        for (final Map.Entry<String, Long> scan : getScans().entrySet()) {
+            json.append(separator).append("    {\"testClass\": ").append(quote(scan.getKey()))
+                .append(", \"millis\": ").append(millis(scan.getValue())).append("}");
+            separator = ",\n";
+        }
+        json.append("\n  ]\n");
+
+        return json.append("}\n").toString();
+    }
+
+    // helpers
+
+    private CallMetrics getCallMetrics(String provider, String operation) {
+        final String key = key(provider, operation);
+        CallMetrics callMetrics = calls.get(key);
+
+        if (callMetrics == null) {
+            final CallMetrics created = new CallMetrics(provider, operation);
+            callMetrics = calls.putIfAbsent(key, created);
+            if (callMetrics == null) {
+                callMetrics = created;
+            }
+        }
+
+        return callMetrics;
+    }
+
+    private static String key(String provider, String name) {
+        Validate.notNull(provider, "Provider must be specified.");
+        Validate.notNull(name, "Metric name must be specified.");
+
+        return provider + " " + name;
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ENGLISH, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static String quote(String value) {
+        final StringBuilder quoted = new StringBuilder("\"");
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.jboss.arquillian.core.api.Event;
+import org.jboss.arquillian.core.api.Instance;
+import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
+import org.jboss.arquillian.test.spi.event.suite.BeforeSuite;
+
+/**
+ * Resets the {@link GovernorMetrics} when the suite starts and reports them once the operations of every provider
+ * are done after the suite.
+ */
+public class GovernorMetricsObserver {
+
+    private static final Logger logger = Logger.getLogger(GovernorMetricsObserver.class.getName());
+
+    @Inject
+    private Instance<GovernorConfiguration> governorConfiguration;
+
+    @Inject
+    private Event<GovernorMetricsReported> governorMetricsReported;
+
+    public void onBeforeSuite(@Observes(precedence = 100) BeforeSuite event) {
+        GovernorMetrics.getInstance().reset();
+    }
+
+    // after the outbox is flushed
+    public void onAfterSuite(@Observes(precedence = -200) AfterSuite event) {
+        final GovernorConfiguration governorConfiguration = this.governorConfiguration.get();
+
+        if (governorConfiguration == null) {
+            return;
+        }
+
+        final GovernorMetrics governorMetrics = GovernorMetrics.getInstance();
+        final String metricsFile = governorConfiguration.getMetricsFile();
+
+        if (metricsFile.length() != 0) {
+            try {
+                governorMetrics.writeSummary(new File(metricsFile));
+            } catch (IOException e) {
+                logger.log(Level.WARNING, String.format("Unable to write governor metrics %s: %s", metricsFile, e.getMessage()));
+            }
+        }
+
+        if (governorConfiguration.getMetricsReport()) {
+            governorMetricsReported.fire(new GovernorMetricsReported(governorMetrics));
+        }
+    }
+}
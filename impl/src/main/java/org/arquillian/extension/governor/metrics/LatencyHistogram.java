@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with power of two microsecond buckets, recorded from any thread without locking.
+ *
+ * Bucket {@code i} counts the latencies below {@code 2^(i+1)} microseconds, percentiles are reported as the upper
+ * bound of their bucket, so they are at most twice the real value.
+ */
+public class LatencyHistogram {
+
+    // the last bucket takes everything from about 35 minutes on
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        final long value = Math.max(nanos, 0);
+        final long micros = TimeUnit.NANOSECONDS.toMicros(value);
+
+        buckets.incrementAndGet(Math.min(63 - Long.numberOfLeadingZeros(micros | 1), BUCKETS - 1));
+        count.incrementAndGet();
+        totalNanos.addAndGet(value);
+
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getMeanNanos() {
+        final long recorded = count.get();
+        return recorded == 0 ? 0 : totalNanos.get() / recorded;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return upper bound of the bucket the percentile falls in, never more than the maximum recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, it is " + percentile);
+        }
+
+        final long recorded = count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(recorded * percentile / 100));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(TimeUnit.MICROSECONDS.toNanos(2L << i), maxNanos.get());
+            }
+        }
+
+        return maxNanos.get();
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.outbox;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.arquillian.extension.governor.metrics.CallOutcome;
+import org.arquillian.extension.governor.metrics.GovernorMetrics;
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * Write-behind queue of the write operations of every provider, like closing an issue whose test passed.
+ *
+ * Operations are executed by a pool of background workers, so observers only queue them, and failed operations are
+ * retried with an exponential backoff. When a journal file is set every operation is appended to it before it is
+ * executed and marked as done afterwards. Operations still pending when the JVM dies or when {@link #flush(long,
+ * TimeUnit)} gives up are executed again in the next run, once their provider registers its handler. Operations
+ * done after the flush are still marked as done in the journal, so they are not executed twice.
+ */
+public class GovernorOutbox {
+
+    private static final Logger logger = Logger.getLogger(GovernorOutbox.class.getName());
+
+    private static final String CHARSET = "UTF-8";
+
+    private static final String ADDED = "+";
+
+    private static final String DONE = "-";
+
+    private final File journal;
+
+    private final int maxAttempts;
+
+    private final long backoff;
+
+    private final ScheduledExecutorService executor;
+
+    private final Map<String, OutboxOperation> pending = new LinkedHashMap<String, OutboxOperation>();
+
+    private final Map<String, OutboxHandler> handlers = new HashMap<String, OutboxHandler>();
+
+    private final Set<String> scheduled = new HashSet<String>();
+
+    private FileOutputStream journalOut;
+
+    private boolean closed = false;
+
+    /**
+     * @param journal file the operations are journaled in, null to keep them in memory only
+     * @param workers number of operations executed concurrently
+     * @param maxAttempts number of attempts to execute an operation in a run
+     * @param backoff milliseconds to wait before the first retry, doubled on every further retry
+     */
+    public GovernorOutbox(File journal, int workers, int maxAttempts, long backoff) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Number of outbox workers must be greater than 0.");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Number of outbox attempts must be greater than 0.");
+        }
+
+        this.journal = journal == null ? null : journal.getAbsoluteFile();
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.executor = Executors.newScheduledThreadPool(workers, new OutboxThreadFactory());
+    }
+
+    /**
+     * Loads the operations left pending in the journal by previous runs.
+     */
+    public synchronized void open() throws IOException {
+        if (journal == null) {
+            return;
+        }
+
+        if (journal.isFile()) {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(journal), CHARSET));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    replay(line);
+                }
+            } finally {
+                reader.close();
+            }
+
+            if (!pending.isEmpty()) {
+                logger.log(Level.INFO, String.format("%d issue tracker operations left pending by a previous run will be executed again.", pending.size()));
+            }
+        }
+
+        writeJournal();
+    }
+
+    /**
+     * Registers the handler of the operations of a provider and server and schedules the pending ones.
+     */
+    public synchronized void register(String provider, String server, OutboxHandler handler) {
+        Validate.notNull(handler, "Outbox handler must be specified.");
+
+        handlers.put(scopeKey(provider, server), handler);
+
+        for (final OutboxOperation operation : pending.values()) {
+            if (operation.getProvider().equals(provider) && operation.getServer().equals(server)
+                && !scheduled.contains(operation.getId())) {
+                schedule(operation, 0);
+            }
+        }
+    }
+
+    /**
+     * Journals the operation and schedules it once the handler of its provider and server is registered.
+     */
+    public synchronized void enqueue(OutboxOperation operation) {
+        Validate.notNull(operation, "Outbox operation must be specified.");
+
+        if (closed) {
+            throw new IllegalStateException("Outbox was already flushed, operation " + operation + " can not be queued.");
+        }
+
+        appendToJournal(ADDED, operation.getId(), operation.getProvider(), operation.getServer(), operation.getOperation(),
+            operation.getIssueKey(), operation.getPayload());
+        pending.put(operation.getId(), operation);
+
+        if (handlers.containsKey(scopeKey(operation.getProvider(), operation.getServer()))) {
+            schedule(operation, 0);
+        }
+    }
+
+    /**
+     * Waits for the scheduled operations and stops the workers. Operations not done by then are kept in the journal.
+     *
+     * @return true when no operation is pending anymore
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        final long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+
+        synchronized (this) {
+            try {
+                long remaining = deadline - System.currentTimeMillis();
+                while (!scheduled.isEmpty() && remaining > 0) {
+                    wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            closed = true;
+            executor.shutdownNow();
+
+            for (final OutboxOperation operation : pending.values()) {
+                logger.log(Level.WARNING, String.format("Issue tracker operation %s was not done%s.", operation,
+                    journal == null ? "" : ", it is kept in " + journal + " for the next run"));
+            }
+
+            try {
+                writeJournal();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, String.format("Unable to write outbox journal %s: %s", journal, e.getMessage()));
+            }
+
+            return pending.isEmpty();
+        }
+    }
+
+    /**
+     * @return operations not done yet, in the order they were queued
+     */
+    public synchronized List<OutboxOperation> getPending() {
+        return new ArrayList<OutboxOperation>(pending.values());
+    }
+
+    /**
+     * @return true when some operation of the provider, of any server, was not executed yet
+     */
+    public synchronized boolean hasPending(String provider) {
+        for (final OutboxOperation operation : pending.values()) {
+            if (operation.getProvider().equals(provider)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // helpers
+
+    private void schedule(OutboxOperation operation, long delay) {
+        scheduled.add(operation.getId());
+        executor.schedule(new Attempt(operation), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void execute(OutboxOperation operation) {
+        final OutboxHandler handler;
+        synchronized (this) {
+            handler = handlers.get(scopeKey(operation.getProvider(), operation.getServer()));
+        }
+
+        final long start = System.nanoTime();
+
+        try {
+            handler.execute(operation);
+            GovernorMetrics.getInstance().recordCall(operation.getProvider(), operation.getOperation(), CallOutcome.SUCCESS, start);
+            done(operation);
+        } catch (Exception e) {
+            GovernorMetrics.getInstance().recordCall(operation.getProvider(), operation.getOperation(), CallOutcome.FAILURE, start);
+            failed(operation, e);
+        }
+    }
+
+    private synchronized void done(OutboxOperation operation) {
+        pending.remove(operation.getId());
+        scheduled.remove(operation.getId());
+
+        if (closed) {
+            appendToClosedJournal(DONE, operation.getId());
+        } else {
+            appendToJournal(DONE, operation.getId());
+        }
+        notifyAll();
+    }
+
+    private synchronized void failed(OutboxOperation operation, Exception e) {
+        final int attempts = operation.attempted();
+
+        if (attempts < maxAttempts && !closed) {
+            final long delay = backoff << Math.min(attempts - 1, 16);
+            logger.log(Level.INFO, String.format("Issue tracker operation %s failed, retrying in %d ms. Exception: %s", operation, delay, e.getMessage()));
+            schedule(operation, delay);
+        } else {
+            logger.log(Level.WARNING, String.format("Issue tracker operation %s failed %d times. Exception: %s", operation, attempts, e.getMessage()));
+            scheduled.remove(operation.getId());
+            notifyAll();
+        }
+    }
+
+    private void replay(String line) {
+        final String[] fields = line.split(" ", -1);
+
+        try {
+            if (ADDED.equals(fields[0]) && fields.length == 7) {
+                final OutboxOperation operation = new OutboxOperation(decode(fields[1]), decode(fields[2]), decode(fields[3]),
+                    decode(fields[4]), decode(fields[5]), decode(fields[6]));
+                pending.put(operation.getId(), operation);
+            } else if (DONE.equals(fields[0]) && fields.length == 2) {
+                pending.remove(decode(fields[1]));
+            }
+            // anything else is a line torn by a JVM dying while it was written
+        } catch (IOException e) {
+            logger.log(Level.WARNING, String.format("Ignoring unreadable line of outbox journal %s: %s", journal, e.getMessage()));
+        }
+    }
+
+    /**
+     * Replaces the journal with the pending operations only, and reopens it for appending unless the outbox is closed.
+     */
+    private void writeJournal() throws IOException {
+        if (journal == null) {
+            return;
+        }
+
+        if (journalOut != null) {
+            journalOut.close();
+            journalOut = null;
+        }
+
+        if (pending.isEmpty()) {
+            if (journal.isFile() && !journal.delete()) {
+                throw new IOException("Unable to delete " + journal);
+            }
+        } else {
+            final File parent = journal.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Unable to create directory " + parent);
+            }
+
+            final File temporary = new File(journal.getPath() + ".tmp");
+            journalOut = new FileOutputStream(temporary);
+            for (final OutboxOperation operation : pending.values()) {
+                appendToJournal(ADDED, operation.getId(), operation.getProvider(), operation.getServer(), operation.getOperation(),
+                    operation.getIssueKey(), operation.getPayload());
+            }
+            journalOut.close();
+            journalOut = null;
+
+            if (!temporary.renameTo(journal) && !(journal.delete() && temporary.renameTo(journal))) {
+                throw new IOException("Unable to replace " + journal);
+            }
+        }
+
+        if (!closed) {
+            final File parent = journal.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Unable to create directory " + parent);
+            }
+            journalOut = new FileOutputStream(journal, true);
+        }
+    }
+
+    private void appendToJournal(String... fields) {
+        if (journalOut == null) {
+            return;
+        }
+
+        try {
+            final StringBuilder line = new StringBuilder(fields[0]);
+            for (int i = 1; i < fields.length; i++) {
+                line.append(' ').append(URLEncoder.encode(fields[i], CHARSET));
+            }
+            line.append('\n');
+
+            journalOut.write(line.toString().getBytes(CHARSET));
+            journalOut.getChannel().force(false);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, String.format("Unable to write outbox journal %s: %s", journal, e.getMessage()));
+        }
+    }
+
+    /**
+     * Appends to the journal the flush already rewrote, an operation still running then is kept in it.
+     */
+    private void appendToClosedJournal(String... fields) {
+        if (journal == null || !journal.isFile()) {
+            return;
+        }
+
+        try {
+            journalOut = new FileOutputStream(journal, true);
+            try {
+                appendToJournal(fields);
+            } finally {
+                journalOut.close();
+                journalOut = null;
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, String.format("Unable to write outbox journal %s: %s", journal, e.getMessage()));
+        }
+    }
+
+    private static String decode(String field) throws IOException {
+        try {
+            return URLDecoder.decode(field, CHARSET);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    private static String scopeKey(String provider, String server) {
+        return provider + " " + server;
+    }
+
+    private class Attempt implements Runnable {
+        private final OutboxOperation operation;
+
+        Attempt(OutboxOperation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void run() {
+            execute(operation);
+        }
+    }
+
+    private static class OutboxThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "governor-outbox-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
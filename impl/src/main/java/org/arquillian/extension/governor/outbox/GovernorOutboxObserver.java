@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.outbox;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.arquillian.extension.governor.spi.event.GovernorExtensionConfigured;
+import org.jboss.arquillian.core.api.Instance;
+import org.jboss.arquillian.core.api.InstanceProducer;
+import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
+import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
+
+/**
+ * Starts the {@link GovernorOutbox} before the providers are configured, so they can register their handlers, and
+ * flushes it once every provider queued its operations after the suite. The outbox is only started when it is turned
+ * on in the configuration, the providers execute their operations inline otherwise.
+ */
+public class GovernorOutboxObserver {
+
+    private static final Logger logger = Logger.getLogger(GovernorOutboxObserver.class.getName());
+
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<GovernorOutbox> governorOutbox;
+
+    @Inject
+    private Instance<GovernorConfiguration> governorConfiguration;
+
+    public void onGovernorExtensionConfigured(@Observes(precedence = 100) GovernorExtensionConfigured event,
+                                              GovernorConfiguration governorConfiguration) {
+        final String journal = governorConfiguration.getOutboxJournal();
+
+        if (!governorConfiguration.getOutbox() && journal.length() == 0) {
+            return;
+        }
+
+        final GovernorOutbox governorOutbox = new GovernorOutbox(journal.length() == 0 ? null : new File(journal),
+            governorConfiguration.getOutboxWorkers(),
+            governorConfiguration.getOutboxAttempts(),
+            governorConfiguration.getOutboxBackoff());
+
+        try {
+            governorOutbox.open();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, String.format("Unable to read outbox journal %s: %s", journal, e.getMessage()));
+        }
+
+        this.governorOutbox.set(governorOutbox);
+    }
+
+    public void onAfterSuite(@Observes(precedence = -100) AfterSuite event) {
+        final GovernorOutbox governorOutbox = this.governorOutbox.get();
+
+        if (governorOutbox != null) {
+            governorOutbox.flush(governorConfiguration.get().getOutboxTimeout(), TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.outbox;
+
+/**
+ * Executes the write operations a provider queued in the {@link GovernorOutbox}.
+ *
+ * An operation may be executed more than once, when an earlier attempt failed or the JVM died before it was recorded
+ * as done, so handlers have to be idempotent.
+ */
+public interface OutboxHandler {
+
+    /**
+     * @param operation operation to execute
+     * @throws Exception when the operation failed and has to be retried
+     */
+    void execute(OutboxOperation operation) throws Exception;
+}
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.outbox;
+
+import java.util.UUID;
+
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * Write operation of a provider on an issue, like closing or reopening it.
+ */
+public class OutboxOperation {
+
+    public static final String CLOSE = "close";
+
+    public static final String OPEN = "open";
+
+    public static final String UPDATE = "update";
+
+    private final String id;
+
+    private final String provider;
+
+    private final String server;
+
+    private final String operation;
+
+    private final String issueKey;
+
+    private final String payload;
+
+    private int attempts = 0;
+
+    /**
+     * @param provider provider the operation belongs to, like {@code jira}
+     * @param server server of the provider the operation is executed against
+     * @param operation kind of operation, like {@link #CLOSE}
+     * @param issueKey issue the operation is executed on
+     * @param payload additional data of the operation, may be null
+     */
+    public OutboxOperation(String provider, String server, String operation, String issueKey, String payload) {
+        this(UUID.randomUUID().toString(), provider, server, operation, issueKey, payload);
+    }
+
+    OutboxOperation(String id, String provider, String server, String operation, String issueKey, String payload) {
+        Validate.notNull(provider, "Provider must be specified.");
+        Validate.notNull(server, "Server must be specified.");
+        Validate.notNull(operation, "Operation must be specified.");
+        Validate.notNull(issueKey, "Issue key must be specified.");
+
+        this.id = id;
+        this.provider = provider;
+        this.server = server;
+        this.operation = operation;
+        this.issueKey = issueKey;
+        this.payload = payload == null ? "" : payload;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getIssueKey() {
+        return issueKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * @return number of attempts to execute the operation in this run
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    int attempted() {
+        return ++attempts;
+    }
+
+    @Override
+    public String toString() {
+        return provider + " " + operation + " " + issueKey + " (" + server + ")";
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.registry;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * REST clients shared by every Arquillian run of the JVM, so a suite started after another one reuses the connection
+ * pools, authentication and server handshakes of the previous one.
+ *
+ * Clients are keyed by kind, server and credentials and are reference counted. A client nobody holds any more stays
+ * open for the next suite, every client is closed at JVM shutdown.
+ */
+public class GovernorClientRegistry {
+
+    private static final Logger logger = Logger.getLogger(GovernorClientRegistry.class.getName());
+
+    private static GovernorClientRegistry registry;
+
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    private final Map<Object, Entry> entriesByClient = new IdentityHashMap<Object, Entry>();
+
+    GovernorClientRegistry() {
+    }
+
+    /**
+     * @return registry of the JVM, closing its clients at JVM shutdown
+     */
+    public static synchronized GovernorClientRegistry getInstance() {
+        if (registry == null) {
+            registry = new GovernorClientRegistry();
+            Runtime.getRuntime().addShutdownHook(new CloseOnShutdown(registry));
+        }
+
+        return registry;
+    }
+
+    /**
+     * Creates and opens a client.
+     *
+     * @param <T> type of the client
+     */
+    public interface Connector<T> {
+
+        T connect() throws Exception;
+
+        void disconnect(T client) throws Exception;
+    }
+
+    /**
+     * Hands out the client of the kind for the server and credentials, connecting it on the first call.
+     *
+     * @param kind kind of the client, clients of different types must not share a kind
+     * @param server server the client talks to
+     * @param username user name, null or empty when anonymous
+     * @param password password or token of the user
+     * @param connector connects the client when there is none yet
+     * @return shared client, to be given back with {@link #release(Object)}
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T acquire(String kind, String server, String username, String password, Connector<T> connector) throws Exception {
+        Validate.notNull(kind, "Client kind must be specified.");
+        Validate.notNull(server, "Server must be specified.");
+        Validate.notNull(connector, "Connector must be specified.");
+
+        final String key = key(kind, server, username, password);
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            final T client = connector.connect();
+            Validate.notNull(client, "Connector of " + kind + " did not connect any client.");
+
+            entry = new Entry(kind, server, client, (Connector<Object>) connector);
+            entries.put(key, entry);
+            entriesByClient.put(client, entry);
+        }
+
+        entry.references++;
+
+        return (T) entry.client;
+    }
+
+    /**
+     * Gives back a client handed out by {@link #acquire(String, String, String, String, Connector)}. The client stays
+     * open for later runs.
+     *
+     * @param client
+     */
+    public synchronized void release(Object client) {
+        final Entry entry = client == null ? null : entriesByClient.get(client);
+
+        if (entry != null && entry.references > 0) {
+            entry.references--;
+        }
+    }
+
+    /**
+     * @return number of holders of the client, 0 when it is not held or not registered
+     */
+    public synchronized int getReferences(Object client) {
+        final Entry entry = client == null ? null : entriesByClient.get(client);
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * Disconnects every client, held or not, and forgets them.
+     */
+    public void closeAll() {
+        final List<Entry> closed;
+
+        synchronized (this) {
+            closed = new ArrayList<Entry>(entries.values());
+            entries.clear();
+            entriesByClient.clear();
+        }
+
+        for (final Entry entry : closed) {
+            try {
+                entry.connector.disconnect(entry.client);
+            } catch (Exception ex) {
+                logger.log(Level.WARNING, String.format("Unable to close %s client of %s: %s", entry.kind, entry.server, ex.getMessage()));
+            }
+        }
+    }
+
+    // helpers
+
+    private static String key(String kind, String server, String username, String password) {
+        // credentials are kept only as a digest
+        return kind + " " + server + " " + digest((username == null ? "" : username) + ":" + (password == null ? "" : password));
+    }
+
+    private static String digest(String value) {
+        try {
+            final byte[] bytes = MessageDigest.getInstance("SHA-256").digest(value.getBytes("UTF-8"));
+            final StringBuilder hex = new StringBuilder(bytes.length * 2);
+
+            for (final byte b : bytes) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+
+            return hex.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static class Entry {
+        private final String kind;
+        private final String server;
+        private final Object client;
+        private final Connector<Object> connector;
+        private int references = 0;
+
+        Entry(String kind, String server, Object client, Connector<Object> connector) {
+            this.kind = kind;
+            this.server = server;
+            this.client = client;
+            this.connector = connector;
+        }
+    }
+
+    private static class CloseOnShutdown extends Thread {
+        private final GovernorClientRegistry registry;
+
+        CloseOnShutdown(GovernorClientRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void run() {
+            registry.closeAll();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.registry;
+
+/**
+ * Governor client created on its first use, so a test suite without any annotation of the provider never connects
+ * to its server nor loads its client libraries.
+ *
+ * Arquillian resolves instances by their class, every provider extends this class with its own.
+ *
+ * @param <C> type of the governor client
+ */
+public abstract class LazyGovernorClient<C> {
+
+    private volatile C client;
+
+    /**
+     * @return governor client, created on the first call
+     * @throws IllegalStateException when the client can not be created
+     */
+    public C get() {
+        C result = client;
+
+        if (result == null) {
+            synchronized (this) {
+                result = client;
+                if (result == null) {
+                    try {
+                        result = create();
+                    } catch (RuntimeException ex) {
+                        throw ex;
+                    } catch (Exception ex) {
+                        throw new IllegalStateException("Unable to create governor client: " + ex.getMessage(), ex);
+                    }
+                    client = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return true when the client was already created
+     */
+    public boolean isCreated() {
+        return client != null;
+    }
+
+    protected abstract C create() throws Exception;
+}
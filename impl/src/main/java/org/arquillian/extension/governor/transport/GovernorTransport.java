@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.transport;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * Transport the HTTP clients of the providers are built on, it records their interactions or replays them from a
+ * file instead of reaching the issue trackers.
+ *
+ * Every provider wraps its HTTP client so each request asks {@link #replay(String)} for its response when replaying,
+ * or hands the response it received to {@link #record(String, int, String)} when recording. Requests are identified
+ * by {@link #key(String, String, String)}, credentials must be kept out of the key.
+ */
+public class GovernorTransport {
+
+    private static final String CHARSET = "UTF-8";
+
+    private static final GovernorTransport LIVE = new GovernorTransport(null);
+
+    private final TransportRecording recording;
+
+    GovernorTransport(TransportRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * @return transport reaching the issue trackers
+     */
+    public static GovernorTransport live() {
+        return LIVE;
+    }
+
+    /**
+     * @param governorConfiguration configuration of the transport mode and file
+     * @return transport of the configuration
+     * @throws IOException when the transport file can not be opened
+     */
+    public static GovernorTransport forConfiguration(GovernorConfiguration governorConfiguration) throws IOException {
+        Validate.notNull(governorConfiguration, "Governor configuration has to be set.");
+
+        final TransportMode mode = governorConfiguration.getTransport();
+
+        if (mode == TransportMode.LIVE) {
+            return LIVE;
+        }
+
+        return new GovernorTransport(TransportRecording.forFile(new File(governorConfiguration.getTransportFile()), mode));
+    }
+
+    public TransportMode getMode() {
+        return recording == null ? TransportMode.LIVE : recording.getMode();
+    }
+
+    public boolean isLive() {
+        return recording == null;
+    }
+
+    public boolean isReplaying() {
+        return getMode() == TransportMode.REPLAY;
+    }
+
+    /**
+     * Scopes a kind of client of {@link org.arquillian.extension.governor.registry.GovernorClientRegistry} to the
+     * transport, so live, recording and replaying clients of the same server are never shared.
+     *
+     * @param kind kind of the client
+     * @return kind of the client built on this transport
+     */
+    public String kind(String kind) {
+        if (recording == null) {
+            return kind;
+        }
+
+        return kind + " " + recording.getMode().name().toLowerCase() + " " + recording.getFile();
+    }
+
+    /**
+     * @return recorded response of the request of the given key
+     * @throws IOException when nothing was recorded for it, the providers handle it as a failed request
+     */
+    public RecordedResponse replay(String key) throws IOException {
+        if (!isReplaying()) {
+            throw new IllegalStateException("Transport is not replaying.");
+        }
+
+        return recording.replay(key);
+    }
+
+    /**
+     * Stores the response of the request of the given key, ignored unless the transport is recording.
+     */
+    public void record(String key, int status, String body) {
+        if (getMode() == TransportMode.RECORD) {
+            recording.record(key, new RecordedResponse(status, body));
+        }
+    }
+
+    /**
+     * @param method HTTP method of the request
+     * @param uri URI of the request, without credentials
+     * @param body body of the request, null when it has none
+     * @return key identifying the request in a recording
+     */
+    public static String key(String method, String uri, String body) {
+        final StringBuilder key = new StringBuilder(method.toUpperCase()).append(' ').append(uri);
+
+        if (body != null && body.length() != 0) {
+            key.append(' ').append(digest(body));
+        }
+
+        return key.toString();
+    }
+
+    @Override
+    public String toString() {
+        return recording == null ? "live" : getMode().name().toLowerCase() + " " + recording.getFile();
+    }
+
+    private static String digest(String body) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-1").digest(body.getBytes(CHARSET));
+            final StringBuilder hex = new StringBuilder(hash.length * 2);
+
+            for (final byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+
+            return hex.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.transport;
+
+/**
+ * Status and body of a response recorded by the transport.
+ */
+public class RecordedResponse {
+
+    private final int status;
+
+    private final String body;
+
+    public RecordedResponse(int status, String body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return body of the response, null when it had none
+     */
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return status + (body == null ? "" : " (" + body.length() + " characters)");
+    }
+}
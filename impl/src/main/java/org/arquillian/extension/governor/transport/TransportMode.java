@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.transport;
+
+/**
+ * How the governor clients reach their issue trackers.
+ */
+public enum TransportMode {
+
+    /**
+     * Requests go to the issue tracker.
+     */
+    LIVE,
+
+    /**
+     * Requests go to the issue tracker and every response is recorded in the transport file.
+     */
+    RECORD,
+
+    /**
+     * Requests are answered from the transport file, the issue tracker is never reached.
+     */
+    REPLAY;
+
+    /**
+     * @param value name of the mode, case insensitive
+     * @return mode of the given name
+     * @throws IllegalArgumentException when there is no mode of that name
+     */
+    public static TransportMode parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Transport mode must be specified.");
+        }
+
+        for (final TransportMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown transport mode " + value);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.transport;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * Responses of the issue trackers recorded in a file, one line per interaction, so a run can be repeated without
+ * reaching them.
+ *
+ * Interactions are stored under the key of their request. A request made several times is answered with its
+ * responses in the order they were recorded, the last one is repeated once they are exhausted. Every file is opened
+ * once per JVM, recording truncates it on the first open and appends every interaction as soon as it happens.
+ */
+public class TransportRecording {
+
+    private static final Logger logger = Logger.getLogger(TransportRecording.class.getName());
+
+    private static final String CHARSET = "UTF-8";
+
+    private static final String NO_BODY = "~";
+
+    private static final Map<File, TransportRecording> recordings = new HashMap<File, TransportRecording>();
+
+    private final File file;
+
+    private final TransportMode mode;
+
+    private final Map<String, List<RecordedResponse>> responses = new HashMap<String, List<RecordedResponse>>();
+
+    private final Map<String, Integer> replayed = new HashMap<String, Integer>();
+
+    private FileOutputStream out;
+
+    TransportRecording(File file, TransportMode mode) {
+        this.file = file;
+        this.mode = mode;
+    }
+
+    /**
+     * @param file file the interactions are stored in
+     * @param mode {@link TransportMode#RECORD} or {@link TransportMode#REPLAY}
+     * @return recording stored in the file, opened on the first call for that file
+     * @throws IOException when the file can not be opened
+     * @throws IllegalStateException when the file is already opened in the other mode
+     */
+    public static synchronized TransportRecording forFile(File file, TransportMode mode) throws IOException {
+        Validate.notNull(file, "Transport file must be specified.");
+        Validate.notNull(mode, "Transport mode must be specified.");
+
+        if (mode == TransportMode.LIVE) {
+            throw new IllegalArgumentException("Live transport does not use a recording.");
+        }
+
+        final File key = file.getAbsoluteFile();
+        TransportRecording recording = recordings.get(key);
+
+        if (recording == null) {
+            recording = new TransportRecording(key, mode);
+            if (mode == TransportMode.RECORD) {
+                recording.create();
+            } else {
+                recording.load();
+            }
+            recordings.put(key, recording);
+        } else if (recording.mode != mode) {
+            throw new IllegalStateException(String.format("Transport file %s is already opened to %s.", key,
+                recording.mode.name().toLowerCase()));
+        }
+
+        return recording;
+    }
+
+    public TransportMode getMode() {
+        return mode;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Stores the response received for the request of the given key.
+     */
+    public synchronized void record(String key, RecordedResponse response) {
+        Validate.notNull(key, "Request key must be specified.");
+        Validate.notNull(response, "Response must be specified.");
+
+        getResponses(key).add(response);
+
+        if (out == null) {
+            return;
+        }
+
+        try {
+            final String line = URLEncoder.encode(key, CHARSET) + " " + response.getStatus() + " "
+                + (response.getBody() == null ? NO_BODY : URLEncoder.encode(response.getBody(), CHARSET)) + "\n";
+            out.write(line.getBytes(CHARSET));
+            out.flush();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, String.format("Unable to write transport file %s: %s", file, e.getMessage()));
+        }
+    }
+
+    /**
+     * @return next response recorded for the request of the given key
+     * @throws IOException when no response was recorded for it
+     */
+    public synchronized RecordedResponse replay(String key) throws IOException {
+        final List<RecordedResponse> recorded = responses.get(key);
+
+        if (recorded == null || recorded.isEmpty()) {
+            throw new IOException(String.format("No response recorded in %s for %s", file, key));
+        }
+
+        final Integer count = replayed.get(key);
+        final int index = count == null ? 0 : count;
+        replayed.put(key, index + 1);
+
+        return recorded.get(Math.min(index, recorded.size() - 1));
+    }
+
+    /**
+     * @return number of distinct requests recorded
+     */
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    /**
+     * Stops writing to the file, responses already recorded can still be replayed.
+     */
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    // helpers
+
+    private void create() throws IOException {
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory " + parent);
+        }
+        out = new FileOutputStream(file, false);
+    }
+
+    void load() throws IOException {
+        if (!file.isFile()) {
+            throw new IOException("Transport file " + file + " does not exist, record it first.");
+        }
+
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                parse(line);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void parse(String line) {
+        final String[] fields = line.split(" ", -1);
+
+        try {
+            if (fields.length != 3) {
+                // a line torn by a JVM dying while it was written
+                throw new IOException("unexpected number of fields");
+            }
+            final String body = NO_BODY.equals(fields[2]) ? null : decode(fields[2]);
+            getResponses(decode(fields[0])).add(new RecordedResponse(Integer.parseInt(fields[1]), body));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, String.format("Ignoring unreadable line of transport file %s: %s", file, e.getMessage()));
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, String.format("Ignoring unreadable line of transport file %s: %s", file, e.getMessage()));
+        }
+    }
+
+    private List<RecordedResponse> getResponses(String key) {
+        List<RecordedResponse> recorded = responses.get(key);
+
+        if (recorded == null) {
+            recorded = new ArrayList<RecordedResponse>();
+            responses.put(key, recorded);
+        }
+
+        return recorded;
+    }
+
+    private static String decode(String field) throws IOException {
+        try {
+            return URLDecoder.decode(field, CHARSET);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+}
@@ -17,21 +17,28 @@
 package org.arquillian.extension.governor;
 
 import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.api.GovernorClient;
+import org.arquillian.extension.governor.api.GovernorClients;
 import org.arquillian.extension.governor.api.GovernorRegistry;
+import org.arquillian.extension.governor.api.GovernorStrategy;
 import org.arquillian.extension.governor.configuration.GovernorConfiguration;
 import org.arquillian.extension.governor.configuration.GovernorConfigurator;
 import org.arquillian.extension.governor.impl.GovernorExecutionDecider;
 import org.arquillian.extension.governor.impl.GovernorTestClassScanner;
+import org.arquillian.extension.governor.impl.TestMethodExecutionRegister;
 import org.arquillian.extension.governor.spi.GovernorProvider;
 import org.arquillian.extension.governor.spi.event.DecideMethodExecutions;
 import org.arquillian.extension.governor.spi.event.ExecutionDecisionEvent;
 import org.jboss.arquillian.core.api.InstanceProducer;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.arquillian.core.api.annotation.Observes;
 import org.jboss.arquillian.core.spi.Manager;
 import org.jboss.arquillian.core.spi.ServiceLoader;
 import org.jboss.arquillian.core.spi.context.ApplicationContext;
 import org.jboss.arquillian.test.spi.event.suite.BeforeClass;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision.Decision;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -47,6 +54,8 @@ import java.lang.annotation.Target;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -83,6 +92,7 @@ public class GovernorTestCase extends AbstractGovernorTestCase {
         extensions.add(GovernorTestClassScanner.class);
         extensions.add(GovernorExecutionDecider.class);
         extensions.add(GovernorConfigurator.class);
+        extensions.add(FakeGovernorDecider.class);
     }
 
     @Before
@@ -122,8 +132,23 @@ public class GovernorTestCase extends AbstractGovernorTestCase {
         final List<Method> dumymGovernorMethods = governorRegistry.getMethodsForAnnotation(DummyGovernor.class);
         assertEquals(1, dumymGovernorMethods.size());
 
-        // for every method and for every Governor annotation of that method
-        assertEventFired(ExecutionDecisionEvent.class, 3);
+        // for every method and for every Governor annotation of that method a provider provides
+        assertEventFired(ExecutionDecisionEvent.class, 2);
+    }
+
+    @Test
+    public void resolveAnnotationsOfClassConcurrently() throws Exception {
+        // both lookups have to be in flight at the same time to get past the latch
+        FakeGovernorClient.resolving = new CountDownLatch(2);
+
+        fire(new BeforeClass(AsyncTestClass.class));
+
+        assertEventFired(ExecutionDecisionEvent.class, 2);
+
+        assertEquals(Decision.DONT_EXECUTE,
+            TestMethodExecutionRegister.resolve(AsyncTestClass.class.getMethod("skippedTest"), FakeGovernor.class).getDecision());
+        assertEquals(Decision.EXECUTE,
+            TestMethodExecutionRegister.resolve(AsyncTestClass.class.getMethod("executedTest"), FakeGovernor.class).getDecision());
     }
 
     // utils
@@ -142,6 +167,46 @@ public class GovernorTestCase extends AbstractGovernorTestCase {
         String value() default "";
     }
 
+    public static class FakeGovernorDecider {
+
+        private final GovernorClient<FakeGovernor, GovernorStrategy> client = new FakeGovernorClient();
+
+        public void on(@Observes ExecutionDecisionEvent event) {
+            if (event.getAnnotation().annotationType() == FakeGovernor.class
+                && ((FakeGovernor) event.getAnnotation()).value().length() != 0) {
+                event.setDecision(GovernorClients.async(client, event.getExecutor()).resolveAsync((FakeGovernor) event.getAnnotation()));
+            }
+        }
+    }
+
+    private static class FakeGovernorClient implements GovernorClient<FakeGovernor, GovernorStrategy> {
+
+        private static volatile CountDownLatch resolving;
+
+        @Override
+        public ExecutionDecision resolve(FakeGovernor annotation) {
+            resolving.countDown();
+
+            try {
+                if (!resolving.await(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Annotations were not resolved concurrently.");
+                }
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            return "skip".equals(annotation.value()) ? ExecutionDecision.dontExecute("skipped") : ExecutionDecision.execute();
+        }
+
+        @Override
+        public void close(String id) {
+        }
+
+        @Override
+        public void setGovernorStrategy(GovernorStrategy strategy) {
+        }
+    }
+
     private static final class FakeTestClass {
         @Test
         @FakeGovernor
@@ -158,4 +223,16 @@ public class GovernorTestCase extends AbstractGovernorTestCase {
         public void someTestMethod() {
         }
     }
+
+    private static final class AsyncTestClass {
+        @Test
+        @FakeGovernor("skip")
+        public void skippedTest() {
+        }
+
+        @Test
+        @FakeGovernor("execute")
+        public void executedTest() {
+        }
+    }
 }
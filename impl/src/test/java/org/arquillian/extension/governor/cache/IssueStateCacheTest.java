@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class IssueStateCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStoreAndLoad() throws Exception {
+        final File file = new File(folder.getRoot(), "cache/issues.bin");
+
+        final IssueStateCache cache = new IssueStateCache(file);
+        cache.put("jira", "https://issues.jboss.org", "ARQ-1", "Closed");
+        cache.put("jira", "https://issues.jboss.org", "ARQ-2", "Open");
+        cache.put("github", "arquillian/arquillian-governor", "1", "open");
+        cache.synced("jira", "https://issues.jboss.org", 1234L);
+        cache.store();
+
+        final IssueStateCache loaded = new IssueStateCache(file);
+        loaded.load();
+
+        assertEquals("Closed", loaded.get("jira", "https://issues.jboss.org", "ARQ-1"));
+        assertEquals("Open", loaded.get("jira", "https://issues.jboss.org", "ARQ-2"));
+        assertEquals("open", loaded.get("github", "arquillian/arquillian-governor", "1"));
+        assertEquals(1234L, loaded.getLastSync("jira", "https://issues.jboss.org"));
+        assertEquals(0L, loaded.getLastSync("github", "arquillian/arquillian-governor"));
+        assertNull(loaded.get("jira", "https://other.server", "ARQ-1"));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final IssueStateCache cache = new IssueStateCache(new File(folder.getRoot(), "issues.bin"));
+        cache.put("jira", "https://issues.jboss.org", "ARQ-1", "Closed");
+        cache.synced("jira", "https://issues.jboss.org", 1234L);
+
+        cache.invalidate("jira", "https://issues.jboss.org");
+
+        assertNull(cache.get("jira", "https://issues.jboss.org", "ARQ-1"));
+        assertTrue(cache.getIssueKeys("jira", "https://issues.jboss.org").isEmpty());
+        assertEquals(0L, cache.getLastSync("jira", "https://issues.jboss.org"));
+    }
+
+    @Test
+    public void testCorruptedFileIsDiscarded() throws Exception {
+        final File file = folder.newFile("corrupted.bin");
+        final FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[] { 1, 2, 3 });
+        out.close();
+
+        final IssueStateCache cache = IssueStateCache.forFile(file);
+
+        assertTrue(cache.getIssueKeys("jira", "https://issues.jboss.org").isEmpty());
+    }
+}
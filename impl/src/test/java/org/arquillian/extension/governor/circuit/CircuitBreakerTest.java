@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.circuit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision.Decision;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CircuitBreakerTest {
+
+    @After
+    public void clearBreakers() {
+        CircuitBreaker.clear();
+    }
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        final ManualClockCircuitBreaker breaker = new ManualClockCircuitBreaker(3, 1000, CircuitBreakerFallback.SKIP);
+
+        breaker.failure(new Exception("Connection refused"));
+        breaker.failure(new Exception("Connection refused"));
+        breaker.success();
+        breaker.failure(new Exception("Connection refused"));
+        breaker.failure(new Exception("Connection refused"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+
+        breaker.failure(new Exception("Connection refused"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(Decision.DONT_EXECUTE, breaker.getFallbackDecision().getDecision());
+    }
+
+    @Test
+    public void testHalfOpensToProbe() {
+        final ManualClockCircuitBreaker breaker = new ManualClockCircuitBreaker(1, 1000, CircuitBreakerFallback.EXECUTE);
+
+        breaker.failure(new Exception("Connection refused"));
+        breaker.now = 999;
+        assertFalse(breaker.allowRequest());
+
+        // a single probe is let through, the failed probe opens the circuit again
+        breaker.now = 1000;
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        breaker.failure(new Exception("Connection refused"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.now = 2000;
+        assertTrue(breaker.allowRequest());
+        breaker.success();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testSharedPerServer() {
+        final CircuitBreaker breaker = CircuitBreaker.forServer("jira", "https://issues.jboss.org", 5, 1000, CircuitBreakerFallback.CACHED);
+        breaker.remember("ARQ-1", "Closed");
+
+        assertSame(breaker, CircuitBreaker.forServer("jira", "https://issues.jboss.org", 5, 1000, CircuitBreakerFallback.CACHED));
+        assertEquals("Closed", CircuitBreaker.forServer("jira", "https://issues.jboss.org", 5, 1000, CircuitBreakerFallback.CACHED).getLastState("ARQ-1"));
+        assertNull(CircuitBreaker.forServer("github", "https://issues.jboss.org", 5, 1000, CircuitBreakerFallback.CACHED).getLastState("ARQ-1"));
+    }
+
+    @Test
+    public void testCreatedAgainWithOtherSettings() {
+        final CircuitBreaker breaker = CircuitBreaker.forServer("jira", "https://issues.jboss.org", 1, 1000, CircuitBreakerFallback.SKIP);
+        breaker.failure(new Exception("Connection refused"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        final CircuitBreaker reconfigured = CircuitBreaker.forServer("jira", "https://issues.jboss.org", 5, 1000, CircuitBreakerFallback.EXECUTE);
+
+        assertNotSame(breaker, reconfigured);
+        assertEquals(CircuitBreaker.State.CLOSED, reconfigured.getState());
+        assertEquals(CircuitBreakerFallback.EXECUTE, reconfigured.getFallback());
+    }
+
+    @Test
+    public void testClearedAfterSuite() {
+        final CircuitBreaker breaker = CircuitBreaker.forServer("jira", "https://issues.jboss.org", 1, 1000, CircuitBreakerFallback.SKIP);
+        breaker.failure(new Exception("Connection refused"));
+
+        CircuitBreaker.clear();
+
+        final CircuitBreaker next = CircuitBreaker.forServer("jira", "https://issues.jboss.org", 1, 1000, CircuitBreakerFallback.SKIP);
+        assertNotSame(breaker, next);
+        assertEquals(CircuitBreaker.State.CLOSED, next.getState());
+        assertTrue(next.allowRequest());
+    }
+
+    private static class ManualClockCircuitBreaker extends CircuitBreaker {
+        private long now = 0;
+
+        ManualClockCircuitBreaker(int failureThreshold, long openTime, CircuitBreakerFallback fallback) {
+            super("jira https://issues.jboss.org", failureThreshold, openTime, fallback);
+        }
+
+        @Override
+        long currentTimeMillis() {
+            return now;
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package org.arquillian.extension.governor.configuration;
 
+import static org.junit.Assert.assertFalse;
+
 import org.arquillian.extension.governor.api.GovernorConfigurationException;
 import org.hamcrest.junit.ExpectedException;
 import org.junit.Rule;
@@ -43,4 +45,12 @@ public class GovernorConfigurationTest {
         configuration.validate();
     }
 
+    @Test
+    public void testOutboxIsOptIn() throws Exception {
+        final GovernorConfiguration configuration = new GovernorConfiguration();
+
+        assertFalse(configuration.getOutbox());
+        assertFalse(configuration.getOutboxJournal().length() != 0);
+    }
+
 }
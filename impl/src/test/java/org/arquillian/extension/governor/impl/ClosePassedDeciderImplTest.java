@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.arquillian.extension.governor.api.Governor;
+import org.junit.Test;
+
+public class ClosePassedDeciderImplTest {
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Issue {
+        String value();
+    }
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface OtherIssue {
+        String value();
+    }
+
+    public static class Annotated {
+        @Issue("ISSUE-2")
+        @OtherIssue("ISSUE-1")
+        public void first() {
+        }
+
+        @Issue("ISSUE-2")
+        public void second() {
+        }
+
+        @Issue("ISSUE-1")
+        public void third() {
+        }
+    }
+
+    @Test
+    public void shouldMergeFlagsOfSameIssue() throws Exception {
+        final ClosePassedDeciderImpl decider = new ClosePassedDeciderImpl();
+        final Issue first = issue("first");
+        final Issue second = issue("second");
+
+        decider.setClosable(first, true);
+        assertTrue(decider.isCloseable(second));
+
+        decider.setClosable(second, false);
+        decider.setClosable(first, true);
+
+        assertFalse(decider.isCloseable(first));
+        assertEquals(1, decider.get().size());
+        assertSame(first, decider.get().keySet().iterator().next());
+    }
+
+    @Test
+    public void shouldKeepIssuesOfDifferentAnnotationsApart() throws Exception {
+        final ClosePassedDeciderImpl decider = new ClosePassedDeciderImpl();
+
+        decider.setClosable(Annotated.class.getMethod("first").getAnnotation(OtherIssue.class), false);
+        decider.setClosable(issue("third"), true);
+
+        assertTrue(decider.isCloseable(issue("third")));
+        assertEquals(2, decider.get().size());
+    }
+
+    @Test
+    public void shouldNotCloseUnknownIssue() throws Exception {
+        assertFalse(new ClosePassedDeciderImpl().isCloseable(issue("first")));
+    }
+
+    @Test
+    public void shouldOrderIssuesByAnnotationTypeAndId() throws Exception {
+        final ClosePassedDeciderImpl decider = new ClosePassedDeciderImpl();
+
+        decider.setClosable(issue("first"), true);
+        decider.setClosable(Annotated.class.getMethod("first").getAnnotation(OtherIssue.class), true);
+        decider.setClosable(issue("third"), true);
+
+        final List<String> order = new ArrayList<String>();
+        for (final Map.Entry<Annotation, Boolean> entry : decider.get().entrySet()) {
+            final Annotation annotation = entry.getKey();
+            order.add(annotation.annotationType().getSimpleName() + " " + (annotation instanceof Issue
+                ? ((Issue) annotation).value() : ((OtherIssue) annotation).value()));
+        }
+
+        assertEquals("[Issue ISSUE-1, Issue ISSUE-2, OtherIssue ISSUE-1]", order.toString());
+    }
+
+    private static Issue issue(String method) throws Exception {
+        return Annotated.class.getMethod(method).getAnnotation(Issue.class);
+    }
+}
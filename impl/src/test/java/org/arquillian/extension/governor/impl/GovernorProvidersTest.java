@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.spi.GovernorProvider;
+import org.jboss.arquillian.core.spi.ServiceLoader;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+import org.jboss.arquillian.test.spi.execution.TestExecutionDecider;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class GovernorProvidersTest {
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Issue {
+    }
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface OtherIssue {
+    }
+
+    public static class IssueDecider implements TestExecutionDecider, GovernorProvider {
+        @Override
+        public ExecutionDecision decide(Method testMethod) {
+            return ExecutionDecision.execute();
+        }
+
+        @Override
+        public int precedence() {
+            return 0;
+        }
+
+        @Override
+        public Class<? extends Annotation> provides() {
+            return Issue.class;
+        }
+    }
+
+    public static class OtherIssueProvider implements GovernorProvider {
+        @Override
+        public Class<? extends Annotation> provides() {
+            return OtherIssue.class;
+        }
+    }
+
+    public static class DuplicateIssueProvider implements GovernorProvider {
+        @Override
+        public Class<? extends Annotation> provides() {
+            return Issue.class;
+        }
+    }
+
+    @Test
+    public void shouldDiscoverProvidersAndDeciders() {
+        final IssueDecider decider = new IssueDecider();
+        final OtherIssueProvider provider = new OtherIssueProvider();
+
+        final GovernorProviders providers = GovernorProviders.discover(
+            serviceLoader(Arrays.<GovernorProvider>asList(provider, new IssueDecider()), decider));
+
+        assertEquals(2, providers.getProviders().size());
+        assertSame(provider, providers.getProvider(OtherIssue.class));
+        assertSame(IssueDecider.class, providers.getProvider(Issue.class).getClass());
+        assertNull(providers.getProvider(Governor.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectProvidersOfSameAnnotation() {
+        GovernorProviders.discover(serviceLoader(Arrays.<GovernorProvider>asList(new DuplicateIssueProvider()),
+            new IssueDecider()));
+    }
+
+    private static ServiceLoader serviceLoader(List<GovernorProvider> providers, TestExecutionDecider... deciders) {
+        final ServiceLoader serviceLoader = Mockito.mock(ServiceLoader.class);
+
+        Mockito.when(serviceLoader.all(GovernorProvider.class)).thenReturn(providers);
+        Mockito.when(serviceLoader.all(TestExecutionDecider.class)).thenReturn(Arrays.asList(deciders));
+
+        return serviceLoader;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.arquillian.extension.governor.api.Governor;
+import org.jboss.arquillian.test.spi.TestClass;
+import org.junit.Test;
+
+public class GovernorTestClassScannerTest {
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Issue {
+        String value();
+    }
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface OtherIssue {
+        String value();
+    }
+
+    @OtherIssue("OTHER-1")
+    public static class ScannedTestCase {
+        @Test
+        @Issue("ISSUE-1")
+        public void governed() {
+        }
+
+        @Test
+        @OtherIssue("OTHER-2")
+        public void overridden() {
+        }
+
+        @Test
+        public void classGoverned() {
+        }
+
+        @Issue("ISSUE-2")
+        public void notTest() {
+        }
+    }
+
+    public static class NotGovernedTestCase {
+        @Test
+        public void test() {
+        }
+    }
+
+    private final GovernorTestClassScanner scanner = new GovernorTestClassScanner();
+
+    @Test
+    public void shouldMergeMethodAndClassAnnotations() throws Exception {
+        final Map<Method, List<Annotation>> scanned = scanner.scanTestMethods(new TestClass(ScannedTestCase.class), Governor.class);
+        final Annotation classIssue = ScannedTestCase.class.getAnnotation(OtherIssue.class);
+
+        assertEquals(3, scanned.size());
+        assertEquals(Arrays.asList(annotation("governed", Issue.class), classIssue), scanned.get(method("governed")));
+        assertEquals(Arrays.asList(annotation("overridden", OtherIssue.class)), scanned.get(method("overridden")));
+        assertEquals(Arrays.asList(classIssue), scanned.get(method("classGoverned")));
+    }
+
+    @Test
+    public void shouldScanTestClassOnce() throws Exception {
+        final Map<Method, List<Annotation>> scanned = scanner.scanTestMethods(new TestClass(ScannedTestCase.class), Governor.class);
+
+        assertSame(scanned, scanner.scanTestMethods(new TestClass(ScannedTestCase.class), Governor.class));
+        assertEquals(0, scanner.scanTestMethods(new TestClass(NotGovernedTestCase.class), Governor.class).size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldShareImmutableScan() throws Exception {
+        scanner.scanTestMethods(new TestClass(ScannedTestCase.class), Governor.class).get(method("governed")).clear();
+    }
+
+    private static Method method(String name) throws Exception {
+        return ScannedTestCase.class.getMethod(name);
+    }
+
+    private static Annotation annotation(String method, Class<? extends Annotation> annotationType) throws Exception {
+        return method(method).getAnnotation(annotationType);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.arquillian.extension.governor.api.ClosePassedDecider;
+import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.arquillian.extension.governor.utils.ReflectionUtils;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Decides, counts and closes thousands of test methods of test classes running in parallel.
+ */
+public class ParallelExecutionStressTest {
+
+    private static final int THREADS = 32;
+
+    private static final int ROUNDS = 5;
+
+    private static final int ISSUES = 100;
+
+    // methods of these classes stand for the annotated test methods
+    private static final Class<?>[] TEST_CLASSES = {
+        String.class, StringBuilder.class, StringBuffer.class, Character.class, Integer.class, Long.class, Short.class,
+        Byte.class, Double.class, Float.class, Boolean.class, Math.class, StrictMath.class, Arrays.class,
+        Collections.class, ArrayList.class, HashMap.class, java.util.TreeMap.class, java.util.LinkedList.class,
+        java.util.Vector.class, java.util.BitSet.class, java.util.Calendar.class, java.util.Scanner.class,
+        java.math.BigInteger.class, java.math.BigDecimal.class, java.io.File.class, java.nio.ByteBuffer.class,
+        java.nio.CharBuffer.class, Class.class, Thread.class, System.class, Runtime.class
+    };
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Issue {
+        String value();
+    }
+
+    @Before
+    public void setConfiguration() {
+        TestMethodExecutionRegister.setConfigration(new GovernorConfiguration());
+    }
+
+    @After
+    public void clearDecisions() {
+        for (final Class<?> testClass : TEST_CLASSES) {
+            TestMethodExecutionRegister.clear(testClass);
+        }
+    }
+
+    @Test
+    public void shouldKeepDecisionsOfParallelTestClasses() throws Exception {
+        final AtomicInteger resolved = new AtomicInteger();
+
+        runInParallel(new TestClassTask() {
+            @Override
+            public void run(Class<?> testClass, Method[] testMethods) {
+                for (int round = 0; round < ROUNDS; round++) {
+                    TestMethodExecutionRegister.clear(testClass);
+
+                    for (int i = 0; i < testMethods.length; i++) {
+                        TestMethodExecutionRegister.put(testClass, testMethods[i], Issue.class, decision(testMethods[i], i));
+                    }
+
+                    for (int i = 0; i < testMethods.length; i++) {
+                        final ExecutionDecision decision = TestMethodExecutionRegister.resolve(testMethods[i], Issue.class);
+
+                        assertEquals(decision(testMethods[i], i).getDecision(), decision.getDecision());
+                        assertEquals(testMethods[i].toString(), decision.getReason());
+                        resolved.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        assertTrue("Not enough test methods to stress the register: " + resolved, resolved.get() > 1000 * ROUNDS);
+    }
+
+    @Test
+    public void shouldCountEveryLifecycleEventOnce() throws Exception {
+        final LifecycleCountRegister register = new LifecycleCountRegister();
+        final List<Method> allTestMethods = allTestMethods();
+        final AtomicInteger firstEvents = new AtomicInteger();
+
+        runInParallel(new TestClassTask() {
+            @Override
+            public void run(Class<?> testClass, Method[] testMethods) {
+                // every thread goes through the methods of all the test classes
+                for (final Method testMethod : allTestMethods) {
+                    if (register.increment(testMethod) == 0) {
+                        firstEvents.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        assertEquals(allTestMethods.size(), firstEvents.get());
+        for (final Method testMethod : allTestMethods) {
+            assertEquals(TEST_CLASSES.length, register.get(testMethod));
+        }
+    }
+
+    @Test
+    public void shouldMergeClosableFlagsOfParallelTestMethods() throws Exception {
+        final ClosePassedDecider closePassedDecider = new ClosePassedDeciderImpl();
+        final Map<String, Boolean> expected = new HashMap<String, Boolean>();
+
+        for (final Method testMethod : allTestMethods()) {
+            final String id = issueOf(testMethod);
+            final Boolean closable = expected.get(id);
+            expected.put(id, (closable == null || closable) && passed(testMethod));
+        }
+
+        runInParallel(new TestClassTask() {
+            @Override
+            public void run(Class<?> testClass, Method[] testMethods) {
+                for (final Method testMethod : testMethods) {
+                    closePassedDecider.setClosable(issue(issueOf(testMethod)), passed(testMethod));
+                }
+            }
+        });
+
+        final Map<String, Boolean> closable = new HashMap<String, Boolean>();
+        for (final Map.Entry<Annotation, Boolean> entry : closePassedDecider.get().entrySet()) {
+            closable.put(ReflectionUtils.getAnnotationValue(entry.getKey()), entry.getValue());
+        }
+
+        assertEquals(expected, closable);
+    }
+
+    // helpers
+
+    private interface TestClassTask {
+        void run(Class<?> testClass, Method[] testMethods);
+    }
+
+    private static void runInParallel(final TestClassTask task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for (final Class<?> testClass : TEST_CLASSES) {
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        start.await();
+                        task.run(testClass, testClass.getDeclaredMethods());
+                        return null;
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            for (final Future<Object> future : futures) {
+                // rethrows the assertion errors of the test classes
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Method> allTestMethods() {
+        final List<Method> testMethods = new ArrayList<Method>();
+        for (final Class<?> testClass : TEST_CLASSES) {
+            testMethods.addAll(Arrays.asList(testClass.getDeclaredMethods()));
+        }
+        return testMethods;
+    }
+
+    private static ExecutionDecision decision(Method testMethod, int index) {
+        return index % 2 == 0 ? ExecutionDecision.execute(testMethod.toString()) : ExecutionDecision.dontExecute(testMethod.toString());
+    }
+
+    private static String issueOf(Method testMethod) {
+        return "ISSUE-" + ((testMethod.toString().hashCode() & Integer.MAX_VALUE) % ISSUES);
+    }
+
+    private static boolean passed(Method testMethod) {
+        return testMethod.getName().length() % 11 != 0;
+    }
+
+    private static Issue issue(final String id) {
+        return (Issue) Proxy.newProxyInstance(Issue.class.getClassLoader(), new Class<?>[] { Issue.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("value".equals(method.getName())) {
+                    return id;
+                } else if ("annotationType".equals(method.getName())) {
+                    return Issue.class;
+                } else if ("equals".equals(method.getName())) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(method.getName())) {
+                    return System.identityHashCode(proxy);
+                }
+                return "@Issue(" + id + ")";
+            }
+        });
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+
+import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision.Decision;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMethodExecutionRegisterTest {
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Issue {
+    }
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface OtherIssue {
+    }
+
+    public static class BaseTest {
+        public void inherited() {
+        }
+    }
+
+    public static class FirstTest extends BaseTest {
+    }
+
+    public static class SecondTest extends BaseTest {
+    }
+
+    private final GovernorConfiguration configuration = new GovernorConfiguration();
+
+    private Method inherited;
+
+    @Before
+    public void setUp() throws Exception {
+        TestMethodExecutionRegister.setConfigration(configuration);
+        inherited = FirstTest.class.getMethod("inherited");
+    }
+
+    @After
+    public void clearDecisions() {
+        TestMethodExecutionRegister.clear();
+    }
+
+    @Test
+    public void shouldResolveDecisionOfAnnotation() throws Exception {
+        final ExecutionDecision skip = ExecutionDecision.dontExecute("skip");
+        TestMethodExecutionRegister.put(FirstTest.class, inherited, Issue.class, skip);
+
+        assertSame(skip, TestMethodExecutionRegister.resolve(inherited, Issue.class));
+        // method of another test class inheriting the same method is the same test method
+        assertSame(skip, TestMethodExecutionRegister.resolve(SecondTest.class.getMethod("inherited"), Issue.class));
+        assertEquals(Decision.EXECUTE, TestMethodExecutionRegister.resolve(inherited, OtherIssue.class).getDecision());
+    }
+
+    @Test
+    public void shouldReplaceDecisionOfSameTestClass() {
+        TestMethodExecutionRegister.put(FirstTest.class, inherited, Issue.class, ExecutionDecision.dontExecute("first"));
+        TestMethodExecutionRegister.put(FirstTest.class, inherited, Issue.class, ExecutionDecision.execute("second"));
+
+        assertEquals("second", TestMethodExecutionRegister.resolve(inherited, Issue.class).getReason());
+        assertEquals(1, TestMethodExecutionRegister.getAll().size());
+    }
+
+    @Test
+    public void shouldKeepDecisionsOfOtherTestClassWhenCleared() throws Exception {
+        TestMethodExecutionRegister.put(FirstTest.class, inherited, Issue.class, ExecutionDecision.dontExecute("first"));
+        TestMethodExecutionRegister.put(SecondTest.class, SecondTest.class.getMethod("inherited"), Issue.class, ExecutionDecision.dontExecute("second"));
+
+        TestMethodExecutionRegister.clear(FirstTest.class);
+
+        assertEquals("second", TestMethodExecutionRegister.resolve(inherited, Issue.class).getReason());
+        assertEquals(1, TestMethodExecutionRegister.getAll().size());
+        assertSame(SecondTest.class, TestMethodExecutionRegister.getAll().get(0).getTestClass());
+
+        TestMethodExecutionRegister.clear(SecondTest.class);
+
+        assertEquals(Decision.EXECUTE, TestMethodExecutionRegister.resolve(inherited, Issue.class).getDecision());
+    }
+
+    @Test
+    public void shouldExecuteMethodsOfIgnoredAnnotation() {
+        configuration.setIgnoreOnly(Issue.class.getName());
+        TestMethodExecutionRegister.put(FirstTest.class, inherited, Issue.class, ExecutionDecision.dontExecute("skip"));
+
+        assertEquals(Decision.EXECUTE, TestMethodExecutionRegister.resolve(inherited, Issue.class).getDecision());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.arquillian.extension.governor.api.Governor;
+import org.junit.Test;
+
+public class GovernorIndexTest {
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Issue {
+        String value();
+    }
+
+    @Governor
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface OtherIssue {
+        String value();
+    }
+
+    @OtherIssue("OTHER-1")
+    public static class IndexedTestCase {
+        @Test
+        @Issue("ISSUE-1")
+        public void governed(String[] values, int count) {
+        }
+
+        @Test
+        public void notGoverned() {
+        }
+
+        @Issue("ISSUE-2")
+        public void nested(Issue[] issues, IndexedTestCase testCase) {
+        }
+    }
+
+    public static class IndexedSubTestCase extends IndexedTestCase {
+    }
+
+    @Test
+    public void shouldResolveIndexedAnnotations() throws Exception {
+        final GovernorIndex index = load(IndexedTestCase.class.getName(),
+            "\tgoverned(java.lang.String[],int) " + Issue.class.getName() + " " + OtherIssue.class.getName(),
+            "\tnotGoverned() " + OtherIssue.class.getName());
+
+        final Map<Method, List<Annotation>> governedMethods = index.getGovernedMethods(IndexedTestCase.class);
+        final Method governed = IndexedTestCase.class.getMethod("governed", String[].class, int.class);
+        final Method notGoverned = IndexedTestCase.class.getMethod("notGoverned");
+
+        assertEquals(2, governedMethods.size());
+        assertEquals(Arrays.<Annotation>asList(governed.getAnnotation(Issue.class),
+            IndexedTestCase.class.getAnnotation(OtherIssue.class)), governedMethods.get(governed));
+        assertEquals(Arrays.<Annotation>asList(IndexedTestCase.class.getAnnotation(OtherIssue.class)),
+            governedMethods.get(notGoverned));
+    }
+
+    @Test
+    public void shouldResolveParametersOfNestedTypes() throws Exception {
+        final GovernorIndex index = load(IndexedTestCase.class.getName(),
+            "\tnested(" + Issue.class.getCanonicalName() + "[]," + IndexedTestCase.class.getCanonicalName() + ") " + Issue.class.getName());
+
+        final Method nested = IndexedTestCase.class.getMethod("nested", Issue[].class, IndexedTestCase.class);
+
+        assertEquals(Arrays.<Annotation>asList(nested.getAnnotation(Issue.class)), index.getGovernedMethods(IndexedTestCase.class).get(nested));
+    }
+
+    @Test
+    public void shouldResolveTestClassWithoutGovernedMethods() throws Exception {
+        assertTrue(load(IndexedTestCase.class.getName()).getGovernedMethods(IndexedTestCase.class).isEmpty());
+    }
+
+    @Test
+    public void shouldNotResolveClassMissingInIndex() throws Exception {
+        assertNull(load("org.example.OtherTestCase").getGovernedMethods(IndexedTestCase.class));
+    }
+
+    @Test
+    public void shouldNotResolveOutdatedIndex() throws Exception {
+        assertNull(load(IndexedTestCase.class.getName(), "\tremoved() " + Issue.class.getName())
+            .getGovernedMethods(IndexedTestCase.class));
+        assertNull(load(IndexedTestCase.class.getName(), "\tnotGoverned() " + Issue.class.getName())
+            .getGovernedMethods(IndexedTestCase.class));
+    }
+
+    @Test
+    public void shouldResolveInheritedMethodsOfIndexedSuperclasses() throws Exception {
+        final GovernorIndex index = load(IndexedSubTestCase.class.getName() + " " + IndexedTestCase.class.getName(),
+            "\tgoverned(java.lang.String[],int) " + Issue.class.getName());
+
+        final Method governed = IndexedSubTestCase.class.getMethod("governed", String[].class, int.class);
+
+        assertEquals(Arrays.<Annotation>asList(governed.getAnnotation(Issue.class)),
+            index.getGovernedMethods(IndexedSubTestCase.class).get(governed));
+    }
+
+    @Test
+    public void shouldNotResolveClassWithOtherSuperclasses() throws Exception {
+        assertNull(load(IndexedSubTestCase.class.getName(), "\tgoverned(java.lang.String[],int) " + Issue.class.getName())
+            .getGovernedMethods(IndexedSubTestCase.class));
+        assertNull(load(IndexedTestCase.class.getName() + " org.example.BaseTestCase", "\tnotGoverned() " + OtherIssue.class.getName())
+            .getGovernedMethods(IndexedTestCase.class));
+    }
+
+    private static GovernorIndex load(String... lines) throws Exception {
+        final StringBuilder content = new StringBuilder("# Arquillian Governor test method index\n");
+        for (final String line : lines) {
+            content.append(line).append('\n');
+        }
+
+        final GovernorIndex index = new GovernorIndex();
+        index.load(new StringReader(content.toString()));
+        return index;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class GovernorMetricsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPercentilesAreBucketUpperBounds() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 0; i < 98; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(900));
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(900), histogram.getMaxNanos());
+
+        // 3 ms falls in the bucket ending at 4096 microseconds
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(4096), histogram.getPercentileNanos(50));
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(131072), histogram.getPercentileNanos(99));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(900), histogram.getPercentileNanos(100));
+        assertEquals(0, new LatencyHistogram().getPercentileNanos(99));
+    }
+
+    @Test
+    public void testCountsOutcomesAndCacheLookups() {
+        final GovernorMetrics metrics = new GovernorMetrics();
+
+        metrics.recordCall("jira", GovernorMetrics.RESOLVE, CallOutcome.SUCCESS, System.nanoTime());
+        metrics.recordCall("jira", GovernorMetrics.RESOLVE, CallOutcome.FAILURE, System.nanoTime());
+        metrics.recordFallback("jira", GovernorMetrics.RESOLVE);
+        metrics.recordCall("github", "close", CallOutcome.SUCCESS, System.nanoTime());
+        metrics.recordCacheLookup("jira", "issueState", true);
+        metrics.recordCacheLookup("jira", "issueState", true);
+        metrics.recordCacheLookup("jira", "issueState", false);
+
+        final List<CallMetrics> calls = metrics.getCalls();
+        assertEquals(2, calls.size());
+        assertEquals("github", calls.get(0).getProvider());
+
+        final CallMetrics resolve = calls.get(1);
+        assertEquals(1, resolve.getCount(CallOutcome.SUCCESS));
+        assertEquals(1, resolve.getCount(CallOutcome.FAILURE));
+        assertEquals(1, resolve.getCount(CallOutcome.FALLBACK));
+        // calls never sent have no latency
+        assertEquals(2, resolve.getLatency().getCount());
+
+        assertEquals(2.0 / 3, metrics.getCaches().get(0).getHitRatio(), 0.001);
+    }
+
+    @Test
+    public void testWritesSummary() throws Exception {
+        final GovernorMetrics metrics = new GovernorMetrics();
+
+        metrics.recordCall("jira-xray", GovernorMetrics.VALIDATION, CallOutcome.SUCCESS, System.nanoTime());
+        metrics.recordCacheLookup("jira-xray", "testRuns", false);
+        metrics.recordScan(String.class, TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.recordScan(Integer.class, TimeUnit.MILLISECONDS.toNanos(7));
+
+        final File file = new File(folder.getRoot(), "target/governor-metrics.json");
+        metrics.writeSummary(file);
+
+        final String json = metrics.toJson();
+        assertEquals(json.length(), file.length());
+
+        assertTrue(json, json.contains("{\"provider\": \"jira-xray\", \"operation\": \"validation\", \"success\": 1, \"failure\": 0, \"fallback\": 0"));
+        assertTrue(json, json.contains("\"hits\": 0, \"misses\": 1, \"hitRatio\": 0.000"));
+        // slowest test class first
+        assertTrue(json, json.indexOf("java.lang.Integer") < json.indexOf("java.lang.String"));
+        assertTrue(json, json.contains("\"millis\": 7.000"));
+
+        metrics.reset();
+        assertTrue(metrics.getCalls().isEmpty());
+        assertTrue(metrics.getScans().isEmpty());
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.outbox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class GovernorOutboxTest {
+
+    private static final String SERVER = "https://issues.jboss.org";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testOperationIsExecuted() throws Exception {
+        final File journal = new File(folder.getRoot(), "outbox/journal");
+        final RecordingHandler handler = new RecordingHandler(0);
+
+        final GovernorOutbox outbox = new GovernorOutbox(journal, 2, 3, 1);
+        outbox.open();
+        outbox.register("jira", SERVER, handler);
+        outbox.enqueue(new OutboxOperation("jira", SERVER, OutboxOperation.CLOSE, "ARQ-1", null));
+        outbox.enqueue(new OutboxOperation("jira", SERVER, OutboxOperation.OPEN, "ARQ-2", "cause\nwith lines"));
+
+        assertTrue(outbox.flush(10, TimeUnit.SECONDS));
+        assertEquals(2, handler.executed.size());
+        assertTrue(outbox.getPending().isEmpty());
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    public void testFailedOperationIsRetried() throws Exception {
+        final RecordingHandler handler = new RecordingHandler(2);
+
+        final GovernorOutbox outbox = new GovernorOutbox(null, 1, 3, 1);
+        outbox.register("github", "arquillian/arquillian-governor", handler);
+        outbox.enqueue(new OutboxOperation("github", "arquillian/arquillian-governor", OutboxOperation.CLOSE, "1", null));
+
+        assertTrue(outbox.flush(10, TimeUnit.SECONDS));
+        assertEquals(3, handler.attempts.get());
+        assertEquals(1, handler.executed.size());
+    }
+
+    @Test
+    public void testPendingOperationIsReplayed() throws Exception {
+        final File journal = new File(folder.getRoot(), "journal");
+
+        final GovernorOutbox failing = new GovernorOutbox(journal, 1, 2, 1);
+        failing.open();
+        failing.register("redmine", SERVER, new RecordingHandler(Integer.MAX_VALUE));
+        failing.enqueue(new OutboxOperation("redmine", SERVER, OutboxOperation.OPEN, "12", "cause\nwith lines"));
+        failing.enqueue(new OutboxOperation("redmine", "https://other.server", OutboxOperation.CLOSE, "13", null));
+
+        assertFalse(failing.flush(10, TimeUnit.SECONDS));
+        assertTrue(journal.isFile());
+
+        final RecordingHandler handler = new RecordingHandler(0);
+        final GovernorOutbox replaying = new GovernorOutbox(journal, 1, 2, 1);
+        replaying.open();
+        assertEquals(2, replaying.getPending().size());
+
+        replaying.register("redmine", SERVER, handler);
+
+        assertFalse(replaying.flush(10, TimeUnit.SECONDS));
+        assertEquals(1, handler.executed.size());
+        assertEquals("12", handler.executed.get(0).getIssueKey());
+        assertEquals("cause\nwith lines", handler.executed.get(0).getPayload());
+
+        // the operation of the server without handler is kept for a later run
+        final GovernorOutbox remaining = new GovernorOutbox(journal, 1, 2, 1);
+        remaining.open();
+        assertEquals(1, remaining.getPending().size());
+        assertEquals("13", remaining.getPending().get(0).getIssueKey());
+        remaining.flush(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testOperationDoneAfterFlushIsNotReplayed() throws Exception {
+        final File journal = new File(folder.getRoot(), "journal");
+        final BlockingHandler handler = new BlockingHandler();
+
+        final GovernorOutbox outbox = new GovernorOutbox(journal, 1, 1, 1);
+        outbox.open();
+        outbox.register("jira", SERVER, handler);
+        outbox.enqueue(new OutboxOperation("jira", SERVER, OutboxOperation.CLOSE, "ARQ-1", null));
+        handler.started.await();
+
+        // the flush gives up and keeps the running operation in the journal
+        assertFalse(outbox.flush(1, TimeUnit.MILLISECONDS));
+        assertTrue(journal.isFile());
+
+        handler.release.countDown();
+        while (!outbox.getPending().isEmpty()) {
+            Thread.sleep(10);
+        }
+
+        final GovernorOutbox replaying = new GovernorOutbox(journal, 1, 1, 1);
+        replaying.open();
+        assertTrue(replaying.getPending().isEmpty());
+        replaying.flush(1, TimeUnit.SECONDS);
+    }
+
+    private static class BlockingHandler implements OutboxHandler {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void execute(OutboxOperation operation) throws Exception {
+            started.countDown();
+
+            // the workers are interrupted by the flush, the operation keeps running like a request in flight would
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class RecordingHandler implements OutboxHandler {
+        private final int failures;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final List<OutboxOperation> executed = new CopyOnWriteArrayList<OutboxOperation>();
+
+        RecordingHandler(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public void execute(OutboxOperation operation) throws Exception {
+            if (attempts.incrementAndGet() <= failures) {
+                throw new IllegalStateException("Issue tracker not available");
+            }
+            executed.add(operation);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class GovernorClientRegistryTest {
+
+    @Test
+    public void shouldShareClientOfSameServerAndCredentials() throws Exception {
+        final GovernorClientRegistry registry = new GovernorClientRegistry();
+        final CountingConnector connector = new CountingConnector();
+
+        final Object first = registry.acquire("kind", "http://server", "user", "secret", connector);
+        final Object second = registry.acquire("kind", "http://server", "user", "secret", connector);
+
+        assertSame(first, second);
+        assertEquals(1, connector.connected.size());
+        assertEquals(2, registry.getReferences(first));
+    }
+
+    @Test
+    public void shouldNotShareClientOfOtherCredentials() throws Exception {
+        final GovernorClientRegistry registry = new GovernorClientRegistry();
+        final CountingConnector connector = new CountingConnector();
+
+        final Object first = registry.acquire("kind", "http://server", "user", "secret", connector);
+        final Object second = registry.acquire("kind", "http://server", "user", "other", connector);
+        final Object third = registry.acquire("kind", "http://other", "user", "secret", connector);
+
+        assertNotSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(3, connector.connected.size());
+    }
+
+    @Test
+    public void shouldKeepReleasedClientUntilClosed() throws Exception {
+        final GovernorClientRegistry registry = new GovernorClientRegistry();
+        final CountingConnector connector = new CountingConnector();
+
+        final Object first = registry.acquire("kind", "http://server", null, null, connector);
+        registry.release(first);
+
+        assertEquals(0, registry.getReferences(first));
+        assertSame(first, registry.acquire("kind", "http://server", null, null, connector));
+
+        registry.closeAll();
+
+        assertEquals(1, connector.disconnected.size());
+        assertNotSame(first, registry.acquire("kind", "http://server", null, null, connector));
+    }
+
+    private static class CountingConnector implements GovernorClientRegistry.Connector<Object> {
+        private final List<Object> connected = new ArrayList<Object>();
+        private final List<Object> disconnected = new ArrayList<Object>();
+
+        @Override
+        public Object connect() {
+            final Object client = new Object();
+            connected.add(client);
+            return client;
+        }
+
+        @Override
+        public void disconnect(Object client) {
+            disconnected.add(client);
+        }
+    }
+}
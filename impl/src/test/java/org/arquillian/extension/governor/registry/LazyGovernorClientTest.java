@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class LazyGovernorClientTest {
+
+    @Test
+    public void shouldCreateClientOnFirstUseOnly() {
+        final CountingLazyClient lazyClient = new CountingLazyClient(false);
+
+        assertFalse(lazyClient.isCreated());
+        assertEquals(0, lazyClient.created);
+
+        final Object client = lazyClient.get();
+
+        assertTrue(lazyClient.isCreated());
+        assertSame(client, lazyClient.get());
+        assertEquals(1, lazyClient.created);
+    }
+
+    @Test
+    public void shouldRetryCreationAfterFailure() {
+        final CountingLazyClient lazyClient = new CountingLazyClient(true);
+
+        try {
+            lazyClient.get();
+            fail("Creation should have failed.");
+        } catch (IllegalStateException ex) {
+            assertFalse(lazyClient.isCreated());
+        }
+
+        lazyClient.fail = false;
+
+        lazyClient.get();
+        assertEquals(2, lazyClient.created);
+    }
+
+    private static class CountingLazyClient extends LazyGovernorClient<Object> {
+        private boolean fail;
+        private int created = 0;
+
+        CountingLazyClient(boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        protected Object create() throws Exception {
+            created++;
+            if (fail) {
+                throw new IOException("unreachable");
+            }
+            return new Object();
+        }
+    }
+}
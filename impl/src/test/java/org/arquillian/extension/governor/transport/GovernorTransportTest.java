@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.arquillian.extension.governor.api.GovernorConfigurationException;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class GovernorTransportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordedResponsesAreReplayedInOrder() throws Exception {
+        final File file = new File(folder.getRoot(), "transport/recording.txt");
+
+        final GovernorConfiguration configuration = new GovernorConfiguration();
+        configuration.setTransport("record");
+        configuration.setTransportFile(file.getPath());
+
+        final GovernorTransport recording = GovernorTransport.forConfiguration(configuration);
+        final String get = GovernorTransport.key("get", "http://jira/rest/api/2/issue/PBT-1", null);
+        final String post = GovernorTransport.key("POST", "http://jira/rest/api/2/search", "{\"jql\": \"key = PBT-1\"}");
+
+        recording.record(get, 200, "{\"status\": \"Open\"}");
+        recording.record(get, 200, "{\"status\": \"Closed\"}");
+        recording.record(post, 204, null);
+
+        final TransportRecording replay = new TransportRecording(file.getAbsoluteFile(), TransportMode.REPLAY);
+        replay.load();
+        final GovernorTransport transport = new GovernorTransport(replay);
+
+        assertTrue(transport.isReplaying());
+        assertEquals(2, replay.size());
+        assertEquals("{\"status\": \"Open\"}", transport.replay(get).getBody());
+        assertEquals("{\"status\": \"Closed\"}", transport.replay(get).getBody());
+        // the last response is repeated once they are exhausted
+        assertEquals("{\"status\": \"Closed\"}", transport.replay(get).getBody());
+
+        assertEquals(204, transport.replay(post).getStatus());
+        assertNull(transport.replay(post).getBody());
+
+        try {
+            transport.replay(GovernorTransport.key("GET", "http://jira/rest/api/2/issue/PBT-2", null));
+            fail("Requests never recorded can not be replayed.");
+        } catch (IOException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testKeysIdentifyMethodUriAndBody() {
+        assertEquals("GET http://github/issues/1", GovernorTransport.key("get", "http://github/issues/1", null));
+        assertEquals(GovernorTransport.key("POST", "http://redmine/issues.json", "{}"), GovernorTransport.key("post", "http://redmine/issues.json", "{}"));
+        assertFalse(GovernorTransport.key("POST", "http://redmine/issues.json", "{}").equals(GovernorTransport.key("POST", "http://redmine/issues.json", "[]")));
+        assertFalse(GovernorTransport.key("PUT", "http://redmine/issues.json", null).equals(GovernorTransport.key("POST", "http://redmine/issues.json", null)));
+    }
+
+    @Test
+    public void testLiveTransportKeepsClientKinds() throws Exception {
+        final GovernorTransport transport = GovernorTransport.forConfiguration(new GovernorConfiguration());
+
+        assertTrue(transport.isLive());
+        assertEquals("jira-rest", transport.kind("jira-rest"));
+    }
+
+    @Test(expected = GovernorConfigurationException.class)
+    public void testRecordingRequiresTransportFile() throws Exception {
+        final GovernorConfiguration configuration = new GovernorConfiguration();
+        configuration.setTransport("record");
+
+        configuration.validate();
+    }
+}
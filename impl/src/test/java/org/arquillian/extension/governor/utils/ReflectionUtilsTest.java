@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.junit.Test;
+
+public class ReflectionUtilsTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Nested {
+        String value();
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Other {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Issue {
+        String value();
+
+        boolean force() default false;
+
+        int count() default 1;
+
+        Nested nested() default @Nested("NESTED-1");
+    }
+
+    @Issue(value = "ISSUE-1", force = true)
+    private static class AnnotatedTestCase {
+    }
+
+    private final Issue issue = AnnotatedTestCase.class.getAnnotation(Issue.class);
+
+    @Test
+    public void shouldReadTypedProperties() {
+        assertEquals("ISSUE-1", ReflectionUtils.getAnnotationValue(issue));
+        assertEquals("ISSUE-1", ReflectionUtils.getStringProperty(issue, "value"));
+        assertTrue(ReflectionUtils.getBooleanProperty(issue, "force", false));
+        assertEquals(Integer.valueOf(1), ReflectionUtils.getAnnotationProperty(issue, "count", Integer.class));
+        assertEquals("NESTED-1", ReflectionUtils.getNestedAnnotation(issue, "nested", Nested.class).value());
+    }
+
+    @Test
+    public void shouldNotReadMissingProperties() {
+        assertNull(ReflectionUtils.getStringProperty(issue, "missing"));
+        assertTrue(ReflectionUtils.getBooleanProperty(issue, "missing", true));
+        assertFalse(ReflectionUtils.getBooleanProperty(issue, "missing", false));
+        assertNull(ReflectionUtils.getNestedAnnotation(issue, "missing", Nested.class));
+    }
+
+    @Test
+    public void shouldNotReadPropertiesOfOtherType() {
+        assertNull(ReflectionUtils.getStringProperty(issue, "count"));
+        assertTrue(ReflectionUtils.getBooleanProperty(issue, "value", true));
+        assertNull(ReflectionUtils.getNestedAnnotation(issue, "value", Nested.class));
+        assertNull(ReflectionUtils.getNestedAnnotation(issue, "nested", Other.class));
+        // methods of Object are not properties
+        assertNull(ReflectionUtils.getStringProperty(issue, "toString"));
+    }
+
+    @Test
+    public void shouldNotKeepAnnotationTypesAlive() throws Exception {
+        final WeakReference<Class<?>> annotationType = readFromThrowawayClassLoader();
+
+        for (int i = 0; i < 20 && annotationType.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertNull(annotationType.get());
+    }
+
+    private static WeakReference<Class<?>> readFromThrowawayClassLoader() throws Exception {
+        final Class<?> annotationType = new ThrowawayClassLoader(Issue.class).loadClass(Issue.class.getName());
+
+        final Annotation annotation = (Annotation) Proxy.newProxyInstance(annotationType.getClassLoader(),
+            new Class<?>[] {annotationType}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    return "annotationType".equals(method.getName()) ? annotationType : "ISSUE-2";
+                }
+            });
+
+        assertEquals("ISSUE-2", ReflectionUtils.getAnnotationValue(annotation));
+
+        return new WeakReference<Class<?>>(annotationType);
+    }
+
+    /**
+     * Defines its own copy of a class, which is unloaded with the class loader.
+     */
+    private static class ThrowawayClassLoader extends ClassLoader {
+        private final Class<?> copied;
+
+        ThrowawayClassLoader(Class<?> copied) {
+            super(copied.getClassLoader());
+            this.copied = copied;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(copied.getName())) {
+                return super.loadClass(name, resolve);
+            }
+
+            final Class<?> loaded = findLoadedClass(name);
+            if (loaded != null) {
+                return loaded;
+            }
+
+            try {
+                final InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try {
+                    final byte[] buffer = new byte[4096];
+                    for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                        bytes.write(buffer, 0, read);
+                    }
+                } finally {
+                    in.close();
+                }
+                return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+            } catch (Exception ex) {
+                throw new ClassNotFoundException(name, ex);
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.arquillian.extension.governor.jira.api;
 
 import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.api.IssueKey;
 import org.arquillian.extension.governor.api.detector.Detectable;
 import org.arquillian.extension.governor.api.detector.Detector;
 
@@ -32,6 +33,7 @@ import java.lang.annotation.Target;
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
  */
 @Governor
+@IssueKey("[A-Za-z][A-Za-z0-9_]*-[0-9]+")
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Documented
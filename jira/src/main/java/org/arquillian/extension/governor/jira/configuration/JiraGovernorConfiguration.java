@@ -44,6 +44,8 @@ public class JiraGovernorConfiguration extends Configuration {
 
     private boolean closePassed = resolveClosePassed();
 
+    private String cacheFile = resolveCacheFile();
+
     public String getUsername() {
         return getProperty("username", username);
     }
@@ -92,6 +94,17 @@ public class JiraGovernorConfiguration extends Configuration {
         setProperty("closingMessage", closingMessage);
     }
 
+    /**
+     * File the issue states are cached in between runs, no cache is used when empty.
+     */
+    public String getCacheFile() {
+        return getProperty("cacheFile", cacheFile);
+    }
+
+    public void setCacheFile(String cacheFile) {
+        setProperty("cacheFile", cacheFile);
+    }
+
     public URL getServerURL() throws GovernorConfigurationException {
         URL url = null;
 
@@ -137,6 +150,7 @@ public class JiraGovernorConfiguration extends Configuration {
         sb.append(String.format("%-40s %s\n", "force", getForce()));
         sb.append(String.format("%-40s %s\n", "closePassed", getClosePassed()));
         sb.append(String.format("%-40s %s\n", "closingMessage", getClosingMessage()));
+        sb.append(String.format("%-40s %s\n", "cacheFile", getCacheFile()));
 
         return sb.toString();
     }
@@ -181,4 +195,14 @@ public class JiraGovernorConfiguration extends Configuration {
     private boolean resolveClosePassed() {
         return Boolean.valueOf(System.getProperty("jira.governor.closepassed"));
     }
+
+    private String resolveCacheFile() {
+        final String cacheFile = System.getProperty("jira.governor.cachefile");
+
+        if (cacheFile != null && cacheFile.length() != 0) {
+            return cacheFile;
+        }
+
+        return EMPTY_STRING;
+    }
 }
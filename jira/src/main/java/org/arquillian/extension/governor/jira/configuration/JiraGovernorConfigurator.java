@@ -16,8 +16,10 @@
  */
 package org.arquillian.extension.governor.jira.configuration;
 
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
 import org.arquillian.extension.governor.jira.impl.JiraGovernorClient;
-import org.arquillian.extension.governor.jira.impl.JiraGovernorClientFactory;
+import org.arquillian.extension.governor.jira.impl.LazyJiraGovernorClient;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
 import org.arquillian.extension.governor.spi.event.GovernorExtensionConfigured;
 import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
 import org.jboss.arquillian.config.descriptor.api.ExtensionDef;
@@ -26,6 +28,7 @@ import org.jboss.arquillian.core.api.InstanceProducer;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.core.api.event.ManagerStopping;
 import org.jboss.arquillian.core.spi.ServiceLoader;
 
 import java.util.logging.Level;
@@ -42,15 +45,19 @@ public class JiraGovernorConfigurator {
     @Inject
     private Instance<ServiceLoader> serviceLoader;
 
+    @Inject
+    private Instance<GovernorOutbox> governorOutbox;
+
     @Inject
     @ApplicationScoped
     private InstanceProducer<JiraGovernorConfiguration> jiraGovernorConfiguration;
 
     @Inject
     @ApplicationScoped
-    private InstanceProducer<JiraGovernorClient> jiraGovernorClient;
+    private InstanceProducer<LazyJiraGovernorClient> jiraGovernorClient;
 
-    public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor) throws Exception {
+    public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor,
+                                              GovernorConfiguration governorConfiguration) throws Exception {
         final JiraGovernorConfiguration jiraGovernorConfiguration = new JiraGovernorConfiguration();
 
         for (final ExtensionDef extension : arquillianDescriptor.getExtensions()) {
@@ -63,7 +70,12 @@ public class JiraGovernorConfigurator {
 
         this.jiraGovernorConfiguration.set(jiraGovernorConfiguration);
 
-        final JiraGovernorClient jiraGovernorClient = new JiraGovernorClientFactory().build(this.jiraGovernorConfiguration.get());
+        final LazyJiraGovernorClient jiraGovernorClient = new LazyJiraGovernorClient(jiraGovernorConfiguration, governorConfiguration, governorOutbox.get());
+
+        // issues left to close by a previous run are closed once the client registers with the outbox
+        if (governorOutbox.get() != null && governorOutbox.get().hasPending(JiraGovernorClient.OUTBOX_PROVIDER)) {
+            jiraGovernorClient.get();
+        }
 
         this.jiraGovernorClient.set(jiraGovernorClient);
 
@@ -72,4 +84,10 @@ public class JiraGovernorConfigurator {
             System.out.println(jiraGovernorConfiguration.toString());
         }
     }
+
+    public void onManagerStopping(@Observes ManagerStopping event) {
+        if (jiraGovernorClient.get() != null && jiraGovernorClient.get().isCreated()) {
+            jiraGovernorClient.get().get().release();
+        }
+    }
 }
@@ -16,18 +16,37 @@
  */
 package org.arquillian.extension.governor.jira.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import org.arquillian.extension.governor.api.GovernorClient;
+import org.arquillian.extension.governor.cache.IssueStateCache;
+import org.arquillian.extension.governor.circuit.CircuitBreaker;
+import org.arquillian.extension.governor.circuit.CircuitBreakerFallback;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
 import org.arquillian.extension.governor.jira.api.Jira;
 import org.arquillian.extension.governor.jira.configuration.JiraGovernorConfiguration;
+import org.arquillian.extension.governor.metrics.CallOutcome;
+import org.arquillian.extension.governor.metrics.GovernorMetrics;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
+import org.arquillian.extension.governor.outbox.OutboxHandler;
+import org.arquillian.extension.governor.outbox.OutboxOperation;
+import org.arquillian.extension.governor.registry.GovernorClientRegistry;
 import org.jboss.arquillian.core.spi.Validate;
 import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
 
 import com.atlassian.jira.rest.client.api.JiraRestClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.domain.Comment;
 import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
 import com.atlassian.jira.rest.client.api.domain.Transition;
 import com.atlassian.jira.rest.client.api.domain.input.ComplexIssueInputFieldValue;
 import com.atlassian.jira.rest.client.api.domain.input.FieldInput;
@@ -37,12 +56,27 @@ import com.atlassian.jira.rest.client.internal.ServerVersionConstants;
 /**
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
  */
-public class JiraGovernorClient implements GovernorClient<Jira, JiraGovernorStrategy> {
+public class JiraGovernorClient implements GovernorClient<Jira, JiraGovernorStrategy>, OutboxHandler {
+    private static final String CACHE_PROVIDER = "jira";
+
+    public static final String OUTBOX_PROVIDER = "jira";
+
+    private static final String METRICS_CACHE = "issueState";
+
+    // keys per search while the issue state cache is refreshed
+    private static final int CACHE_REFRESH_SEARCH_SIZE = 50;
+
+    // fields the search response parser requires
+    private static final Set<String> CACHE_REFRESH_FIELDS = new HashSet<String>(Arrays.asList("summary", "issuetype", "created", "updated", "project", "status"));
+
     private JiraRestClient restClient;
+    private IssueStateCache issueStateCache;
+    private GovernorOutbox governorOutbox;
+    private CircuitBreaker circuitBreaker;
     private JiraGovernorStrategy jiraGovernorStrategy;
     private JiraGovernorConfiguration jiraGovernorConfiguration;
 
-    private int jiraBuildNumber = 0;
+    private static final ConcurrentMap<String, Integer> jiraBuildNumbers = new ConcurrentHashMap<String, Integer>();
 
     private static Transition getTransitionByName(Iterable<Transition> transitions, String transitionName) {
         for (final Transition transition : transitions) {
@@ -70,40 +104,80 @@ public class JiraGovernorClient implements GovernorClient<Jira, JiraGovernorStra
             return ExecutionDecision.execute();
         }
 
-        final Issue jiraIssue = getIssue(jiraIssueKey);
+        String jiraIssueStatus = issueStateCache == null ? null : issueStateCache.get(CACHE_PROVIDER, jiraGovernorConfiguration.getServer(), jiraIssueKey);
 
-        // when there is some error while we are getting the issue, we execute that test
-        if (jiraIssue == null) {
-            return ExecutionDecision.execute();
+        if (issueStateCache != null) {
+            GovernorMetrics.getInstance().recordCacheLookup(CACHE_PROVIDER, METRICS_CACHE, jiraIssueStatus != null);
         }
 
-        return jiraGovernorStrategy.annotation(annotation).issue(jiraIssue).resolve();
+        if (jiraIssueStatus == null) {
+            if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+                GovernorMetrics.getInstance().recordFallback(CACHE_PROVIDER, GovernorMetrics.RESOLVE);
+                return getFallbackDecision(annotation, jiraIssueKey);
+            }
+
+            final Issue jiraIssue = getIssue(jiraIssueKey);
+
+            // when there is some error while we are getting the issue, we execute that test
+            if (jiraIssue == null) {
+                return ExecutionDecision.execute();
+            }
+
+            jiraIssueStatus = jiraIssue.getStatus().getName();
+
+            if (issueStateCache != null && jiraIssueStatus != null) {
+                issueStateCache.put(CACHE_PROVIDER, jiraGovernorConfiguration.getServer(), jiraIssueKey, jiraIssueStatus);
+            }
+        }
+
+        if (circuitBreaker != null) {
+            circuitBreaker.remember(jiraIssueKey, jiraIssueStatus);
+        }
+
+        return jiraGovernorStrategy.resolve(annotation, jiraIssueKey, jiraIssueStatus);
     }
 
+    /**
+     * Closes the issue, in the background when an outbox is set.
+     */
     @Override
     public void close(String id) {
         Validate.notNull(restClient, "Jira REST client must be specified.");
 
-        try {
-            final Issue issue = restClient.getIssueClient().getIssue(id).get();
+        if (governorOutbox != null) {
+            governorOutbox.enqueue(new OutboxOperation(OUTBOX_PROVIDER, jiraGovernorConfiguration.getServer(), OutboxOperation.CLOSE, id, null));
+            return;
+        }
 
-            final Iterable<Transition> transitions = restClient.getIssueClient().getTransitions(issue.getTransitionsUri()).claim();
-            final Transition resolveIssueTransition = getTransitionByName(transitions, "Resolve Issue");
+        final long start = System.nanoTime();
 
-            final Collection<FieldInput> fieldInputs;
+        try {
+            closeIssue(id);
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, OutboxOperation.CLOSE, CallOutcome.SUCCESS, start);
+        } catch (Exception e) {
+            // error while getting Issue to close, doing nothing
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, OutboxOperation.CLOSE, CallOutcome.FAILURE, start);
+        }
+    }
 
-            if (jiraBuildNumber > ServerVersionConstants.BN_JIRA_5) {
-                fieldInputs = Arrays.asList(new FieldInput("resolution", ComplexIssueInputFieldValue.with("name", "Done")));
-            } else {
-                fieldInputs = Arrays.asList(new FieldInput("resolution", "Done"));
-            }
+    @Override
+    public void execute(OutboxOperation operation) throws Exception {
+        if (!OutboxOperation.CLOSE.equals(operation.getOperation())) {
+            throw new IllegalArgumentException("Unsupported Jira operation " + operation);
+        }
 
-            final Comment closingMessage = Comment.valueOf(getClosingMessage());
-            final TransitionInput transitionInput = new TransitionInput(resolveIssueTransition.getId(), fieldInputs, closingMessage);
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            throw new IllegalStateException("Jira server " + jiraGovernorConfiguration.getServer() + " is not reachable.");
+        }
 
-            restClient.getIssueClient().transition(issue.getTransitionsUri(), transitionInput).claim();
+        try {
+            closeIssue(operation.getIssueKey());
+            if (circuitBreaker != null) {
+                circuitBreaker.success();
+            }
         } catch (Exception e) {
-            // error while getting Issue to close, doing nothing
+            recordFailure(e);
+            throw e;
         }
     }
 
@@ -115,27 +189,172 @@ public class JiraGovernorClient implements GovernorClient<Jira, JiraGovernorStra
         this.jiraGovernorStrategy = jiraGovernorStrategy;
     }
 
+    /**
+     * Makes the issues be closed by the outbox instead of the calling thread.
+     */
+    public void setGovernorOutbox(GovernorOutbox governorOutbox) {
+        Validate.notNull(governorOutbox, "Governor outbox must be specified.");
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+        this.governorOutbox = governorOutbox;
+
+        governorOutbox.register(OUTBOX_PROVIDER, jiraGovernorConfiguration.getServer(), this);
+    }
+
+    /**
+     * Gives the shared REST client back to the client registry, it stays open for later runs.
+     */
+    public void release() {
+        GovernorClientRegistry.getInstance().release(restClient);
+    }
+
+    /**
+     * Stops sending requests to the Jira server while it is not reachable, the fallback decision of the configuration
+     * is taken instead.
+     */
+    public void configureCircuitBreaker(GovernorConfiguration governorConfiguration) {
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+        this.circuitBreaker = CircuitBreaker.forServer(CACHE_PROVIDER, jiraGovernorConfiguration.getServer(), governorConfiguration);
+    }
+
     // private helpers
 
     void initializeRestClient(final JiraRestClient restClient) throws Exception {
         Validate.notNull(restClient, "Jira REST client must be specified.");
         this.restClient = restClient;
+    }
 
-        jiraBuildNumber = this.restClient.getMetadataClient().getServerInfo().claim().getBuildNumber();
+    /**
+     * @return build number of the Jira server, retrieved once per server and JVM
+     */
+    private int getJiraBuildNumber() {
+        final String server = jiraGovernorConfiguration.getServer();
+        Integer buildNumber = jiraBuildNumbers.get(server);
+
+        if (buildNumber == null) {
+            buildNumber = restClient.getMetadataClient().getServerInfo().claim().getBuildNumber();
+            jiraBuildNumbers.put(server, buildNumber);
+        }
+
+        return buildNumber;
+    }
+
+    /**
+     * Uses the issue state cache and brings the cached states changed since its last synchronization up to date. When
+     * they can not be refreshed, they are dropped.
+     */
+    void initializeIssueStateCache(final IssueStateCache issueStateCache) {
+        Validate.notNull(issueStateCache, "Issue state cache must be specified.");
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+        this.issueStateCache = issueStateCache;
+
+        final String server = jiraGovernorConfiguration.getServer();
+        final long now = System.currentTimeMillis();
+        final long lastSync = issueStateCache.getLastSync(CACHE_PROVIDER, server);
+
+        if (lastSync == 0) {
+            // states never synchronized can not be trusted
+            issueStateCache.invalidate(CACHE_PROVIDER, server);
+            issueStateCache.synced(CACHE_PROVIDER, server, now);
+            return;
+        }
+
+        try {
+            // a relative date does not depend on the time zone of the server, the extra minute covers the rounding
+            final long minutes = TimeUnit.MILLISECONDS.toMinutes(now - lastSync) + 1;
+            final List<String> keys = new ArrayList<String>(issueStateCache.getIssueKeys(CACHE_PROVIDER, server));
+
+            for (int from = 0; from < keys.size(); from += CACHE_REFRESH_SEARCH_SIZE) {
+                final List<String> chunk = keys.subList(from, Math.min(from + CACHE_REFRESH_SEARCH_SIZE, keys.size()));
+
+                final StringBuilder jql = new StringBuilder("key in (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    jql.append(i == 0 ? "" : ",").append(chunk.get(i));
+                }
+                jql.append(") AND updated >= -").append(minutes).append("m");
+
+                final SearchResult searchResult = restClient.getSearchClient().searchJql(jql.toString(), chunk.size(), 0, CACHE_REFRESH_FIELDS).claim();
+                for (final Issue issue : searchResult.getIssues()) {
+                    issueStateCache.put(CACHE_PROVIDER, server, issue.getKey(), issue.getStatus().getName());
+                }
+            }
+
+            issueStateCache.synced(CACHE_PROVIDER, server, now);
+        } catch (Exception e) {
+            issueStateCache.invalidate(CACHE_PROVIDER, server);
+        }
     }
 
     private Issue getIssue(String key) {
+        final long start = System.nanoTime();
+
         try {
-            return restClient.getIssueClient().getIssue(key).get();
+            final Issue issue = restClient.getIssueClient().getIssue(key).get();
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, GovernorMetrics.RESOLVE, CallOutcome.SUCCESS, start);
+            if (circuitBreaker != null) {
+                circuitBreaker.success();
+            }
+            return issue;
         } catch (Exception e) {
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, GovernorMetrics.RESOLVE, CallOutcome.FAILURE, start);
+            recordFailure(e);
             return null;
         }
     }
 
+    private ExecutionDecision getFallbackDecision(Jira annotation, String jiraIssueKey) {
+        final String lastStatus = circuitBreaker.getLastState(jiraIssueKey);
+
+        if (circuitBreaker.getFallback() == CircuitBreakerFallback.CACHED && lastStatus != null) {
+            return jiraGovernorStrategy.resolve(annotation, jiraIssueKey, lastStatus);
+        }
+
+        return circuitBreaker.getFallbackDecision();
+    }
+
+    private void recordFailure(Exception e) {
+        if (circuitBreaker == null) {
+            return;
+        }
+
+        // an error response, like a missing issue, still comes from a reachable server
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientException && ((RestClientException) cause).getStatusCode().isPresent()) {
+                circuitBreaker.success();
+                return;
+            }
+        }
+
+        circuitBreaker.failure(e);
+    }
+
     private String getClosingMessage() {
         Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
 
         return String.format(jiraGovernorConfiguration.getClosingMessage(), jiraGovernorConfiguration.getUsername());
     }
 
+    private void closeIssue(String id) throws Exception {
+        final Issue issue = restClient.getIssueClient().getIssue(id).get();
+
+        final Iterable<Transition> transitions = restClient.getIssueClient().getTransitions(issue.getTransitionsUri()).claim();
+        final Transition resolveIssueTransition = getTransitionByName(transitions, "Resolve Issue");
+
+        if (resolveIssueTransition == null) {
+            // the issue is already resolved
+            return;
+        }
+
+        final Collection<FieldInput> fieldInputs;
+
+        if (getJiraBuildNumber() > ServerVersionConstants.BN_JIRA_5) {
+            fieldInputs = Arrays.asList(new FieldInput("resolution", ComplexIssueInputFieldValue.with("name", "Done")));
+        } else {
+            fieldInputs = Arrays.asList(new FieldInput("resolution", "Done"));
+        }
+
+        final Comment closingMessage = Comment.valueOf(getClosingMessage());
+        final TransitionInput transitionInput = new TransitionInput(resolveIssueTransition.getId(), fieldInputs, closingMessage);
+
+        restClient.getIssueClient().transition(issue.getTransitionsUri(), transitionInput).claim();
+    }
 }
@@ -20,11 +20,16 @@ import com.atlassian.jira.rest.client.api.AuthenticationHandler;
 import com.atlassian.jira.rest.client.api.JiraRestClient;
 import com.atlassian.jira.rest.client.auth.AnonymousAuthenticationHandler;
 import com.atlassian.jira.rest.client.auth.BasicHttpAuthenticationHandler;
+import com.atlassian.jira.rest.client.internal.async.AsynchronousHttpClientFactory;
 import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClientFactory;
 import org.arquillian.extension.governor.api.GovernorClientFactory;
+import org.arquillian.extension.governor.cache.IssueStateCache;
 import org.arquillian.extension.governor.jira.configuration.JiraGovernorConfiguration;
+import org.arquillian.extension.governor.registry.GovernorClientRegistry;
+import org.arquillian.extension.governor.transport.GovernorTransport;
 import org.jboss.arquillian.core.spi.Validate;
 
+import java.io.File;
 import java.net.URI;
 
 /**
@@ -32,8 +37,20 @@ import java.net.URI;
  */
 public class JiraGovernorClientFactory implements GovernorClientFactory<JiraGovernorConfiguration, JiraGovernorClient> {
 
+    private static final String REST_CLIENT_KIND = "jira-rest";
+
     private JiraGovernorConfiguration jiraGovernorConfiguration = null;
 
+    private GovernorTransport governorTransport = GovernorTransport.live();
+
+    /**
+     * @param governorTransport transport the built clients reach the server through, live when not set
+     */
+    public void setGovernorTransport(GovernorTransport governorTransport) {
+        Validate.notNull(governorTransport, "Governor transport has to be set.");
+        this.governorTransport = governorTransport;
+    }
+
     @Override
     public JiraGovernorClient build(JiraGovernorConfiguration jiraGovernorConfiguration) throws Exception {
         Validate.notNull(jiraGovernorConfiguration, "Jira governor configuration has to be set.");
@@ -43,24 +60,48 @@ public class JiraGovernorClientFactory implements GovernorClientFactory<JiraGove
         final String username = this.jiraGovernorConfiguration.getUsername();
         final String password = this.jiraGovernorConfiguration.getPassword();
 
-        final AsynchronousJiraRestClientFactory factory = new AsynchronousJiraRestClientFactory();
+        final GovernorTransport transport = this.governorTransport;
 
-        final AuthenticationHandler authHandler;
+        final JiraRestClient restClient = GovernorClientRegistry.getInstance().acquire(transport.kind(REST_CLIENT_KIND), jiraServerUri.toString(), username, password,
+            new GovernorClientRegistry.Connector<JiraRestClient>() {
+                @Override
+                public JiraRestClient connect() throws Exception {
+                    if (transport.isReplaying()) {
+                        return new AsynchronousJiraRestClientFactory().create(jiraServerUri, new TransportHttpClient(null, transport));
+                    }
 
-        if (username == null || username.isEmpty()) {
-            authHandler = new AnonymousAuthenticationHandler();
+                    final AuthenticationHandler authHandler;
 
-        } else {
-            authHandler = new BasicHttpAuthenticationHandler(username, password);
-        }
+                    if (username == null || username.isEmpty()) {
+                        authHandler = new AnonymousAuthenticationHandler();
 
-        final JiraRestClient restClient = factory.create(jiraServerUri, authHandler);
+                    } else {
+                        authHandler = new BasicHttpAuthenticationHandler(username, password);
+                    }
+
+                    if (transport.isLive()) {
+                        return new AsynchronousJiraRestClientFactory().create(jiraServerUri, authHandler);
+                    }
+
+                    return new AsynchronousJiraRestClientFactory().create(jiraServerUri,
+                        new TransportHttpClient(new AsynchronousHttpClientFactory().createClient(jiraServerUri, authHandler), transport));
+                }
+
+                @Override
+                public void disconnect(JiraRestClient client) throws Exception {
+                    client.close();
+                }
+            });
 
         final JiraGovernorClient client = new JiraGovernorClient();
         client.setConfiguration(this.jiraGovernorConfiguration);
         client.initializeRestClient(restClient);
         client.setGovernorStrategy(new JiraGovernorStrategy(jiraGovernorConfiguration));
 
+        if (this.jiraGovernorConfiguration.getCacheFile().length() != 0) {
+            client.initializeIssueStateCache(IssueStateCache.forFile(new File(this.jiraGovernorConfiguration.getCacheFile())));
+        }
+
         return client;
     }
 
@@ -36,7 +36,8 @@ public class JiraGovernorStrategy implements GovernorStrategy {
     public static final String JIRA_RESOLVED_STRING = "Resolved";
     private static final Logger logger = Logger.getLogger(JiraGovernorStrategy.class.getName());
     private final JiraGovernorConfiguration jiraGovernorConfiguration;
-    private Issue jiraIssue;
+    private String issueKey;
+    private String issueStatus;
     private Jira annotation;
 
     public JiraGovernorStrategy(JiraGovernorConfiguration jiraGovernorConfiguration) {
@@ -45,7 +46,16 @@ public class JiraGovernorStrategy implements GovernorStrategy {
     }
 
     public JiraGovernorStrategy issue(Issue jiraIssue) {
-        this.jiraIssue = jiraIssue;
+        Validate.notNull(jiraIssue, "Jira issue must be specified.");
+        return issue(jiraIssue.getKey(), jiraIssue.getStatus().getName());
+    }
+
+    /**
+     * Sets the issue the decision is made for by its key and status name, for example taken from the issue state cache.
+     */
+    public JiraGovernorStrategy issue(String issueKey, String issueStatus) {
+        this.issueKey = issueKey;
+        this.issueStatus = issueStatus;
         return this;
     }
 
@@ -56,7 +66,14 @@ public class JiraGovernorStrategy implements GovernorStrategy {
 
     @Override
     public ExecutionDecision resolve() {
-        Validate.notNull(jiraIssue, "Jira issue must be specified.");
+        return resolve(annotation, issueKey, issueStatus);
+    }
+
+    /**
+     * Resolves the decision without keeping the annotation and issue, so the strategy can be shared by concurrent calls.
+     */
+    public ExecutionDecision resolve(Jira annotation, String issueKey, String issueStatus) {
+        Validate.notNull(issueKey, "Jira issue must be specified.");
         Validate.notNull(annotation, "Annotation must be specified.");
 
         // Execute test if detector failed because Jira is not related to specified environment.
@@ -64,7 +81,7 @@ public class JiraGovernorStrategy implements GovernorStrategy {
             return ExecutionDecision.execute();
         }
 
-        final String jiraStatus = jiraIssue.getStatus().getName();
+        final String jiraStatus = issueStatus;
 
         if (jiraStatus == null || jiraStatus.length() == 0) {
             return ExecutionDecision.execute();
@@ -82,7 +99,7 @@ public class JiraGovernorStrategy implements GovernorStrategy {
             return ExecutionDecision.execute();
         }
 
-        return ExecutionDecision.dontExecute(String.format(SKIPPING_EXECUTION_REASON_STRING, jiraIssue.getKey(), jiraStatus));
+        return ExecutionDecision.dontExecute(String.format(SKIPPING_EXECUTION_REASON_STRING, issueKey, jiraStatus));
     }
 
 }
@@ -18,12 +18,13 @@ package org.arquillian.extension.governor.jira.impl;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.arquillian.extension.governor.api.ClosePassedDecider;
+import org.arquillian.extension.governor.api.GovernorClients;
 import org.arquillian.extension.governor.api.GovernorRegistry;
+import org.arquillian.extension.governor.impl.LifecycleCountRegister;
 import org.arquillian.extension.governor.impl.TestMethodExecutionRegister;
 import org.arquillian.extension.governor.jira.api.Jira;
 import org.arquillian.extension.governor.jira.configuration.JiraGovernorConfiguration;
@@ -46,7 +47,7 @@ import org.jboss.arquillian.test.spi.execution.TestExecutionDecider;
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
  */
 public class JiraTestExecutionDecider implements TestExecutionDecider, GovernorProvider {
-    private static final Map<Method, Integer> lifecycleCountRegister = new HashMap<Method, Integer>();
+    private static final LifecycleCountRegister lifecycleCountRegister = new LifecycleCountRegister();
 
     @Inject
     @ClassScoped
@@ -71,7 +72,7 @@ public class JiraTestExecutionDecider implements TestExecutionDecider, GovernorP
         return Jira.class;
     }
 
-    public void on(@Observes ExecutionDecisionEvent event, JiraGovernorClient jiraGovernorClient) {
+    public void on(@Observes ExecutionDecisionEvent event, LazyJiraGovernorClient jiraGovernorClient) {
         final ExecutionDecision executionDecision = this.executionDecision.get();
 
         if (executionDecision == null || executionDecision.getDecision() == Decision.DONT_EXECUTE) {
@@ -81,7 +82,8 @@ public class JiraTestExecutionDecider implements TestExecutionDecider, GovernorP
         if (event.getAnnotation().annotationType() == provides()) {
             final Jira jiraIssue = (Jira) event.getAnnotation();
 
-            this.executionDecision.set(jiraGovernorClient.resolve(jiraIssue));
+            // resolved in the background, the governor waits for all the annotations of the class at once
+            event.setDecision(GovernorClients.async(jiraGovernorClient.get(), event.getExecutor()).resolveAsync(jiraIssue));
         }
     }
 
@@ -89,45 +91,38 @@ public class JiraTestExecutionDecider implements TestExecutionDecider, GovernorP
                    TestResult testResult,
                    GovernorRegistry governorRegistry,
                    JiraGovernorConfiguration jiraGovernorConfiguration) {
-        int count = 0;
-        try {
-            final Integer c = lifecycleCountRegister.get(event.getTestMethod());
-            count = (c != null ? c.intValue() : 0);
-            if (count == 0) { //skip first event - see https://github.com/arquillian/arquillian-governor/pull/16#issuecomment-166590210
-                return;
-            }
-            final ExecutionDecision decision = TestMethodExecutionRegister.resolve(event.getTestMethod(), provides());
-
-            // if we passed some test method annotated with Jira, we may eventually close it
-
-            if (jiraGovernorConfiguration.getClosePassed()) {
-                // we decided we run this test method even it has annotation on it
-                if (decision.getDecision() == Decision.EXECUTE
-                        && (JiraGovernorStrategy.FORCING_EXECUTION_REASON_STRING).equals(decision.getReason())) {
-
-                    for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
-                        if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
-                            for (final Annotation annotation : entry.getValue()) {
-                                if (annotation.annotationType() == provides()) {
-                                    closePassedDecider.get().setClosable(annotation, testResult.getStatus() == Status.PASSED);
-                                    return;
-                                }
+        if (lifecycleCountRegister.increment(event.getTestMethod()) == 0) { //skip first event - see https://github.com/arquillian/arquillian-governor/pull/16#issuecomment-166590210
+            return;
+        }
+        final ExecutionDecision decision = TestMethodExecutionRegister.resolve(event.getTestMethod(), provides());
+
+        // if we passed some test method annotated with Jira, we may eventually close it
+
+        if (jiraGovernorConfiguration.getClosePassed()) {
+            // we decided we run this test method even it has annotation on it
+            if (decision.getDecision() == Decision.EXECUTE
+                    && (JiraGovernorStrategy.FORCING_EXECUTION_REASON_STRING).equals(decision.getReason())) {
+
+                for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
+                    if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
+                        for (final Annotation annotation : entry.getValue()) {
+                            if (annotation.annotationType() == provides()) {
+                                closePassedDecider.get().setClosable(annotation, testResult.getStatus() == Status.PASSED);
+                                return;
                             }
                         }
                     }
                 }
             }
-        } finally {
-            lifecycleCountRegister.put(event.getTestMethod(), ++count);
         }
     }
 
-    public void on(@Observes AfterSuite event, JiraGovernorClient jiraGovernorClient) {
+    public void on(@Observes AfterSuite event, LazyJiraGovernorClient jiraGovernorClient) {
         for (final Map.Entry<Annotation, Boolean> entry : closePassedDecider.get().get().entrySet()) {
             final Annotation annotation = entry.getKey();
             if (annotation.annotationType() == provides() && entry.getValue()) {
                 final String id = ((Jira) annotation).value();
-                jiraGovernorClient.close(id);
+                jiraGovernorClient.get().close(id);
             }
         }
     }
@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.jira.impl;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.arquillian.extension.governor.transport.GovernorTransport;
+import org.arquillian.extension.governor.transport.RecordedResponse;
+
+import com.atlassian.httpclient.apache.httpcomponents.DefaultRequest;
+import com.atlassian.httpclient.apache.httpcomponents.DefaultResponse;
+import com.atlassian.httpclient.api.Request;
+import com.atlassian.httpclient.api.Response;
+import com.atlassian.httpclient.api.ResponsePromise;
+import com.atlassian.httpclient.api.ResponsePromises;
+import com.atlassian.httpclient.base.AbstractHttpClient;
+import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
+import com.atlassian.util.concurrent.Promises;
+import com.google.common.base.Function;
+
+/**
+ * HTTP client of the Jira and Xray REST clients which records the responses of the server or replays them, see
+ * {@link GovernorTransport}.
+ *
+ * Requests are forwarded to an authenticated client when recording, so credentials never reach the recording.
+ */
+public class TransportHttpClient extends AbstractHttpClient implements DisposableHttpClient {
+
+    private static final long MAX_ENTITY_SIZE = 1024L * 1024L * 16;
+
+    private static final String CONTENT_TYPE = "application/json";
+
+    private static final String CHARSET = "UTF-8";
+
+    private final DisposableHttpClient delegate;
+
+    private final GovernorTransport transport;
+
+    /**
+     * @param delegate client reaching the server, null when replaying
+     * @param transport recording or replaying transport
+     */
+    public TransportHttpClient(DisposableHttpClient delegate, GovernorTransport transport) {
+        if (transport.isLive()) {
+            throw new IllegalArgumentException("Live transport does not need a transport HTTP client.");
+        }
+        if (delegate == null && !transport.isReplaying()) {
+            throw new IllegalArgumentException("HTTP client to record the responses of has to be set.");
+        }
+
+        this.delegate = delegate;
+        this.transport = transport;
+    }
+
+    @Override
+    public ResponsePromise execute(DefaultRequest request) {
+        final String body = request.hasEntity() ? request.getEntity() : null;
+        final String key = GovernorTransport.key(request.getMethod().name(), request.getUri().toString(), body);
+
+        if (transport.isReplaying()) {
+            try {
+                final RecordedResponse recorded = transport.replay(key);
+                return ResponsePromises.toResponsePromise(Promises.<Response>promise(toResponse(recorded.getStatus(), recorded.getBody())));
+            } catch (IOException ex) {
+                return ResponsePromises.toResponsePromise(Promises.rejected(ex, Response.class));
+            }
+        }
+
+        final Request forwarded = delegate.newRequest(request.getUri())
+            .setHeaders(request.getHeaders())
+            .setAttributes(request.getAttributes());
+
+        if (request.getAccept() != null) {
+            forwarded.setAccept(request.getAccept());
+        }
+        if (body != null) {
+            forwarded.setEntity(body);
+            forwarded.setContentType(request.getContentType());
+            forwarded.setContentCharset(request.getContentCharset());
+        }
+        if (request.isCacheDisabled()) {
+            forwarded.setCacheDisabled();
+        }
+
+        return ResponsePromises.toResponsePromise(send(forwarded, request.getMethod()).map(new Function<Response, Response>() {
+            @Override
+            public Response apply(Response response) {
+                final String entity = response.hasEntity() ? response.getEntity() : null;
+                transport.record(key, response.getStatusCode(), entity);
+                return toResponse(response.getStatusCode(), entity);
+            }
+        }));
+    }
+
+    @Override
+    public void flushCacheByUriPattern(Pattern uriPattern) {
+        if (delegate != null) {
+            delegate.flushCacheByUriPattern(uriPattern);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate != null) {
+            delegate.destroy();
+        }
+    }
+
+    private static ResponsePromise send(Request request, Request.Method method) {
+        switch (method) {
+            case GET:
+                return request.get();
+            case POST:
+                return request.post();
+            case PUT:
+                return request.put();
+            case DELETE:
+                return request.delete();
+            case OPTIONS:
+                return request.options();
+            case HEAD:
+                return request.head();
+            case TRACE:
+                return request.trace();
+            default:
+                throw new IllegalArgumentException("Unsupported HTTP method " + method);
+        }
+    }
+
+    private static Response toResponse(int status, String body) {
+        final Response response = new DefaultResponse(MAX_ENTITY_SIZE).setStatusCode(status);
+
+        if (body != null) {
+            response.setContentType(CONTENT_TYPE);
+            response.setContentCharset(CHARSET);
+            response.setEntity(body);
+        }
+
+        return response;
+    }
+}
@@ -24,9 +24,8 @@ import org.arquillian.extension.governor.impl.GovernorTestClassScanner;
 import org.arquillian.extension.governor.jira.api.Jira;
 import org.arquillian.extension.governor.jira.configuration.JiraGovernorConfiguration;
 import org.arquillian.extension.governor.jira.configuration.JiraGovernorConfigurator;
-import org.arquillian.extension.governor.jira.impl.JiraGovernorClient;
-import org.arquillian.extension.governor.jira.impl.JiraGovernorClientFactory;
 import org.arquillian.extension.governor.jira.impl.JiraTestExecutionDecider;
+import org.arquillian.extension.governor.jira.impl.LazyJiraGovernorClient;
 import org.arquillian.extension.governor.spi.GovernorProvider;
 import org.arquillian.extension.governor.spi.event.DecideMethodExecutions;
 import org.arquillian.extension.governor.spi.event.ExecutionDecisionEvent;
@@ -182,8 +181,7 @@ public class JiraGovernorTestCase extends AbstractGovernorTestCase {
 
         bind(ApplicationScoped.class, JiraGovernorConfiguration.class, jiraGovernorConfiguration);
 
-        final JiraGovernorClient jiraGovernorClient = new JiraGovernorClientFactory().build(jiraGovernorConfiguration);
-        bind(ApplicationScoped.class, JiraGovernorClient.class, jiraGovernorClient);
+        bind(ApplicationScoped.class, LazyJiraGovernorClient.class, new LazyJiraGovernorClient(jiraGovernorConfiguration, governorConfiguration, null));
     }
 
     @Test
@@ -0,0 +1,17 @@
+package org.arquillian.extension.governor.jira.xray.api.validation;
+
+/**
+ * How expensive a fact a validation rule needs is to obtain.
+ */
+public enum FactCost {
+
+    /**
+     * Already known, like the Test Run being validated.
+     */
+    LOCAL,
+
+    /**
+     * Has to be looked up on the Jira server, like the Test Execution of the Test Run.
+     */
+    REMOTE
+}
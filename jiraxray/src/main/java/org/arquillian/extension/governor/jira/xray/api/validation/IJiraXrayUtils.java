@@ -1,10 +1,13 @@
 package org.arquillian.extension.governor.jira.xray.api.validation;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
 import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.arquillian.extension.governor.jira.xray.domain.TestRunFilter;
 
 import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
 import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
@@ -20,14 +23,39 @@ public interface IJiraXrayUtils {
      */
     public Iterable<TestRun> getTestRunsByTestKey(XrayJiraRestClient restClient, String keyTest);
 
+    /**
+     * Streams the Test Runs of a Test whose Test Execution meets the filter. The conditions on the Test Execution are
+     * sent to the server in a JQL query, whose pages are requested while the Test Runs are iterated.
+     *
+     * @param restClient
+     * @param keyTest
+     * @param filter
+     * @param pageSize number of Test Executions requested per search
+     * @param testExecutions receives the Test Executions found on the way, null when they are not needed
+     * @return Test Runs meeting the filter, null when the Test Executions can not be searched
+     */
+    public Iterable<TestExecutionRun> streamTestRunsByTestKey(XrayJiraRestClient restClient, String keyTest, TestRunFilter filter,
+            int pageSize, Map<String, TestExecutionIssue> testExecutions);
+
+    /**
+     * Searches the keys of the Test Executions matching a JQL query.
+     *
+     * @param restClient
+     * @param jql
+     * @param pageSize number of issues requested per search
+     * @return keys of the Test Executions, null when they can not be searched
+     */
+    public List<String> getTestExecutionKeysByJql(XrayJiraRestClient restClient, String jql, int pageSize);
+
     /**
      * 
      * @param jiraIssue
      * @param restClient
      * @param status
      * @param mapTestRunValidationPass 
+     * @return true when every Test Run of the test was updated
      */
-    public void updateStatusTestRun(XrayJiraRestClient restClient, String keyTest, Status status, Map<String, List<TestRun>> mapTestRunValidationPass);
+    public boolean updateStatusTestRun(XrayJiraRestClient restClient, String keyTest, Status status, Map<String, List<TestExecutionRun>> mapTestRunValidationPass);
 
     /**
      * 
@@ -37,6 +65,15 @@ public interface IJiraXrayUtils {
      */
     TestExecutionIssue getTestExectionByKeyTestExec(XrayJiraRestClient restClient, String keyTestExec);
 
+    /**
+     * Retrieves several Test Executions at once, requesting only the fields a {@link TestExecutionIssue} needs.
+     *
+     * @param restClient
+     * @param keysTestExec
+     * @return Test Executions by key, the ones that can not be retrieved are missing
+     */
+    Map<String, TestExecutionIssue> getTestExecutionsByKeys(XrayJiraRestClient restClient, Collection<String> keysTestExec);
+
     /**
      * 
      * @param restClient
@@ -1,20 +1,23 @@
 package org.arquillian.extension.governor.jira.xray.api.validation;
 
-import java.text.ParseException;
-import java.util.Date;
-
-import org.apache.commons.lang3.time.DateUtils;
 import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
-import org.joda.time.DateTime;
-import org.joda.time.format.DateTimeFormat;
 
 public class TestExecStartDateOver extends AbstractValidateRule<TestExecutionIssue> {
-	
-	private static final String CUSTOM_DATE_FORMAT = "dd/MM/yyyy HH:mm:ss";
-	
-    
+
+    private final long now;
+
 	public TestExecStartDateOver(TestExecutionIssue o) {
+        this(o, System.currentTimeMillis());
+    }
+
+    /**
+     * @param o
+     * @param now epoch millis the Test Execution has to be active at
+     */
+    public TestExecStartDateOver(TestExecutionIssue o, long now) {
         super(o);
+        // dates are compared to the second
+        this.now = now - ((now % 1000) + 1000) % 1000;
     }
     
     @Override
@@ -24,28 +27,11 @@ public class TestExecStartDateOver extends AbstractValidateRule<TestExecutionIss
         }
     	TestExecutionIssue testExecRun = this.myObject;
         
-    	boolean myResult = false;
-    	
-    	String now = new DateTime().toString(DateTimeFormat.forPattern(CUSTOM_DATE_FORMAT));
-    	
-    	Date dateStartedOn = testExecRun.getStartedOn();
-		Date dateFinishedOn = testExecRun.getFinishedOn();
-		Date dateExecution;
-		
-		try {
-			dateExecution = DateUtils.parseDate(now, CUSTOM_DATE_FORMAT);
-			// If Execution Date between dateStartedOn and dateFinishedOn
-			if (dateStartedOn.equals(dateExecution) || (dateStartedOn.before(dateExecution)
-					&& (dateFinishedOn == null || (dateFinishedOn.after(dateExecution))))) {
-				myResult = true;
-			}
-		} catch (ParseException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+		// If Execution Date between dateStartedOn and dateFinishedOn
+    	boolean myResult = testExecRun.isActiveAt(now);
 
         return this.and != null ? myResult && this.and.validate() : (this.or != null ? myResult || this.or.validate() : myResult);
     }
 
 
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package org.arquillian.extension.governor.jira.xray.api.validation;
 
-import org.arquillian.extension.governor.jira.xray.configuration.JiraPropertiesUtils;
+import org.arquillian.extension.governor.jira.xray.domain.JiraIssueStatus;
 import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
 
 
@@ -19,7 +19,7 @@ public class TestExecStatusTodo extends AbstractValidateRule<TestExecutionIssue>
         }
         TestExecutionIssue testExecRun = this.myObject;
         
-        boolean myResult = testExecRun.getStatus().getName().equals(JiraPropertiesUtils.getInstance().getValorKey("jira.status.issue.todo"));
+        boolean myResult = testExecRun.getIssueStatus() == JiraIssueStatus.TODO;
         return this.and != null ? myResult && this.and.validate() : (this.or != null ? myResult || this.or.validate() : myResult);
     }
 
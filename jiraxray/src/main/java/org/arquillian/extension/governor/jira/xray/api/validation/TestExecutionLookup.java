@@ -0,0 +1,22 @@
+package org.arquillian.extension.governor.jira.xray.api.validation;
+
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+
+/**
+ * Looks up the Test Executions the validation rules need.
+ */
+public interface TestExecutionLookup {
+
+    /**
+     * @param keyTestExec
+     * @return Test Execution, null when it can not be retrieved
+     */
+    TestExecutionIssue getTestExecution(String keyTestExec);
+
+    /**
+     * @param keyTestExec
+     * @return true when the window of the Test Execution is open at the start of the suite, false when it is closed
+     *         or the Test Execution can not be retrieved
+     */
+    boolean isTestExecutionActive(String keyTestExec);
+}
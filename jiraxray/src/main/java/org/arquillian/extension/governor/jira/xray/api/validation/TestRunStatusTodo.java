@@ -1,12 +1,12 @@
 package org.arquillian.extension.governor.jira.xray.api.validation;
 
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
 
-import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
 import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
 
-public class TestRunStatusTodo extends AbstractValidateRule<TestRun> {
+public class TestRunStatusTodo extends AbstractValidateRule<TestExecutionRun> {
 
-    public TestRunStatusTodo(TestRun o) {
+    public TestRunStatusTodo(TestExecutionRun o) {
         super(o);
     }
 
@@ -17,9 +17,9 @@ public class TestRunStatusTodo extends AbstractValidateRule<TestRun> {
         if (this.and != null && this.or != null) {
             throw new IllegalArgumentException("VALIDATION RULE MALFORMED");
         }
-        TestRun testRun = this.myObject;
+        TestExecutionRun testRun = this.myObject;
         
-        boolean myResult = testRun.getStatus().equals(Status.TODO);
+        boolean myResult = Status.TODO.equals(testRun.getStatus());
         return this.and != null ? myResult && this.and.validate() : (this.or != null ? myResult || this.or.validate() : myResult);
     }
 }
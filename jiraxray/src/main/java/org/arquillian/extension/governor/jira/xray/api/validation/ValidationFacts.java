@@ -0,0 +1,66 @@
+package org.arquillian.extension.governor.jira.xray.api.validation;
+
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+
+/**
+ * Facts known about a Test Run while it is validated. Remote facts are looked up the first time a rule asks for them.
+ */
+public class ValidationFacts {
+
+    private final TestExecutionRun testRun;
+
+    private final TestExecutionLookup lookup;
+
+    private TestExecutionIssue testExecution;
+
+    private boolean testExecutionLoaded = false;
+
+    /**
+     * @param testRun Test Run being validated
+     * @param lookup looks up the remote facts, null when only local facts are available
+     */
+    public ValidationFacts(TestExecutionRun testRun, TestExecutionLookup lookup) {
+        this.testRun = testRun;
+        this.lookup = lookup;
+    }
+
+    public TestExecutionRun getTestRun() {
+        return testRun;
+    }
+
+    /**
+     * @return Test Execution of the Test Run, null when it can not be retrieved
+     */
+    public TestExecutionIssue getTestExecution() {
+        if (!testExecutionLoaded) {
+            if (lookup == null) {
+                throw new RemoteFactRequiredException();
+            }
+            testExecution = lookup.getTestExecution(testRun.getTestExecKey());
+            testExecutionLoaded = true;
+        }
+        return testExecution;
+    }
+
+    /**
+     * @return true when the Test Execution of the Test Run is in progress
+     */
+    public boolean isTestExecutionActive() {
+        if (lookup == null) {
+            throw new RemoteFactRequiredException();
+        }
+        return getTestExecution() != null && lookup.isTestExecutionActive(testRun.getTestExecKey());
+    }
+
+    public boolean isTestExecutionLoaded() {
+        return testExecutionLoaded;
+    }
+
+    /**
+     * Thrown when a rule needs a remote fact while only local facts are available.
+     */
+    static class RemoteFactRequiredException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,14 @@
+package org.arquillian.extension.governor.jira.xray.api.validation;
+
+/**
+ * Rule a Test Run has to pass so its Test is executed.
+ */
+public interface ValidationRule {
+
+    /**
+     * @return cost of the most expensive fact the rule needs
+     */
+    FactCost getCost();
+
+    boolean validate(ValidationFacts facts);
+}
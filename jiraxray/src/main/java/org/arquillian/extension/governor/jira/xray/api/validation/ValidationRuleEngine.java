@@ -0,0 +1,160 @@
+package org.arquillian.extension.governor.jira.xray.api.validation;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.arquillian.extension.governor.jira.xray.domain.TestRunFilter;
+
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+/**
+ * Validates Test Runs with a rule expression of the extension configuration, like
+ * {@code testRunTodo and (testExecutionTodo or not testExecutionInProgress)}.
+ *
+ * Rules only needing local facts are validated first, the Test Execution of a Test Run is only looked up when a rule
+ * still needs it.
+ */
+public class ValidationRuleEngine {
+
+    private final ValidationRule rule;
+
+    public ValidationRuleEngine(ValidationRule rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException("Validation rule must be specified.");
+        }
+        this.rule = rule;
+    }
+
+    /**
+     * @param expression rule names combined with {@code and}, {@code or}, {@code not} and parentheses
+     * @return engine validating the expression
+     * @throws IllegalArgumentException when the expression is malformed or names an unknown rule
+     */
+    public static ValidationRuleEngine parse(String expression) {
+        return new ValidationRuleEngine(new Parser(expression).parse());
+    }
+
+    public ValidationRule getRule() {
+        return rule;
+    }
+
+    /**
+     * @param testRun
+     * @param lookup looks up the Test Execution when a rule needs it
+     * @return true when the Test Run passes the rule
+     */
+    public boolean validate(TestExecutionRun testRun, TestExecutionLookup lookup) {
+        return rule.validate(new ValidationFacts(testRun, lookup));
+    }
+
+    /**
+     * Validates the Test Run with local facts only.
+     *
+     * @param testRun
+     * @return whether the Test Run passes the rule, null when it can not be told without remote facts
+     */
+    public Boolean validateLocally(TestExecutionRun testRun) {
+        try {
+            return rule.validate(new ValidationFacts(testRun, null));
+        } catch (ValidationFacts.RemoteFactRequiredException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @param now epoch millis the Test Executions are validated at
+     * @return conditions every Test Run passing the rule meets
+     */
+    public TestRunFilter getTestRunFilter(long now) {
+        final EnumSet<Status> testRunStatuses = ValidationRules.requires(rule, ValidationRules.TEST_RUN_TODO)
+            ? EnumSet.of(Status.TODO) : EnumSet.noneOf(Status.class);
+
+        return new TestRunFilter(testRunStatuses,
+            ValidationRules.requires(rule, ValidationRules.TEST_EXECUTION_TODO),
+            ValidationRules.requires(rule, ValidationRules.TEST_EXECUTION_IN_PROGRESS) ? now : TestExecutionIssue.NO_DATE);
+    }
+
+    @Override
+    public String toString() {
+        return rule.toString();
+    }
+
+    private static class Parser {
+        private final String expression;
+        private final List<String> tokens = new ArrayList<String>();
+        private int position = 0;
+
+        Parser(String expression) {
+            if (expression == null || expression.trim().length() == 0) {
+                throw new IllegalArgumentException("Validation rule expression must be specified.");
+            }
+            this.expression = expression;
+
+            for (final String token : expression.replace("(", " ( ").replace(")", " ) ").trim().split("\\s+")) {
+                tokens.add(token);
+            }
+        }
+
+        ValidationRule parse() {
+            final ValidationRule rule = parseOr();
+            if (position < tokens.size()) {
+                throw malformed("unexpected " + tokens.get(position));
+            }
+            return rule;
+        }
+
+        private ValidationRule parseOr() {
+            final List<ValidationRule> rules = new ArrayList<ValidationRule>();
+            rules.add(parseAnd());
+            while (accept("or")) {
+                rules.add(parseAnd());
+            }
+            return rules.size() == 1 ? rules.get(0) : ValidationRules.or(rules.toArray(new ValidationRule[rules.size()]));
+        }
+
+        private ValidationRule parseAnd() {
+            final List<ValidationRule> rules = new ArrayList<ValidationRule>();
+            rules.add(parseUnary());
+            while (accept("and")) {
+                rules.add(parseUnary());
+            }
+            return rules.size() == 1 ? rules.get(0) : ValidationRules.and(rules.toArray(new ValidationRule[rules.size()]));
+        }
+
+        private ValidationRule parseUnary() {
+            if (accept("not")) {
+                return ValidationRules.not(parseUnary());
+            }
+            if (accept("(")) {
+                final ValidationRule rule = parseOr();
+                if (!accept(")")) {
+                    throw malformed("missing )");
+                }
+                return rule;
+            }
+            if (position >= tokens.size()) {
+                throw malformed("rule name expected at the end");
+            }
+            final String name = tokens.get(position++);
+            if (name.equals(")")) {
+                throw malformed("rule name expected before )");
+            }
+            return ValidationRules.named(name);
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private IllegalArgumentException malformed(String reason) {
+            return new IllegalArgumentException(String.format("Malformed validation rule \"%s\": %s", expression, reason));
+        }
+    }
+}
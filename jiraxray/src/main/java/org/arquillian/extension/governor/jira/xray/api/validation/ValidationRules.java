@@ -0,0 +1,266 @@
+package org.arquillian.extension.governor.jira.xray.api.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+
+/**
+ * Validation rules known by name in rule expressions and their composition.
+ */
+public final class ValidationRules {
+
+    /**
+     * Status of the Test Run is TODO.
+     */
+    public static final String TEST_RUN_TODO = "testRunTodo";
+
+    /**
+     * Status of the Test Execution is the TODO status of Jira.
+     */
+    public static final String TEST_EXECUTION_TODO = "testExecutionTodo";
+
+    /**
+     * Now is between the start and finish dates of the Test Execution.
+     */
+    public static final String TEST_EXECUTION_IN_PROGRESS = "testExecutionInProgress";
+
+    private static final Comparator<ValidationRule> BY_COST = new Comparator<ValidationRule>() {
+        @Override
+        public int compare(ValidationRule rule1, ValidationRule rule2) {
+            return rule1.getCost().compareTo(rule2.getCost());
+        }
+    };
+
+    private ValidationRules() {
+    }
+
+    /**
+     * @param name
+     * @return rule of the name
+     * @throws IllegalArgumentException when there is no rule of the name
+     */
+    public static ValidationRule named(String name) {
+        if (TEST_RUN_TODO.equalsIgnoreCase(name)) {
+            return new TestRunTodoRule();
+        }
+        if (TEST_EXECUTION_TODO.equalsIgnoreCase(name)) {
+            return new TestExecutionTodoRule();
+        }
+        if (TEST_EXECUTION_IN_PROGRESS.equalsIgnoreCase(name)) {
+            return new TestExecutionInProgressRule();
+        }
+        throw new IllegalArgumentException("Unknown validation rule " + name);
+    }
+
+    /**
+     * @return rule passed when all the rules pass, the cheapest ones are validated first
+     */
+    public static ValidationRule and(ValidationRule... rules) {
+        return new AndRule(sortByCost(rules));
+    }
+
+    /**
+     * @return rule passed when any of the rules passes, the cheapest ones are validated first
+     */
+    public static ValidationRule or(ValidationRule... rules) {
+        return new OrRule(sortByCost(rules));
+    }
+
+    public static ValidationRule not(ValidationRule rule) {
+        return new NotRule(rule);
+    }
+
+    /**
+     * @param rule
+     * @param name name of a rule
+     * @return true when every Test Run passing {@code rule} passes the rule of the name as well, so the rule of the
+     *         name can be applied before, for example by the server
+     */
+    public static boolean requires(ValidationRule rule, String name) {
+        if (rule instanceof AndRule) {
+            for (final ValidationRule child : ((AndRule) rule).rules) {
+                if (requires(child, name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        final boolean named = rule instanceof TestRunTodoRule || rule instanceof TestExecutionTodoRule
+            || rule instanceof TestExecutionInProgressRule;
+
+        return named && name.equalsIgnoreCase(rule.toString());
+    }
+
+    // helpers
+
+    private static List<ValidationRule> sortByCost(ValidationRule... rules) {
+        final List<ValidationRule> sorted = new ArrayList<ValidationRule>(Arrays.asList(rules));
+        // stable, rules of the same cost keep their order
+        Collections.sort(sorted, BY_COST);
+        return sorted;
+    }
+
+    private static FactCost maxCost(List<ValidationRule> rules) {
+        FactCost cost = FactCost.LOCAL;
+        for (final ValidationRule rule : rules) {
+            if (rule.getCost().compareTo(cost) > 0) {
+                cost = rule.getCost();
+            }
+        }
+        return cost;
+    }
+
+    private static class TestRunTodoRule implements ValidationRule {
+
+        @Override
+        public FactCost getCost() {
+            return FactCost.LOCAL;
+        }
+
+        @Override
+        public boolean validate(ValidationFacts facts) {
+            return new TestRunStatusTodo(facts.getTestRun()).validate();
+        }
+
+        @Override
+        public String toString() {
+            return TEST_RUN_TODO;
+        }
+    }
+
+    private static class TestExecutionTodoRule implements ValidationRule {
+
+        @Override
+        public FactCost getCost() {
+            return FactCost.REMOTE;
+        }
+
+        @Override
+        public boolean validate(ValidationFacts facts) {
+            final TestExecutionIssue testExecution = facts.getTestExecution();
+            return testExecution != null && testExecution.getStatus() != null && new TestExecStatusTodo(testExecution).validate();
+        }
+
+        @Override
+        public String toString() {
+            return TEST_EXECUTION_TODO;
+        }
+    }
+
+    private static class TestExecutionInProgressRule implements ValidationRule {
+
+        @Override
+        public FactCost getCost() {
+            return FactCost.REMOTE;
+        }
+
+        @Override
+        public boolean validate(ValidationFacts facts) {
+            return facts.isTestExecutionActive();
+        }
+
+        @Override
+        public String toString() {
+            return TEST_EXECUTION_IN_PROGRESS;
+        }
+    }
+
+    private static class AndRule implements ValidationRule {
+        private final List<ValidationRule> rules;
+        private final FactCost cost;
+
+        AndRule(List<ValidationRule> rules) {
+            this.rules = rules;
+            this.cost = maxCost(rules);
+        }
+
+        @Override
+        public FactCost getCost() {
+            return cost;
+        }
+
+        @Override
+        public boolean validate(ValidationFacts facts) {
+            for (final ValidationRule rule : rules) {
+                if (!rule.validate(facts)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return join(rules, " and ");
+        }
+    }
+
+    private static class OrRule implements ValidationRule {
+        private final List<ValidationRule> rules;
+        private final FactCost cost;
+
+        OrRule(List<ValidationRule> rules) {
+            this.rules = rules;
+            this.cost = maxCost(rules);
+        }
+
+        @Override
+        public FactCost getCost() {
+            return cost;
+        }
+
+        @Override
+        public boolean validate(ValidationFacts facts) {
+            for (final ValidationRule rule : rules) {
+                if (rule.validate(facts)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return join(rules, " or ");
+        }
+    }
+
+    private static class NotRule implements ValidationRule {
+        private final ValidationRule rule;
+
+        NotRule(ValidationRule rule) {
+            this.rule = rule;
+        }
+
+        @Override
+        public FactCost getCost() {
+            return rule.getCost();
+        }
+
+        @Override
+        public boolean validate(ValidationFacts facts) {
+            return !rule.validate(facts);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + rule;
+        }
+    }
+
+    private static String join(List<ValidationRule> rules, String operator) {
+        final StringBuilder sb = new StringBuilder("(");
+        for (final ValidationRule rule : rules) {
+            if (sb.length() > 1) {
+                sb.append(operator);
+            }
+            sb.append(rule);
+        }
+        return sb.append(")").toString();
+    }
+}
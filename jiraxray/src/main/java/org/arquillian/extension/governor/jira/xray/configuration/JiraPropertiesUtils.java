@@ -5,12 +5,14 @@ import java.io.InputStreamReader;
 import java.util.Properties;
 import java.util.logging.Logger;
 
+/**
+ * Default values of the Jira instance dependent settings, read from {@code configJiraXray.properties}. The values
+ * are compiled into {@link JiraXraySettings} by the configuration, which can override every one of them.
+ */
 public class JiraPropertiesUtils {
     private static final Logger LOG = Logger.getLogger(JiraPropertiesUtils.class.getName());
 
-    private static JiraPropertiesUtils instance = null;
-
-    private Properties propJira = new Properties();
+    private final Properties propJira = new Properties();
 
     private static String filePropertiesConfig = "configJiraXray.properties";
 
@@ -19,10 +21,7 @@ public class JiraPropertiesUtils {
      */
     public static JiraPropertiesUtils getInstance() {        
 
-        if (instance == null) {
-            instance = new JiraPropertiesUtils();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     /**
@@ -33,7 +32,11 @@ public class JiraPropertiesUtils {
             InputStream inputGec = JiraPropertiesUtils.class.getClassLoader().getResourceAsStream(filePropertiesConfig);
 
             if (inputGec != null) {
-                propJira.load(new InputStreamReader(inputGec, "UTF-8"));
+                try {
+                    propJira.load(new InputStreamReader(inputGec, "UTF-8"));
+                } finally {
+                    inputGec.close();
+                }
             }
         } catch (Exception e) {
             LOG.info(e.getMessage());
@@ -48,4 +51,9 @@ public class JiraPropertiesUtils {
     public String getValorKey(String key) {
         return propJira.getProperty(key);
     }
+
+    private static class Holder {
+        // loaded once, the first time it is needed
+        private static final JiraPropertiesUtils INSTANCE = new JiraPropertiesUtils();
+    }
 }
@@ -20,9 +20,12 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.arquillian.extension.governor.api.Configuration;
 import org.arquillian.extension.governor.api.GovernorConfigurationException;
+import org.arquillian.extension.governor.jira.xray.api.validation.ValidationRuleEngine;
 
 /**
  *
@@ -34,6 +37,18 @@ public class JiraXrayGovernorConfiguration extends Configuration {
 
     private static final String DEFAULT_JIRA_CLOSING_MESSAGE = "This JIRA issue was automatically closed by %s with Arquillian Governor JIRA extension.";
 
+    private static final int DEFAULT_TEST_RUNS_PAGE_SIZE = 100;
+
+    private static final int DEFAULT_VALIDATION_CONCURRENCY = 8;
+
+    private static final long DEFAULT_VALIDATION_TIMEOUT = 60;
+
+    private static final int DEFAULT_PUBLISH_CONCURRENCY = 8;
+
+    private static final long DEFAULT_PUBLISH_TIMEOUT = 60;
+
+    private static final String DEFAULT_VALIDATION_RULE = "testRunTodo and testExecutionInProgress";
+
     private String username = resolveUsername();
 
     private String password = resolvePassword();
@@ -44,6 +59,34 @@ public class JiraXrayGovernorConfiguration extends Configuration {
 
     private boolean closePassed = resolveClosePassed();
 
+    private String cacheFile = resolveCacheFile();
+
+    private boolean bulkTestRuns = resolveBulkTestRuns();
+
+    private String testExecutions = resolveTestExecutions();
+
+    private String testExecutionsProject = resolveTestExecutionsProject();
+
+    private boolean importResults = resolveImportResults();
+
+    private boolean testRunsFilter = true;
+
+    private String statusTodo = resolveSetting("jira.governor.statustodo", "jira.status.issue.todo");
+
+    private String statusInProgress = resolveSetting("jira.governor.statusinprogress", "jira.status.issue.inprogress");
+
+    private String statusDone = resolveSetting("jira.governor.statusdone", "jira.status.issue.done");
+
+    private String testExecutionIssueType = resolveSetting("jira.governor.testexecutionissuetype", "jira.test.type.execution");
+
+    private String startedOnField = resolveSetting("jira.governor.startedonfield", "jira.customfield.startedon");
+
+    private String finishedOnField = resolveSetting("jira.governor.finishedonfield", "jira.customfield.finishedon");
+
+    private String checkValidationMessage = resolveSetting("jira.governor.checkvalidationmessage", "jira.test.error.checkvalidation");
+
+    private volatile JiraXraySettings settings;
+
     public String getUsername() {
         return getProperty("username", username);
     }
@@ -92,6 +135,249 @@ public class JiraXrayGovernorConfiguration extends Configuration {
         setProperty("closingMessage", closingMessage);
     }
 
+    /**
+     * File the issue states are cached in between runs, no cache is used when empty.
+     */
+    public String getCacheFile() {
+        return getProperty("cacheFile", cacheFile);
+    }
+
+    public void setCacheFile(String cacheFile) {
+        setProperty("cacheFile", cacheFile);
+    }
+
+    /**
+     * When true, all Test Runs of the relevant Test Executions are retrieved once and looked up locally instead of
+     * requesting the Test Runs of every annotated test.
+     */
+    public boolean getBulkTestRuns() {
+        return Boolean.parseBoolean(getProperty("bulkTestRuns", Boolean.toString(bulkTestRuns)));
+    }
+
+    public void setBulkTestRuns(boolean bulkTestRuns) {
+        setProperty("bulkTestRuns", Boolean.toString(bulkTestRuns));
+    }
+
+    /**
+     * Comma separated keys of the Test Executions retrieved in bulk mode. When empty, they are searched with
+     * {@link #getTestExecutionsJql()}.
+     */
+    public String getTestExecutions() {
+        return getProperty("testExecutions", testExecutions);
+    }
+
+    public void setTestExecutions(String testExecutions) {
+        setProperty("testExecutions", testExecutions);
+    }
+
+    public List<String> getTestExecutionKeys() {
+        final List<String> keys = new ArrayList<String>();
+
+        for (final String key : getTestExecutions().split(",")) {
+            if (key.trim().length() != 0) {
+                keys.add(key.trim());
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Key of the project the Test Executions retrieved in bulk mode are searched in by the default
+     * {@link #getTestExecutionsJql()}.
+     */
+    public String getTestExecutionsProject() {
+        return getProperty("testExecutionsProject", testExecutionsProject);
+    }
+
+    public void setTestExecutionsProject(String testExecutionsProject) {
+        setProperty("testExecutionsProject", testExecutionsProject);
+    }
+
+    /**
+     * JQL query of the Test Executions retrieved in bulk mode, by default the Test Executions to do of
+     * {@link #getTestExecutionsProject()}.
+     */
+    public String getTestExecutionsJql() {
+        return getProperty("testExecutionsJql", String.format("project = \"%s\" AND issuetype = \"%s\" AND status = \"%s\"",
+            getTestExecutionsProject(), getTestExecutionIssueType(), getStatusTodo()));
+    }
+
+    public void setTestExecutionsJql(String testExecutionsJql) {
+        setProperty("testExecutionsJql", testExecutionsJql);
+    }
+
+    /**
+     * Whether the Test Runs of a Test are streamed from the Test Executions meeting the validation rule only, the
+     * conditions of the rule on the Test Execution are sent to Jira in a JQL query.
+     */
+    public boolean getTestRunsFilter() {
+        return Boolean.parseBoolean(getProperty("testRunsFilter", Boolean.toString(testRunsFilter)));
+    }
+
+    public void setTestRunsFilter(boolean testRunsFilter) {
+        setProperty("testRunsFilter", Boolean.toString(testRunsFilter));
+    }
+
+    public int getTestRunsPageSize() {
+        return Integer.parseInt(getProperty("testRunsPageSize", Integer.toString(DEFAULT_TEST_RUNS_PAGE_SIZE)));
+    }
+
+    public void setTestRunsPageSize(int testRunsPageSize) {
+        setProperty("testRunsPageSize", Integer.toString(testRunsPageSize));
+    }
+
+    /**
+     * Maximum number of Test Run and Test Execution lookups in flight while the tests of a class are validated.
+     */
+    public int getValidationConcurrency() {
+        return Integer.parseInt(getProperty("validationConcurrency", Integer.toString(DEFAULT_VALIDATION_CONCURRENCY)));
+    }
+
+    public void setValidationConcurrency(int validationConcurrency) {
+        setProperty("validationConcurrency", Integer.toString(validationConcurrency));
+    }
+
+    /**
+     * Seconds to wait for the lookups of a class. Lookups not finished in time are done again, one by one, when each
+     * test is validated.
+     */
+    public long getValidationTimeout() {
+        return Long.parseLong(getProperty("validationTimeout", Long.toString(DEFAULT_VALIDATION_TIMEOUT)));
+    }
+
+    public void setValidationTimeout(long validationTimeout) {
+        setProperty("validationTimeout", Long.toString(validationTimeout));
+    }
+
+    /**
+     * When true, the results are imported as one execution result per Test Execution instead of updating every Test
+     * Run.
+     */
+    public boolean getImportResults() {
+        return Boolean.parseBoolean(getProperty("importResults", Boolean.toString(importResults)));
+    }
+
+    public void setImportResults(boolean importResults) {
+        setProperty("importResults", Boolean.toString(importResults));
+    }
+
+    /**
+     * Maximum number of requests in flight while the results are published after the suite.
+     */
+    public int getPublishConcurrency() {
+        return Integer.parseInt(getProperty("publishConcurrency", Integer.toString(DEFAULT_PUBLISH_CONCURRENCY)));
+    }
+
+    public void setPublishConcurrency(int publishConcurrency) {
+        setProperty("publishConcurrency", Integer.toString(publishConcurrency));
+    }
+
+    /**
+     * Seconds to wait for the requests still in flight once all the results are sent.
+     */
+    public long getPublishTimeout() {
+        return Long.parseLong(getProperty("publishTimeout", Long.toString(DEFAULT_PUBLISH_TIMEOUT)));
+    }
+
+    public void setPublishTimeout(long publishTimeout) {
+        setProperty("publishTimeout", Long.toString(publishTimeout));
+    }
+
+    /**
+     * Rule the Test Runs of an annotated test have to pass so the test is executed, rule names combined with
+     * {@code and}, {@code or}, {@code not} and parentheses.
+     */
+    public String getValidationRule() {
+        return getProperty("validationRule", DEFAULT_VALIDATION_RULE);
+    }
+
+    public void setValidationRule(String validationRule) {
+        setProperty("validationRule", validationRule);
+    }
+
+    /**
+     * Name of the Jira status of issues to do, the statuses, issue type and custom fields default to the values of
+     * {@code configJiraXray.properties}.
+     */
+    public String getStatusTodo() {
+        return getProperty("statusTodo", statusTodo);
+    }
+
+    public void setStatusTodo(String statusTodo) {
+        setSetting("statusTodo", statusTodo);
+    }
+
+    public String getStatusInProgress() {
+        return getProperty("statusInProgress", statusInProgress);
+    }
+
+    public void setStatusInProgress(String statusInProgress) {
+        setSetting("statusInProgress", statusInProgress);
+    }
+
+    public String getStatusDone() {
+        return getProperty("statusDone", statusDone);
+    }
+
+    public void setStatusDone(String statusDone) {
+        setSetting("statusDone", statusDone);
+    }
+
+    public String getTestExecutionIssueType() {
+        return getProperty("testExecutionIssueType", testExecutionIssueType);
+    }
+
+    public void setTestExecutionIssueType(String testExecutionIssueType) {
+        setSetting("testExecutionIssueType", testExecutionIssueType);
+    }
+
+    /**
+     * Id of the custom field of the date a Test Execution starts on.
+     */
+    public String getStartedOnField() {
+        return getProperty("startedOnField", startedOnField);
+    }
+
+    public void setStartedOnField(String startedOnField) {
+        setSetting("startedOnField", startedOnField);
+    }
+
+    /**
+     * Id of the custom field of the date a Test Execution finishes on.
+     */
+    public String getFinishedOnField() {
+        return getProperty("finishedOnField", finishedOnField);
+    }
+
+    public void setFinishedOnField(String finishedOnField) {
+        setSetting("finishedOnField", finishedOnField);
+    }
+
+    public String getCheckValidationMessage() {
+        return getProperty("checkValidationMessage", checkValidationMessage);
+    }
+
+    public void setCheckValidationMessage(String checkValidationMessage) {
+        setSetting("checkValidationMessage", checkValidationMessage);
+    }
+
+    /**
+     * @return statuses, issue type and custom fields of the configuration, compiled the first time they are needed
+     * @throws IllegalArgumentException if any of them is not set
+     */
+    public JiraXraySettings getSettings() {
+        JiraXraySettings compiled = settings;
+
+        if (compiled == null) {
+            compiled = new JiraXraySettings(getStatusTodo(), getStatusInProgress(), getStatusDone(), getTestExecutionIssueType(),
+                getStartedOnField(), getFinishedOnField(), getCheckValidationMessage());
+            settings = compiled;
+        }
+
+        return compiled;
+    }
+
     public URL getServerURL() throws GovernorConfigurationException {
         URL url = null;
 
@@ -124,6 +410,47 @@ public class JiraXrayGovernorConfiguration extends Configuration {
 
         getServerURI();
         getServerURL();
+
+        try {
+            if (getTestRunsPageSize() <= 0) {
+                throw new GovernorConfigurationException("Test Runs page size has to be a positive number.");
+            }
+            if (getValidationConcurrency() <= 0) {
+                throw new GovernorConfigurationException("Validation concurrency has to be a positive number.");
+            }
+            if (getValidationTimeout() <= 0) {
+                throw new GovernorConfigurationException("Validation timeout has to be a positive number.");
+            }
+            if (getPublishConcurrency() <= 0) {
+                throw new GovernorConfigurationException("Publish concurrency has to be a positive number.");
+            }
+            if (getPublishTimeout() <= 0) {
+                throw new GovernorConfigurationException("Publish timeout has to be a positive number.");
+            }
+        } catch (NumberFormatException ex) {
+            throw new GovernorConfigurationException("Unable to parse number: " + ex.getMessage());
+        }
+
+        // the Test Executions of every project would be searched otherwise
+        if (getBulkTestRuns() && getTestExecutionKeys().isEmpty() && getProperty("testExecutionsJql", EMPTY_STRING).length() == 0
+            && getTestExecutionsProject().length() == 0) {
+            throw new GovernorConfigurationException("Test Executions, their project or their JQL query have to be set to retrieve "
+                + "the Test Runs in bulk.");
+        }
+
+        try {
+            ValidationRuleEngine.parse(getValidationRule());
+        } catch (IllegalArgumentException ex) {
+            throw new GovernorConfigurationException(ex.getMessage());
+        }
+
+        try {
+            // properties from arquillian.xml are set after the configuration is created
+            settings = null;
+            getSettings();
+        } catch (IllegalArgumentException ex) {
+            throw new GovernorConfigurationException(ex.getMessage());
+        }
     }
 
     @Override
@@ -137,12 +464,48 @@ public class JiraXrayGovernorConfiguration extends Configuration {
         sb.append(String.format("%-40s %s\n", "force", getForce()));
         sb.append(String.format("%-40s %s\n", "closePassed", getClosePassed()));
         sb.append(String.format("%-40s %s\n", "closingMessage", getClosingMessage()));
+        sb.append(String.format("%-40s %s\n", "cacheFile", getCacheFile()));
+        sb.append(String.format("%-40s %s\n", "bulkTestRuns", getBulkTestRuns()));
+        sb.append(String.format("%-40s %s\n", "testExecutions", getTestExecutions()));
+        sb.append(String.format("%-40s %s\n", "testExecutionsProject", getTestExecutionsProject()));
+        sb.append(String.format("%-40s %s\n", "testExecutionsJql", getTestExecutionsJql()));
+        sb.append(String.format("%-40s %s\n", "testRunsFilter", getTestRunsFilter()));
+        sb.append(String.format("%-40s %s\n", "testRunsPageSize", getTestRunsPageSize()));
+        sb.append(String.format("%-40s %s\n", "validationConcurrency", getValidationConcurrency()));
+        sb.append(String.format("%-40s %s\n", "validationTimeout", getValidationTimeout()));
+        sb.append(String.format("%-40s %s\n", "importResults", getImportResults()));
+        sb.append(String.format("%-40s %s\n", "publishConcurrency", getPublishConcurrency()));
+        sb.append(String.format("%-40s %s\n", "publishTimeout", getPublishTimeout()));
+        sb.append(String.format("%-40s %s\n", "validationRule", getValidationRule()));
+        sb.append(String.format("%-40s %s\n", "statusTodo", getStatusTodo()));
+        sb.append(String.format("%-40s %s\n", "statusInProgress", getStatusInProgress()));
+        sb.append(String.format("%-40s %s\n", "statusDone", getStatusDone()));
+        sb.append(String.format("%-40s %s\n", "testExecutionIssueType", getTestExecutionIssueType()));
+        sb.append(String.format("%-40s %s\n", "startedOnField", getStartedOnField()));
+        sb.append(String.format("%-40s %s\n", "finishedOnField", getFinishedOnField()));
 
         return sb.toString();
     }
 
     // helpers
 
+    private void setSetting(String name, String value) {
+        setProperty(name, value);
+        settings = null;
+    }
+
+    private String resolveSetting(String systemProperty, String key) {
+        final String value = System.getProperty(systemProperty);
+
+        if (value != null && value.length() != 0) {
+            return value;
+        }
+
+        final String defaultValue = JiraPropertiesUtils.getInstance().getValorKey(key);
+
+        return defaultValue == null ? EMPTY_STRING : defaultValue;
+    }
+
     private String resolveServer() {
         final String server = System.getProperty("jira.governor.server");
 
@@ -181,4 +544,42 @@ public class JiraXrayGovernorConfiguration extends Configuration {
     private boolean resolveClosePassed() {
         return Boolean.valueOf(System.getProperty("jira.governor.closepassed"));
     }
+
+    private boolean resolveBulkTestRuns() {
+        return Boolean.valueOf(System.getProperty("jira.governor.bulktestruns"));
+    }
+
+    private boolean resolveImportResults() {
+        return Boolean.valueOf(System.getProperty("jira.governor.importresults"));
+    }
+
+    private String resolveTestExecutions() {
+        final String testExecutions = System.getProperty("jira.governor.testexecutions");
+
+        if (testExecutions != null && testExecutions.length() != 0) {
+            return testExecutions;
+        }
+
+        return EMPTY_STRING;
+    }
+
+    private String resolveTestExecutionsProject() {
+        final String testExecutionsProject = System.getProperty("jira.governor.testexecutionsproject");
+
+        if (testExecutionsProject != null && testExecutionsProject.length() != 0) {
+            return testExecutionsProject;
+        }
+
+        return EMPTY_STRING;
+    }
+
+    private String resolveCacheFile() {
+        final String cacheFile = System.getProperty("jira.governor.cachefile");
+
+        if (cacheFile != null && cacheFile.length() != 0) {
+            return cacheFile;
+        }
+
+        return EMPTY_STRING;
+    }
 }
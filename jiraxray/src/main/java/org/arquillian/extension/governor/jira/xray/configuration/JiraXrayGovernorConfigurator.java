@@ -19,8 +19,10 @@ package org.arquillian.extension.governor.jira.xray.configuration;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
 import org.arquillian.extension.governor.jira.xray.impl.JiraXrayGovernorClient;
-import org.arquillian.extension.governor.jira.xray.impl.JiraXrayGovernorClientFactory;
+import org.arquillian.extension.governor.jira.xray.impl.LazyJiraXrayGovernorClient;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
 import org.arquillian.extension.governor.spi.event.GovernorExtensionConfigured;
 import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
 import org.jboss.arquillian.config.descriptor.api.ExtensionDef;
@@ -29,6 +31,7 @@ import org.jboss.arquillian.core.api.InstanceProducer;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.core.api.event.ManagerStopping;
 import org.jboss.arquillian.core.spi.ServiceLoader;
 
 /**
@@ -42,15 +45,19 @@ public class JiraXrayGovernorConfigurator {
     @Inject
     private Instance<ServiceLoader> serviceLoader;
 
+    @Inject
+    private Instance<GovernorOutbox> governorOutbox;
+
     @Inject
     @ApplicationScoped
     private InstanceProducer<JiraXrayGovernorConfiguration> jiraGovernorConfiguration;
 
     @Inject
     @ApplicationScoped
-    private InstanceProducer<JiraXrayGovernorClient> jiraGovernorClient;
+    private InstanceProducer<LazyJiraXrayGovernorClient> jiraGovernorClient;
 
-    public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor) throws Exception {
+    public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor,
+                                              GovernorConfiguration governorConfiguration) throws Exception {
         final JiraXrayGovernorConfiguration jiraGovernorConfiguration = new JiraXrayGovernorConfiguration();
         try {
             
@@ -64,8 +71,13 @@ public class JiraXrayGovernorConfigurator {
     
             this.jiraGovernorConfiguration.set(jiraGovernorConfiguration);
             
-            final JiraXrayGovernorClient jiraGovernorClient = new JiraXrayGovernorClientFactory().build(this.jiraGovernorConfiguration.get());
-    
+            final LazyJiraXrayGovernorClient jiraGovernorClient = new LazyJiraXrayGovernorClient(jiraGovernorConfiguration, governorConfiguration, governorOutbox.get());
+
+            // Test Runs left to update by a previous run are updated once the client registers with the outbox
+            if (governorOutbox.get() != null && governorOutbox.get().hasPending(JiraXrayGovernorClient.OUTBOX_PROVIDER)) {
+                jiraGovernorClient.get();
+            }
+
             this.jiraGovernorClient.set(jiraGovernorClient);
     
             if (logger.isLoggable(Level.INFO)) {
@@ -78,4 +90,10 @@ public class JiraXrayGovernorConfigurator {
             System.out.println("**********************************************************************************");
         }
     }
+
+    public void onManagerStopping(@Observes ManagerStopping event) {
+        if (jiraGovernorClient.get() != null && jiraGovernorClient.get().isCreated()) {
+            jiraGovernorClient.get().get().release();
+        }
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.jira.xray.configuration;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.arquillian.extension.governor.jira.xray.domain.JiraIssueStatus;
+import org.jboss.arquillian.core.spi.Validate;
+
+import com.atlassian.jira.rest.client.api.domain.Status;
+
+/**
+ * Status names, issue type and custom fields of the Jira instance, compiled from the configuration once so the
+ * validations compare enums instead of localized names.
+ */
+public final class JiraXraySettings {
+
+    private final Map<String, JiraIssueStatus> issueStatuses;
+
+    private final Map<JiraIssueStatus, String> statusNames;
+
+    private final String testExecutionIssueType;
+
+    private final String startedOnField;
+
+    private final String finishedOnField;
+
+    private final String checkValidationMessage;
+
+    /**
+     * @param statusTodo name of the to do status
+     * @param statusInProgress name of the in progress status
+     * @param statusDone name of the done status
+     * @param testExecutionIssueType name of the Test Execution issue type
+     * @param startedOnField id of the custom field the Test Execution starts on
+     * @param finishedOnField id of the custom field the Test Execution finishes on
+     * @param checkValidationMessage format of the reason of the tests skipped by the validation, takes the Test key
+     * @throws IllegalArgumentException if any of the values is null or empty
+     */
+    public JiraXraySettings(String statusTodo, String statusInProgress, String statusDone, String testExecutionIssueType,
+        String startedOnField, String finishedOnField, String checkValidationMessage) {
+        Validate.notNullOrEmpty(statusTodo, "Name of the to do status must be specified.");
+        Validate.notNullOrEmpty(statusInProgress, "Name of the in progress status must be specified.");
+        Validate.notNullOrEmpty(statusDone, "Name of the done status must be specified.");
+        Validate.notNullOrEmpty(testExecutionIssueType, "Test Execution issue type must be specified.");
+        Validate.notNullOrEmpty(startedOnField, "Custom field of the start of Test Executions must be specified.");
+        Validate.notNullOrEmpty(finishedOnField, "Custom field of the end of Test Executions must be specified.");
+        Validate.notNullOrEmpty(checkValidationMessage, "Message of tests not passing the validation must be specified.");
+
+        final Map<JiraIssueStatus, String> names = new EnumMap<JiraIssueStatus, String>(JiraIssueStatus.class);
+        names.put(JiraIssueStatus.TODO, statusTodo);
+        names.put(JiraIssueStatus.IN_PROGRESS, statusInProgress);
+        names.put(JiraIssueStatus.DONE, statusDone);
+
+        final Map<String, JiraIssueStatus> statuses = new HashMap<String, JiraIssueStatus>();
+        for (final Map.Entry<JiraIssueStatus, String> name : names.entrySet()) {
+            if (statuses.put(name.getValue(), name.getKey()) != null) {
+                throw new IllegalArgumentException("Status " + name.getValue() + " is configured more than once.");
+            }
+        }
+
+        this.statusNames = Collections.unmodifiableMap(names);
+        this.issueStatuses = Collections.unmodifiableMap(statuses);
+        this.testExecutionIssueType = testExecutionIssueType;
+        this.startedOnField = startedOnField;
+        this.finishedOnField = finishedOnField;
+        this.checkValidationMessage = checkValidationMessage;
+    }
+
+    /**
+     * @return settings of a configuration taken from system properties and {@code configJiraXray.properties} only
+     */
+    public static JiraXraySettings defaults() {
+        return Defaults.SETTINGS;
+    }
+
+    /**
+     * @param statusName localized name of a Jira status, may be null
+     * @return status of the name, {@link JiraIssueStatus#OTHER} when the name is not configured
+     */
+    public JiraIssueStatus getIssueStatus(String statusName) {
+        final JiraIssueStatus issueStatus = statusName == null ? null : issueStatuses.get(statusName);
+        return issueStatus == null ? JiraIssueStatus.OTHER : issueStatus;
+    }
+
+    public JiraIssueStatus getIssueStatus(Status status) {
+        return getIssueStatus(status == null ? null : status.getName());
+    }
+
+    /**
+     * @return localized name of the status, null for {@link JiraIssueStatus#OTHER}
+     */
+    public String getStatusName(JiraIssueStatus issueStatus) {
+        return statusNames.get(issueStatus);
+    }
+
+    public String getTestExecutionIssueType() {
+        return testExecutionIssueType;
+    }
+
+    public String getStartedOnField() {
+        return startedOnField;
+    }
+
+    public String getFinishedOnField() {
+        return finishedOnField;
+    }
+
+    public String getCheckValidationMessage() {
+        return checkValidationMessage;
+    }
+
+    private static class Defaults {
+        private static final JiraXraySettings SETTINGS = new JiraXrayGovernorConfiguration().getSettings();
+    }
+}
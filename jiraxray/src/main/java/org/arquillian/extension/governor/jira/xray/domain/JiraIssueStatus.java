@@ -0,0 +1,19 @@
+package org.arquillian.extension.governor.jira.xray.domain;
+
+/**
+ * Jira statuses the governor tells apart, resolved once from the localized status names of the configuration so
+ * checking a status is an identity comparison.
+ */
+public enum JiraIssueStatus {
+
+    TODO,
+
+    IN_PROGRESS,
+
+    DONE,
+
+    /**
+     * Any status not configured.
+     */
+    OTHER
+}
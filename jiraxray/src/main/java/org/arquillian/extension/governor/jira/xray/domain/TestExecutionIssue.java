@@ -3,18 +3,34 @@ package org.arquillian.extension.governor.jira.xray.domain;
 import java.net.URI;
 import java.util.Date;
 
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXraySettings;
+
 import com.atlassian.jira.rest.client.api.domain.BasicIssue;
 import com.atlassian.jira.rest.client.api.domain.Status;
 
 public class TestExecutionIssue extends BasicIssue {
 
-    private Date startedOn;
-    private Date finishedOn;
+    /**
+     * Epoch millis of a date which is not set.
+     */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private long startedOn;
+    private long finishedOn;
     private Status status;    
+    private JiraIssueStatus issueStatus;
 
     
     
     public TestExecutionIssue(URI self, String key, Long id, Status status, Date startedOn, Date finishedOn) {
+        this(self, key, id, status, toMillis(startedOn), toMillis(finishedOn));
+    }
+
+    /**
+     * @param startedOn epoch millis the Test Execution starts on, {@link #NO_DATE} when not set
+     * @param finishedOn epoch millis the Test Execution finishes on, {@link #NO_DATE} when not set
+     */
+    public TestExecutionIssue(URI self, String key, Long id, Status status, long startedOn, long finishedOn) {
         super(self, key, id);
         this.finishedOn = finishedOn;
         this.startedOn = startedOn;
@@ -25,25 +41,35 @@ public class TestExecutionIssue extends BasicIssue {
 
     public Date getStartedOn() {
         
-        return startedOn;
+        return toDate(startedOn);
     }
     
     
     public void setStartedOn(Date startedOn) {
         
-        this.startedOn = startedOn;
+        this.startedOn = toMillis(startedOn);
     }
     
     
     public Date getFinishedOn() {
         
-        return finishedOn;
+        return toDate(finishedOn);
     }
     
     
     public void setFinishedOn(Date finishedOn) {
         
-        this.finishedOn = finishedOn;
+        this.finishedOn = toMillis(finishedOn);
+    }
+
+    public long getStartedOnMillis() {
+
+        return startedOn;
+    }
+
+    public long getFinishedOnMillis() {
+
+        return finishedOn;
     }
     
     
@@ -56,7 +82,52 @@ public class TestExecutionIssue extends BasicIssue {
     public void setStatus(Status status) {
         
         this.status = status;
+        this.issueStatus = null;
+    }
+
+    /**
+     * @return status resolved by the settings the Test Execution was retrieved with, the default settings when it
+     *         was built without them
+     */
+    public JiraIssueStatus getIssueStatus() {
+
+        if (issueStatus == null) {
+            issueStatus = JiraXraySettings.defaults().getIssueStatus(status);
+        }
+        return issueStatus;
+    }
+
+    public void setIssueStatus(JiraIssueStatus issueStatus) {
+
+        this.issueStatus = issueStatus;
+    }
+
+    /**
+     * @param now epoch millis
+     * @return true when the Test Execution has started at {@code now} and is not finished yet
+     */
+    public boolean isActiveAt(long now) {
+
+        return isActive(startedOn, finishedOn, now);
+    }
+
+    /**
+     * @return true when a window started at {@code startedOn} and finishing at {@code finishedOn} is active at
+     *         {@code now}, a window without start is never active
+     */
+    public static boolean isActive(long startedOn, long finishedOn, long now) {
+
+        return startedOn != NO_DATE && (startedOn == now || (startedOn < now && (finishedOn == NO_DATE || finishedOn > now)));
+    }
+
+    private static long toMillis(Date date) {
+
+        return date == null ? NO_DATE : date.getTime();
+    }
+
+    private static Date toDate(long millis) {
+
+        return millis == NO_DATE ? null : new Date(millis);
     }
-    
 
 }
@@ -0,0 +1,63 @@
+package org.arquillian.extension.governor.jira.xray.domain;
+
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+/**
+ * Test Run of a Test inside a Test Execution, reduced to the values the validation rules and the status update need.
+ */
+public class TestExecutionRun {
+
+    private final Long id;
+    private final String testKey;
+    private final String testExecKey;
+    private Status status;
+
+    public TestExecutionRun(Long id, String testKey, String testExecKey, Status status) {
+        this.id = id;
+        this.testKey = testKey;
+        this.testExecKey = testExecKey;
+        this.status = status;
+    }
+
+    /**
+     * Builds the run from a Test Run retrieved for the Test {@code testKey}.
+     *
+     * @param testKey
+     * @param testRun
+     * @return
+     */
+    public static TestExecutionRun valueOf(String testKey, TestRun testRun) {
+        return new TestExecutionRun(testRun.getId(), testKey, testRun.getTestExecKey(), testRun.getStatus());
+    }
+
+    public Long getId() {
+
+        return id;
+    }
+
+    public String getTestKey() {
+
+        return testKey;
+    }
+
+    public String getTestExecKey() {
+
+        return testExecKey;
+    }
+
+    public Status getStatus() {
+
+        return status;
+    }
+
+    public void setStatus(Status status) {
+
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return testExecKey + "/" + testKey + " (" + status + ")";
+    }
+}
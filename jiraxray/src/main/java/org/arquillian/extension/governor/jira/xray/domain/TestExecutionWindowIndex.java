@@ -0,0 +1,62 @@
+package org.arquillian.extension.governor.jira.xray.domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Active windows of a set of Test Executions at one moment, the suite clock, so every test of a run is validated
+ * against the same "now".
+ *
+ * Windows are evaluated once against the suite clock and kept sorted by Test Execution key, looking one up is a
+ * binary search without allocations.
+ */
+public class TestExecutionWindowIndex {
+
+    private final long now;
+
+    private final String[] keys;
+
+    private final boolean[] active;
+
+    /**
+     * @param testExecutions Test Executions to index
+     * @param now epoch millis of the suite clock
+     */
+    public TestExecutionWindowIndex(Collection<TestExecutionIssue> testExecutions, long now) {
+        this.now = now;
+
+        this.keys = new String[testExecutions.size()];
+        this.active = new boolean[testExecutions.size()];
+
+        int i = 0;
+        for (final TestExecutionIssue testExecution : testExecutions) {
+            keys[i++] = testExecution.getKey();
+        }
+        Arrays.sort(keys);
+
+        for (final TestExecutionIssue testExecution : testExecutions) {
+            active[Arrays.binarySearch(keys, testExecution.getKey())] = testExecution.isActiveAt(now);
+        }
+    }
+
+    public long getNow() {
+        return now;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean contains(String keyTestExec) {
+        return Arrays.binarySearch(keys, keyTestExec) >= 0;
+    }
+
+    /**
+     * @param keyTestExec
+     * @return true when the Test Execution is indexed and active at the suite clock
+     */
+    public boolean isActive(String keyTestExec) {
+        final int position = Arrays.binarySearch(keys, keyTestExec);
+        return position >= 0 && active[position];
+    }
+}
@@ -0,0 +1,61 @@
+package org.arquillian.extension.governor.jira.xray.domain;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+/**
+ * Conditions every Test Run passing the validation meets, so the Test Runs not meeting them do not have to be
+ * transferred. The conditions on the Test Execution are sent to the server, the status of the Test Run is checked
+ * while the Test Runs are streamed.
+ */
+public class TestRunFilter {
+
+    private final Set<Status> testRunStatuses;
+
+    private final boolean testExecutionTodo;
+
+    private final long activeAt;
+
+    /**
+     * @param testRunStatuses statuses the Test Run has to be in, empty for any status
+     * @param testExecutionTodo whether the Test Execution has to be in the to do status
+     * @param activeAt epoch millis the Test Execution has to be active at, {@link TestExecutionIssue#NO_DATE} for any
+     */
+    public TestRunFilter(Set<Status> testRunStatuses, boolean testExecutionTodo, long activeAt) {
+        this.testRunStatuses = testRunStatuses.isEmpty() ? Collections.<Status>emptySet()
+            : Collections.unmodifiableSet(EnumSet.copyOf(testRunStatuses));
+        this.testExecutionTodo = testExecutionTodo;
+        this.activeAt = activeAt;
+    }
+
+    public Set<Status> getTestRunStatuses() {
+        return testRunStatuses;
+    }
+
+    public boolean isTestExecutionTodo() {
+        return testExecutionTodo;
+    }
+
+    public long getActiveAt() {
+        return activeAt;
+    }
+
+    /**
+     * @return true when the filter narrows the Test Executions, only then it pays to search them on the server
+     */
+    public boolean isTestExecutionFiltered() {
+        return testExecutionTodo || activeAt != TestExecutionIssue.NO_DATE;
+    }
+
+    public boolean accepts(Status testRunStatus) {
+        return testRunStatuses.isEmpty() || testRunStatuses.contains(testRunStatus);
+    }
+
+    @Override
+    public String toString() {
+        return "statuses " + testRunStatuses + ", testExecutionTodo " + testExecutionTodo + ", activeAt " + activeAt;
+    }
+}
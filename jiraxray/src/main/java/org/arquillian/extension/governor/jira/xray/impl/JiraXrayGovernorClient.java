@@ -8,25 +8,58 @@
  */
 package org.arquillian.extension.governor.jira.xray.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.arquillian.extension.governor.api.GovernorClient;
+import org.arquillian.extension.governor.cache.IssueStateCache;
+import org.arquillian.extension.governor.circuit.CircuitBreaker;
+import org.arquillian.extension.governor.circuit.CircuitBreakerFallback;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
 import org.arquillian.extension.governor.jira.xray.api.JiraXray;
 import org.arquillian.extension.governor.jira.xray.api.validation.IJiraXrayUtils;
+import org.arquillian.extension.governor.jira.xray.api.validation.TestExecutionLookup;
+import org.arquillian.extension.governor.jira.xray.api.validation.ValidationRuleEngine;
 import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXraySettings;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionWindowIndex;
+import org.arquillian.extension.governor.jira.xray.domain.TestRunFilter;
+import org.arquillian.extension.governor.metrics.CallOutcome;
+import org.arquillian.extension.governor.metrics.GovernorMetrics;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
+import org.arquillian.extension.governor.outbox.OutboxHandler;
+import org.arquillian.extension.governor.outbox.OutboxOperation;
+import org.arquillian.extension.governor.registry.GovernorClientRegistry;
 import org.jboss.arquillian.core.spi.Validate;
 import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
 
+import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.domain.Comment;
 import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
 import com.atlassian.jira.rest.client.api.domain.Transition;
 import com.atlassian.jira.rest.client.api.domain.input.ComplexIssueInputFieldValue;
 import com.atlassian.jira.rest.client.api.domain.input.FieldInput;
 import com.atlassian.jira.rest.client.api.domain.input.TransitionInput;
 import com.atlassian.jira.rest.client.internal.ServerVersionConstants;
+import com.google.common.util.concurrent.FutureCallback;
 
 import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
 import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
@@ -35,15 +68,34 @@ import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
 /**
  *
  */
-public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXrayGovernorStrategy> {
+public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXrayGovernorStrategy>, OutboxHandler, TestExecutionLookup {
+
+    private static final String CACHE_PROVIDER = "jira";
+
+    public static final String OUTBOX_PROVIDER = "jira-xray";
+
+    // the issue states are shared with the Jira provider, the time is not
+    private static final String METRICS_PROVIDER = OUTBOX_PROVIDER;
 
     private XrayJiraRestClient restClient;
+    private XrayTestRunRestClient testRunClient;
+    private IssueStateCache issueStateCache;
+    private GovernorOutbox governorOutbox;
+    private CircuitBreaker circuitBreaker;
+    private JiraXrayTestRunIndex testRunIndex;
+    private boolean testRunIndexUnavailable = false;
+    private final Map<String, TestExecutionIssue> testExecutions = new ConcurrentHashMap<String, TestExecutionIssue>();
+    private final Map<String, List<TestExecutionRun>> testRuns = new ConcurrentHashMap<String, List<TestExecutionRun>>();
     private JiraXrayGovernorStrategy jiraGovernorStrategy;
     private JiraXrayGovernorConfiguration jiraGovernorConfiguration;
+    private ValidationRuleEngine validationRuleEngine;
+    private long suiteTime = System.currentTimeMillis();
+    private volatile TestExecutionWindowIndex testExecutionWindows;
+    private ExecutorService prefetchExecutor;
     
     private IJiraXrayUtils jiraUtils = new JiraXrayUtilsImpl();
 
-    private int jiraBuildNumber = 0;
+    private static final ConcurrentMap<String, Integer> jiraBuildNumbers = new ConcurrentHashMap<String, Integer>();
 
     private static Transition getTransitionByName(Iterable<Transition> transitions, String transitionName) {
 
@@ -60,6 +112,32 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
 
         Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be specified.");
         this.jiraGovernorConfiguration = jiraGovernorConfiguration;
+        this.jiraUtils = new JiraXrayUtilsImpl(jiraGovernorConfiguration.getSettings());
+    }
+
+    /**
+     * @return statuses, issue type and custom fields of the configuration
+     */
+    public JiraXraySettings getSettings() {
+
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+        return jiraGovernorConfiguration.getSettings();
+    }
+
+    /**
+     * Sets the suite clock the windows of the Test Executions are validated against.
+     *
+     * @param suiteTime epoch millis, truncated to the second like the dates of the Test Executions
+     */
+    public void setSuiteTime(long suiteTime) {
+
+        this.suiteTime = suiteTime - ((suiteTime % 1000) + 1000) % 1000;
+        this.testExecutionWindows = null;
+    }
+
+    public long getSuiteTime() {
+
+        return suiteTime;
     }
 
     @Override
@@ -74,14 +152,37 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
             return ExecutionDecision.execute();
         }
 
-        final Issue jiraIssue = getIssue(jiraIssueKey);
+        String jiraIssueStatus = issueStateCache == null ? null : issueStateCache.get(CACHE_PROVIDER, jiraGovernorConfiguration.getServer(), jiraIssueKey);
 
-        // when there is some error while we are getting the issue, we execute that test
-        if (jiraIssue == null) {
-            return ExecutionDecision.execute();
+        if (issueStateCache != null) {
+            GovernorMetrics.getInstance().recordCacheLookup(METRICS_PROVIDER, "issueState", jiraIssueStatus != null);
         }
 
-        return jiraGovernorStrategy.annotation(annotation).issue(jiraIssue).resolve();
+        if (jiraIssueStatus == null) {
+            if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+                GovernorMetrics.getInstance().recordFallback(METRICS_PROVIDER, GovernorMetrics.RESOLVE);
+                return getFallbackDecision(annotation, jiraIssueKey);
+            }
+
+            final Issue jiraIssue = getIssue(jiraIssueKey);
+
+            // when there is some error while we are getting the issue, we execute that test
+            if (jiraIssue == null) {
+                return ExecutionDecision.execute();
+            }
+
+            jiraIssueStatus = jiraIssue.getStatus().getName();
+
+            if (issueStateCache != null && jiraIssueStatus != null) {
+                issueStateCache.put(CACHE_PROVIDER, jiraGovernorConfiguration.getServer(), jiraIssueKey, jiraIssueStatus);
+            }
+        }
+
+        if (circuitBreaker != null) {
+            circuitBreaker.remember(jiraIssueKey, jiraIssueStatus);
+        }
+
+        return jiraGovernorStrategy.resolve(annotation, jiraIssueKey, jiraIssueStatus);
     }
 
     @Override
@@ -89,6 +190,8 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
 
         Validate.notNull(restClient, "Jira REST client must be specified.");
 
+        final long start = System.nanoTime();
+
         try {
             final Issue issue = restClient.getIssueClient().getIssue(id).get();
 
@@ -97,7 +200,7 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
 
             final Collection<FieldInput> fieldInputs;
 
-            if (jiraBuildNumber > ServerVersionConstants.BN_JIRA_5) {
+            if (getJiraBuildNumber() > ServerVersionConstants.BN_JIRA_5) {
                 fieldInputs = Arrays.asList(new FieldInput("resolution", ComplexIssueInputFieldValue.with("name", "Done")));
             } else {
                 fieldInputs = Arrays.asList(new FieldInput("resolution", "Done"));
@@ -107,8 +210,10 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
             final TransitionInput transitionInput = new TransitionInput(resolveIssueTransition.getId(), fieldInputs, closingMessage);
 
             restClient.getIssueClient().transition(issue.getTransitionsUri(), transitionInput).claim();
+            GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, OutboxOperation.CLOSE, CallOutcome.SUCCESS, start);
         } catch (Exception e) {
             // error while getting Issue to close, doing nothing
+            GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, OutboxOperation.CLOSE, CallOutcome.FAILURE, start);
         }
     }
 
@@ -118,29 +223,377 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
      * @param keyTest
      * @param resultRunTest
      */
-    public void close(String keyTest, Boolean resultExecutionTest, Map<String, List<TestRun>> mapTestRunValidationPass) {
+    public void close(String keyTest, Boolean resultExecutionTest, Map<String, List<TestExecutionRun>> mapTestRunValidationPass) {
+
+        close(Collections.singletonMap(keyTest, resultExecutionTest), mapTestRunValidationPass);
+    }
+
+    /**
+     * Changes the status of the validated Test Runs of every test according to its result. When an outbox is set the
+     * results of every Test Execution are queued in it and published in the background, otherwise they are published
+     * by the calling thread.
+     *
+     * @param resultsExecutionTest result of every test by key, true when it passed
+     * @param mapTestRunValidationPass validated Test Runs by test key
+     */
+    public void close(Map<String, Boolean> resultsExecutionTest, Map<String, List<TestExecutionRun>> mapTestRunValidationPass) {
 
         Validate.notNull(restClient, "Jira REST client must be specified.");
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+
+        final Map<TestExecutionRun, Status> statuses = new LinkedHashMap<TestExecutionRun, Status>();
+        for (final Map.Entry<String, Boolean> result : resultsExecutionTest.entrySet()) {
+            final List<TestExecutionRun> testRuns = mapTestRunValidationPass.get(result.getKey());
+            if (testRuns != null) {
+                for (final TestExecutionRun testRun : testRuns) {
+                    statuses.put(testRun, result.getValue() ? Status.PASS : Status.FAIL);
+                }
+            }
+        }
+
+        if (statuses.isEmpty()) {
+            return;
+        }
+
+        if (governorOutbox == null) {
+            final long start = System.nanoTime();
+            final boolean published = publish(statuses);
+            GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, OutboxOperation.UPDATE, published ? CallOutcome.SUCCESS : CallOutcome.FAILURE, start);
+            return;
+        }
+
+        for (final Map.Entry<String, Map<TestExecutionRun, Status>> entry : groupByTestExecution(statuses).entrySet()) {
+            final StringBuilder payload = new StringBuilder();
+            for (final Map.Entry<TestExecutionRun, Status> testRunStatus : entry.getValue().entrySet()) {
+                final TestExecutionRun testRun = testRunStatus.getKey();
+                payload.append(testRun.getTestKey()).append(' ')
+                    .append(testRun.getId() == null ? "-" : testRun.getId().toString()).append(' ')
+                    .append(testRunStatus.getValue().name()).append('\n');
+            }
+
+            governorOutbox.enqueue(new OutboxOperation(OUTBOX_PROVIDER, jiraGovernorConfiguration.getServer(), OutboxOperation.UPDATE,
+                entry.getKey(), payload.toString()));
+        }
+    }
+
+    /**
+     * Publishes the results of the Test Runs of one Test Execution queued by {@link #close(Map, Map)}.
+     */
+    @Override
+    public void execute(OutboxOperation operation) throws Exception {
+
+        if (!OutboxOperation.UPDATE.equals(operation.getOperation())) {
+            throw new IllegalArgumentException("Unsupported Xray operation " + operation);
+        }
+
+        final Map<TestExecutionRun, Status> statuses = new LinkedHashMap<TestExecutionRun, Status>();
+        for (final String line : operation.getPayload().split("\n")) {
+            final String[] fields = line.split(" ");
+            if (fields.length == 3) {
+                final Long id = "-".equals(fields[1]) ? null : Long.valueOf(fields[1]);
+                statuses.put(new TestExecutionRun(id, fields[0], operation.getIssueKey(), null), Status.valueOf(fields[2]));
+            }
+        }
+
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            throw new IllegalStateException("Jira server " + jiraGovernorConfiguration.getServer() + " is not reachable.");
+        }
+
+        if (!publish(statuses)) {
+            throw new IllegalStateException("Not every Test Run of " + operation.getIssueKey() + " was updated");
+        }
+    }
+
+    /**
+     * Publishes the results. The Test Runs are updated by id, without retrieving them again, or imported as one
+     * execution result per Test Execution when {@code importResults} is set. At most {@code publishConcurrency}
+     * requests are in flight, and the result of every Test Run is reported once all of them are done.
+     *
+     * @param statuses new status of every Test Run
+     * @return true when every Test Run was updated
+     */
+    private boolean publish(Map<TestExecutionRun, Status> statuses) {
+
+        final int concurrency = jiraGovernorConfiguration.getPublishConcurrency();
+        final Semaphore inFlight = new Semaphore(concurrency);
+        final Map<TestExecutionRun, String> failed = new ConcurrentHashMap<TestExecutionRun, String>();
+        final Map<TestExecutionRun, Status> updated = new ConcurrentHashMap<TestExecutionRun, Status>();
 
         try {
-            if (resultExecutionTest) {
-                // Update PASS Test
-                jiraUtils.updateStatusTestRun(restClient, keyTest, Status.PASS, mapTestRunValidationPass);
-                System.out.println("************************************************************************");
-                System.out.println("*** TEST " + keyTest + " SE HA ACTUALIZADO EL ESTADO A -> " + Status.PASS);
-                System.out.println("************************************************************************");
+            if (jiraGovernorConfiguration.getImportResults() && testRunClient != null) {
+                importTestRuns(statuses, inFlight, updated, failed);
             } else {
-                // Update FAIL Test
-                jiraUtils.updateStatusTestRun(restClient, keyTest, Status.FAIL, mapTestRunValidationPass);
-                System.out.println("************************************************************************");
-                System.out.println("*** TEST " + keyTest + " SE HA ACTUALIZADO EL ESTADO A -> " + Status.FAIL);
-                System.out.println("************************************************************************");
+                updateTestRuns(statuses, inFlight, updated, failed);
             }
-        } catch (Exception e) {
-            // error while getting Issue to close, doing nothing
+
+            // wait for the requests still in flight
+            if (inFlight.tryAcquire(concurrency, jiraGovernorConfiguration.getPublishTimeout(), TimeUnit.SECONDS)) {
+                inFlight.release(concurrency);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        System.out.println("************************************************************************");
+        for (final TestExecutionRun testRun : statuses.keySet()) {
+            if (updated.containsKey(testRun)) {
+                System.out.println("*** TEST " + testRun.getTestKey() + " (" + testRun.getTestExecKey() + ") SE HA ACTUALIZADO EL ESTADO A -> " + updated.get(testRun));
+            } else if (failed.containsKey(testRun)) {
+                System.out.println("*** TEST " + testRun.getTestKey() + " (" + testRun.getTestExecKey() + ") NO SE HA PODIDO ACTUALIZAR EL ESTADO: " + failed.get(testRun));
+            } else {
+                System.out.println("*** TEST " + testRun.getTestKey() + " (" + testRun.getTestExecKey() + ") NO SE HA ACTUALIZADO EL ESTADO A TIEMPO");
+            }
+        }
+        System.out.println("************************************************************************");
+
+        return updated.size() == statuses.size();
+    }
+
+    /**
+     * Retrieves the Test Runs of a Test. In bulk mode they are looked up in the Test Runs of the relevant Test
+     * Executions, which are retrieved on the first call. Otherwise, when the validation rule has conditions on the
+     * Test Execution, only the Test Runs of the Test Executions meeting them are streamed.
+     *
+     * @param keyTest
+     * @return Test Runs of the Test, empty list when there are none or they can not be retrieved
+     */
+    public List<TestExecutionRun> getTestRuns(String keyTest) {
+
+        Validate.notNull(restClient, "Jira REST client must be specified.");
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+
+        if (jiraGovernorConfiguration.getBulkTestRuns()) {
+            final JiraXrayTestRunIndex index = getTestRunIndex();
+            if (index != null) {
+                final List<TestExecutionRun> indexed = index.getTestRuns(keyTest);
+                if (!indexed.isEmpty() || index.getFailedTestExecutionKeys().isEmpty()) {
+                    return indexed;
+                }
+                // the Test Runs may be in a Test Execution which could not be indexed
+            }
+            // the Test Runs could not be indexed, they are looked up per test
+        }
+
+        final List<TestExecutionRun> cached = testRuns.get(keyTest);
+        GovernorMetrics.getInstance().recordCacheLookup(METRICS_PROVIDER, "testRuns", cached != null);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            GovernorMetrics.getInstance().recordFallback(METRICS_PROVIDER, GovernorMetrics.VALIDATION);
+            return Collections.emptyList();
+        }
+
+        final TestRunFilter filter = getValidationRuleEngine().getTestRunFilter(suiteTime);
+        final long start = System.nanoTime();
+
+        if (jiraGovernorConfiguration.getTestRunsFilter() && filter.isTestExecutionFiltered()) {
+            final Iterable<TestExecutionRun> streamed = jiraUtils.streamTestRunsByTestKey(restClient, keyTest, filter,
+                jiraGovernorConfiguration.getTestRunsPageSize(), testExecutions);
+
+            if (streamed != null) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.success();
+                }
+
+                // only the candidates of the validation are kept
+                final List<TestExecutionRun> result = new ArrayList<TestExecutionRun>();
+                for (final TestExecutionRun testRun : streamed) {
+                    result.add(testRun);
+                }
+                testRuns.put(keyTest, result);
+                GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, GovernorMetrics.VALIDATION, CallOutcome.SUCCESS, start);
+
+                return result;
+            }
+            // the Test Executions could not be searched, all the Test Runs are retrieved
+        }
+
+        final Iterable<TestRun> retrieved = jiraUtils.getTestRunsByTestKey(restClient, keyTest);
+
+        if (retrieved == null) {
+            GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, GovernorMetrics.VALIDATION, CallOutcome.FAILURE, start);
+            // the lookup failures are only logged by the utilities
+            if (circuitBreaker != null) {
+                circuitBreaker.failure(null);
+            }
+            return Collections.emptyList();
+        }
+
+        if (circuitBreaker != null) {
+            circuitBreaker.success();
+        }
+
+        final List<TestExecutionRun> result = new ArrayList<TestExecutionRun>();
+        for (final TestRun testRun : retrieved) {
+            result.add(TestExecutionRun.valueOf(keyTest, testRun));
+        }
+        testRuns.put(keyTest, result);
+        GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, GovernorMetrics.VALIDATION, CallOutcome.SUCCESS, start);
+
+        return result;
+    }
+
+    /**
+     * Retrieves a Test Execution. It is requested only once for the whole suite.
+     *
+     * @param keyTestExec
+     * @return Test Execution, null when it can not be retrieved
+     */
+    @Override
+    public TestExecutionIssue getTestExecution(String keyTestExec) {
+
+        Validate.notNull(restClient, "Jira REST client must be specified.");
+
+        TestExecutionIssue testExecution = testExecutions.get(keyTestExec);
+        GovernorMetrics.getInstance().recordCacheLookup(METRICS_PROVIDER, "testExecutions", testExecution != null);
+
+        if (testExecution == null) {
+            if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+                GovernorMetrics.getInstance().recordFallback(METRICS_PROVIDER, GovernorMetrics.VALIDATION);
+                return null;
+            }
+
+            final long start = System.nanoTime();
+            testExecution = jiraUtils.getTestExectionByKeyTestExec(restClient, keyTestExec);
+            GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, GovernorMetrics.VALIDATION,
+                testExecution == null ? CallOutcome.FAILURE : CallOutcome.SUCCESS, start);
+            if (testExecution != null) {
+                testExecutions.put(keyTestExec, testExecution);
+            }
+        }
+
+        return testExecution;
+    }
+
+    /**
+     * @param keyTestExec
+     * @return true when the window of the Test Execution is open at the suite clock
+     */
+    @Override
+    public boolean isTestExecutionActive(String keyTestExec) {
+
+        final TestExecutionIssue testExecution = getTestExecution(keyTestExec);
+
+        if (testExecution == null) {
+            return false;
+        }
+
+        // the index is only built after the bulk loads, Test Executions retrieved one by one are not in it
+        final TestExecutionWindowIndex windows = testExecutionWindows;
+
+        return windows != null && windows.contains(keyTestExec) ? windows.isActive(keyTestExec) : testExecution.isActiveAt(suiteTime);
+    }
+
+    /**
+     * Retrieves concurrently the Test Runs of the given Tests and the Test Executions they belong to, so validating
+     * the Tests afterwards does not reach the server. At most {@code validationConcurrency} lookups are in flight, and
+     * the ones not finished after {@code validationTimeout} seconds are abandoned. The threads are shared by the test
+     * classes of the suite until {@link #shutdownPrefetch()}.
+     *
+     * @param keysTest
+     */
+    public void prefetch(Collection<String> keysTest) {
+
+        Validate.notNull(restClient, "Jira REST client must be specified.");
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+
+        if (keysTest.isEmpty()) {
+            return;
+        }
+
+        if (circuitBreaker != null && circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            // the lookups are left to the validation of every test, which takes the fallback decision
+            return;
+        }
+
+        // the index retrieves the Test Executions as well
+        if (jiraGovernorConfiguration.getBulkTestRuns() && getTestRunIndex() != null) {
+            return;
         }
+
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(jiraGovernorConfiguration.getValidationTimeout());
+        final ExecutorService executor = getPrefetchExecutor();
+
+        try {
+            final List<Callable<Object>> testRunLookups = new ArrayList<Callable<Object>>();
+            for (final String keyTest : new HashSet<String>(keysTest)) {
+                testRunLookups.add(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return getTestRuns(keyTest);
+                    }
+                });
+            }
+            executor.invokeAll(testRunLookups, deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+
+            // only the Test Executions of the Test Runs the local rules can not decide are needed
+            final ValidationRuleEngine engine = getValidationRuleEngine();
+            final List<String> keysTestExec = new ArrayList<String>();
+            for (final String keyTest : keysTest) {
+                final List<TestExecutionRun> runs = testRuns.get(keyTest);
+                if (runs != null) {
+                    for (final TestExecutionRun run : runs) {
+                        if (engine.validateLocally(run) == null
+                            && !testExecutions.containsKey(run.getTestExecKey()) && !keysTestExec.contains(run.getTestExecKey())) {
+                            keysTestExec.add(run.getTestExecKey());
+                        }
+                    }
+                }
+            }
+
+            final List<Callable<Object>> testExecutionLookups = new ArrayList<Callable<Object>>();
+            for (int from = 0; from < keysTestExec.size(); from += JiraXrayUtilsImpl.TEST_EXECUTION_SEARCH_SIZE) {
+                final List<String> chunk = keysTestExec.subList(from, Math.min(from + JiraXrayUtilsImpl.TEST_EXECUTION_SEARCH_SIZE, keysTestExec.size()));
+                testExecutionLookups.add(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        testExecutions.putAll(jiraUtils.getTestExecutionsByKeys(restClient, chunk));
+                        return null;
+                    }
+                });
+            }
+            executor.invokeAll(testExecutionLookups, deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+
+            indexTestExecutionWindows();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the threads of {@link #prefetch(Collection)}, a later prefetch starts new ones.
+     */
+    public synchronized void shutdownPrefetch() {
+
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+            prefetchExecutor = null;
+        }
+    }
+
+    private synchronized ExecutorService getPrefetchExecutor() {
+
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Executors.newFixedThreadPool(jiraGovernorConfiguration.getValidationConcurrency(), new PrefetchThreadFactory());
+        }
+        return prefetchExecutor;
     }
     
+    /**
+     * @return engine validating the Test Runs with the rule of the configuration
+     */
+    public synchronized ValidationRuleEngine getValidationRuleEngine() {
+
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+
+        if (validationRuleEngine == null) {
+            validationRuleEngine = ValidationRuleEngine.parse(jiraGovernorConfiguration.getValidationRule());
+        }
+        return validationRuleEngine;
+    }
+
     // not publicly visible helpers
 
     @Override
@@ -150,17 +603,136 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
         this.jiraGovernorStrategy = jiraGovernorStrategy;
     }
 
+    /**
+     * Makes the Test Run results be published by the outbox instead of the calling thread.
+     */
+    public void setGovernorOutbox(GovernorOutbox governorOutbox) {
+
+        Validate.notNull(governorOutbox, "Governor outbox must be specified.");
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+        this.governorOutbox = governorOutbox;
+
+        governorOutbox.register(OUTBOX_PROVIDER, jiraGovernorConfiguration.getServer(), this);
+    }
+
+    /**
+     * Gives the shared REST clients back to the client registry, they stay open for later runs.
+     */
+    public void release() {
+
+        GovernorClientRegistry.getInstance().release(restClient);
+        GovernorClientRegistry.getInstance().release(testRunClient);
+    }
+
+    /**
+     * Stops sending requests to the Jira server while it is not reachable, the fallback decision of the configuration
+     * is taken instead. The circuit is shared with the Jira Governor of the same server.
+     */
+    public void configureCircuitBreaker(GovernorConfiguration governorConfiguration) {
+
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+        this.circuitBreaker = CircuitBreaker.forServer(CACHE_PROVIDER, jiraGovernorConfiguration.getServer(), governorConfiguration);
+    }
+
+    /**
+     * @return true when requests can be sent to the Jira server, false while its circuit is open
+     */
+    public boolean isReachable() {
+
+        return circuitBreaker == null || circuitBreaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * @return decision for the test while the Jira server is not reachable
+     */
+    public ExecutionDecision getFallbackDecision(JiraXray annotation) {
+
+        return getFallbackDecision(annotation, annotation.value());
+    }
+
     // private helpers
 
     void initializeRestClient(final XrayJiraRestClient restClient) throws Exception {
 
         Validate.notNull(restClient, "Xray Jira REST client must be specified.");
         this.restClient = restClient;
+    }
+
+    /**
+     * @return build number of the Jira server, retrieved once per server and JVM
+     */
+    private int getJiraBuildNumber() {
 
-        jiraBuildNumber = this.restClient.getMetadataClient().getServerInfo().claim().getBuildNumber();
+        final String server = jiraGovernorConfiguration.getServer();
+        Integer buildNumber = jiraBuildNumbers.get(server);
+
+        if (buildNumber == null) {
+            buildNumber = restClient.getMetadataClient().getServerInfo().claim().getBuildNumber();
+            jiraBuildNumbers.put(server, buildNumber);
+        }
+
+        return buildNumber;
+    }
+
+    void initializeJiraUtils(final IJiraXrayUtils jiraUtils) {
+
+        Validate.notNull(jiraUtils, "Jira Xray utilities must be specified.");
+        this.jiraUtils = jiraUtils;
+    }
+
+    void initializeTestRunClient(final XrayTestRunRestClient testRunClient) {
+
+        Validate.notNull(testRunClient, "Xray Test Run REST client must be specified.");
+        this.testRunClient = testRunClient;
+    }
+
+    /**
+     * Uses the issue state cache and brings the cached states changed since its last synchronization up to date. When
+     * they can not be refreshed, they are dropped.
+     */
+    void initializeIssueStateCache(final IssueStateCache issueStateCache) {
+
+        Validate.notNull(issueStateCache, "Issue state cache must be specified.");
+        Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
+        this.issueStateCache = issueStateCache;
+
+        final String server = jiraGovernorConfiguration.getServer();
+        final long now = System.currentTimeMillis();
+        final long lastSync = issueStateCache.getLastSync(CACHE_PROVIDER, server);
+
+        if (lastSync == 0) {
+            // states never synchronized can not be trusted
+            issueStateCache.invalidate(CACHE_PROVIDER, server);
+            issueStateCache.synced(CACHE_PROVIDER, server, now);
+            return;
+        }
+
+        try {
+            // a relative date does not depend on the time zone of the server, the extra minute covers the rounding
+            final long minutes = TimeUnit.MILLISECONDS.toMinutes(now - lastSync) + 1;
+            final List<String> keys = new ArrayList<String>(issueStateCache.getIssueKeys(CACHE_PROVIDER, server));
+
+            for (int from = 0; from < keys.size(); from += JiraXrayUtilsImpl.TEST_EXECUTION_SEARCH_SIZE) {
+                final List<String> chunk = keys.subList(from, Math.min(from + JiraXrayUtilsImpl.TEST_EXECUTION_SEARCH_SIZE, keys.size()));
+
+                final StringBuilder jql = new StringBuilder("key in (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    jql.append(i == 0 ? "" : ",").append(chunk.get(i));
+                }
+                jql.append(") AND updated >= -").append(minutes).append("m");
+
+                final SearchResult searchResult = restClient.getSearchClient().searchJql(jql.toString(), chunk.size(), 0, JiraXrayUtilsImpl.SEARCH_KEY_FIELDS).claim();
+                for (final Issue issue : searchResult.getIssues()) {
+                    issueStateCache.put(CACHE_PROVIDER, server, issue.getKey(), issue.getStatus().getName());
+                }
+            }
+
+            issueStateCache.synced(CACHE_PROVIDER, server, now);
+        } catch (Exception e) {
+            issueStateCache.invalidate(CACHE_PROVIDER, server);
+        }
     }
 
-    
     public XrayJiraRestClient getRestClient() {
     
         return restClient;
@@ -168,13 +740,204 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
 
     private Issue getIssue(String key) {
 
+        final long start = System.nanoTime();
+
         try {
-            return restClient.getIssueClient().getIssue(key).get();
+            final Issue issue = restClient.getIssueClient().getIssue(key).get();
+            GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, GovernorMetrics.RESOLVE, CallOutcome.SUCCESS, start);
+            if (circuitBreaker != null) {
+                circuitBreaker.success();
+            }
+            return issue;
         } catch (Exception e) {
+            GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, GovernorMetrics.RESOLVE, CallOutcome.FAILURE, start);
+            recordFailure(e);
             return null;
         }
     }
 
+    private ExecutionDecision getFallbackDecision(JiraXray annotation, String jiraIssueKey) {
+
+        if (circuitBreaker == null) {
+            return ExecutionDecision.execute();
+        }
+
+        final String lastStatus = circuitBreaker.getLastState(jiraIssueKey);
+
+        if (circuitBreaker.getFallback() == CircuitBreakerFallback.CACHED && lastStatus != null) {
+            return jiraGovernorStrategy.resolve(annotation, jiraIssueKey, lastStatus);
+        }
+
+        return circuitBreaker.getFallbackDecision();
+    }
+
+    private void recordFailure(Exception e) {
+
+        if (circuitBreaker == null) {
+            return;
+        }
+
+        // an error response, like a missing issue, still comes from a reachable server
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientException && ((RestClientException) cause).getStatusCode().isPresent()) {
+                circuitBreaker.success();
+                return;
+            }
+        }
+
+        circuitBreaker.failure(e);
+    }
+
+    private void updateTestRuns(Map<TestExecutionRun, Status> statuses, final Semaphore inFlight,
+        final Map<TestExecutionRun, Status> updated, final Map<TestExecutionRun, String> failed) throws InterruptedException {
+
+        for (final Map.Entry<TestExecutionRun, Status> entry : statuses.entrySet()) {
+            final TestExecutionRun testRun = entry.getKey();
+            final Status status = entry.getValue();
+
+            if (testRun.getId() == null || testRunClient == null) {
+                // no id to update the Test Run directly, the Xray REST client library retrieves it first
+                try {
+                    if (jiraUtils.updateStatusTestRun(restClient, testRun.getTestKey(), status,
+                        Collections.singletonMap(testRun.getTestKey(), Collections.singletonList(testRun)))) {
+                        testRun.setStatus(status);
+                        updated.put(testRun, status);
+                    } else {
+                        failed.put(testRun, "Test Run could not be retrieved or updated");
+                    }
+                } catch (RuntimeException e) {
+                    failed.put(testRun, String.valueOf(e.getMessage()));
+                }
+                continue;
+            }
+
+            inFlight.acquire();
+            testRunClient.updateStatus(testRun.getId(), status).then(new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    testRun.setStatus(status);
+                    updated.put(testRun, status);
+                    inFlight.release();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    failed.put(testRun, String.valueOf(t.getMessage()));
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void importTestRuns(Map<TestExecutionRun, Status> statuses, final Semaphore inFlight,
+        final Map<TestExecutionRun, Status> updated, final Map<TestExecutionRun, String> failed) throws InterruptedException {
+
+        for (final Map.Entry<String, Map<TestExecutionRun, Status>> entry : groupByTestExecution(statuses).entrySet()) {
+            final Map<TestExecutionRun, Status> testExecStatuses = entry.getValue();
+
+            inFlight.acquire();
+            testRunClient.importExecutionResults(entry.getKey(), testExecStatuses).then(new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    for (final Map.Entry<TestExecutionRun, Status> testRunStatus : testExecStatuses.entrySet()) {
+                        testRunStatus.getKey().setStatus(testRunStatus.getValue());
+                        updated.put(testRunStatus.getKey(), testRunStatus.getValue());
+                    }
+                    inFlight.release();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    for (final TestExecutionRun testRun : testExecStatuses.keySet()) {
+                        failed.put(testRun, String.valueOf(t.getMessage()));
+                    }
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private static Map<String, Map<TestExecutionRun, Status>> groupByTestExecution(Map<TestExecutionRun, Status> statuses) {
+
+        final Map<String, Map<TestExecutionRun, Status>> statusesByTestExec = new LinkedHashMap<String, Map<TestExecutionRun, Status>>();
+        for (final Map.Entry<TestExecutionRun, Status> entry : statuses.entrySet()) {
+            Map<TestExecutionRun, Status> testExecStatuses = statusesByTestExec.get(entry.getKey().getTestExecKey());
+            if (testExecStatuses == null) {
+                testExecStatuses = new LinkedHashMap<TestExecutionRun, Status>();
+                statusesByTestExec.put(entry.getKey().getTestExecKey(), testExecStatuses);
+            }
+            testExecStatuses.put(entry.getKey(), entry.getValue());
+        }
+
+        return statusesByTestExec;
+    }
+
+    /**
+     * @return index of the Test Runs of the Test Executions, null while the server is not reachable or when no Test
+     *         Execution could be indexed
+     */
+    private synchronized JiraXrayTestRunIndex getTestRunIndex() {
+
+        if (testRunIndex == null && !testRunIndexUnavailable) {
+            Validate.notNull(testRunClient, "Xray Test Run REST client must be specified.");
+
+            if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+                // not loaded, the next call tries again
+                return null;
+            }
+
+            final long start = System.nanoTime();
+
+            List<String> testExecKeys = jiraGovernorConfiguration.getTestExecutionKeys();
+            if (testExecKeys.isEmpty()) {
+                testExecKeys = jiraUtils.getTestExecutionKeysByJql(restClient, jiraGovernorConfiguration.getTestExecutionsJql(),
+                    jiraGovernorConfiguration.getTestRunsPageSize());
+            }
+
+            final JiraXrayTestRunIndex index = testExecKeys == null ? null
+                : JiraXrayTestRunIndex.load(testRunClient, testExecKeys, jiraGovernorConfiguration.getTestRunsPageSize());
+
+            if (index == null || (!testExecKeys.isEmpty() && index.getFailedTestExecutionKeys().size() == testExecKeys.size())) {
+                GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, GovernorMetrics.VALIDATION, CallOutcome.FAILURE, start);
+                if (index != null) {
+                    recordFailure(index.getLastFailure());
+                } else if (circuitBreaker != null) {
+                    circuitBreaker.failure(null);
+                }
+                if (circuitBreaker == null || circuitBreaker.getState() != CircuitBreaker.State.OPEN) {
+                    // the Test Runs are looked up per test for the rest of the suite
+                    testRunIndexUnavailable = true;
+                }
+                // otherwise it is tried again once the server is reachable
+                return null;
+            }
+
+            GovernorMetrics.getInstance().recordCall(METRICS_PROVIDER, GovernorMetrics.VALIDATION, CallOutcome.SUCCESS, start);
+            if (circuitBreaker != null) {
+                circuitBreaker.success();
+            }
+            testRunIndex = index;
+
+            // the Test Executions of the runs are needed by the validations, get them all at once
+            final Collection<String> missing = new HashSet<String>(testExecKeys);
+            missing.removeAll(index.getFailedTestExecutionKeys());
+            missing.removeAll(testExecutions.keySet());
+            testExecutions.putAll(jiraUtils.getTestExecutionsByKeys(restClient, missing));
+
+            indexTestExecutionWindows();
+        }
+
+        return testRunIndex;
+    }
+
+    /**
+     * Evaluates once the windows of the Test Executions retrieved so far against the suite clock.
+     */
+    private void indexTestExecutionWindows() {
+
+        testExecutionWindows = new TestExecutionWindowIndex(new ArrayList<TestExecutionIssue>(testExecutions.values()), suiteTime);
+    }
+
     private String getClosingMessage() {
 
         Validate.notNull(jiraGovernorConfiguration, "Jira Governor configuration must be set.");
@@ -182,4 +945,14 @@ public class JiraXrayGovernorClient implements GovernorClient<JiraXray, JiraXray
         return String.format(jiraGovernorConfiguration.getClosingMessage(), jiraGovernorConfiguration.getUsername());
     }
 
+    private static class PrefetchThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "governor-xray-prefetch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
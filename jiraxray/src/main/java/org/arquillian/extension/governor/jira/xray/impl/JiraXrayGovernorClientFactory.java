@@ -16,13 +16,20 @@
  */
 package org.arquillian.extension.governor.jira.xray.impl;
 
+import java.io.File;
 import java.net.URI;
 
 import org.arquillian.extension.governor.api.GovernorClientFactory;
+import org.arquillian.extension.governor.cache.IssueStateCache;
+import org.arquillian.extension.governor.jira.impl.TransportHttpClient;
 import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.arquillian.extension.governor.registry.GovernorClientRegistry;
+import org.arquillian.extension.governor.transport.GovernorTransport;
 import org.jboss.arquillian.core.spi.Validate;
 
 import com.atlassian.jira.rest.client.api.AuthenticationHandler;
+import com.atlassian.jira.rest.client.internal.async.AsynchronousHttpClientFactory;
+import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
 import com.atlassian.jira.rest.client.auth.AnonymousAuthenticationHandler;
 import com.atlassian.jira.rest.client.auth.BasicHttpAuthenticationHandler;
 
@@ -34,8 +41,22 @@ import es.cuatrogatos.jira.xray.rest.client.core.internal.async.XrayRestAsyncRes
  */
 public class JiraXrayGovernorClientFactory implements GovernorClientFactory<JiraXrayGovernorConfiguration, JiraXrayGovernorClient> {
 
+    private static final String REST_CLIENT_KIND = "jira-xray-rest";
+
+    private static final String TEST_RUN_CLIENT_KIND = "jira-xray-test-run";
+
     private JiraXrayGovernorConfiguration jiraGovernorConfiguration = null;
 
+    private GovernorTransport governorTransport = GovernorTransport.live();
+
+    /**
+     * @param governorTransport transport the built clients reach the server through, live when not set
+     */
+    public void setGovernorTransport(GovernorTransport governorTransport) {
+        Validate.notNull(governorTransport, "Governor transport has to be set.");
+        this.governorTransport = governorTransport;
+    }
+
     @Override
     public JiraXrayGovernorClient build(JiraXrayGovernorConfiguration jiraGovernorConfiguration) throws Exception {
         Validate.notNull(jiraGovernorConfiguration, "Jira governor configuration has to be set.");
@@ -45,26 +66,70 @@ public class JiraXrayGovernorClientFactory implements GovernorClientFactory<Jira
         final String username = this.jiraGovernorConfiguration.getUsername();
         final String password = this.jiraGovernorConfiguration.getPassword();
 
-        final XrayRestAsyncRestClientFactory factory = new XrayRestAsyncRestClientFactory();
-
-        final AuthenticationHandler authHandler;
-
-        if (username == null || username.isEmpty()) {
-            authHandler = new AnonymousAuthenticationHandler();
-
-        } else {
-            authHandler = new BasicHttpAuthenticationHandler(username, password);
-        }
+        final GovernorClientRegistry registry = GovernorClientRegistry.getInstance();
+        final GovernorTransport transport = this.governorTransport;
 
         // Api XrayJira by Lucho
-        final XrayJiraRestClient restClient = (XrayJiraRestClient) factory.create(jiraServerUri, authHandler);
+        final XrayJiraRestClient restClient = registry.acquire(transport.kind(REST_CLIENT_KIND), jiraServerUri.toString(), username, password,
+            new GovernorClientRegistry.Connector<XrayJiraRestClient>() {
+                @Override
+                public XrayJiraRestClient connect() throws Exception {
+                    if (transport.isLive()) {
+                        return (XrayJiraRestClient) new XrayRestAsyncRestClientFactory().create(jiraServerUri, authenticationHandler(username, password));
+                    }
+
+                    return (XrayJiraRestClient) new XrayRestAsyncRestClientFactory().create(jiraServerUri,
+                        httpClient(jiraServerUri, username, password, transport));
+                }
+
+                @Override
+                public void disconnect(XrayJiraRestClient client) throws Exception {
+                    client.close();
+                }
+            });
+
+        final XrayTestRunRestClient testRunClient = registry.acquire(transport.kind(TEST_RUN_CLIENT_KIND), jiraServerUri.toString(), username, password,
+            new GovernorClientRegistry.Connector<XrayTestRunRestClient>() {
+                @Override
+                public XrayTestRunRestClient connect() throws Exception {
+                    return new XrayTestRunRestClient(jiraServerUri, httpClient(jiraServerUri, username, password, transport));
+                }
+
+                @Override
+                public void disconnect(XrayTestRunRestClient client) throws Exception {
+                    client.close();
+                }
+            });
 
         final JiraXrayGovernorClient client = new JiraXrayGovernorClient();
         client.setConfiguration(this.jiraGovernorConfiguration);
         client.initializeRestClient(restClient);
+        client.initializeTestRunClient(testRunClient);
         client.setGovernorStrategy(new JiraXrayGovernorStrategy(jiraGovernorConfiguration));
 
+        if (this.jiraGovernorConfiguration.getCacheFile().length() != 0) {
+            client.initializeIssueStateCache(IssueStateCache.forFile(new File(this.jiraGovernorConfiguration.getCacheFile())));
+        }
+
         return client;
     }
 
+    private static DisposableHttpClient httpClient(URI serverUri, String username, String password, GovernorTransport transport) {
+        if (transport.isReplaying()) {
+            return new TransportHttpClient(null, transport);
+        }
+
+        final DisposableHttpClient client = new AsynchronousHttpClientFactory().createClient(serverUri, authenticationHandler(username, password));
+
+        return transport.isLive() ? client : new TransportHttpClient(client, transport);
+    }
+
+    private static AuthenticationHandler authenticationHandler(String username, String password) {
+        if (username == null || username.isEmpty()) {
+            return new AnonymousAuthenticationHandler();
+        }
+
+        return new BasicHttpAuthenticationHandler(username, password);
+    }
+
 }
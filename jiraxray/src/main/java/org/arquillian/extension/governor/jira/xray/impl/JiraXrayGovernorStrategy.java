@@ -21,8 +21,8 @@ import java.util.logging.Logger;
 import org.arquillian.extension.governor.api.GovernorStrategy;
 import org.arquillian.extension.governor.api.detector.DetectorProcessor;
 import org.arquillian.extension.governor.jira.xray.api.JiraXray;
-import org.arquillian.extension.governor.jira.xray.configuration.JiraPropertiesUtils;
 import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.arquillian.extension.governor.jira.xray.domain.JiraIssueStatus;
 import org.jboss.arquillian.core.spi.Validate;
 import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
 
@@ -34,11 +34,10 @@ import com.atlassian.jira.rest.client.api.domain.Issue;
 public class JiraXrayGovernorStrategy implements GovernorStrategy {
     public static final String FORCING_EXECUTION_REASON_STRING = "forcing execution";
     public static final String SKIPPING_EXECUTION_REASON_STRING = "Skipping %s. Status %s.";
-    public static final String JIRA_CLOSED_STRING = JiraPropertiesUtils.getInstance().getValorKey("jira.status.issue.todo"); //"Closed";
-    public static final String JIRA_RESOLVED_STRING = JiraPropertiesUtils.getInstance().getValorKey("jira.status.issue.done"); //"Resolved";
     private static final Logger logger = Logger.getLogger(JiraXrayGovernorStrategy.class.getName());
     private final JiraXrayGovernorConfiguration jiraGovernorConfiguration;
-    private Issue jiraIssue;
+    private String issueKey;
+    private String issueStatus;
     private JiraXray annotation;
 
     public JiraXrayGovernorStrategy(JiraXrayGovernorConfiguration jiraGovernorConfiguration) {
@@ -47,7 +46,16 @@ public class JiraXrayGovernorStrategy implements GovernorStrategy {
     }
 
     public JiraXrayGovernorStrategy issue(Issue jiraIssue) {
-        this.jiraIssue = jiraIssue;
+        Validate.notNull(jiraIssue, "Jira issue must be specified.");
+        return issue(jiraIssue.getKey(), jiraIssue.getStatus().getName());
+    }
+
+    /**
+     * Sets the issue the decision is made for by its key and status name, for example taken from the issue state cache.
+     */
+    public JiraXrayGovernorStrategy issue(String issueKey, String issueStatus) {
+        this.issueKey = issueKey;
+        this.issueStatus = issueStatus;
         return this;
     }
 
@@ -58,7 +66,14 @@ public class JiraXrayGovernorStrategy implements GovernorStrategy {
 
     @Override
     public ExecutionDecision resolve() {
-        Validate.notNull(jiraIssue, "Jira issue must be specified.");
+        return resolve(annotation, issueKey, issueStatus);
+    }
+
+    /**
+     * Resolves the decision for the issue key and status name passed in, the strategy itself is not modified.
+     */
+    public ExecutionDecision resolve(JiraXray annotation, String issueKey, String jiraStatus) {
+        Validate.notNull(issueKey, "Jira issue must be specified.");
         Validate.notNull(annotation, "Annotation must be specified.");
 
         // Execute test if detector failed because Jira is not related to specified environment.
@@ -66,8 +81,6 @@ public class JiraXrayGovernorStrategy implements GovernorStrategy {
             return ExecutionDecision.execute();
         }
 
-        final String jiraStatus = jiraIssue.getStatus().getName();
-
         if (jiraStatus == null || jiraStatus.length() == 0) {
             return ExecutionDecision.execute();
         }
@@ -80,11 +93,13 @@ public class JiraXrayGovernorStrategy implements GovernorStrategy {
             return ExecutionDecision.execute(FORCING_EXECUTION_REASON_STRING);
         }
 
-        if (jiraStatus.equals(JIRA_CLOSED_STRING) || jiraStatus.equals(JIRA_RESOLVED_STRING)) {
+        final JiraIssueStatus issueStatus = jiraGovernorConfiguration.getSettings().getIssueStatus(jiraStatus);
+
+        if (issueStatus == JiraIssueStatus.TODO || issueStatus == JiraIssueStatus.DONE) {
             return ExecutionDecision.execute();
         }
 
-        return ExecutionDecision.dontExecute(String.format(SKIPPING_EXECUTION_REASON_STRING, jiraIssue.getKey(), jiraStatus));
+        return ExecutionDecision.dontExecute(String.format(SKIPPING_EXECUTION_REASON_STRING, issueKey, jiraStatus));
     }
 
 }
@@ -19,22 +19,26 @@ package org.arquillian.extension.governor.jira.xray.impl;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.arquillian.extension.governor.api.ClosePassedDecider;
 import org.arquillian.extension.governor.api.GovernorRegistry;
+import org.arquillian.extension.governor.impl.LifecycleCountRegister;
 import org.arquillian.extension.governor.impl.TestMethodExecutionRegister;
 import org.arquillian.extension.governor.jira.xray.api.JiraXray;
-import org.arquillian.extension.governor.jira.xray.api.validation.IJiraXrayUtils;
-import org.arquillian.extension.governor.jira.xray.api.validation.TestExecStartDateOver;
-import org.arquillian.extension.governor.jira.xray.api.validation.TestExecStatusTodo;
-import org.arquillian.extension.governor.jira.xray.api.validation.TestRunStatusTodo;
-import org.arquillian.extension.governor.jira.xray.configuration.JiraPropertiesUtils;
+import org.arquillian.extension.governor.jira.xray.api.validation.ValidationRuleEngine;
 import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
-import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
 import org.arquillian.extension.governor.spi.GovernorProvider;
+import org.arquillian.extension.governor.spi.event.DecideMethodExecutions;
 import org.arquillian.extension.governor.spi.event.ExecutionDecisionEvent;
 import org.jboss.arquillian.core.api.InstanceProducer;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
@@ -49,13 +53,12 @@ import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
 import org.jboss.arquillian.test.spi.execution.ExecutionDecision.Decision;
 import org.jboss.arquillian.test.spi.execution.TestExecutionDecider;
 
-import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
-
 /**
  *
  */
 public class JiraXrayTestExecutionDecider implements TestExecutionDecider, GovernorProvider {
-    private static final Map<Method, Integer> lifecycleCountRegister = new HashMap<Method, Integer>();
+    private static final Logger logger = Logger.getLogger(JiraXrayTestExecutionDecider.class.getName());
+    private static final LifecycleCountRegister lifecycleCountRegister = new LifecycleCountRegister();
 
     @Inject
     @ClassScoped
@@ -65,9 +68,8 @@ public class JiraXrayTestExecutionDecider implements TestExecutionDecider, Gover
     @ApplicationScoped
     private InstanceProducer<ClosePassedDecider> closePassedDecider;
     
-    @Inject
-    @ClassScoped
-    private Map<String, List<TestRun>> mapTestRunValidationPass = new HashMap<String, List<TestRun>>();
+    // Test Runs which passed the validation, by Test, in the scope of the whole suite as they are closed after it
+    private final Map<String, List<TestExecutionRun>> mapTestRunValidationPass = new ConcurrentHashMap<String, List<TestExecutionRun>>();
 
     @Override
     public ExecutionDecision decide(Method testMethod) {
@@ -86,7 +88,26 @@ public class JiraXrayTestExecutionDecider implements TestExecutionDecider, Gover
         return JiraXray.class;
     }
 
-    public void on(@Observes ExecutionDecisionEvent event, JiraXrayGovernorClient jiraGovernorClient) {
+    /**
+     * Looks up what the validations of the test class need before the execution of each test method is decided.
+     */
+    public void on(@Observes(precedence = 10) DecideMethodExecutions event, GovernorRegistry governorRegistry, LazyJiraXrayGovernorClient jiraGovernorClient) {
+        final Set<String> keysTest = new HashSet<String>();
+
+        for (final List<Annotation> annotations : governorRegistry.get().values()) {
+            for (final Annotation annotation : annotations) {
+                if (annotation.annotationType() == provides() && ((JiraXray) annotation).value().length() != 0) {
+                    keysTest.add(((JiraXray) annotation).value());
+                }
+            }
+        }
+
+        if (!keysTest.isEmpty()) {
+            jiraGovernorClient.get().prefetch(keysTest);
+        }
+    }
+
+    public void on(@Observes ExecutionDecisionEvent event, LazyJiraXrayGovernorClient jiraGovernorClient) {
         final ExecutionDecision executionDecision = this.executionDecision.get();
 
         if (executionDecision == null || executionDecision.getDecision() == Decision.DONT_EXECUTE) {
@@ -95,12 +116,18 @@ public class JiraXrayTestExecutionDecider implements TestExecutionDecider, Gover
 
         if (event.getAnnotation().annotationType() == provides()) {
             final JiraXray jiraIssue = (JiraXray) event.getAnnotation();
+            final JiraXrayGovernorClient client = jiraGovernorClient.get();
 
             // Check Validations
-            if (checkValidateRunTest(jiraIssue, jiraGovernorClient)) {
-                this.executionDecision.set(jiraGovernorClient.resolve(jiraIssue));
+            final boolean validated = checkValidateRunTest(jiraIssue, client);
+
+            if (!client.isReachable()) {
+                // the validations could not reach Jira, they say nothing about the test
+                this.executionDecision.set(client.getFallbackDecision(jiraIssue));
+            } else if (validated) {
+                this.executionDecision.set(client.resolve(jiraIssue));
             } else {
-                this.executionDecision.set(ExecutionDecision.dontExecute(String.format(JiraPropertiesUtils.getInstance().getValorKey("jira.test.error.checkvalidation"), jiraIssue.value())));
+                this.executionDecision.set(ExecutionDecision.dontExecute(String.format(client.getSettings().getCheckValidationMessage(), jiraIssue.value())));
             }
         }
     }
@@ -109,93 +136,85 @@ public class JiraXrayTestExecutionDecider implements TestExecutionDecider, Gover
                    TestResult testResult,
                    GovernorRegistry governorRegistry,
                    JiraXrayGovernorConfiguration jiraGovernorConfiguration) {
-        int count = 0;
-        try {
-            final Integer c = lifecycleCountRegister.get(event.getTestMethod());
-            count = (c != null ? c.intValue() : 0);
-            if (count == 0) { //skip first event - see https://github.com/arquillian/arquillian-governor/pull/16#issuecomment-166590210
-                return;
-            }
-            final ExecutionDecision decision = TestMethodExecutionRegister.resolve(event.getTestMethod(), provides());
-
-            // if we passed some test method annotated with Jira, we may eventually close it
-
-            if (jiraGovernorConfiguration.getClosePassed()) {
-                // we decided we run this test method even it has annotation on it
-                if (decision.getDecision() == Decision.EXECUTE) {
-                        //&& (JiraXrayGovernorStrategy.FORCING_EXECUTION_REASON_STRING).equals(decision.getReason())) {
-
-                    for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
-                        if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
-                            for (final Annotation annotation : entry.getValue()) {
-                                if (annotation.annotationType() == provides()) {
-                                    closePassedDecider.get().setClosable(annotation, testResult.getStatus() == Status.PASSED);
-                                    return;
-                                }
+        if (lifecycleCountRegister.increment(event.getTestMethod()) == 0) { //skip first event - see https://github.com/arquillian/arquillian-governor/pull/16#issuecomment-166590210
+            return;
+        }
+        final ExecutionDecision decision = TestMethodExecutionRegister.resolve(event.getTestMethod(), provides());
+
+        // if we passed some test method annotated with Jira, we may eventually close it
+
+        if (jiraGovernorConfiguration.getClosePassed()) {
+            // we decided we run this test method even it has annotation on it
+            if (decision.getDecision() == Decision.EXECUTE) {
+                    //&& (JiraXrayGovernorStrategy.FORCING_EXECUTION_REASON_STRING).equals(decision.getReason())) {
+
+                for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
+                    if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
+                        for (final Annotation annotation : entry.getValue()) {
+                            if (annotation.annotationType() == provides()) {
+                                closePassedDecider.get().setClosable(annotation, testResult.getStatus() == Status.PASSED);
+                                return;
                             }
                         }
                     }
                 }
             }
-        } finally {
-            lifecycleCountRegister.put(event.getTestMethod(), ++count);
         }
     }
 
-    public void on(@Observes AfterSuite event, JiraXrayGovernorClient jiraGovernorClient) {
+    public void on(@Observes AfterSuite event, LazyJiraXrayGovernorClient jiraGovernorClient) {
+        final Map<String, Boolean> resultsExecutionTest = new LinkedHashMap<String, Boolean>();
+
         for (final Map.Entry<Annotation, Boolean> entry : closePassedDecider.get().get().entrySet()) {
             final Annotation annotation = entry.getKey();
             if (annotation.annotationType() == provides()) {
-                final String id = ((JiraXray) annotation).value();
-                // Call method close according result execution test (PASS/FAIL)
-                jiraGovernorClient.close(id, entry.getValue(), mapTestRunValidationPass);
+                resultsExecutionTest.put(((JiraXray) annotation).value(), entry.getValue());
             }
         }
+
+        // Call method close according result execution test (PASS/FAIL)
+        if (!resultsExecutionTest.isEmpty()) {
+            jiraGovernorClient.get().close(resultsExecutionTest, mapTestRunValidationPass);
+        }
+
+        if (jiraGovernorClient.isCreated()) {
+            jiraGovernorClient.get().shutdownPrefetch();
+        }
     }
     
     
     
+    /**
+     * Validates the Test Runs of the test and keeps the ones which passed, they are updated after the suite.
+     *
+     * @param issue
+     * @param jiraGovernorClient
+     * @return true when at least one Test Run passed the validation, false when none did or they could not be
+     *         validated
+     */
     public boolean checkValidateRunTest(JiraXray issue, JiraXrayGovernorClient jiraGovernorClient) {
         boolean result = false;
-        IJiraXrayUtils jiraUtils = new JiraXrayUtilsImpl();
-        
-        // Rules Validates
-        TestRunStatusTodo rule1 = null;
-        TestExecStatusTodo rule2 = null;
-        TestExecStartDateOver rule3 = null;
-        
-        TestExecutionIssue testExec = null;
-        List<TestRun> listTestRun = new ArrayList<TestRun>();
+        final ValidationRuleEngine engine = jiraGovernorClient.getValidationRuleEngine();
+
+        List<TestExecutionRun> listTestRun = new ArrayList<TestExecutionRun>();
         try {
             
-            Iterable<TestRun> testRunIterable = jiraUtils.getTestRunsByTestKey(jiraGovernorClient.getRestClient(), issue.value());
+            Iterable<TestExecutionRun> testRunIterable = jiraGovernorClient.getTestRuns(issue.value());
             
-            for(TestRun testRun: testRunIterable) {
-                // Status for testRun associate
-                rule1 = new TestRunStatusTodo(testRun);
-                
-                // Get testExectution
-                testExec = jiraUtils.getTestExectionByKeyTestExec(jiraGovernorClient.getRestClient(), testRun.getTestExecKey());
-                
-                // Status for testExecution associate
-                rule2 = new TestExecStatusTodo(testExec);
-                
-                // TestExecution Date between startedOn and finishedOn fields
-                rule3 = new TestExecStartDateOver(testExec);
-                
-                result =  rule1.setAnd(rule2).setAnd(rule3).validate();
-                if (result) {
+            for(TestExecutionRun testRun: testRunIterable) {
+                // the Test Execution is only looked up when the local rules pass
+                if (engine.validate(testRun, jiraGovernorClient)) {
                     listTestRun.add(testRun);
                 }
             }
             // Insert listTestRun to mapTestRun
-            mapTestRunValidationPass.put(issue.value(), listTestRun);
+            mapTestRunValidationPass.put(issue.value(), Collections.unmodifiableList(listTestRun));
             
             result =  !listTestRun.isEmpty();
 
         } catch (Exception e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+            // a test which can not be validated is not run
+            logger.log(Level.WARNING, String.format("Unable to validate the Test Runs of %s: %s", issue.value(), e.getMessage()), e);
         }
                 
         return result;
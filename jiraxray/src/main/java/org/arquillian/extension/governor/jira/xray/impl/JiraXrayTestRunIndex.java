@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.jira.xray.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+
+/**
+ * Test Runs of a set of Test Executions indexed by the key of their Test.
+ *
+ * The index is loaded with one paged request per Test Execution, so looking up the Test Runs of a Test does not reach
+ * the server. A Test Execution whose Test Runs can not be retrieved is left out of the index, the other ones are
+ * still indexed.
+ */
+public class JiraXrayTestRunIndex {
+
+    private static final Logger logger = Logger.getLogger(JiraXrayTestRunIndex.class.getName());
+
+    private final Map<String, List<TestExecutionRun>> testRunsByTestKey = new HashMap<String, List<TestExecutionRun>>();
+
+    private final Set<String> failedTestExecKeys = new LinkedHashSet<String>();
+
+    private RuntimeException lastFailure;
+
+    private int size = 0;
+
+    /**
+     * Retrieves every Test Run of the given Test Executions.
+     *
+     * @param client
+     * @param testExecKeys keys of the Test Executions to index
+     * @param pageSize number of Test Runs requested per page
+     * @return index of the Test Runs of the Test Executions which could be retrieved
+     */
+    public static JiraXrayTestRunIndex load(XrayTestRunRestClient client, Collection<String> testExecKeys, int pageSize) {
+        final JiraXrayTestRunIndex index = new JiraXrayTestRunIndex();
+
+        for (final String testExecKey : testExecKeys) {
+            final List<TestExecutionRun> testRuns = new ArrayList<TestExecutionRun>();
+            int page = 1;
+            int fetched;
+
+            try {
+                do {
+                    fetched = 0;
+                    for (final TestExecutionRun testRun : client.getTestRuns(testExecKey, page, pageSize).claim()) {
+                        testRuns.add(testRun);
+                        fetched++;
+                    }
+                    page++;
+                } while (fetched == pageSize);
+            } catch (RuntimeException e) {
+                // the pages retrieved so far are not indexed either, the Test Execution would look incomplete
+                logger.log(Level.WARNING, String.format("Unable to retrieve the Test Runs of Test Execution %s: %s", testExecKey, e.getMessage()));
+                index.failedTestExecKeys.add(testExecKey);
+                index.lastFailure = e;
+                continue;
+            }
+
+            for (final TestExecutionRun testRun : testRuns) {
+                index.add(testRun);
+            }
+        }
+
+        return index;
+    }
+
+    public void add(TestExecutionRun testRun) {
+        List<TestExecutionRun> testRuns = testRunsByTestKey.get(testRun.getTestKey());
+
+        if (testRuns == null) {
+            testRuns = new ArrayList<TestExecutionRun>();
+            testRunsByTestKey.put(testRun.getTestKey(), testRuns);
+        }
+
+        testRuns.add(testRun);
+        size++;
+    }
+
+    /**
+     * @param testKey
+     * @return Test Runs of the Test in the indexed Test Executions, empty list when there are none
+     */
+    public List<TestExecutionRun> getTestRuns(String testKey) {
+        final List<TestExecutionRun> testRuns = testRunsByTestKey.get(testKey);
+
+        if (testRuns == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(testRuns);
+    }
+
+    /**
+     * @return keys of the Test Executions whose Test Runs could not be retrieved
+     */
+    public Set<String> getFailedTestExecutionKeys() {
+        return Collections.unmodifiableSet(failedTestExecKeys);
+    }
+
+    /**
+     * @return last error retrieving the Test Runs of a Test Execution, null when there was none
+     */
+    RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.jira.xray.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXraySettings;
+import org.arquillian.extension.governor.jira.xray.domain.JiraIssueStatus;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.arquillian.extension.governor.jira.xray.domain.TestRunFilter;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+
+import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
+
+/**
+ * Test Runs of a Test whose Test Execution meets a {@link TestRunFilter}.
+ *
+ * The Test Executions are searched with a JQL query carrying the filter, one page at a time while the Test Runs are
+ * iterated, and the Test Run of the Test is only requested for the Test Executions found. Stopping the iteration stops
+ * the requests, what is transferred is proportional to the candidate Test Runs only.
+ */
+public class JiraXrayTestRunStream implements Iterable<TestExecutionRun> {
+
+    private static final Logger LOG = Logger.getLogger(JiraXrayTestRunStream.class.getName());
+
+    /**
+     * Minutes the clocks of Jira and of the suite may differ, relative JQL dates are widened by them and the exact
+     * window is validated afterwards.
+     */
+    static final long CLOCK_SKEW_MINUTES = 5;
+
+    private static final String CUSTOM_FIELD_PREFIX = "customfield_";
+
+    private final XrayJiraRestClient restClient;
+
+    private final JiraXraySettings settings;
+
+    private final String keyTest;
+
+    private final TestRunFilter filter;
+
+    private final int pageSize;
+
+    private final String jql;
+
+    private final Set<String> fields;
+
+    private final Map<String, TestExecutionIssue> testExecutions;
+
+    private final SearchResult firstPage;
+
+    /**
+     * Searches the first page of Test Executions, the following ones are searched while iterating.
+     *
+     * @param fields fields of the Test Executions to retrieve
+     * @param testExecutions receives every Test Execution found, null when they are not needed
+     * @throws RuntimeException when the first page can not be searched
+     */
+    JiraXrayTestRunStream(XrayJiraRestClient restClient, JiraXraySettings settings, String keyTest, TestRunFilter filter,
+        int pageSize, Set<String> fields, Map<String, TestExecutionIssue> testExecutions) {
+        this.restClient = restClient;
+        this.settings = settings;
+        this.keyTest = keyTest;
+        this.filter = filter;
+        this.pageSize = pageSize;
+        this.fields = fields;
+        this.testExecutions = testExecutions;
+        this.jql = buildJql(settings, keyTest, filter, System.currentTimeMillis());
+        this.firstPage = search(0);
+    }
+
+    /**
+     * @param now epoch millis of the clock of Jira, as far as the suite knows
+     * @return JQL query of the Test Executions of the Test meeting the filter
+     */
+    public static String buildJql(JiraXraySettings settings, String keyTest, TestRunFilter filter, long now) {
+        final StringBuilder jql = new StringBuilder("issue in testTestExecutions(\"").append(keyTest).append("\")");
+
+        if (filter.isTestExecutionTodo()) {
+            jql.append(" AND status = \"").append(settings.getStatusName(JiraIssueStatus.TODO)).append("\"");
+        }
+
+        if (filter.getActiveAt() != TestExecutionIssue.NO_DATE) {
+            // relative dates do not depend on the time zone of the Jira user
+            final long offset = TimeUnit.MILLISECONDS.toMinutes(filter.getActiveAt() - now);
+            final String startedOn = jqlField(settings.getStartedOnField());
+            final String finishedOn = jqlField(settings.getFinishedOnField());
+
+            jql.append(" AND ").append(startedOn).append(" <= \"").append(relativeMinutes(offset + CLOCK_SKEW_MINUTES)).append("\"");
+            jql.append(" AND (").append(finishedOn).append(" is EMPTY OR ")
+                .append(finishedOn).append(" >= \"").append(relativeMinutes(offset - CLOCK_SKEW_MINUTES)).append("\")");
+        }
+
+        return jql.append(" ORDER BY key").toString();
+    }
+
+    @Override
+    public Iterator<TestExecutionRun> iterator() {
+        return new TestRunIterator();
+    }
+
+    // helpers
+
+    private SearchResult search(int startAt) {
+        return restClient.getSearchClient().searchJql(jql, pageSize, startAt, fields).claim();
+    }
+
+    private TestExecutionRun testRunOf(Issue issue) {
+        final TestExecutionIssue testExecution = JiraXrayUtilsImpl.toTestExecution(issue, settings);
+
+        if (testExecutions != null) {
+            testExecutions.put(issue.getKey(), testExecution);
+        }
+
+        try {
+            final TestRun testRun = restClient.getTestRunClient().getTestRun(issue.getKey(), keyTest).claim();
+
+            if (testRun == null || !filter.accepts(testRun.getStatus())) {
+                return null;
+            }
+
+            return new TestExecutionRun(testRun.getId(), keyTest, issue.getKey(), testRun.getStatus());
+        } catch (Exception e) {
+            LOG.info("JiraXrayTestRunStream | testRunOf " + issue.getKey() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String jqlField(String field) {
+        if (field.startsWith(CUSTOM_FIELD_PREFIX)) {
+            return "cf[" + field.substring(CUSTOM_FIELD_PREFIX.length()) + "]";
+        }
+        return "\"" + field + "\"";
+    }
+
+    private static String relativeMinutes(long minutes) {
+        return minutes + "m";
+    }
+
+    private class TestRunIterator implements Iterator<TestExecutionRun> {
+
+        private Iterator<Issue> page = firstPage.getIssues().iterator();
+
+        private int fetched = 0;
+
+        private boolean exhausted = false;
+
+        private TestExecutionRun next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (!page.hasNext() && !nextPage()) {
+                    return false;
+                }
+                fetched++;
+                next = testRunOf(page.next());
+            }
+            return true;
+        }
+
+        @Override
+        public TestExecutionRun next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final TestExecutionRun result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private boolean nextPage() {
+            if (exhausted || fetched >= firstPage.getTotal()) {
+                return false;
+            }
+
+            try {
+                page = search(fetched).getIssues().iterator();
+            } catch (Exception e) {
+                // the Test Runs streamed so far are kept
+                LOG.info("JiraXrayTestRunStream | search " + keyTest + ": " + e.getMessage());
+            }
+
+            exhausted = !page.hasNext();
+            return !exhausted;
+        }
+    }
+}
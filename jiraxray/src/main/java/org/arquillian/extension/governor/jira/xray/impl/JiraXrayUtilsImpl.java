@@ -1,25 +1,32 @@
 package org.arquillian.extension.governor.jira.xray.impl;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import org.arquillian.extension.governor.jira.xray.api.validation.IJiraXrayUtils;
-import org.arquillian.extension.governor.jira.xray.configuration.JiraPropertiesUtils;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXraySettings;
 import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
-import org.joda.time.DateTime;
-import org.joda.time.format.DateTimeFormat;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.arquillian.extension.governor.jira.xray.domain.TestRunFilter;
 import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
 
-import com.atlassian.jira.rest.client.api.IssueRestClient;
 import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.domain.BasicIssue;
 import com.atlassian.jira.rest.client.api.domain.Issue;
 import com.atlassian.jira.rest.client.api.domain.IssueField;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
 import com.google.common.base.Optional;
 
 import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
@@ -31,27 +38,47 @@ public class JiraXrayUtilsImpl implements IJiraXrayUtils {
 
     private static final Logger LOG = Logger.getLogger(JiraXrayUtilsImpl.class.getName());
 
-    private static final String FIELD_STARTED_ON = JiraPropertiesUtils.getInstance().getValorKey("jira.customfield.startedon");
-    private static final String FIELD_FINISHED_ON = JiraPropertiesUtils.getInstance().getValorKey("jira.customfield.finishedon");
+    private static final DateTimeFormatter ISO_DATE_TIME = ISODateTimeFormat.dateTime();
 
-    private static final String CUSTOM_DATE_FORMAT = "dd/MM/yyyy HH:mm:ss";
+    // fields the search response parser requires, the rest of the fields are not needed to get the keys
+    static final Set<String> SEARCH_KEY_FIELDS = new HashSet<String>(Arrays.asList("summary", "issuetype", "created", "updated", "project", "status"));
+
+    // keys per search, keeps the JQL query of a search short
+    static final int TEST_EXECUTION_SEARCH_SIZE = 50;
+
+    private final JiraXraySettings settings;
+
+    // fields a TestExecutionIssue is built from
+    private final Set<String> testExecutionFields = new HashSet<String>(SEARCH_KEY_FIELDS);
+
+    // keys of the Test Executions Jira does not know or does not show
+    private final Set<String> missingTestExecutions = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     public JiraXrayUtilsImpl() {
-        // TODO Auto-generated constructor stub
+        this(JiraXraySettings.defaults());
+    }
+
+    /**
+     * @param settings custom fields and statuses of the Jira instance
+     */
+    public JiraXrayUtilsImpl(JiraXraySettings settings) {
+        this.settings = settings;
+        testExecutionFields.add(settings.getStartedOnField());
+        testExecutionFields.add(settings.getFinishedOnField());
     }
 
     @Override
-    public void updateStatusTestRun(XrayJiraRestClient restClient, String keyTest, Status status, Map<String, List<TestRun>> mapTestRunValidationPass) {
+    public boolean updateStatusTestRun(XrayJiraRestClient restClient, String keyTest, Status status, Map<String, List<TestExecutionRun>> mapTestRunValidationPass) {
 
         try {
             
             // Get All testRun from keyTest
-            List<TestRun> listTestRun = mapTestRunValidationPass.get(keyTest);
+            List<TestExecutionRun> listTestRun = mapTestRunValidationPass.get(keyTest);
             if (listTestRun != null && !listTestRun.isEmpty()) {
-                Iterator<TestRun> iterator = listTestRun.iterator();
+                Iterator<TestExecutionRun> iterator = listTestRun.iterator();
                 while (iterator.hasNext()) {
                     // Retrieve testRun
-                    TestRun testRun = iterator.next();
+                    TestExecutionRun testRun = iterator.next();
                     
                     // Get testRun fully
                     TestRun testRunUpdate = restClient.getTestRunClient().getTestRun(testRun.getTestExecKey(), keyTest).claim();
@@ -69,7 +96,9 @@ public class JiraXrayUtilsImpl implements IJiraXrayUtils {
                 throw e1;
         } catch (Exception e) {
             LOG.info("JiraXrayUtilsImpl | updateStatusTestRun: " + e.getMessage());
+            return false;
         }
+        return true;
     }
 
     @Override
@@ -78,7 +107,7 @@ public class JiraXrayUtilsImpl implements IJiraXrayUtils {
         Date result = null;
         try {
 
-            result = getDateCustomField(restClient, keyTestExec, FIELD_STARTED_ON);
+            result = getDateCustomField(restClient.getIssueClient().getIssue(keyTestExec).claim(), settings.getStartedOnField());
 
         } catch (Exception e) {
             LOG.info("JiraXrayUtilsImpl | getStartedOnTestExecution: " + e.getMessage());
@@ -93,7 +122,7 @@ public class JiraXrayUtilsImpl implements IJiraXrayUtils {
         Date result = null;
         try {
 
-            result = getDateCustomField(restClient, keyTestExec, FIELD_FINISHED_ON);
+            result = getDateCustomField(restClient.getIssueClient().getIssue(keyTestExec).claim(), settings.getFinishedOnField());
 
         } catch (Exception e) {
             LOG.info("JiraXrayUtilsImpl | getFinishedOnTestExecution: " + e.getMessage());
@@ -105,32 +134,45 @@ public class JiraXrayUtilsImpl implements IJiraXrayUtils {
     /**
      * Method support for getDateCustomField that you choose.
      * 
-     * @param restClient
-     * @param keyTestExec
+     * @param issue
      * @param customFieldDate
      * @return
-     * @throws ParseException
      */
-    private Date getDateCustomField(XrayJiraRestClient restClient, String keyTestExec, String customFieldDate) throws ParseException {
+    private Date getDateCustomField(Issue issue, String customFieldDate) {
 
-        Date result = null;
-        
-        // Retrieve issue
-        final Issue issue = restClient.getIssueClient().getIssue(keyTestExec).claim();
+        final long millis = getDateCustomFieldMillis(issue, customFieldDate);
+        return millis == TestExecutionIssue.NO_DATE ? null : new Date(millis);
+    }
+
+    /**
+     * @param issue
+     * @param customFieldDate
+     * @return epoch millis of the date field, to the second, {@link TestExecutionIssue#NO_DATE} when not set
+     */
+    private static long getDateCustomFieldMillis(Issue issue, String customFieldDate) {
 
         IssueField fieldDate = issue.getField(customFieldDate);
-        if (fieldDate != null && fieldDate.getValue() != null) {
+        if (fieldDate == null || fieldDate.getValue() == null) {
+            return TestExecutionIssue.NO_DATE;
+        }
 
-            String dateStr = fieldDate.getValue().toString();
+        final long millis = ISO_DATE_TIME.parseMillis(fieldDate.getValue().toString());
 
-            DateTimeFormatter dtf = ISODateTimeFormat.dateTime();
-            DateTime parsedDate = dtf.parseDateTime(dateStr);
+        // dates are compared to the second
+        return millis - ((millis % 1000) + 1000) % 1000;
+    }
 
-            String dateWithCustomFormat = parsedDate.toString(DateTimeFormat.forPattern(CUSTOM_DATE_FORMAT));            
+    /**
+     * @param issue Test Execution retrieved with the custom fields of the settings
+     * @param settings
+     * @return
+     */
+    static TestExecutionIssue toTestExecution(Issue issue, JiraXraySettings settings) {
 
-            result = new SimpleDateFormat(CUSTOM_DATE_FORMAT).parse(dateWithCustomFormat);
-        }
-        return result;
+        final TestExecutionIssue testExecution = new TestExecutionIssue(issue.getSelf(), issue.getKey(), issue.getId(), issue.getStatus(),
+                getDateCustomFieldMillis(issue, settings.getStartedOnField()), getDateCustomFieldMillis(issue, settings.getFinishedOnField()));
+        testExecution.setIssueStatus(settings.getIssueStatus(issue.getStatus()));
+        return testExecution;
     }
 
     @Override
@@ -147,27 +189,109 @@ public class JiraXrayUtilsImpl implements IJiraXrayUtils {
     }
 
     @Override
-    public TestExecutionIssue getTestExectionByKeyTestExec(XrayJiraRestClient restClient, String keyTestExec) {
+    public Iterable<TestExecutionRun> streamTestRunsByTestKey(XrayJiraRestClient restClient, String keyTest, TestRunFilter filter,
+            int pageSize, Map<String, TestExecutionIssue> testExecutions) {
 
-        TestExecutionIssue result = null;
-        Issue issue = null;
+        try {
+            return new JiraXrayTestRunStream(restClient, settings, keyTest, filter, pageSize, testExecutionFields, testExecutions);
+        } catch (Exception e) {
+            LOG.info("JiraXrayUtilsImpl | streamTestRunsByTestKey: " + e.getMessage());
+        }
+
+        return null;
+    }
 
+    @Override
+    public List<String> getTestExecutionKeysByJql(XrayJiraRestClient restClient, String jql, int pageSize) {
+
+        final List<String> result = new ArrayList<String>();
         try {
+            SearchResult searchResult;
+            do {
+                searchResult = restClient.getSearchClient().searchJql(jql, pageSize, result.size(), SEARCH_KEY_FIELDS).claim();
+                for (BasicIssue issue : searchResult.getIssues()) {
+                    result.add(issue.getKey());
+                }
+            } while (searchResult.getIssues().iterator().hasNext() && result.size() < searchResult.getTotal());
+        } catch (Exception e) {
+            LOG.warning("JiraXrayUtilsImpl | getTestExecutionKeysByJql: " + e.getMessage());
+            return null;
+        }
 
-            // Client for get custom field
-            IssueRestClient clientJira = restClient.getIssueClient();
+        return result;
+    }
 
-            // Retrieve issue
-            issue = clientJira.getIssue(keyTestExec).claim();
+    @Override
+    public TestExecutionIssue getTestExectionByKeyTestExec(XrayJiraRestClient restClient, String keyTestExec) {
 
-            // Create TestExecutionIssue
-            result = new TestExecutionIssue(issue.getSelf(), issue.getKey(), issue.getId(), issue.getStatus(), getStartedOnTestExecution(restClient, keyTestExec),
-                    getFinishedOnTestExecution(restClient, keyTestExec));
+        return getTestExecutionsByKeys(restClient, Collections.singletonList(keyTestExec)).get(keyTestExec);
+    }
 
-        } catch (Exception e) {
-            LOG.info("JiraXrayUtilsImpl | getTestExectionByKeyTestExec: " + e.getMessage());
+    @Override
+    public Map<String, TestExecutionIssue> getTestExecutionsByKeys(XrayJiraRestClient restClient, Collection<String> keysTestExec) {
+
+        final Map<String, TestExecutionIssue> result = new HashMap<String, TestExecutionIssue>();
+        final Set<String> keySet = new HashSet<String>(keysTestExec);
+        // keys found missing are not requested again in the suite
+        keySet.removeAll(missingTestExecutions);
+        final List<String> keys = new ArrayList<String>(keySet);
+
+        for (int from = 0; from < keys.size(); from += TEST_EXECUTION_SEARCH_SIZE) {
+            searchTestExecutions(restClient, keys.subList(from, Math.min(from + TEST_EXECUTION_SEARCH_SIZE, keys.size())), result);
         }
 
         return result;
     }
+
+    /**
+     * Searches the Test Executions of the keys. Jira rejects the whole search when one of the keys does not exist or
+     * is not visible, so a rejected search is split until the missing keys are found.
+     */
+    private void searchTestExecutions(XrayJiraRestClient restClient, List<String> keys, Map<String, TestExecutionIssue> result) {
+
+        try {
+            final StringBuilder jql = new StringBuilder("key in (");
+            for (int i = 0; i < keys.size(); i++) {
+                jql.append(i == 0 ? "" : ",").append(keys.get(i));
+            }
+            jql.append(")");
+
+            // Retrieve the issues with only the fields needed
+            final SearchResult searchResult = restClient.getSearchClient().searchJql(jql.toString(), keys.size(), 0, testExecutionFields).claim();
+
+            for (Issue issue : searchResult.getIssues()) {
+                // Create TestExecutionIssue
+                result.put(issue.getKey(), toTestExecution(issue, settings));
+            }
+            for (final String key : keys) {
+                if (!result.containsKey(key)) {
+                    missingTestExecutions.add(key);
+                }
+            }
+        } catch (Exception e) {
+            if (!isRejectedSearch(e)) {
+                // the server could not answer, the keys may be requested again later
+                LOG.warning("JiraXrayUtilsImpl | getTestExecutionsByKeys: " + e.getMessage());
+            } else if (keys.size() > 1) {
+                searchTestExecutions(restClient, keys.subList(0, keys.size() / 2), result);
+                searchTestExecutions(restClient, keys.subList(keys.size() / 2, keys.size()), result);
+            } else {
+                LOG.warning(String.format("JiraXrayUtilsImpl | getTestExecutionsByKeys: Test Execution %s does not exist or is not visible: %s",
+                    keys.get(0), e.getMessage()));
+                missingTestExecutions.add(keys.get(0));
+            }
+        }
+    }
+
+    private static boolean isRejectedSearch(Exception e) {
+
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientException) {
+                final Optional<Integer> statusCode = ((RestClientException) cause).getStatusCode();
+                return statusCode.isPresent() && statusCode.get() == 400;
+            }
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.jira.xray.impl;
+
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
+import org.arquillian.extension.governor.registry.LazyGovernorClient;
+import org.arquillian.extension.governor.transport.GovernorTransport;
+import org.jboss.arquillian.core.spi.Validate;
+
+/**
+ * Jira Xray governor client built by {@link JiraXrayGovernorClientFactory} when a decider needs it first.
+ */
+public class LazyJiraXrayGovernorClient extends LazyGovernorClient<JiraXrayGovernorClient> {
+
+    private final JiraXrayGovernorConfiguration jiraGovernorConfiguration;
+
+    private final GovernorConfiguration governorConfiguration;
+
+    private final GovernorOutbox governorOutbox;
+
+    private final long suiteTime = System.currentTimeMillis();
+
+    /**
+     * @param jiraGovernorConfiguration
+     * @param governorConfiguration configuration of the circuit breaker and the transport
+     * @param governorOutbox outbox the client sends its updates through, null to send them inline
+     */
+    public LazyJiraXrayGovernorClient(JiraXrayGovernorConfiguration jiraGovernorConfiguration, GovernorConfiguration governorConfiguration, GovernorOutbox governorOutbox) {
+        Validate.notNull(jiraGovernorConfiguration, "Jira Xray governor configuration has to be set.");
+        Validate.notNull(governorConfiguration, "Governor configuration has to be set.");
+
+        this.jiraGovernorConfiguration = jiraGovernorConfiguration;
+        this.governorConfiguration = governorConfiguration;
+        this.governorOutbox = governorOutbox;
+    }
+
+    @Override
+    protected JiraXrayGovernorClient create() throws Exception {
+        final JiraXrayGovernorClientFactory factory = new JiraXrayGovernorClientFactory();
+        factory.setGovernorTransport(GovernorTransport.forConfiguration(governorConfiguration));
+
+        final JiraXrayGovernorClient client = factory.build(jiraGovernorConfiguration);
+
+        client.configureCircuitBreaker(governorConfiguration);
+        // the windows of the Test Executions are validated against the time the suite was configured
+        client.setSuiteTime(suiteTime);
+
+        if (governorOutbox != null) {
+            client.setGovernorOutbox(governorOutbox);
+        }
+
+        return client;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.jira.xray.impl;
+
+import java.net.URI;
+import java.util.Map;
+
+import javax.ws.rs.core.UriBuilder;
+
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import com.atlassian.httpclient.api.HttpClient;
+import com.atlassian.jira.rest.client.internal.async.AbstractAsynchronousRestClient;
+import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
+import com.atlassian.jira.rest.client.internal.json.GenericJsonArrayParser;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import com.atlassian.jira.rest.client.internal.json.JsonParseUtil;
+import com.atlassian.util.concurrent.Promise;
+
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+/**
+ * REST client for the Xray resources the Xray REST client library does not expose, like the Test Runs of a whole Test
+ * Execution.
+ */
+public class XrayTestRunRestClient extends AbstractAsynchronousRestClient {
+
+    private static final String XRAY_REST_PATH = "rest/raven/1.0/api";
+
+    private static final String XRAY_IMPORT_PATH = "rest/raven/1.0/import/execution";
+
+    private final URI baseUri;
+
+    private final URI importUri;
+
+    public XrayTestRunRestClient(URI serverUri, HttpClient client) {
+        super(client);
+        this.baseUri = UriBuilder.fromUri(serverUri).path(XRAY_REST_PATH).build();
+        this.importUri = UriBuilder.fromUri(serverUri).path(XRAY_IMPORT_PATH).build();
+    }
+
+    /**
+     * Retrieves one page of the Test Runs of the Test Execution {@code testExecKey}.
+     *
+     * @param testExecKey key of the Test Execution
+     * @param page page to retrieve, starting at 1
+     * @param limit maximum number of Test Runs in the page
+     * @return
+     */
+    public Promise<Iterable<TestExecutionRun>> getTestRuns(String testExecKey, int page, int limit) {
+        final URI uri = UriBuilder.fromUri(baseUri).path("testexec").path(testExecKey).path("test")
+            .queryParam("detailed", false)
+            .queryParam("page", page)
+            .queryParam("limit", limit)
+            .build();
+
+        return getAndParse(uri, GenericJsonArrayParser.create(new TestExecutionRunJsonParser(testExecKey)));
+    }
+
+    /**
+     * Changes the status of a Test Run without retrieving it first.
+     *
+     * @param testRunId id of the Test Run
+     * @param status new status
+     * @return
+     */
+    public Promise<Void> updateStatus(Long testRunId, Status status) {
+        final URI uri = UriBuilder.fromUri(baseUri).path("testrun").path(String.valueOf(testRunId)).path("status")
+            .queryParam("status", status.name())
+            .build();
+
+        return call(client().newRequest(uri).put());
+    }
+
+    /**
+     * Imports the results of several Test Runs of the Test Execution {@code testExecKey} in a single request.
+     *
+     * @param testExecKey key of the Test Execution
+     * @param statuses new status of every Test Run
+     * @return
+     */
+    public Promise<Void> importExecutionResults(String testExecKey, Map<TestExecutionRun, Status> statuses) {
+        return post(importUri, toExecutionResults(testExecKey, statuses));
+    }
+
+    /**
+     * @param testExecKey key of the Test Execution
+     * @param statuses new status of every Test Run
+     * @return execution results of the Test Execution in the format of the Xray import
+     */
+    static JSONObject toExecutionResults(String testExecKey, Map<TestExecutionRun, Status> statuses) {
+        final JSONObject executionResults = new JSONObject();
+        final JSONArray tests = new JSONArray();
+
+        try {
+            for (final Map.Entry<TestExecutionRun, Status> entry : statuses.entrySet()) {
+                tests.put(new JSONObject()
+                    .put("testKey", entry.getKey().getTestKey())
+                    .put("status", entry.getValue().name()));
+            }
+            executionResults.put("testExecutionKey", testExecKey);
+            executionResults.put("tests", tests);
+        } catch (JSONException ex) {
+            throw new IllegalArgumentException("Unable to build execution results of " + testExecKey, ex);
+        }
+
+        return executionResults;
+    }
+
+    /**
+     * Releases the connections of the underlying HTTP client.
+     */
+    public void close() throws Exception {
+        if (client() instanceof DisposableHttpClient) {
+            ((DisposableHttpClient) client()).destroy();
+        }
+    }
+
+    private static class TestExecutionRunJsonParser implements JsonObjectParser<TestExecutionRun> {
+
+        private final String testExecKey;
+
+        TestExecutionRunJsonParser(String testExecKey) {
+            this.testExecKey = testExecKey;
+        }
+
+        @Override
+        public TestExecutionRun parse(JSONObject json) throws JSONException {
+            return new TestExecutionRun(JsonParseUtil.getOptionalLong(json, "id"), json.getString("key"), testExecKey,
+                parseStatus(JsonParseUtil.getOptionalString(json, "status")));
+        }
+
+        private static Status parseStatus(String status) {
+            if (status == null) {
+                return null;
+            }
+
+            try {
+                return Status.valueOf(status);
+            } catch (IllegalArgumentException ex) {
+                // custom Test Run statuses do not count as TODO
+                return null;
+            }
+        }
+    }
+}
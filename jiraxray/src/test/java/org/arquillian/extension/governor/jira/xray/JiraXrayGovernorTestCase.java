@@ -39,9 +39,8 @@ import org.arquillian.extension.governor.impl.GovernorTestClassScanner;
 import org.arquillian.extension.governor.jira.xray.api.JiraXray;
 import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
 import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfigurator;
-import org.arquillian.extension.governor.jira.xray.impl.JiraXrayGovernorClient;
-import org.arquillian.extension.governor.jira.xray.impl.JiraXrayGovernorClientFactory;
 import org.arquillian.extension.governor.jira.xray.impl.JiraXrayTestExecutionDecider;
+import org.arquillian.extension.governor.jira.xray.impl.LazyJiraXrayGovernorClient;
 import org.arquillian.extension.governor.spi.GovernorProvider;
 import org.arquillian.extension.governor.spi.event.DecideMethodExecutions;
 import org.arquillian.extension.governor.spi.event.ExecutionDecisionEvent;
@@ -182,8 +181,7 @@ public class JiraXrayGovernorTestCase extends AbstractGovernorTestCase {
 
         bind(ApplicationScoped.class, JiraXrayGovernorConfiguration.class, jiraGovernorConfiguration);
 
-        final JiraXrayGovernorClient jiraGovernorClient = new JiraXrayGovernorClientFactory().build(jiraGovernorConfiguration);
-        bind(ApplicationScoped.class, JiraXrayGovernorClient.class, jiraGovernorClient);
+        bind(ApplicationScoped.class, LazyJiraXrayGovernorClient.class, new LazyJiraXrayGovernorClient(jiraGovernorConfiguration, governorConfiguration, null));
     }
 
     @Test
@@ -0,0 +1,63 @@
+package org.arquillian.extension.governor.jira.xray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.arquillian.extension.governor.api.GovernorConfigurationException;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXraySettings;
+import org.arquillian.extension.governor.jira.xray.domain.JiraIssueStatus;
+import org.junit.Test;
+
+public class JiraXraySettingsTest {
+
+    @Test
+    public void shouldCompileDefaultsOfProperties() {
+        final JiraXraySettings settings = JiraXraySettings.defaults();
+
+        assertEquals(JiraIssueStatus.TODO, settings.getIssueStatus("Por hacer"));
+        assertEquals(JiraIssueStatus.IN_PROGRESS, settings.getIssueStatus("En curso"));
+        assertEquals(JiraIssueStatus.DONE, settings.getIssueStatus("Listo"));
+        assertEquals(JiraIssueStatus.OTHER, settings.getIssueStatus("Closed"));
+        assertEquals(JiraIssueStatus.OTHER, settings.getIssueStatus((String) null));
+        assertEquals("customfield_10117", settings.getStartedOnField());
+        assertEquals("customfield_10118", settings.getFinishedOnField());
+    }
+
+    @Test
+    public void shouldOverrideDefaultsByConfiguration() throws Exception {
+        final JiraXrayGovernorConfiguration configuration = new JiraXrayGovernorConfiguration();
+        final JiraXraySettings defaults = configuration.getSettings();
+
+        configuration.setStatusTodo("Open");
+        configuration.setStartedOnField("customfield_20001");
+        configuration.setTestExecutionsProject("ARQ");
+        configuration.validate();
+
+        final JiraXraySettings settings = configuration.getSettings();
+
+        assertNotSame(defaults, settings);
+        assertSame(settings, configuration.getSettings());
+        assertEquals(JiraIssueStatus.TODO, settings.getIssueStatus("Open"));
+        assertEquals(JiraIssueStatus.OTHER, settings.getIssueStatus("Por hacer"));
+        assertEquals("customfield_20001", settings.getStartedOnField());
+        assertEquals("project = \"ARQ\" AND issuetype = \"Test Execution\" AND status = \"Open\"", configuration.getTestExecutionsJql());
+    }
+
+    @Test(expected = GovernorConfigurationException.class)
+    public void shouldRejectBulkTestRunsOfEveryProject() throws Exception {
+        final JiraXrayGovernorConfiguration configuration = new JiraXrayGovernorConfiguration();
+
+        configuration.setBulkTestRuns(true);
+        configuration.validate();
+    }
+
+    @Test(expected = GovernorConfigurationException.class)
+    public void shouldRejectStatusConfiguredTwice() throws Exception {
+        final JiraXrayGovernorConfiguration configuration = new JiraXrayGovernorConfiguration();
+
+        configuration.setStatusDone(configuration.getStatusTodo());
+        configuration.validate();
+    }
+}
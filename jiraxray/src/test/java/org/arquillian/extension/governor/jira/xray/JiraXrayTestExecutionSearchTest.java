@@ -0,0 +1,129 @@
+package org.arquillian.extension.governor.jira.xray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXraySettings;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.impl.JiraXrayUtilsImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.SearchRestClient;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+import com.atlassian.jira.rest.client.api.domain.util.ErrorCollection;
+import com.atlassian.util.concurrent.Promise;
+
+import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
+
+public class JiraXrayTestExecutionSearchTest {
+
+    private static final String MISSING_KEY = "PBT-99";
+
+    private XrayJiraRestClient restClient;
+
+    private SearchRestClient searchClient;
+
+    private JiraXrayUtilsImpl jiraUtils;
+
+    private boolean reachable = true;
+
+    private int searches = 0;
+
+    @Before
+    public void setUp() {
+        restClient = mock(XrayJiraRestClient.class);
+        searchClient = mock(SearchRestClient.class);
+        jiraUtils = new JiraXrayUtilsImpl(JiraXraySettings.defaults());
+
+        when(restClient.getSearchClient()).thenReturn(searchClient);
+        when(searchClient.searchJql(anyString(), anyInt(), anyInt(), anySetOf(String.class))).thenAnswer(new Answer<Promise<SearchResult>>() {
+            @Override
+            public Promise<SearchResult> answer(InvocationOnMock invocation) {
+                return search((String) invocation.getArguments()[0]);
+            }
+        });
+    }
+
+    @Test
+    public void shouldSplitSearchRejectedForMissingKey() throws Exception {
+        final Map<String, TestExecutionIssue> testExecutions = jiraUtils.getTestExecutionsByKeys(restClient,
+            Arrays.asList("PBT-1", "PBT-2", MISSING_KEY, "PBT-3", "PBT-4"));
+
+        assertEquals(4, testExecutions.size());
+        assertTrue(testExecutions.keySet().containsAll(Arrays.asList("PBT-1", "PBT-2", "PBT-3", "PBT-4")));
+    }
+
+    @Test
+    public void shouldNotSearchMissingKeyAgain() throws Exception {
+        jiraUtils.getTestExecutionsByKeys(restClient, Arrays.asList("PBT-1", MISSING_KEY));
+        final int before = searches;
+
+        assertNull(jiraUtils.getTestExectionByKeyTestExec(restClient, MISSING_KEY));
+        assertTrue(jiraUtils.getTestExecutionsByKeys(restClient, Collections.singletonList(MISSING_KEY)).isEmpty());
+        assertEquals(before, searches);
+    }
+
+    @Test
+    public void shouldSearchKeysAgainOnceServerIsReachable() throws Exception {
+        reachable = false;
+        assertTrue(jiraUtils.getTestExecutionsByKeys(restClient, Arrays.asList("PBT-1", "PBT-2")).isEmpty());
+        // an unreachable server is not asked once per key
+        assertEquals(1, searches);
+
+        reachable = true;
+        assertEquals(2, jiraUtils.getTestExecutionsByKeys(restClient, Arrays.asList("PBT-1", "PBT-2")).size());
+    }
+
+    private Promise<SearchResult> search(String jql) {
+        searches++;
+
+        if (!reachable) {
+            return failure(new RestClientException(new IllegalStateException("Connection refused")));
+        }
+
+        final List<String> keys = Arrays.asList(jql.substring(jql.indexOf('(') + 1, jql.indexOf(')')).split(","));
+        if (keys.contains(MISSING_KEY)) {
+            return failure(new RestClientException(Collections.<ErrorCollection>emptyList(), 400));
+        }
+
+        final List<Issue> issues = new ArrayList<Issue>();
+        for (final String key : keys) {
+            final Issue issue = mock(Issue.class);
+            when(issue.getKey()).thenReturn(key);
+            issues.add(issue);
+        }
+
+        return promise(new SearchResult(0, keys.size(), keys.size(), issues));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Promise<SearchResult> promise(SearchResult value) {
+        final Promise<SearchResult> promise = mock(Promise.class);
+        when(promise.claim()).thenReturn(value);
+        return promise;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Promise<SearchResult> failure(RestClientException e) {
+        final Promise<SearchResult> promise = mock(Promise.class);
+        when(promise.claim()).thenThrow(e);
+        return promise;
+    }
+}
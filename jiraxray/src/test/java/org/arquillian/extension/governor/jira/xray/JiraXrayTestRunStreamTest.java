@@ -0,0 +1,140 @@
+package org.arquillian.extension.governor.jira.xray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXraySettings;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.arquillian.extension.governor.jira.xray.domain.TestRunFilter;
+import org.arquillian.extension.governor.jira.xray.impl.JiraXrayTestRunStream;
+import org.arquillian.extension.governor.jira.xray.impl.JiraXrayUtilsImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.atlassian.jira.rest.client.api.SearchRestClient;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+import com.atlassian.util.concurrent.Promise;
+
+import es.cuatrogatos.jira.xray.rest.client.api.TestRunRestClient;
+import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+public class JiraXrayTestRunStreamTest {
+
+    private static final long NOW = 1000000000000L;
+
+    private static final int PAGE_SIZE = 2;
+
+    private static final int TEST_EXECUTIONS = 5;
+
+    private static final TestRunFilter TODO_IN_PROGRESS = new TestRunFilter(EnumSet.of(Status.TODO), true, NOW);
+
+    private final JiraXraySettings settings = JiraXraySettings.defaults();
+
+    private XrayJiraRestClient restClient;
+
+    private SearchRestClient searchClient;
+
+    private TestRunRestClient testRunClient;
+
+    @Before
+    public void setUp() {
+        restClient = mock(XrayJiraRestClient.class);
+        searchClient = mock(SearchRestClient.class);
+        testRunClient = mock(TestRunRestClient.class);
+
+        when(restClient.getSearchClient()).thenReturn(searchClient);
+        when(restClient.getTestRunClient()).thenReturn(testRunClient);
+
+        for (int startAt = 0; startAt < TEST_EXECUTIONS; startAt += PAGE_SIZE) {
+            final List<Issue> issues = new ArrayList<Issue>();
+            for (int i = startAt; i < Math.min(startAt + PAGE_SIZE, TEST_EXECUTIONS); i++) {
+                issues.add(testExecution("PBT-" + i));
+                // every other Test Run is still to do
+                final Promise<TestRun> testRun = promise(testRun((long) i, i % 2 == 0 ? Status.TODO : Status.PASS));
+                when(testRunClient.getTestRun("PBT-" + i, "PBT-100")).thenReturn(testRun);
+            }
+            final Promise<SearchResult> page = promise(new SearchResult(startAt, PAGE_SIZE, TEST_EXECUTIONS, issues));
+            when(searchClient.searchJql(anyString(), eq(PAGE_SIZE), eq(startAt), anySetOf(String.class))).thenReturn(page);
+        }
+    }
+
+    @Test
+    public void shouldStreamCandidateTestRunsOfAllPages() {
+        final Map<String, TestExecutionIssue> testExecutions = new HashMap<String, TestExecutionIssue>();
+        final List<String> testExecKeys = new ArrayList<String>();
+
+        for (final TestExecutionRun testRun : new JiraXrayUtilsImpl(settings).streamTestRunsByTestKey(restClient, "PBT-100", TODO_IN_PROGRESS, PAGE_SIZE, testExecutions)) {
+            assertEquals(Status.TODO, testRun.getStatus());
+            testExecKeys.add(testRun.getTestExecKey());
+        }
+
+        assertEquals(3, testExecKeys.size());
+        assertEquals(TEST_EXECUTIONS, testExecutions.size());
+        verify(searchClient, times(3)).searchJql(anyString(), eq(PAGE_SIZE), anyInt(), anySetOf(String.class));
+    }
+
+    @Test
+    public void shouldStopRequestingWhenStreamIsNotIterated() {
+        final Iterator<TestExecutionRun> testRuns = new JiraXrayUtilsImpl(settings).streamTestRunsByTestKey(restClient, "PBT-100", TODO_IN_PROGRESS, PAGE_SIZE, null).iterator();
+
+        assertEquals("PBT-0", testRuns.next().getTestExecKey());
+
+        verify(searchClient, times(1)).searchJql(anyString(), eq(PAGE_SIZE), anyInt(), anySetOf(String.class));
+        verify(testRunClient, times(1)).getTestRun(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldPushTestExecutionConditionsToJql() {
+        final String jql = JiraXrayTestRunStream.buildJql(settings, "PBT-100", TODO_IN_PROGRESS, NOW + 60 * 60 * 1000L);
+
+        assertEquals("issue in testTestExecutions(\"PBT-100\") AND status = \"Por hacer\""
+            + " AND cf[10117] <= \"-55m\" AND (cf[10118] is EMPTY OR cf[10118] >= \"-65m\") ORDER BY key", jql);
+    }
+
+    @Test
+    public void shouldNotFilterTestExecutionsOfRuleWithoutConditionsOnThem() {
+        final String jql = JiraXrayTestRunStream.buildJql(settings, "PBT-100",
+            new TestRunFilter(EnumSet.of(Status.TODO), false, TestExecutionIssue.NO_DATE), NOW);
+
+        assertTrue(jql, jql.startsWith("issue in testTestExecutions(\"PBT-100\") ORDER BY"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Promise<T> promise(T value) {
+        final Promise<T> promise = mock(Promise.class);
+        when(promise.claim()).thenReturn(value);
+        return promise;
+    }
+
+    private static Issue testExecution(String key) {
+        final Issue issue = mock(Issue.class);
+        when(issue.getKey()).thenReturn(key);
+        return issue;
+    }
+
+    private static TestRun testRun(Long id, Status status) {
+        final TestRun testRun = mock(TestRun.class);
+        when(testRun.getId()).thenReturn(id);
+        when(testRun.getStatus()).thenReturn(status);
+        return testRun;
+    }
+}
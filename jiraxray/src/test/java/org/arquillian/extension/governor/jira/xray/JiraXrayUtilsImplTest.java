@@ -5,12 +5,15 @@ import static org.junit.Assert.assertEquals;
 import java.net.URI;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.arquillian.extension.governor.jira.xray.api.validation.IJiraXrayUtils;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
 import org.arquillian.extension.governor.jira.xray.impl.JiraXrayUtilsImpl;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
@@ -77,14 +80,25 @@ public class JiraXrayUtilsImplTest {
         assertEquals(finishedOn, null);
     }
     
+    @Test
+    public void getTestExecutionsByKeys() throws Exception {
+
+        Map<String, TestExecutionIssue> testExecutions = jutils.getTestExecutionsByKeys(restClient, Arrays.asList(TEST_EXEC_KEY, TEST_EXEC_KEY));
+
+        assertEquals(testExecutions.size(), 1);
+        assertEquals(testExecutions.get(TEST_EXEC_KEY).getId(), TEST_ID);
+        assertEquals(testExecutions.get(TEST_EXEC_KEY).getStartedOn(), new SimpleDateFormat(CUSTOM_DATE_FORMAT).parse("29/08/2016 10:30:00"));
+        assertEquals(testExecutions.get(TEST_EXEC_KEY).getFinishedOn(), null);
+    }
+    
     @Test
     public void updateStatusTestRun() throws Exception {
-        Map<String, List<TestRun>> mapTestRunValidationPass = new HashMap<String, List<TestRun>>();
-        List<TestRun> listTestRun = new ArrayList<TestRun>();        
+        Map<String, List<TestExecutionRun>> mapTestRunValidationPass = new HashMap<String, List<TestExecutionRun>>();
+        List<TestExecutionRun> listTestRun = new ArrayList<TestExecutionRun>();        
         
         TestRun testRun = restClient.getTestRunClient().getTestRun(TEST_EXEC_KEY, TEST_KEY).claim();
         testRun.setTestExecKey(TEST_EXEC_KEY);
-        listTestRun.add(testRun);
+        listTestRun.add(TestExecutionRun.valueOf(TEST_KEY, testRun));
         mapTestRunValidationPass.put(TEST_KEY, listTestRun);
         
         // UPDATE STATUS to EXECUTING
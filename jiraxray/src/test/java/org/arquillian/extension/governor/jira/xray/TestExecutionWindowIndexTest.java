@@ -0,0 +1,68 @@
+package org.arquillian.extension.governor.jira.xray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionWindowIndex;
+import org.junit.Test;
+
+public class TestExecutionWindowIndexTest {
+
+    private static final long NOW = 1000000000000L;
+
+    @Test
+    public void shouldEvaluateWindowsAgainstSuiteClock() {
+        final TestExecutionWindowIndex index = new TestExecutionWindowIndex(Arrays.asList(
+            testExecution("PBT-3", NOW - 1000, NOW + 1000),
+            testExecution("PBT-1", NOW, NOW),
+            testExecution("PBT-2", NOW - 1000, TestExecutionIssue.NO_DATE),
+            testExecution("PBT-4", NOW - 2000, NOW - 1000),
+            testExecution("PBT-5", NOW + 1000, TestExecutionIssue.NO_DATE),
+            testExecution("PBT-6", TestExecutionIssue.NO_DATE, NOW + 1000)), NOW);
+
+        assertEquals(6, index.size());
+        assertTrue(index.isActive("PBT-1"));
+        assertTrue(index.isActive("PBT-2"));
+        assertTrue(index.isActive("PBT-3"));
+        assertFalse(index.isActive("PBT-4"));
+        assertFalse(index.isActive("PBT-5"));
+        assertFalse(index.isActive("PBT-6"));
+    }
+
+    @Test
+    public void shouldNotFindUnknownTestExecution() {
+        final TestExecutionWindowIndex index = new TestExecutionWindowIndex(Arrays.asList(
+            testExecution("PBT-1", NOW - 1000, TestExecutionIssue.NO_DATE)), NOW);
+
+        assertFalse(index.contains("PBT-7"));
+        assertFalse(index.isActive("PBT-7"));
+    }
+
+    @Test
+    public void shouldAgreeWithTestExecutionOnWindowBoundaries() {
+        final long[] dates = {TestExecutionIssue.NO_DATE, NOW - 1000, NOW - 1, NOW, NOW + 1, NOW + 1000};
+        final List<TestExecutionIssue> testExecutions = new ArrayList<TestExecutionIssue>();
+
+        for (final long startedOn : dates) {
+            for (final long finishedOn : dates) {
+                testExecutions.add(testExecution("PBT-" + (testExecutions.size() + 1), startedOn, finishedOn));
+            }
+        }
+
+        final TestExecutionWindowIndex index = new TestExecutionWindowIndex(testExecutions, NOW);
+
+        for (final TestExecutionIssue testExecution : testExecutions) {
+            assertEquals(testExecution.getKey(), testExecution.isActiveAt(NOW), index.isActive(testExecution.getKey()));
+        }
+    }
+
+    private static TestExecutionIssue testExecution(String key, long startedOn, long finishedOn) {
+        return new TestExecutionIssue(null, key, 1L, null, startedOn, finishedOn);
+    }
+}
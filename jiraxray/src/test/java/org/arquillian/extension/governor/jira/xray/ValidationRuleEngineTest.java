@@ -0,0 +1,105 @@
+package org.arquillian.extension.governor.jira.xray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.arquillian.extension.governor.jira.xray.api.validation.FactCost;
+import org.arquillian.extension.governor.jira.xray.api.validation.TestExecutionLookup;
+import org.arquillian.extension.governor.jira.xray.api.validation.ValidationRuleEngine;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionIssue;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.arquillian.extension.governor.jira.xray.domain.TestRunFilter;
+import org.junit.Test;
+
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+public class ValidationRuleEngineTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Test
+    public void shouldNotLookUpTestExecutionWhenLocalRuleFails() {
+        final ValidationRuleEngine engine = ValidationRuleEngine.parse("testExecutionInProgress and testRunTodo");
+        final CountingLookup lookup = new CountingLookup(inProgress());
+
+        assertFalse(engine.validate(new TestExecutionRun(1L, "PBT-1", "PBT-2", Status.PASS), lookup));
+        assertTrue(lookup.keys.isEmpty());
+
+        assertTrue(engine.validate(new TestExecutionRun(1L, "PBT-1", "PBT-2", Status.TODO), lookup));
+        assertEquals(1, lookup.keys.size());
+    }
+
+    @Test
+    public void shouldTellWhenRemoteFactsAreNeeded() {
+        final ValidationRuleEngine engine = ValidationRuleEngine.parse("testRunTodo and testExecutionInProgress");
+
+        assertEquals(FactCost.REMOTE, engine.getRule().getCost());
+        assertFalse(engine.validateLocally(new TestExecutionRun(1L, "PBT-1", "PBT-2", Status.FAIL)));
+        assertNull(engine.validateLocally(new TestExecutionRun(1L, "PBT-1", "PBT-2", Status.TODO)));
+    }
+
+    @Test
+    public void shouldCombineRules() {
+        final ValidationRuleEngine engine = ValidationRuleEngine.parse("not testRunTodo or (testRunTodo AND not testExecutionInProgress)");
+        final TestExecutionRun todo = new TestExecutionRun(1L, "PBT-1", "PBT-2", Status.TODO);
+
+        assertTrue(engine.validateLocally(new TestExecutionRun(1L, "PBT-1", "PBT-2", Status.PASS)));
+        assertFalse(engine.validate(todo, new CountingLookup(inProgress())));
+        assertTrue(engine.validate(todo, new CountingLookup(null)));
+    }
+
+    @Test
+    public void shouldTellConditionsEveryPassingTestRunMeets() {
+        final TestRunFilter filter = ValidationRuleEngine.parse("testRunTodo and (testExecutionInProgress and testExecutionTodo)").getTestRunFilter(42L);
+
+        assertEquals(EnumSet.of(Status.TODO), filter.getTestRunStatuses());
+        assertTrue(filter.isTestExecutionTodo());
+        assertEquals(42L, filter.getActiveAt());
+
+        final TestRunFilter unfiltered = ValidationRuleEngine.parse("testRunTodo or not testExecutionInProgress").getTestRunFilter(42L);
+
+        assertTrue(unfiltered.getTestRunStatuses().isEmpty());
+        assertFalse(unfiltered.isTestExecutionFiltered());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownRule() {
+        ValidationRuleEngine.parse("testRunTodo and testRunDone");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMalformedExpression() {
+        ValidationRuleEngine.parse("(testRunTodo or testExecutionTodo");
+    }
+
+    private static TestExecutionIssue inProgress() {
+        return new TestExecutionIssue(null, "PBT-2", 2L, null, new Date(System.currentTimeMillis() - DAY), new Date(System.currentTimeMillis() + DAY));
+    }
+
+    private static class CountingLookup implements TestExecutionLookup {
+        private final TestExecutionIssue testExecution;
+        private final List<String> keys = new ArrayList<String>();
+
+        CountingLookup(TestExecutionIssue testExecution) {
+            this.testExecution = testExecution;
+        }
+
+        @Override
+        public TestExecutionIssue getTestExecution(String keyTestExec) {
+            keys.add(keyTestExec);
+            return testExecution;
+        }
+
+        @Override
+        public boolean isTestExecutionActive(String keyTestExec) {
+            return testExecution != null && testExecution.isActiveAt(System.currentTimeMillis());
+        }
+    }
+}
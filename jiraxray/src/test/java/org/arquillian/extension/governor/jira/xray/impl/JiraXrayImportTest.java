@@ -0,0 +1,174 @@
+package org.arquillian.extension.governor.jira.xray.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.arquillian.extension.governor.jira.xray.api.validation.IJiraXrayUtils;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.atlassian.util.concurrent.Promise;
+import com.google.common.util.concurrent.FutureCallback;
+
+import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+public class JiraXrayImportTest {
+
+    private JiraXrayGovernorConfiguration configuration;
+
+    private XrayTestRunRestClient testRunClient;
+
+    private IJiraXrayUtils jiraUtils;
+
+    private JiraXrayGovernorClient client;
+
+    private boolean importSucceeds = true;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new JiraXrayGovernorConfiguration();
+        configuration.setServer("http://localhost:8080");
+        configuration.setImportResults(true);
+
+        testRunClient = mock(XrayTestRunRestClient.class);
+        when(testRunClient.importExecutionResults(any(String.class), anyMap())).thenAnswer(new Answer<Promise<Void>>() {
+            @Override
+            public Promise<Void> answer(InvocationOnMock invocation) {
+                return completed(importSucceeds);
+            }
+        });
+
+        jiraUtils = mock(IJiraXrayUtils.class);
+
+        client = new JiraXrayGovernorClient();
+        client.setConfiguration(configuration);
+        client.initializeRestClient(mock(XrayJiraRestClient.class));
+        client.initializeJiraUtils(jiraUtils);
+    }
+
+    @Test
+    public void shouldSerializeExecutionResults() throws Exception {
+        final Map<TestExecutionRun, Status> statuses = new LinkedHashMap<TestExecutionRun, Status>();
+        statuses.put(new TestExecutionRun(1L, "PBT-1", "PBT-50", Status.TODO), Status.PASS);
+        statuses.put(new TestExecutionRun(2L, "PBT-2", "PBT-50", Status.TODO), Status.FAIL);
+
+        final JSONObject executionResults = XrayTestRunRestClient.toExecutionResults("PBT-50", statuses);
+
+        assertEquals("PBT-50", executionResults.getString("testExecutionKey"));
+        final JSONArray tests = executionResults.getJSONArray("tests");
+        assertEquals(2, tests.length());
+        assertEquals("PBT-1", tests.getJSONObject(0).getString("testKey"));
+        assertEquals("PASS", tests.getJSONObject(0).getString("status"));
+        assertEquals("PBT-2", tests.getJSONObject(1).getString("testKey"));
+        assertEquals("FAIL", tests.getJSONObject(1).getString("status"));
+        assertEquals(2, tests.getJSONObject(0).length());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldImportResultsOfEveryTestExecutionInOneRequest() throws Exception {
+        client.initializeTestRunClient(testRunClient);
+
+        final Map<String, List<TestExecutionRun>> testRuns = new LinkedHashMap<String, List<TestExecutionRun>>();
+        testRuns.put("PBT-1", runs(new TestExecutionRun(1L, "PBT-1", "PBT-50", Status.TODO),
+            new TestExecutionRun(2L, "PBT-1", "PBT-51", Status.TODO)));
+        testRuns.put("PBT-2", runs(new TestExecutionRun(3L, "PBT-2", "PBT-50", Status.TODO)));
+
+        final Map<String, Boolean> results = new LinkedHashMap<String, Boolean>();
+        results.put("PBT-1", true);
+        results.put("PBT-2", false);
+
+        client.close(results, testRuns);
+
+        final ArgumentCaptor<Map> statuses = ArgumentCaptor.forClass(Map.class);
+        verify(testRunClient).importExecutionResults(eq("PBT-50"), statuses.capture());
+        assertEquals(2, statuses.getValue().size());
+        assertEquals(Status.PASS, statuses.getValue().get(testRuns.get("PBT-1").get(0)));
+        assertEquals(Status.FAIL, statuses.getValue().get(testRuns.get("PBT-2").get(0)));
+
+        verify(testRunClient).importExecutionResults(eq("PBT-51"), statuses.capture());
+        assertEquals(Collections.singletonMap(testRuns.get("PBT-1").get(1), Status.PASS), statuses.getValue());
+
+        verify(testRunClient, times(2)).importExecutionResults(any(String.class), anyMap());
+        assertEquals(Status.PASS, testRuns.get("PBT-1").get(1).getStatus());
+        assertEquals(Status.FAIL, testRuns.get("PBT-2").get(0).getStatus());
+    }
+
+    @Test
+    public void shouldUpdateEveryTestRunWithoutTestRunClient() throws Exception {
+        when(jiraUtils.updateStatusTestRun(any(XrayJiraRestClient.class), any(String.class), any(Status.class), anyMap())).thenReturn(true);
+
+        final Map<String, List<TestExecutionRun>> testRuns = new LinkedHashMap<String, List<TestExecutionRun>>();
+        testRuns.put("PBT-1", runs(new TestExecutionRun(1L, "PBT-1", "PBT-50", Status.TODO)));
+        testRuns.put("PBT-2", runs(new TestExecutionRun(null, "PBT-2", "PBT-50", null)));
+
+        final Map<String, Boolean> results = new LinkedHashMap<String, Boolean>();
+        results.put("PBT-1", false);
+        results.put("PBT-2", true);
+
+        client.close(results, testRuns);
+
+        verify(jiraUtils).updateStatusTestRun(any(XrayJiraRestClient.class), eq("PBT-1"), eq(Status.FAIL), anyMap());
+        verify(jiraUtils).updateStatusTestRun(any(XrayJiraRestClient.class), eq("PBT-2"), eq(Status.PASS), anyMap());
+        assertEquals(Status.FAIL, testRuns.get("PBT-1").get(0).getStatus());
+        assertEquals(Status.PASS, testRuns.get("PBT-2").get(0).getStatus());
+    }
+
+    @Test
+    public void shouldReportTestRunsOfFailedImport() throws Exception {
+        client.initializeTestRunClient(testRunClient);
+        importSucceeds = false;
+
+        final Map<String, List<TestExecutionRun>> testRuns = new LinkedHashMap<String, List<TestExecutionRun>>();
+        testRuns.put("PBT-1", runs(new TestExecutionRun(1L, "PBT-1", "PBT-50", null)));
+
+        client.close(Collections.singletonMap("PBT-1", true), testRuns);
+
+        assertNull(testRuns.get("PBT-1").get(0).getStatus());
+    }
+
+    private static List<TestExecutionRun> runs(TestExecutionRun... runs) {
+        final List<TestExecutionRun> list = new ArrayList<TestExecutionRun>();
+        Collections.addAll(list, runs);
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Promise<Void> completed(final boolean success) {
+        final Promise<Void> promise = mock(Promise.class);
+        when(promise.then(any(FutureCallback.class))).thenAnswer(new Answer<Promise<Void>>() {
+            @Override
+            public Promise<Void> answer(InvocationOnMock invocation) {
+                final FutureCallback<Void> callback = (FutureCallback<Void>) invocation.getArguments()[0];
+                if (success) {
+                    callback.onSuccess(null);
+                } else {
+                    callback.onFailure(new IllegalStateException("Import rejected"));
+                }
+                return promise;
+            }
+        });
+        return promise;
+    }
+}
@@ -0,0 +1,137 @@
+package org.arquillian.extension.governor.jira.xray.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.arquillian.extension.governor.jira.xray.api.validation.IJiraXrayUtils;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
+
+public class JiraXrayPrefetchTest {
+
+    private static final List<String> KEYS_TEST = Arrays.asList("PBT-1", "PBT-2", "PBT-3", "PBT-4", "PBT-5", "PBT-6");
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private JiraXrayGovernorConfiguration configuration;
+
+    private IJiraXrayUtils jiraUtils;
+
+    private JiraXrayGovernorClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new JiraXrayGovernorConfiguration();
+        configuration.setServer("http://localhost:8080");
+        configuration.setBulkTestRuns(false);
+        configuration.setTestRunsFilter(false);
+        configuration.setValidationConcurrency(2);
+
+        jiraUtils = mock(IJiraXrayUtils.class);
+
+        client = new JiraXrayGovernorClient();
+        client.setConfiguration(configuration);
+        client.initializeRestClient(mock(XrayJiraRestClient.class));
+        client.initializeJiraUtils(jiraUtils);
+    }
+
+    @After
+    public void tearDown() {
+        client.shutdownPrefetch();
+    }
+
+    @Test
+    public void shouldBoundLookupsInFlight() throws Exception {
+        lookupsTake(100);
+
+        client.prefetch(KEYS_TEST);
+
+        verify(jiraUtils, times(KEYS_TEST.size())).getTestRunsByTestKey(any(XrayJiraRestClient.class), anyString());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    public void shouldShareThreadsBetweenTestClasses() throws Exception {
+        lookupsTake(10);
+
+        client.prefetch(KEYS_TEST.subList(0, 3));
+        client.prefetch(KEYS_TEST.subList(3, 6));
+
+        assertTrue(threads.toString(), threads.size() <= 2);
+
+        // a prefetch after the shutdown starts new threads
+        client.shutdownPrefetch();
+        client.prefetch(Arrays.asList("PBT-7"));
+        assertTrue(threads.toString(), threads.size() > 1 && threads.size() <= 3);
+    }
+
+    @Test
+    public void shouldAbandonLookupsAfterValidationTimeout() throws Exception {
+        configuration.setValidationTimeout(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        when(jiraUtils.getTestRunsByTestKey(any(XrayJiraRestClient.class), anyString())).thenAnswer(new Answer<Iterable<TestRun>>() {
+            @Override
+            public Iterable<TestRun> answer(InvocationOnMock invocation) {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException ex) {
+                    interrupted.countDown();
+                }
+                return Collections.emptyList();
+            }
+        });
+
+        final long start = System.currentTimeMillis();
+        client.prefetch(KEYS_TEST.subList(0, 1));
+        final long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(String.valueOf(elapsed), elapsed >= 1000 && elapsed < 10000);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    private void lookupsTake(final long millis) {
+        when(jiraUtils.getTestRunsByTestKey(any(XrayJiraRestClient.class), anyString())).thenAnswer(new Answer<Iterable<TestRun>>() {
+            @Override
+            public Iterable<TestRun> answer(InvocationOnMock invocation) throws Exception {
+                threads.add(Thread.currentThread().getName());
+                final int current = inFlight.incrementAndGet();
+                while (true) {
+                    final int max = maxInFlight.get();
+                    if (current <= max || maxInFlight.compareAndSet(max, current)) {
+                        break;
+                    }
+                }
+                Thread.sleep(millis);
+                inFlight.decrementAndGet();
+                return Collections.emptyList();
+            }
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package org.arquillian.extension.governor.jira.xray.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.arquillian.extension.governor.jira.xray.api.validation.IJiraXrayUtils;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.arquillian.extension.governor.outbox.OutboxOperation;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.atlassian.util.concurrent.Promise;
+import com.google.common.util.concurrent.FutureCallback;
+
+import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun.Status;
+
+public class JiraXrayPublishTest {
+
+    private static final String TEST_EXEC_KEY = "PBT-50";
+
+    private final BlockingQueue<FutureCallback<Void>> requests = new LinkedBlockingQueue<FutureCallback<Void>>();
+
+    private JiraXrayGovernorConfiguration configuration;
+
+    private XrayTestRunRestClient testRunClient;
+
+    private IJiraXrayUtils jiraUtils;
+
+    private JiraXrayGovernorClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new JiraXrayGovernorConfiguration();
+        configuration.setServer("http://localhost:8080");
+        configuration.setPublishConcurrency(2);
+
+        testRunClient = mock(XrayTestRunRestClient.class);
+        when(testRunClient.updateStatus(anyLong(), any(Status.class))).thenAnswer(new Answer<Promise<Void>>() {
+            @Override
+            public Promise<Void> answer(InvocationOnMock invocation) {
+                return pendingRequest();
+            }
+        });
+        when(testRunClient.importExecutionResults(eq(TEST_EXEC_KEY), anyMap())).thenAnswer(new Answer<Promise<Void>>() {
+            @Override
+            public Promise<Void> answer(InvocationOnMock invocation) {
+                return pendingRequest();
+            }
+        });
+
+        jiraUtils = mock(IJiraXrayUtils.class);
+
+        client = new JiraXrayGovernorClient();
+        client.setConfiguration(configuration);
+        client.initializeRestClient(mock(XrayJiraRestClient.class));
+        client.initializeTestRunClient(testRunClient);
+        client.initializeJiraUtils(jiraUtils);
+    }
+
+    @Test
+    public void shouldBoundRequestsInFlight() throws Exception {
+        final Map<String, List<TestExecutionRun>> testRuns = testRuns(5, 1L);
+        final Thread publisher = close(testRuns);
+
+        final FutureCallback<Void> first = nextRequest();
+        final FutureCallback<Void> second = nextRequest();
+        // both permits are taken until a request completes
+        assertNull(requests.poll(200, TimeUnit.MILLISECONDS));
+
+        first.onSuccess(null);
+        nextRequest().onSuccess(null);
+        second.onFailure(new IllegalStateException("Test Run not found"));
+        nextRequest().onSuccess(null);
+        nextRequest().onSuccess(null);
+
+        publisher.join(TimeUnit.SECONDS.toMillis(5));
+        assertTrue(!publisher.isAlive());
+
+        verify(testRunClient, times(5)).updateStatus(anyLong(), any(Status.class));
+        assertEquals(Status.PASS, testRuns.get("PBT-1").get(0).getStatus());
+        // the failed request leaves the Test Run as it was
+        assertNull(testRuns.get("PBT-2").get(0).getStatus());
+        assertEquals(Status.PASS, testRuns.get("PBT-3").get(0).getStatus());
+        assertEquals(Status.PASS, testRuns.get("PBT-4").get(0).getStatus());
+        assertEquals(Status.PASS, testRuns.get("PBT-5").get(0).getStatus());
+    }
+
+    @Test
+    public void shouldStopWaitingForRequestsAfterPublishTimeout() throws Exception {
+        configuration.setPublishTimeout(1);
+        final Map<String, List<TestExecutionRun>> testRuns = testRuns(1, 1L);
+
+        final long start = System.currentTimeMillis();
+        final Thread publisher = close(testRuns);
+        nextRequest();
+
+        publisher.join(TimeUnit.SECONDS.toMillis(5));
+        assertTrue(!publisher.isAlive());
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+        assertNull(testRuns.get("PBT-1").get(0).getStatus());
+    }
+
+    @Test
+    public void shouldReportFailedUpdateOfRunWithoutId() throws Exception {
+        when(jiraUtils.updateStatusTestRun(any(XrayJiraRestClient.class), eq("PBT-1"), eq(Status.PASS), anyMap())).thenReturn(false);
+
+        try {
+            client.execute(new OutboxOperation(JiraXrayGovernorClient.OUTBOX_PROVIDER, configuration.getServer(), OutboxOperation.UPDATE, TEST_EXEC_KEY, "PBT-1 - PASS\n"));
+            fail("The Test Run was not updated");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldUpdateRunWithoutIdThroughXrayClient() throws Exception {
+        when(jiraUtils.updateStatusTestRun(any(XrayJiraRestClient.class), eq("PBT-1"), eq(Status.PASS), anyMap())).thenReturn(true);
+        when(jiraUtils.updateStatusTestRun(any(XrayJiraRestClient.class), eq("PBT-2"), eq(Status.PASS), anyMap()))
+            .thenThrow(new IllegalStateException("Jira is not reachable"));
+        final Map<String, List<TestExecutionRun>> testRuns = testRuns(2, null);
+
+        close(testRuns).join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(Status.PASS, testRuns.get("PBT-1").get(0).getStatus());
+        assertNull(testRuns.get("PBT-2").get(0).getStatus());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void shouldImportResultsOfTestExecutionInOneRequest() throws Exception {
+        configuration.setImportResults(true);
+        final Map<String, List<TestExecutionRun>> testRuns = testRuns(3, 1L);
+
+        final Thread publisher = close(testRuns);
+        nextRequest().onSuccess(null);
+
+        publisher.join(TimeUnit.SECONDS.toMillis(5));
+        assertTrue(!publisher.isAlive());
+        assertTrue(requests.isEmpty());
+        verify(testRunClient, times(1)).importExecutionResults(eq(TEST_EXEC_KEY), anyMap());
+        assertEquals(Status.PASS, testRuns.get("PBT-3").get(0).getStatus());
+    }
+
+    // helpers
+
+    @SuppressWarnings("unchecked")
+    private Promise<Void> pendingRequest() {
+        final Promise<Void> promise = mock(Promise.class);
+        when(promise.then(any(FutureCallback.class))).thenAnswer(new Answer<Promise<Void>>() {
+            @Override
+            public Promise<Void> answer(InvocationOnMock invocation) {
+                requests.add((FutureCallback<Void>) invocation.getArguments()[0]);
+                return promise;
+            }
+        });
+        return promise;
+    }
+
+    private FutureCallback<Void> nextRequest() throws InterruptedException {
+        final FutureCallback<Void> request = requests.poll(5, TimeUnit.SECONDS);
+        if (request == null) {
+            fail("The request was not sent");
+        }
+        return request;
+    }
+
+    private Thread close(final Map<String, List<TestExecutionRun>> testRuns) {
+        final Map<String, Boolean> results = new HashMap<String, Boolean>();
+        for (final String keyTest : testRuns.keySet()) {
+            results.put(keyTest, true);
+        }
+
+        final Thread publisher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                client.close(results, testRuns);
+            }
+        });
+        publisher.start();
+
+        return publisher;
+    }
+
+    private static Map<String, List<TestExecutionRun>> testRuns(int count, Long firstId) {
+        final Map<String, List<TestExecutionRun>> testRuns = new HashMap<String, List<TestExecutionRun>>();
+        for (int i = 1; i <= count; i++) {
+            final List<TestExecutionRun> runs = new ArrayList<TestExecutionRun>();
+            runs.add(new TestExecutionRun(firstId == null ? null : firstId + i, "PBT-" + i, TEST_EXEC_KEY, null));
+            testRuns.put("PBT-" + i, runs);
+        }
+        return testRuns;
+    }
+}
@@ -0,0 +1,124 @@
+package org.arquillian.extension.governor.jira.xray.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.arquillian.extension.governor.jira.xray.api.validation.IJiraXrayUtils;
+import org.arquillian.extension.governor.jira.xray.configuration.JiraXrayGovernorConfiguration;
+import org.arquillian.extension.governor.jira.xray.domain.TestExecutionRun;
+import org.junit.Test;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.util.concurrent.Promise;
+
+import es.cuatrogatos.jira.xray.rest.client.api.XrayJiraRestClient;
+import es.cuatrogatos.jira.xray.rest.client.api.domain.TestRun;
+
+public class JiraXrayTestRunIndexTest {
+
+    private final XrayTestRunRestClient testRunClient = mock(XrayTestRunRestClient.class);
+
+    @Test
+    public void shouldLoadEveryPage() throws Exception {
+        page("PBT-50", 1, run(1L, "PBT-1", "PBT-50"), run(2L, "PBT-2", "PBT-50"));
+        page("PBT-50", 2, run(3L, "PBT-3", "PBT-50"), run(4L, "PBT-4", "PBT-50"));
+        page("PBT-50", 3, run(5L, "PBT-5", "PBT-50"));
+
+        final JiraXrayTestRunIndex index = JiraXrayTestRunIndex.load(testRunClient, Arrays.asList("PBT-50"), 2);
+
+        assertEquals(5, index.size());
+        assertTrue(index.getFailedTestExecutionKeys().isEmpty());
+        verify(testRunClient, never()).getTestRuns("PBT-50", 4, 2);
+    }
+
+    @Test
+    public void shouldIndexByTestKey() throws Exception {
+        page("PBT-50", 1, run(1L, "PBT-1", "PBT-50"), run(2L, "PBT-2", "PBT-50"));
+        page("PBT-51", 1, run(3L, "PBT-1", "PBT-51"));
+
+        final JiraXrayTestRunIndex index = JiraXrayTestRunIndex.load(testRunClient, Arrays.asList("PBT-50", "PBT-51"), 100);
+
+        final List<String> testExecKeys = new ArrayList<String>();
+        for (final TestExecutionRun testRun : index.getTestRuns("PBT-1")) {
+            testExecKeys.add(testRun.getTestExecKey());
+        }
+        assertEquals(Arrays.asList("PBT-50", "PBT-51"), testExecKeys);
+        assertEquals(1, index.getTestRuns("PBT-2").size());
+        assertTrue(index.getTestRuns("PBT-3").isEmpty());
+    }
+
+    @Test
+    public void shouldLeaveOutFailedTestExecution() throws Exception {
+        page("PBT-50", 1, run(1L, "PBT-1", "PBT-50"));
+        page("PBT-51", 1, run(2L, "PBT-2", "PBT-51"), run(3L, "PBT-3", "PBT-51"));
+        failingPage("PBT-51", 2);
+        page("PBT-52", 1, run(4L, "PBT-4", "PBT-52"));
+
+        final JiraXrayTestRunIndex index = JiraXrayTestRunIndex.load(testRunClient, Arrays.asList("PBT-50", "PBT-51", "PBT-52"), 2);
+
+        // the page of the failed Test Execution retrieved before the error is not indexed either
+        assertEquals(2, index.size());
+        assertEquals(Collections.singleton("PBT-51"), index.getFailedTestExecutionKeys());
+        assertTrue(index.getTestRuns("PBT-2").isEmpty());
+        assertEquals(1, index.getTestRuns("PBT-1").size());
+        assertEquals(1, index.getTestRuns("PBT-4").size());
+    }
+
+    @Test
+    public void shouldLookUpTestRunsPerTestWhenNoTestExecutionIsIndexed() throws Exception {
+        failingPage("PBT-50", 1);
+
+        final JiraXrayGovernorConfiguration configuration = new JiraXrayGovernorConfiguration();
+        configuration.setServer("http://localhost:8080");
+        configuration.setBulkTestRuns(true);
+        configuration.setTestExecutions("PBT-50");
+        configuration.setTestRunsFilter(false);
+
+        final IJiraXrayUtils jiraUtils = mock(IJiraXrayUtils.class);
+        when(jiraUtils.getTestRunsByTestKey(any(XrayJiraRestClient.class), eq("PBT-1"))).thenReturn(Collections.<TestRun>emptyList());
+
+        final JiraXrayGovernorClient client = new JiraXrayGovernorClient();
+        client.setConfiguration(configuration);
+        client.initializeRestClient(mock(XrayJiraRestClient.class));
+        client.initializeTestRunClient(testRunClient);
+        client.initializeJiraUtils(jiraUtils);
+
+        client.getTestRuns("PBT-1");
+        client.getTestRuns("PBT-2");
+
+        verify(jiraUtils).getTestRunsByTestKey(any(XrayJiraRestClient.class), eq("PBT-1"));
+        verify(jiraUtils).getTestRunsByTestKey(any(XrayJiraRestClient.class), eq("PBT-2"));
+        // the index is not loaded again for every test
+        verify(testRunClient).getTestRuns(eq("PBT-50"), anyInt(), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void page(String testExecKey, int page, TestExecutionRun... testRuns) {
+        final Promise<Iterable<TestExecutionRun>> promise = mock(Promise.class);
+        when(promise.claim()).thenReturn(Arrays.asList(testRuns));
+        when(testRunClient.getTestRuns(eq(testExecKey), eq(page), anyInt())).thenReturn(promise);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void failingPage(String testExecKey, int page) {
+        final Promise<Iterable<TestExecutionRun>> promise = mock(Promise.class);
+        when(promise.claim()).thenThrow(new RestClientException("Issue Does Not Exist", null));
+        when(testRunClient.getTestRuns(eq(testExecKey), eq(page), anyInt())).thenReturn(promise);
+    }
+
+    private static TestExecutionRun run(Long id, String testKey, String testExecKey) {
+        return new TestExecutionRun(id, testKey, testExecKey, null);
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.api.IssueKey;
+
+/**
+ * Writes the governor annotations of the test methods of the compiled test classes into an index, so the governor
+ * does not have to scan the test classes by reflection at run time. Issue keys not matching the {@link IssueKey} of
+ * their governor annotation are reported as compilation errors.
+ *
+ * The index lists every concrete test class with at least one test method and its superclasses, followed by its
+ * governed test methods:
+ *
+ * <pre>
+ * org.example.SomeTestCase org.example.BaseTestCase
+ * &#9;someTest() org.arquillian.extension.governor.jira.api.Jira
+ * </pre>
+ *
+ * Entries of classes which are not compiled again are kept, so incremental compilation does not lose them, unless one
+ * of their superclasses is compiled again: their inherited test methods may have changed, so they are left to the
+ * reflection scan.
+ */
+@SupportedAnnotationTypes("*")
+public class GovernorIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Location of the index on the class path, read by {@code GovernorIndex} of the governor implementation.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/arquillian-governor/test-methods.idx";
+
+    private static final String CHARSET = "UTF-8";
+
+    // test annotations of the supported testing frameworks, see TestFramework of the governor implementation
+    private static final Set<String> TEST_ANNOTATIONS = new HashSet<String>(
+        Arrays.asList("org.junit.Test", "org.testng.annotations.Test"));
+
+    private static final IssueKeyRule NO_RULE = new IssueKeyRule(null, null);
+
+    private final Map<String, List<String>> index = new TreeMap<String, List<String>>();
+
+    private final Set<String> processedTypes = new HashSet<String>();
+
+    private final Map<String, IssueKeyRule> issueKeyRules = new HashMap<String, IssueKeyRule>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (final TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                processType(type);
+            }
+        }
+
+        // governor annotations are left to other processors
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        processedTypes.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+
+        validateIssueKeys(type);
+        for (final ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            validateIssueKeys(method);
+        }
+
+        if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+            indexType(type);
+        }
+
+        for (final TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            processType(nested);
+        }
+    }
+
+    private void indexType(TypeElement type) {
+        final String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        final List<String> classGovernors = getGovernors(processingEnv.getElementUtils().getAllAnnotationMirrors(type));
+        final List<String> governedMethods = new ArrayList<String>();
+        boolean testClass = false;
+
+        // public methods including the inherited ones, as Class.getMethods() returns them at run time
+        for (final ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || !isTestMethod(method)) {
+                continue;
+            }
+
+            testClass = true;
+
+            // class annotations apply to the methods not annotated by the same governor annotation
+            final Set<String> governors = new LinkedHashSet<String>(getGovernors(method.getAnnotationMirrors()));
+            governors.addAll(classGovernors);
+
+            if (!governors.isEmpty()) {
+                final StringBuilder line = new StringBuilder(signature(method));
+                for (final String governor : governors) {
+                    line.append(' ').append(governor);
+                }
+                governedMethods.add(line.toString());
+            }
+        }
+
+        if (testClass) {
+            Collections.sort(governedMethods);
+            index.put(getSuperclasses(type, className), governedMethods);
+        }
+    }
+
+    /**
+     * @return binary name of the class followed by the ones of its superclasses, up to {@code java.lang.Object}
+     */
+    private String getSuperclasses(TypeElement type, String className) {
+        final StringBuilder line = new StringBuilder(className);
+
+        TypeMirror superclass = type.getSuperclass();
+        while (superclass.getKind() == TypeKind.DECLARED) {
+            final TypeElement superType = (TypeElement) processingEnv.getTypeUtils().asElement(superclass);
+            final String superName = processingEnv.getElementUtils().getBinaryName(superType).toString();
+            if (Object.class.getName().equals(superName)) {
+                break;
+            }
+            line.append(' ').append(superName);
+            superclass = superType.getSuperclass();
+        }
+
+        return line.toString();
+    }
+
+    private boolean isTestMethod(ExecutableElement method) {
+        for (final AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            if (TEST_ANNOTATIONS.contains(getTypeElement(annotation).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> getGovernors(List<? extends AnnotationMirror> annotations) {
+        final List<String> governors = new ArrayList<String>();
+
+        for (final AnnotationMirror annotation : annotations) {
+            final TypeElement annotationType = getTypeElement(annotation);
+            if (isAnnotatedBy(annotationType, Governor.class.getName())) {
+                governors.add(processingEnv.getElementUtils().getBinaryName(annotationType).toString());
+            }
+        }
+
+        return governors;
+    }
+
+    private String signature(ExecutableElement method) {
+        final StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+
+        for (final Iterator<? extends VariableElement> parameters = method.getParameters().iterator(); parameters.hasNext();) {
+            // erased types print like Class.getCanonicalName() of the parameter types at run time
+            signature.append(processingEnv.getTypeUtils().erasure(parameters.next().asType()).toString().replace("...", "[]"));
+            if (parameters.hasNext()) {
+                signature.append(',');
+            }
+        }
+
+        return signature.append(')').toString();
+    }
+
+    private void validateIssueKeys(Element element) {
+        for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            final IssueKeyRule rule = getIssueKeyRule(getTypeElement(annotation));
+            if (rule == NO_RULE) {
+                continue;
+            }
+
+            final AnnotationValue value = getValue(annotation, rule.property);
+            if (value != null && value.getValue() instanceof String) {
+                final String issueKey = (String) value.getValue();
+                if (!issueKey.isEmpty() && !rule.pattern.matcher(issueKey).matches()) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        String.format("Issue key \"%s\" of @%s does not match %s.", issueKey,
+                            getTypeElement(annotation).getSimpleName(), rule.pattern.pattern()),
+                        element, annotation, value);
+                }
+            }
+        }
+    }
+
+    private IssueKeyRule getIssueKeyRule(TypeElement annotationType) {
+        final String name = annotationType.getQualifiedName().toString();
+        IssueKeyRule rule = issueKeyRules.get(name);
+
+        if (rule == null) {
+            rule = NO_RULE;
+            for (final AnnotationMirror annotation : annotationType.getAnnotationMirrors()) {
+                if (IssueKey.class.getName().equals(getTypeElement(annotation).getQualifiedName().toString())) {
+                    final String pattern = (String) getValue(annotation, "value").getValue();
+                    try {
+                        rule = new IssueKeyRule(Pattern.compile(pattern), (String) getValue(annotation, "property").getValue());
+                    } catch (PatternSyntaxException ex) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            String.format("Issue key pattern %s of @%s is not valid: %s", pattern, name, ex.getDescription()));
+                    }
+                }
+            }
+            issueKeyRules.put(name, rule);
+        }
+
+        return rule;
+    }
+
+    private AnnotationValue getValue(AnnotationMirror annotation, String name) {
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+            : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAnnotatedBy(TypeElement annotationType, String metaAnnotation) {
+        for (final AnnotationMirror annotation : annotationType.getAnnotationMirrors()) {
+            if (metaAnnotation.equals(getTypeElement(annotation).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static TypeElement getTypeElement(AnnotationMirror annotation) {
+        return (TypeElement) annotation.getAnnotationType().asElement();
+    }
+
+    private void writeIndex() {
+        if (processedTypes.isEmpty()) {
+            return;
+        }
+
+        final Map<String, List<String>> merged = readIndex();
+        for (final Iterator<String> entries = merged.keySet().iterator(); entries.hasNext();) {
+            // the class or one of its superclasses was compiled again
+            for (final String type : entries.next().split(" ")) {
+                if (processedTypes.contains(type)) {
+                    entries.remove();
+                    break;
+                }
+            }
+        }
+        merged.putAll(index);
+
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            final Writer writer = new OutputStreamWriter(resource.openOutputStream(), CHARSET);
+
+            try {
+                writer.write("# Arquillian Governor test method index\n");
+                for (final Map.Entry<String, List<String>> entry : merged.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('\n');
+                    for (final String method : entry.getValue()) {
+                        writer.write('\t');
+                        writer.write(method);
+                        writer.write('\n');
+                    }
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                String.format("Unable to write governor index %s: %s", INDEX_RESOURCE, ex.getMessage()));
+        }
+    }
+
+    private Map<String, List<String>> readIndex() {
+        final Map<String, List<String>> existing = new TreeMap<String, List<String>>();
+
+        try {
+            final FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openInputStream(), CHARSET));
+
+            try {
+                List<String> methods = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("\t")) {
+                        if (methods != null) {
+                            methods.add(line.substring(1));
+                        }
+                    } else if (!line.isEmpty() && !line.startsWith("#")) {
+                        methods = new ArrayList<String>();
+                        existing.put(line, methods);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException ex) {
+            // there is no index from a previous compilation
+        }
+
+        return existing;
+    }
+
+    private static class IssueKeyRule {
+        private final Pattern pattern;
+        private final String property;
+
+        IssueKeyRule(Pattern pattern, String property) {
+            this.pattern = pattern;
+            this.property = property;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.arquillian.extension.governor.api.Governor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GovernorIndexProcessorTest {
+
+    private static final String ISSUE = "package sample;\n"
+        + "@org.arquillian.extension.governor.api.Governor\n"
+        + "@org.arquillian.extension.governor.api.IssueKey(\"[A-Z]+-[0-9]+\")\n"
+        + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+        + "public @interface Issue { String value() default \"\"; }\n";
+
+    private static final String OTHER_ISSUE = "package sample;\n"
+        + "@org.arquillian.extension.governor.api.Governor\n"
+        + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+        + "public @interface OtherIssue { String value(); }\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+
+    @Test
+    public void shouldIndexGovernedTestMethods() throws Exception {
+        final File output = compile(
+            source("Issue", ISSUE),
+            source("OtherIssue", OTHER_ISSUE),
+            source("BaseTestCase", "package sample;\n"
+                + "public abstract class BaseTestCase {\n"
+                + "    @org.junit.Test @Issue(\"ARQ-1\") public void inherited() {}\n"
+                + "}\n"),
+            source("SampleTestCase", "package sample;\n"
+                + "@OtherIssue(\"anything\")\n"
+                + "public class SampleTestCase extends BaseTestCase {\n"
+                + "    @org.junit.Test @Issue(\"ARQ-2\") public void governed(String[] values, int count) {}\n"
+                + "    @org.junit.Test public void notGoverned() {}\n"
+                + "    @Issue(\"ARQ-3\") public void notTest() {}\n"
+                + "    public static class NestedTestCase {\n"
+                + "        @org.junit.Test public void test() {}\n"
+                + "    }\n"
+                + "}\n"),
+            source("NoTests", "package sample;\n"
+                + "public class NoTests {}\n"));
+
+        assertEquals(Arrays.asList(
+            "# Arquillian Governor test method index",
+            "sample.SampleTestCase sample.BaseTestCase",
+            "\tgoverned(java.lang.String[],int) sample.Issue sample.OtherIssue",
+            "\tinherited() sample.Issue sample.OtherIssue",
+            "\tnotGoverned() sample.OtherIssue",
+            "sample.SampleTestCase$NestedTestCase"), readIndex(output));
+    }
+
+    @Test
+    public void shouldDropSubclassesOfRecompiledSuperclass() throws Exception {
+        final File output = compile(
+            source("Issue", ISSUE),
+            source("BaseTestCase", "package sample;\n"
+                + "public abstract class BaseTestCase {\n"
+                + "    @org.junit.Test @Issue(\"ARQ-1\") public void inherited() {}\n"
+                + "}\n"),
+            source("SampleTestCase", "package sample;\n"
+                + "public class SampleTestCase extends BaseTestCase {\n"
+                + "}\n"),
+            source("OtherTestCase", "package sample;\n"
+                + "public class OtherTestCase {\n"
+                + "    @org.junit.Test @Issue(\"ARQ-2\") public void governed() {}\n"
+                + "}\n"));
+
+        // only the superclass is compiled again, the inherited test method is not governed any more
+        assertTrue(diagnostics.getDiagnostics().toString(), run(output,
+            source("BaseTestCase", "package sample;\n"
+                + "public abstract class BaseTestCase {\n"
+                + "    @org.junit.Test public void inherited() {}\n"
+                + "}\n")));
+
+        assertEquals(Arrays.asList(
+            "# Arquillian Governor test method index",
+            "sample.OtherTestCase",
+            "\tgoverned() sample.Issue"), readIndex(output));
+    }
+
+    @Test
+    public void shouldReportMalformedIssueKey() throws Exception {
+        final File output = compileFailing(
+            source("Issue", ISSUE),
+            source("SampleTestCase", "package sample;\n"
+                + "@Issue(\"ARQ-1\")\n"
+                + "public class SampleTestCase {\n"
+                + "    @org.junit.Test @Issue(\"arq 2\") public void malformed() {}\n"
+                + "    @org.junit.Test @Issue public void empty() {}\n"
+                + "}\n"));
+
+        final List<String> errors = new ArrayList<String>();
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(Locale.ENGLISH));
+            }
+        }
+
+        assertEquals(Arrays.asList("Issue key \"arq 2\" of @Issue does not match [A-Z]+-[0-9]+."), errors);
+        assertFalse(new File(output, "sample/SampleTestCase.class").isFile());
+    }
+
+    private File compile(File... sources) throws IOException {
+        final File output = folder.newFolder("classes");
+        assertTrue(diagnostics.getDiagnostics().toString(), run(output, sources));
+        return output;
+    }
+
+    private File compileFailing(File... sources) throws IOException {
+        final File output = folder.newFolder("classes");
+        assertFalse(run(output, sources));
+        return output;
+    }
+
+    private boolean run(File output, File... sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ENGLISH, null);
+
+        try {
+            final String classPath = location(Governor.class) + File.pathSeparator + location(Test.class)
+                + File.pathSeparator + location(GovernorIndexProcessor.class) + File.pathSeparator + output.getPath();
+
+            return compiler.getTask(null, fileManager, diagnostics,
+                Arrays.asList("-classpath", classPath, "-processor", GovernorIndexProcessor.class.getName(),
+                    "-d", output.getPath()),
+                null, fileManager.getJavaFileObjects(sources)).call();
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private File source(String name, String content) throws IOException {
+        final File source = new File(folder.getRoot(), "src/sample/" + name + ".java");
+        source.getParentFile().mkdirs();
+
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(source), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+
+        return source;
+    }
+
+    private static List<String> readIndex(File output) throws IOException {
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new FileInputStream(new File(output, GovernorIndexProcessor.INDEX_RESOURCE)), "UTF-8"));
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return lines;
+    }
+
+    private static String location(Class<?> type) {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+    }
+}
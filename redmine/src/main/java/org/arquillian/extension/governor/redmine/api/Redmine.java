@@ -17,6 +17,7 @@
 package org.arquillian.extension.governor.redmine.api;
 
 import org.arquillian.extension.governor.api.Governor;
+import org.arquillian.extension.governor.api.IssueKey;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -30,6 +31,7 @@ import java.lang.annotation.Target;
  * @author <a href="mailto:rmpestano@gmail.com">Rafael Pestano</a>
  */
 @Governor
+@IssueKey("[0-9]+")
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Documented
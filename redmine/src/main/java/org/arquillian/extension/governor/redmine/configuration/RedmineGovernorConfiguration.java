@@ -36,6 +36,8 @@ public class RedmineGovernorConfiguration extends Configuration {
 
     private boolean closePassed = resolveClosePassed();
 
+    private String cacheFile = resolveCacheFile();
+
     private boolean openFailed = resolveOpenFailed();
 
     private String closeOrder = resolveCloseOrder();
@@ -96,6 +98,17 @@ public class RedmineGovernorConfiguration extends Configuration {
         setProperty("closingMessage", closingMessage);
     }
 
+    /**
+     * File the issue states are cached in between runs, no cache is used when empty.
+     */
+    public String getCacheFile() {
+        return getProperty("cacheFile", cacheFile);
+    }
+
+    public void setCacheFile(String cacheFile) {
+        setProperty("cacheFile", cacheFile);
+    }
+
     public String getOpeningMessage() {
         return getProperty("openingMessage", DEFAULT_REDMINE_OPENING_MESSAGE);
     }
@@ -129,6 +142,7 @@ public class RedmineGovernorConfiguration extends Configuration {
         sb.append(String.format("%-40s %s\n", "force", getForce()));
         sb.append(String.format("%-40s %s\n", "closePassed", getClosePassed()));
         sb.append(String.format("%-40s %s\n", "closingMessage", getClosingMessage()));
+        sb.append(String.format("%-40s %s\n", "cacheFile", getCacheFile()));
         sb.append(String.format("%-40s %s\n", "openFailed", getOpenFailed()));
         sb.append(String.format("%-40s %s\n", "openingMessage", getOpeningMessage()));
 
@@ -178,4 +192,13 @@ public class RedmineGovernorConfiguration extends Configuration {
         return Boolean.valueOf(System.getProperty("redmine.governor.closePassed"));
     }
 
+    private String resolveCacheFile() {
+        final String cacheFile = System.getProperty("redmine.governor.cachefile");
+
+        if (cacheFile != null && cacheFile.length() != 0) {
+            return cacheFile;
+        }
+
+        return EMPTY_STRING;
+    }
 }
@@ -16,9 +16,10 @@
  */
 package org.arquillian.extension.governor.redmine.configuration;
 
-import com.taskadapter.redmineapi.RedmineManager;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
 import org.arquillian.extension.governor.redmine.impl.RedmineGovernorClient;
-import org.arquillian.extension.governor.redmine.impl.RedmineGovernorClientFactory;
+import org.arquillian.extension.governor.redmine.impl.LazyRedmineGovernorClient;
 import org.arquillian.extension.governor.spi.event.GovernorExtensionConfigured;
 import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
 import org.jboss.arquillian.config.descriptor.api.ExtensionDef;
@@ -44,18 +45,18 @@ public class RedmineGovernorConfigurator {
     private Instance<ServiceLoader> serviceLoader;
 
     @Inject
-    @ApplicationScoped
-    private InstanceProducer<RedmineGovernorConfiguration> redmineGovernorConfiguration;
+    private Instance<GovernorOutbox> governorOutbox;
 
     @Inject
     @ApplicationScoped
-    private InstanceProducer<RedmineGovernorClient> redmineGovernorClient;
+    private InstanceProducer<RedmineGovernorConfiguration> redmineGovernorConfiguration;
 
     @Inject
     @ApplicationScoped
-    private InstanceProducer<RedmineManager> redmineManager;
+    private InstanceProducer<LazyRedmineGovernorClient> redmineGovernorClient;
 
-    public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor) throws Exception {
+    public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor,
+                                              GovernorConfiguration governorConfiguration) throws Exception {
         final RedmineGovernorConfiguration redmineGovernorConfiguration = new RedmineGovernorConfiguration();
 
         for (final ExtensionDef extension : arquillianDescriptor.getExtensions()) {
@@ -68,10 +69,14 @@ public class RedmineGovernorConfigurator {
 
         this.redmineGovernorConfiguration.set(redmineGovernorConfiguration);
 
-        final RedmineGovernorClient redmineGovernorClient = new RedmineGovernorClientFactory().build(this.redmineGovernorConfiguration.get());
+        final LazyRedmineGovernorClient redmineGovernorClient = new LazyRedmineGovernorClient(redmineGovernorConfiguration, governorConfiguration, governorOutbox.get());
+
+        // issues left to close or reopen by a previous run are updated once the client registers with the outbox
+        if (governorOutbox.get() != null && governorOutbox.get().hasPending(RedmineGovernorClient.OUTBOX_PROVIDER)) {
+            redmineGovernorClient.get();
+        }
 
         this.redmineGovernorClient.set(redmineGovernorClient);
-        this.redmineManager.set(redmineGovernorClient.getRedmineManager());
 
         if (logger.isLoggable(Level.INFO)) {
             System.out.println("Configuration of Arquillian Redmine extension: ");
@@ -17,6 +17,7 @@
 package org.arquillian.extension.governor.redmine.enricher;
 
 import com.taskadapter.redmineapi.RedmineManager;
+import org.arquillian.extension.governor.redmine.impl.LazyRedmineGovernorClient;
 import org.jboss.arquillian.core.api.Instance;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.test.api.ArquillianResource;
@@ -30,7 +31,7 @@ import java.lang.annotation.Annotation;
 public class RedmineClientProvider implements ResourceProvider {
 
     @Inject
-    private Instance<RedmineManager> redmineManager;
+    private Instance<LazyRedmineGovernorClient> redmineGovernorClient;
 
     @Override
     public boolean canProvide(Class<?> type) {
@@ -39,13 +40,13 @@ public class RedmineClientProvider implements ResourceProvider {
 
     @Override
     public Object lookup(ArquillianResource resource, Annotation... qualifiers) {
-        final RedmineManager redmineManager = this.redmineManager.get();
+        final LazyRedmineGovernorClient redmineGovernorClient = this.redmineGovernorClient.get();
 
-        if (redmineManager == null) {
+        if (redmineGovernorClient == null) {
             throw new IllegalStateException("Redmine manager was not found.");
         }
 
-        return redmineManager;
+        return redmineGovernorClient.get().getRedmineManager();
     }
 
 }
@@ -17,12 +17,24 @@
 package org.arquillian.extension.governor.redmine.impl;
 
 import com.taskadapter.redmineapi.Include;
+import com.taskadapter.redmineapi.RedmineCommunicationException;
 import com.taskadapter.redmineapi.RedmineException;
 import com.taskadapter.redmineapi.RedmineManager;
 import com.taskadapter.redmineapi.RedmineManagerFactory;
+import com.taskadapter.redmineapi.RedmineTransportException;
 import com.taskadapter.redmineapi.bean.Issue;
 import com.taskadapter.redmineapi.bean.User;
+import org.apache.http.client.HttpClient;
 import org.arquillian.extension.governor.api.GovernorClient;
+import org.arquillian.extension.governor.cache.IssueStateCache;
+import org.arquillian.extension.governor.circuit.CircuitBreaker;
+import org.arquillian.extension.governor.circuit.CircuitBreakerFallback;
+import org.arquillian.extension.governor.configuration.GovernorConfiguration;
+import org.arquillian.extension.governor.metrics.CallOutcome;
+import org.arquillian.extension.governor.metrics.GovernorMetrics;
+import org.arquillian.extension.governor.outbox.GovernorOutbox;
+import org.arquillian.extension.governor.outbox.OutboxHandler;
+import org.arquillian.extension.governor.outbox.OutboxOperation;
 import org.arquillian.extension.governor.redmine.api.IssueStatus;
 import org.arquillian.extension.governor.redmine.api.Redmine;
 import org.arquillian.extension.governor.redmine.configuration.RedmineGovernorConfiguration;
@@ -31,22 +43,48 @@ import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * @author <a href="mailto:rmpestano@gmail.com">Rafael Pestano</a>
  */
-public class RedmineGovernorClient implements GovernorClient<Redmine, RedmineGovernorStrategy> {
+public class RedmineGovernorClient implements GovernorClient<Redmine, RedmineGovernorStrategy>, OutboxHandler {
     private static final Logger logger = Logger.getLogger(RedmineGovernorClient.class.getName());
 
+    private static final String CACHE_PROVIDER = "redmine";
+
+    private static final int CACHE_REFRESH_PAGE_SIZE = 100;
+
+    public static final String OUTBOX_PROVIDER = "redmine";
+
+    private static final String METRICS_CACHE = "issueState";
+
     private RedmineManager redmineManager;
     private RedmineGovernorConfiguration redmineGovernorConfiguration;
     private RedmineGovernorStrategy redmineGovernorStrategy;
+    private IssueStateCache issueStateCache;
+    private GovernorOutbox governorOutbox;
+    private CircuitBreaker circuitBreaker;
 
     public RedmineGovernorClient(RedmineGovernorConfiguration redmineGovernorConfiguration) {
-        this.initializeRedmineManager(redmineGovernorConfiguration.getServer(), redmineGovernorConfiguration.getApiKey());
+        this(redmineGovernorConfiguration, null);
+    }
+
+    /**
+     * @param redmineGovernorConfiguration
+     * @param httpClient client the Redmine manager reaches the server through, null for the default one
+     */
+    public RedmineGovernorClient(RedmineGovernorConfiguration redmineGovernorConfiguration, HttpClient httpClient) {
+        this.initializeRedmineManager(redmineGovernorConfiguration.getServer(), redmineGovernorConfiguration.getApiKey(), httpClient);
         this.setConfiguration(redmineGovernorConfiguration);
     }
 
@@ -61,42 +99,102 @@ public class RedmineGovernorClient implements GovernorClient<Redmine, RedmineGov
             return ExecutionDecision.execute();
         }
 
+        final String cachedStatus = issueStateCache == null ? null : issueStateCache.get(CACHE_PROVIDER, redmineGovernorConfiguration.getServer(), redmineIssueKey);
+
+        if (issueStateCache != null) {
+            GovernorMetrics.getInstance().recordCacheLookup(CACHE_PROVIDER, METRICS_CACHE, cachedStatus != null);
+        }
+
+        if (cachedStatus != null) {
+            return redmineGovernorStrategy.resolve(annotation, Integer.valueOf(redmineIssueKey), Integer.valueOf(cachedStatus));
+        }
+
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            GovernorMetrics.getInstance().recordFallback(CACHE_PROVIDER, GovernorMetrics.RESOLVE);
+            return getFallbackDecision(annotation, redmineIssueKey);
+        }
+
+        final long start = System.nanoTime();
         final Issue redmineIssue = getIssue(redmineIssueKey);
 
+        GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, GovernorMetrics.RESOLVE, redmineIssue == null ? CallOutcome.FAILURE : CallOutcome.SUCCESS, start);
+
         // when there is some error while we are getting the issue, we execute that test
         if (redmineIssue == null) {
             logger.warning(String.format("Redmine Issue %s couldn't be retrieved from configured repository.", redmineIssueKey));
             return ExecutionDecision.execute();
         }
 
-        return redmineGovernorStrategy.annotation(annotation).issue(redmineIssue).resolve();
+        if (redmineIssue.getStatusId() != null) {
+            if (issueStateCache != null) {
+                issueStateCache.put(CACHE_PROVIDER, redmineGovernorConfiguration.getServer(), redmineIssueKey, String.valueOf(redmineIssue.getStatusId()));
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.remember(redmineIssueKey, String.valueOf(redmineIssue.getStatusId()));
+            }
+        }
+
+        return redmineGovernorStrategy.resolve(annotation, redmineIssue.getId(), redmineIssue.getStatusId());
     }
 
+    /**
+     * Closes the issue, in the background when an outbox is set.
+     */
     @Override
     public void close(String issueId) {
         Validate.notNull(redmineManager, "Redmine manager must be specified.");
 
+        if (governorOutbox != null) {
+            governorOutbox.enqueue(new OutboxOperation(OUTBOX_PROVIDER, redmineGovernorConfiguration.getServer(), OutboxOperation.CLOSE, issueId, null));
+            return;
+        }
+
+        final long start = System.nanoTime();
+
         try {
-            final Issue issue = getIssue(issueId);
-            if (!IssueStatus.isClosed(issue.getStatusId())) {
-                if (redmineGovernorConfiguration.getCloseOrder() != null && redmineGovernorConfiguration.getCloseOrder().length() > 0) {
-                    resolveIntermediateIssueTransitions(issue, redmineGovernorConfiguration.getCloseOrder());
-                }
-                issue.setStatusId(IssueStatus.CLOSED.getStatusCode());
-                issue.setNotes(getClosingMessage());
-                redmineManager.getIssueManager().update(issue);
-                final boolean stillNotClosed = !IssueStatus.isClosed(getIssue(issueId).getStatusId());
-                if (stillNotClosed) {
-                    printAvailableStatus();
-                    throw new RuntimeException("Arquillian governor redmine could not close issue. "
-                            + "The status transition is probably invalid. Use property 'closeOrder' in arquillian.xml and provide a valid status transition for this issue.");
-                }
-            }
+            closeIssue(issueId);
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, OutboxOperation.CLOSE, CallOutcome.SUCCESS, start);
         } catch (Exception e) {
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, OutboxOperation.CLOSE, CallOutcome.FAILURE, start);
             logger.warning(String.format("An exception has occurred while closing the issue %s. Exception: %s", issueId, e.getMessage()));
         }
     }
 
+    @Override
+    public void execute(OutboxOperation operation) throws Exception {
+        if (!OutboxOperation.CLOSE.equals(operation.getOperation()) && !OutboxOperation.OPEN.equals(operation.getOperation())) {
+            throw new IllegalArgumentException("Unsupported Redmine operation " + operation);
+        }
+
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            throw new IllegalStateException("Redmine server " + redmineGovernorConfiguration.getServer() + " is not reachable.");
+        }
+
+        if (OutboxOperation.CLOSE.equals(operation.getOperation())) {
+            closeIssue(operation.getIssueKey());
+        } else {
+            openIssue(operation.getIssueKey(), operation.getPayload());
+        }
+    }
+
+    private void closeIssue(String issueId) throws Exception {
+        final Issue issue = getIssue(issueId);
+        if (!IssueStatus.isClosed(issue.getStatusId())) {
+            if (redmineGovernorConfiguration.getCloseOrder() != null && redmineGovernorConfiguration.getCloseOrder().length() > 0) {
+                resolveIntermediateIssueTransitions(issue, redmineGovernorConfiguration.getCloseOrder());
+            }
+            issue.setStatusId(IssueStatus.CLOSED.getStatusCode());
+            issue.setNotes(getClosingMessage());
+            redmineManager.getIssueManager().update(issue);
+            final boolean stillNotClosed = !IssueStatus.isClosed(getIssue(issueId).getStatusId());
+            if (stillNotClosed) {
+                printAvailableStatus();
+                throw new RuntimeException("Arquillian governor redmine could not close issue. "
+                        + "The status transition is probably invalid. Use property 'closeOrder' in arquillian.xml and provide a valid status transition for this issue.");
+            }
+        }
+    }
+
     private void printAvailableStatus() {
         try {
             final List<com.taskadapter.redmineapi.bean.IssueStatus> statuses = redmineManager.getIssueManager().getStatuses();
@@ -129,29 +227,44 @@ public class RedmineGovernorClient implements GovernorClient<Redmine, RedmineGov
         }
     }
 
+    /**
+     * Reopens the issue, in the background when an outbox is set.
+     */
     public void open(String issueId, Throwable cause) {
         Validate.notNull(redmineManager, "Redmine manager must be specified.");
 
-        try {
-            final Issue issue = getIssue(issueId);
-            if (IssueStatus.isClosed(issue.getStatusId())) {
-                issue.setStatusId(IssueStatus.NEW.getStatusCode());
-                final StringBuilder openingMessage = new StringBuilder(getOpeningMessage() + "\n");
-                openingMessage.append(getCauseAsString(cause));
-                issue.setNotes(openingMessage.toString());
-                redmineManager.getIssueManager().update(issue);
-                final boolean stillClosed = IssueStatus.isClosed(getIssue(issueId).getStatusId());
-                if (stillClosed) {
-                    throw new RuntimeException("Arquillian governor redmine could not open issue " + issueId
-                            + ". Please check if provided user has privileges for re opening issues.");
-                }
-            }
+        if (governorOutbox != null) {
+            governorOutbox.enqueue(new OutboxOperation(OUTBOX_PROVIDER, redmineGovernorConfiguration.getServer(), OutboxOperation.OPEN, issueId, getCauseAsString(cause)));
+            return;
+        }
+
+        final long start = System.nanoTime();
 
+        try {
+            openIssue(issueId, getCauseAsString(cause));
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, OutboxOperation.OPEN, CallOutcome.SUCCESS, start);
         } catch (Exception e) {
+            GovernorMetrics.getInstance().recordCall(CACHE_PROVIDER, OutboxOperation.OPEN, CallOutcome.FAILURE, start);
             logger.warning(String.format("An exception has occurred while closing the issue %s. Exception: %s", issueId, e.getMessage()));
         }
     }
 
+    private void openIssue(String issueId, String cause) throws Exception {
+        final Issue issue = getIssue(issueId);
+        if (IssueStatus.isClosed(issue.getStatusId())) {
+            issue.setStatusId(IssueStatus.NEW.getStatusCode());
+            final StringBuilder openingMessage = new StringBuilder(getOpeningMessage() + "\n");
+            openingMessage.append(cause);
+            issue.setNotes(openingMessage.toString());
+            redmineManager.getIssueManager().update(issue);
+            final boolean stillClosed = IssueStatus.isClosed(getIssue(issueId).getStatusId());
+            if (stillClosed) {
+                throw new RuntimeException("Arquillian governor redmine could not open issue " + issueId
+                        + ". Please check if provided user has privileges for re opening issues.");
+            }
+        }
+    }
+
     private String getCauseAsString(Throwable cause) {
         final StringWriter sw = new StringWriter();
         final PrintWriter pw = new PrintWriter(sw, true);
@@ -169,16 +282,92 @@ public class RedmineGovernorClient implements GovernorClient<Redmine, RedmineGov
         return redmineManager;
     }
 
+    /**
+     * Makes the issues be closed and reopened by the outbox instead of the calling thread.
+     */
+    public void setGovernorOutbox(GovernorOutbox governorOutbox) {
+        Validate.notNull(governorOutbox, "Governor outbox must be specified.");
+        this.governorOutbox = governorOutbox;
+
+        governorOutbox.register(OUTBOX_PROVIDER, redmineGovernorConfiguration.getServer(), this);
+    }
+
+    /**
+     * Stops sending requests to the Redmine server while it is not reachable, the fallback decision of the
+     * configuration is taken instead.
+     */
+    public void configureCircuitBreaker(GovernorConfiguration governorConfiguration) {
+        this.circuitBreaker = CircuitBreaker.forServer(CACHE_PROVIDER, redmineGovernorConfiguration.getServer(), governorConfiguration);
+    }
+
     private void setConfiguration(RedmineGovernorConfiguration redmineGovernorConfiguration) {
         Validate.notNull(redmineGovernorConfiguration, "Redmine Governor configuration must be specified.");
         this.redmineGovernorConfiguration = redmineGovernorConfiguration;
     }
 
-    private void initializeRedmineManager(String uri, String apiKey) {
+    private void initializeRedmineManager(String uri, String apiKey, HttpClient httpClient) {
         Validate.notNullOrEmpty(uri, "Redmine uri must be specified.");
         Validate.notNullOrEmpty(apiKey, "User apikey must be provided.");
 
-        redmineManager = RedmineManagerFactory.createWithApiKey(uri, apiKey);
+        if (httpClient == null) {
+            redmineManager = RedmineManagerFactory.createWithApiKey(uri, apiKey);
+        } else {
+            redmineManager = RedmineManagerFactory.createWithApiKey(uri, apiKey, httpClient);
+        }
+    }
+
+    /**
+     * Uses the issue state cache and brings the cached states changed since its last synchronization up to date. When
+     * they can not be refreshed, they are dropped.
+     */
+    void initializeIssueStateCache(final IssueStateCache issueStateCache) {
+        Validate.notNull(issueStateCache, "Issue state cache must be specified.");
+        Validate.notNull(redmineGovernorConfiguration, "Redmine Governor configuration must be set.");
+        this.issueStateCache = issueStateCache;
+
+        final String server = redmineGovernorConfiguration.getServer();
+        final long now = System.currentTimeMillis();
+        final long lastSync = issueStateCache.getLastSync(CACHE_PROVIDER, server);
+
+        if (lastSync == 0) {
+            // states never synchronized can not be trusted
+            issueStateCache.invalidate(CACHE_PROVIDER, server);
+            issueStateCache.synced(CACHE_PROVIDER, server, now);
+            return;
+        }
+
+        try {
+            final SimpleDateFormat iso8601 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+            iso8601.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+            // the extra minute covers clock differences with the server
+            final Map<String, String> parameters = new HashMap<String, String>();
+            parameters.put("status_id", "*");
+            parameters.put("updated_on", ">=" + iso8601.format(new Date(lastSync - TimeUnit.MINUTES.toMillis(1))));
+            parameters.put("limit", String.valueOf(CACHE_REFRESH_PAGE_SIZE));
+
+            final Set<String> keys = issueStateCache.getIssueKeys(CACHE_PROVIDER, server);
+            int offset = 0;
+            List<Issue> page;
+
+            do {
+                parameters.put("offset", String.valueOf(offset));
+                page = redmineManager.getIssueManager().getIssues(parameters);
+
+                for (final Issue issue : page) {
+                    final String key = String.valueOf(issue.getId());
+                    if (keys.contains(key) && issue.getStatusId() != null) {
+                        issueStateCache.put(CACHE_PROVIDER, server, key, String.valueOf(issue.getStatusId()));
+                    }
+                }
+                offset += page.size();
+            } while (page.size() == CACHE_REFRESH_PAGE_SIZE);
+
+            issueStateCache.synced(CACHE_PROVIDER, server, now);
+        } catch (Exception e) {
+            logger.warning(String.format("Cached Redmine issue states couldn't be refreshed. Exception: %s", e.getMessage()));
+            issueStateCache.invalidate(CACHE_PROVIDER, server);
+        }
     }
 
     private Issue getIssue(String issueId) {
@@ -186,13 +375,35 @@ public class RedmineGovernorClient implements GovernorClient<Redmine, RedmineGov
             if (issueId == null || !isNumeric(issueId)) {
                 throw new IllegalArgumentException("Issue id is invalid.");
             }
-            return redmineManager.getIssueManager().getIssueById(new Integer(issueId), Include.journals);
+            final Issue issue = redmineManager.getIssueManager().getIssueById(new Integer(issueId), Include.journals);
+            if (circuitBreaker != null) {
+                circuitBreaker.success();
+            }
+            return issue;
         } catch (Exception e) {
+            if (circuitBreaker != null) {
+                if (e instanceof RedmineTransportException || e instanceof RedmineCommunicationException) {
+                    circuitBreaker.failure(e);
+                } else if (e instanceof RedmineException) {
+                    // an error response, like a missing issue, still comes from a reachable server
+                    circuitBreaker.success();
+                }
+            }
             logger.warning(String.format("An exception has occured while getting the issue %s. Exception: %s", issueId, e.getMessage()));
             return null;
         }
     }
 
+    private ExecutionDecision getFallbackDecision(Redmine annotation, String redmineIssueKey) {
+        final String lastStatus = circuitBreaker.getLastState(redmineIssueKey);
+
+        if (circuitBreaker.getFallback() == CircuitBreakerFallback.CACHED && lastStatus != null) {
+            return redmineGovernorStrategy.resolve(annotation, Integer.valueOf(redmineIssueKey), Integer.valueOf(lastStatus));
+        }
+
+        return circuitBreaker.getFallbackDecision();
+    }
+
     private boolean isNumeric(String issueId) {
         try {
             Integer.parseInt(issueId);
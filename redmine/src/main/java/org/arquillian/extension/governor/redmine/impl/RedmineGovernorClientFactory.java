@@ -17,9 +17,15 @@
 package org.arquillian.extension.governor.redmine.impl;
 
 import org.arquillian.extension.governor.api.GovernorClientFactory;
+import org.arquillian.extension.governor.cache.IssueStateCache;
 import org.arquillian.extension.governor.redmine.configuration.RedmineGovernorConfiguration;
+import org.arquillian.extension.governor.transport.GovernorTransport;
 import org.jboss.arquillian.core.spi.Validate;
 
+import com.taskadapter.redmineapi.RedmineManagerFactory;
+
+import java.io.File;
+
 /**
  * @author <a href="mailto:rmpestano@gmail.com">Rafael Pestano</a>
  */
@@ -27,14 +33,35 @@ public class RedmineGovernorClientFactory implements GovernorClientFactory<Redmi
 
     private RedmineGovernorConfiguration redmineGovernorConfiguration;
 
+    private GovernorTransport governorTransport = GovernorTransport.live();
+
+    /**
+     * @param governorTransport transport the built clients reach the server through, live when not set
+     */
+    public void setGovernorTransport(GovernorTransport governorTransport) {
+        Validate.notNull(governorTransport, "Governor transport has to be set.");
+        this.governorTransport = governorTransport;
+    }
+
     @Override
     public RedmineGovernorClient build(RedmineGovernorConfiguration redmineGovernorConfiguration) throws Exception {
         Validate.notNull(redmineGovernorConfiguration, "Redmine governor configuration has to be set.");
         this.redmineGovernorConfiguration = redmineGovernorConfiguration;
 
-        final RedmineGovernorClient redmineGovernorClient = new RedmineGovernorClient(this.redmineGovernorConfiguration);
+        final RedmineGovernorClient redmineGovernorClient;
+
+        if (governorTransport.isLive()) {
+            redmineGovernorClient = new RedmineGovernorClient(this.redmineGovernorConfiguration);
+        } else {
+            redmineGovernorClient = new RedmineGovernorClient(this.redmineGovernorConfiguration,
+                new TransportHttpClient(RedmineManagerFactory.createDefaultHttpClient(), governorTransport));
+        }
         redmineGovernorClient.setGovernorStrategy(new RedmineGovernorStrategy(this.redmineGovernorConfiguration));
 
+        if (this.redmineGovernorConfiguration.getCacheFile().length() != 0) {
+            redmineGovernorClient.initializeIssueStateCache(IssueStateCache.forFile(new File(this.redmineGovernorConfiguration.getCacheFile())));
+        }
+
         return redmineGovernorClient;
     }
 
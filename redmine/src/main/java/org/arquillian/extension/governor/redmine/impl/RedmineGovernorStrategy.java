@@ -34,7 +34,8 @@ public class RedmineGovernorStrategy implements GovernorStrategy {
 
     private RedmineGovernorConfiguration redmineGovernorConfiguration;
     private Redmine annotation;
-    private Issue redmineIssue;
+    private Integer issueId;
+    private Integer issueStatus;
 
     public RedmineGovernorStrategy(RedmineGovernorConfiguration redmineGovernorConfiguration) {
         Validate.notNull(redmineGovernorConfiguration, "Redmine Governor configuration has to be set.");
@@ -47,16 +48,30 @@ public class RedmineGovernorStrategy implements GovernorStrategy {
     }
 
     public RedmineGovernorStrategy issue(Issue redmine) {
-        this.redmineIssue = redmine;
+        Validate.notNull(redmine, "Redmine issue must be specified.");
+        return issue(redmine.getId(), redmine.getStatusId());
+    }
+
+    /**
+     * Sets the issue the decision is made for by its id and status id, for example taken from the issue state cache.
+     */
+    public RedmineGovernorStrategy issue(Integer issueId, Integer issueStatus) {
+        this.issueId = issueId;
+        this.issueStatus = issueStatus;
         return this;
     }
 
     @Override
     public ExecutionDecision resolve() {
-        Validate.notNull(redmineIssue, "Redmine issue must be specified.");
-        Validate.notNull(annotation, "Annotation must be specified.");
+        return resolve(annotation, issueId, issueStatus);
+    }
 
-        final Integer issueStatus = redmineIssue.getStatusId();
+    /**
+     * Resolves the decision from the given issue id and status id, without setting them on the strategy.
+     */
+    public ExecutionDecision resolve(Redmine annotation, Integer issueId, Integer issueStatus) {
+        Validate.notNull(issueId, "Redmine issue must be specified.");
+        Validate.notNull(annotation, "Annotation must be specified.");
 
         if (issueStatus == null || IssueStatus.isClosed(issueStatus)) {
             if (annotation.openFailed()) {
@@ -71,7 +86,7 @@ public class RedmineGovernorStrategy implements GovernorStrategy {
             return ExecutionDecision.execute(FORCING_EXECUTION_REASON_STRING);
         }
 
-        return ExecutionDecision.dontExecute(String.format(SKIPPING_EXECUTION_REASON_STRING, redmineIssue.getId(), issueStatus));
+        return ExecutionDecision.dontExecute(String.format(SKIPPING_EXECUTION_REASON_STRING, issueId, issueStatus));
     }
 
 }
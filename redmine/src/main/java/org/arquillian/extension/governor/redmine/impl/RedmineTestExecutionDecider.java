@@ -16,7 +16,9 @@
  */
 package org.arquillian.extension.governor.redmine.impl;
 
+import org.arquillian.extension.governor.api.GovernorClients;
 import org.arquillian.extension.governor.api.GovernorRegistry;
+import org.arquillian.extension.governor.impl.LifecycleCountRegister;
 import org.arquillian.extension.governor.impl.TestMethodExecutionRegister;
 import org.arquillian.extension.governor.redmine.api.Redmine;
 import org.arquillian.extension.governor.redmine.configuration.RedmineGovernorConfiguration;
@@ -35,7 +37,6 @@ import org.jboss.arquillian.test.spi.execution.TestExecutionDecider;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -43,7 +44,7 @@ import java.util.Map;
  * @author <a href="mailto:rmpestano@gmail.com">Rafael Pestano</a>
  */
 public class RedmineTestExecutionDecider implements TestExecutionDecider, GovernorProvider {
-    private static final Map<Method, Integer> lifecycleCountRegister = new HashMap<Method, Integer>();
+    private static final LifecycleCountRegister lifecycleCountRegister = new LifecycleCountRegister();
 
     @Inject
     @ClassScoped
@@ -64,7 +65,7 @@ public class RedmineTestExecutionDecider implements TestExecutionDecider, Govern
         return Redmine.class;
     }
 
-    public void on(@Observes ExecutionDecisionEvent event, RedmineGovernorClient redmineGovernorClient) {
+    public void on(@Observes ExecutionDecisionEvent event, LazyRedmineGovernorClient redmineGovernorClient) {
         final ExecutionDecision executionDecision = this.executionDecision.get();
 
         if (executionDecision == null || executionDecision.getDecision() == Decision.DONT_EXECUTE) {
@@ -73,7 +74,8 @@ public class RedmineTestExecutionDecider implements TestExecutionDecider, Govern
 
         if (event.getAnnotation().annotationType() == provides()) {
             final Redmine redmineIssue = (Redmine) event.getAnnotation();
-            this.executionDecision.set(redmineGovernorClient.resolve(redmineIssue));
+            // resolved in the background, the governor waits for all the annotations of the class at once
+            event.setDecision(GovernorClients.async(redmineGovernorClient.get(), event.getExecutor()).resolveAsync(redmineIssue));
         }
     }
 
@@ -81,59 +83,52 @@ public class RedmineTestExecutionDecider implements TestExecutionDecider, Govern
                    TestResult testResult,
                    GovernorRegistry governorRegistry,
                    RedmineGovernorConfiguration redmineGovernorConfiguration,
-                   RedmineGovernorClient redmineGovernorClient) {
-
-        int count = 0;
-        try {
-            final Integer c = lifecycleCountRegister.get(event.getTestMethod());
-            count = (c != null ? c.intValue() : 0);
-            if (count == 0) { // skip first event - see https://github.com/arquillian/arquillian-governor/pull/16#issuecomment-166590210
-                return;
-            }
-            final ExecutionDecision decision = TestMethodExecutionRegister.resolve(event.getTestMethod(), provides());
-
-            // if we passed some test method annotated with Redmine, we may eventually close it
-            if (redmineGovernorConfiguration.getClosePassed()) {
-                // we decided we run this test method even it has annotation on it
-                if (testResult.getStatus() == Status.PASSED
-                        && decision.getDecision() == Decision.EXECUTE
-                        && (RedmineGovernorStrategy.FORCING_EXECUTION_REASON_STRING).equals(decision.getReason())) {
-
-                    for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
-                        if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
-                            for (final Annotation annotation : entry.getValue()) {
-                                if (annotation.annotationType() == provides()) {
-                                    final String id = ((Redmine) annotation).value();
-                                    redmineGovernorClient.close(id);
-                                    return;
-                                }
+                   LazyRedmineGovernorClient redmineGovernorClient) {
+
+        if (lifecycleCountRegister.increment(event.getTestMethod()) == 0) { // skip first event - see https://github.com/arquillian/arquillian-governor/pull/16#issuecomment-166590210
+            return;
+        }
+        final ExecutionDecision decision = TestMethodExecutionRegister.resolve(event.getTestMethod(), provides());
+
+        // if we passed some test method annotated with Redmine, we may eventually close it
+        if (redmineGovernorConfiguration.getClosePassed()) {
+            // we decided we run this test method even it has annotation on it
+            if (testResult.getStatus() == Status.PASSED
+                    && decision.getDecision() == Decision.EXECUTE
+                    && (RedmineGovernorStrategy.FORCING_EXECUTION_REASON_STRING).equals(decision.getReason())) {
+
+                for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
+                    if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
+                        for (final Annotation annotation : entry.getValue()) {
+                            if (annotation.annotationType() == provides()) {
+                                final String id = ((Redmine) annotation).value();
+                                redmineGovernorClient.get().close(id);
+                                return;
                             }
                         }
                     }
                 }
             }
-            // openFailed can be configured globally in arquillian.xml or per test method via Redmine annotation
-            if (redmineGovernorConfiguration.getOpenFailed()
-                    || (event.getTestMethod().getAnnotation(Redmine.class) != null && event.getTestMethod().getAnnotation(Redmine.class).openFailed())) {
-                if (testResult.getStatus() == Status.FAILED
-                        && decision.getDecision() == Decision.EXECUTE
-                        && (decision.getReason().equals(RedmineGovernorStrategy.FORCING_EXECUTION_OPEN_FAILED))) {
-
-                    for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
-                        if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
-                            for (final Annotation annotation : entry.getValue()) {
-                                if (annotation.annotationType() == provides()) {
-                                    final String id = ((Redmine) annotation).value();
-                                    redmineGovernorClient.open(id, testResult.getThrowable());
-                                    return;
-                                }
+        }
+        // openFailed can be configured globally in arquillian.xml or per test method via Redmine annotation
+        if (redmineGovernorConfiguration.getOpenFailed()
+                || (event.getTestMethod().getAnnotation(Redmine.class) != null && event.getTestMethod().getAnnotation(Redmine.class).openFailed())) {
+            if (testResult.getStatus() == Status.FAILED
+                    && decision.getDecision() == Decision.EXECUTE
+                    && (decision.getReason().equals(RedmineGovernorStrategy.FORCING_EXECUTION_OPEN_FAILED))) {
+
+                for (final Map.Entry<Method, List<Annotation>> entry : governorRegistry.get().entrySet()) {
+                    if (entry.getKey().toString().equals(event.getTestMethod().toString())) {
+                        for (final Annotation annotation : entry.getValue()) {
+                            if (annotation.annotationType() == provides()) {
+                                final String id = ((Redmine) annotation).value();
+                                redmineGovernorClient.get().open(id, testResult.getThrowable());
+                                return;
                             }
                         }
                     }
                 }
             }
-        } finally {
-            lifecycleCountRegister.put(event.getTestMethod(), ++count);
         }
     }
 
@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.redmine.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.arquillian.extension.governor.transport.GovernorTransport;
+import org.arquillian.extension.governor.transport.RecordedResponse;
+
+/**
+ * HTTP client of the Redmine manager which records the responses of the server or replays them, see
+ * {@link GovernorTransport}.
+ *
+ * Redmine receives the API key as the {@code key} query parameter, it is left out of the key of the recorded requests.
+ */
+public class TransportHttpClient extends CloseableHttpClient {
+
+    private static final String API_KEY_PARAMETER = "key";
+
+    private static final String CHARSET = "UTF-8";
+
+    private final HttpClient delegate;
+
+    private final GovernorTransport transport;
+
+    /**
+     * @param delegate client reaching the server, it is only asked for its connection manager when replaying
+     * @param transport recording or replaying transport
+     */
+    public TransportHttpClient(HttpClient delegate, GovernorTransport transport) {
+        if (transport.isLive()) {
+            throw new IllegalArgumentException("Live transport does not need a transport HTTP client.");
+        }
+
+        this.delegate = delegate;
+        this.transport = transport;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+        final String body = readBody(request);
+        final String key = GovernorTransport.key(request.getRequestLine().getMethod(), withoutApiKey(target, request), body);
+
+        if (transport.isReplaying()) {
+            final RecordedResponse recorded = transport.replay(key);
+            return toResponse(recorded.getStatus(), recorded.getBody());
+        }
+
+        final HttpResponse response = delegate.execute(target, request, context);
+        final int status = response.getStatusLine().getStatusCode();
+        final String entity = response.getEntity() == null ? null : EntityUtils.toString(response.getEntity(), CHARSET);
+
+        transport.record(key, status, entity);
+
+        return toResponse(status, entity);
+    }
+
+    @Override
+    public void close() throws IOException {
+        getConnectionManager().shutdown();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public org.apache.http.params.HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+
+    /**
+     * Reads the body of the request and puts it back, so it can still be sent when it was not repeatable.
+     */
+    private static String readBody(HttpRequest request) throws IOException {
+        if (!(request instanceof HttpEntityEnclosingRequest)) {
+            return null;
+        }
+
+        final HttpEntityEnclosingRequest enclosingRequest = (HttpEntityEnclosingRequest) request;
+        final HttpEntity entity = enclosingRequest.getEntity();
+
+        if (entity == null) {
+            return null;
+        }
+
+        final String body = EntityUtils.toString(entity, CHARSET);
+
+        if (!entity.isRepeatable()) {
+            final ContentType contentType = ContentType.get(entity);
+            enclosingRequest.setEntity(new StringEntity(body, contentType == null ? ContentType.APPLICATION_JSON : contentType));
+        }
+
+        return body;
+    }
+
+    private static String withoutApiKey(HttpHost target, HttpRequest request) throws IOException {
+        try {
+            URI uri = request instanceof HttpUriRequest ? ((HttpUriRequest) request).getURI() : new URI(request.getRequestLine().getUri());
+
+            if (!uri.isAbsolute() && target != null) {
+                uri = new URI(target.toURI()).resolve(uri);
+            }
+
+            final URIBuilder builder = new URIBuilder(uri);
+            final URIBuilder withoutKey = new URIBuilder(uri).removeQuery();
+
+            for (final NameValuePair parameter : builder.getQueryParams()) {
+                if (!API_KEY_PARAMETER.equals(parameter.getName())) {
+                    withoutKey.addParameter(parameter.getName(), parameter.getValue());
+                }
+            }
+
+            return withoutKey.build().toString();
+        } catch (URISyntaxException ex) {
+            throw new IOException("Invalid request URI: " + ex.getMessage());
+        }
+    }
+
+    private static CloseableHttpResponse toResponse(int status, String body) {
+        final RecordedHttpResponse response = new RecordedHttpResponse(status);
+
+        if (body != null) {
+            response.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        }
+
+        return response;
+    }
+
+    private static class RecordedHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        RecordedHttpResponse(int status) {
+            super(HttpVersion.HTTP_1_1, status, null);
+        }
+
+        @Override
+        public void close() {
+            // the body is held in memory
+        }
+    }
+}
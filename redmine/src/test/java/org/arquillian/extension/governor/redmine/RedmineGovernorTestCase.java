@@ -23,8 +23,7 @@ import org.arquillian.extension.governor.impl.GovernorTestClassScanner;
 import org.arquillian.extension.governor.redmine.api.Redmine;
 import org.arquillian.extension.governor.redmine.configuration.RedmineGovernorConfiguration;
 import org.arquillian.extension.governor.redmine.configuration.RedmineGovernorConfigurator;
-import org.arquillian.extension.governor.redmine.impl.RedmineGovernorClient;
-import org.arquillian.extension.governor.redmine.impl.RedmineGovernorClientFactory;
+import org.arquillian.extension.governor.redmine.impl.LazyRedmineGovernorClient;
 import org.arquillian.extension.governor.redmine.impl.RedmineTestExecutionDecider;
 import org.arquillian.extension.governor.spi.GovernorProvider;
 import org.arquillian.extension.governor.spi.event.DecideMethodExecutions;
@@ -139,8 +138,7 @@ public class RedmineGovernorTestCase extends AbstractGovernorTestCase {
 
         bind(ApplicationScoped.class, RedmineGovernorConfiguration.class, redminebGovernorConfiguration);
 
-        final RedmineGovernorClient redmineGovernorClient = new RedmineGovernorClientFactory().build(redminebGovernorConfiguration);
-        bind(ApplicationScoped.class, RedmineGovernorClient.class, redmineGovernorClient);
+        bind(ApplicationScoped.class, LazyRedmineGovernorClient.class, new LazyRedmineGovernorClient(redminebGovernorConfiguration, governorConfiguration, null));
     }
 
     // helpers
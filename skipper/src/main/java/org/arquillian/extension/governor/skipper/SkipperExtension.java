@@ -17,6 +17,7 @@
 package org.arquillian.extension.governor.skipper;
 
 import org.arquillian.extension.governor.skipper.config.SkipperConfigurator;
+import org.arquillian.extension.governor.skipper.impl.GovernorMetricsReporter;
 import org.arquillian.extension.governor.skipper.impl.SkipperReporter;
 import org.arquillian.extension.governor.skipper.impl.SkipperTestExecutionDecider;
 import org.jboss.arquillian.core.spi.LoadableExtension;
@@ -32,6 +33,7 @@ public class SkipperExtension implements LoadableExtension {
         builder.observer(SkipperTestExecutionDecider.class);
         builder.observer(SkipperConfigurator.class);
         builder.observer(SkipperReporter.class);
+        builder.observer(GovernorMetricsReporter.class);
 
         builder.service(TestExecutionDecider.class, SkipperTestExecutionDecider.class);
     }
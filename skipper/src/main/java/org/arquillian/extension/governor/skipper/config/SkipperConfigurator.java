@@ -16,7 +16,6 @@
  */
 package org.arquillian.extension.governor.skipper.config;
 
-import org.arquillian.extension.governor.skipper.impl.SkipperReportHolder;
 import org.arquillian.extension.governor.spi.event.GovernorExtensionConfigured;
 import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
 import org.jboss.arquillian.config.descriptor.api.ExtensionDef;
@@ -46,10 +45,6 @@ public class SkipperConfigurator {
     @ApplicationScoped
     private InstanceProducer<SkipperConfiguration> skipperConfiguration;
 
-    @Inject
-    @ApplicationScoped
-    private InstanceProducer<SkipperReportHolder> skipperReportHolder;
-
     public void onGovernorExtensionConfigured(@Observes GovernorExtensionConfigured event, ArquillianDescriptor arquillianDescriptor) throws Exception {
         final SkipperConfiguration skipperConfiguration = new SkipperConfiguration();
 
@@ -61,7 +56,6 @@ public class SkipperConfigurator {
             }
         }
 
-        this.skipperReportHolder.set(new SkipperReportHolder());
         this.skipperConfiguration.set(skipperConfiguration);
 
         if (logger.isLoggable(Level.INFO)) {
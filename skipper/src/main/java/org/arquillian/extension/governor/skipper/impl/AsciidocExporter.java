@@ -81,14 +81,19 @@ public class AsciidocExporter {
             appending.addAll(reportTestSpec(testSpec));
         }
 
-        outputLines.addAll(appending);
+        // test classes running in parallel append their sections whole
+        synchronized (outputLines) {
+            outputLines.addAll(appending);
+        }
     }
 
     public void export() {
 
         try {
-            for (final String line : outputLines) {
-                writer.append(line + "\n");
+            synchronized (outputLines) {
+                for (final String line : outputLines) {
+                    writer.append(line + "\n");
+                }
             }
 
             writer.flush();
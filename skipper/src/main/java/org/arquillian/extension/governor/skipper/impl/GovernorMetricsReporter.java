@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.arquillian.extension.governor.skipper.impl;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.arquillian.extension.governor.metrics.CacheMetrics;
+import org.arquillian.extension.governor.metrics.CallMetrics;
+import org.arquillian.extension.governor.metrics.CallOutcome;
+import org.arquillian.extension.governor.metrics.GovernorMetrics;
+import org.arquillian.extension.governor.metrics.GovernorMetricsReported;
+import org.arquillian.extension.governor.metrics.LatencyHistogram;
+import org.arquillian.recorder.reporter.event.PropertyReportEvent;
+import org.arquillian.recorder.reporter.model.entry.table.TableCellEntry;
+import org.arquillian.recorder.reporter.model.entry.table.TableEntry;
+import org.arquillian.recorder.reporter.model.entry.table.TableRowEntry;
+import org.jboss.arquillian.core.api.Event;
+import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.arquillian.core.api.annotation.Observes;
+
+/**
+ * Puts the time the governor and its providers took in the Recorder report, when the {@code metricsReport} property
+ * of the governor is set.
+ */
+public class GovernorMetricsReporter {
+
+    @Inject
+    private Event<PropertyReportEvent> propertyReportEvent;
+
+    public void on(@Observes GovernorMetricsReported event) {
+        propertyReportEvent.fire(new PropertyReportEvent(constructReportTable(event.getGovernorMetrics())));
+    }
+
+    TableEntry constructReportTable(GovernorMetrics governorMetrics) {
+        final TableEntry tableEntry = new TableEntry();
+
+        for (final Map.Entry<String, Long> provider : governorMetrics.getProviderNanos().entrySet()) {
+            addRow(tableEntry, "provider", provider.getKey(), "total " + millis(provider.getValue()));
+        }
+
+        for (final CallMetrics callMetrics : governorMetrics.getCalls()) {
+            final LatencyHistogram latency = callMetrics.getLatency();
+
+            addRow(tableEntry, "call", callMetrics.getProvider() + " " + callMetrics.getOperation(),
+                String.format("%d ok, %d failed, %d fallback, p50 %s, p99 %s, max %s",
+                    callMetrics.getCount(CallOutcome.SUCCESS), callMetrics.getCount(CallOutcome.FAILURE),
+                    callMetrics.getCount(CallOutcome.FALLBACK), millis(latency.getPercentileNanos(50)),
+                    millis(latency.getPercentileNanos(99)), millis(latency.getMaxNanos())));
+        }
+
+        for (final CacheMetrics cacheMetrics : governorMetrics.getCaches()) {
+            addRow(tableEntry, "cache", cacheMetrics.getProvider() + " " + cacheMetrics.getCache(),
+                String.format("%d hits, %d misses", cacheMetrics.getHits(), cacheMetrics.getMisses()));
+        }
+
+        for (final Map.Entry<String, Long> scan : governorMetrics.getScans().entrySet()) {
+            addRow(tableEntry, "test class", scan.getKey(), millis(scan.getValue()));
+        }
+
+        return tableEntry;
+    }
+
+    private void addRow(TableEntry tableEntry, String kind, String name, String value) {
+        final TableRowEntry row = new TableRowEntry();
+        row.addCells(new TableCellEntry(kind), new TableCellEntry(name), new TableCellEntry(value));
+        tableEntry.getTableBody().addRow(row);
+    }
+
+    private static String millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+    }
+}
@@ -21,20 +21,24 @@ import org.arquillian.extension.governor.skipper.api.TestSpec;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
+ * Test specifications of one test class, a holder is created for every test class so classes running in parallel
+ * report only their own specifications.
+ *
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
  */
 public class SkipperReportHolder {
 
-    private final List<TestSpec> testSpecs = new ArrayList<TestSpec>();
+    private final List<TestSpec> testSpecs = new CopyOnWriteArrayList<TestSpec>();
 
     public void put(TestSpec testSpec) {
         this.testSpecs.add(testSpec);
     }
 
     public List<TestSpec> getAll() {
-        return Collections.unmodifiableList(testSpecs);
+        return Collections.unmodifiableList(new ArrayList<TestSpec>(testSpecs));
     }
 
     public void clear() {
@@ -26,8 +26,10 @@ import org.jboss.arquillian.core.api.InstanceProducer;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.test.spi.annotation.ClassScoped;
 import org.jboss.arquillian.test.spi.event.suite.AfterClass;
 import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
+import org.jboss.arquillian.test.spi.event.suite.BeforeClass;
 import org.jboss.arquillian.test.spi.event.suite.BeforeSuite;
 
 import java.io.File;
@@ -39,7 +41,8 @@ import java.util.List;
 public class SkipperReporter {
 
     @Inject
-    private Instance<SkipperReportHolder> holder;
+    @ClassScoped
+    private InstanceProducer<SkipperReportHolder> holder;
 
     @Inject
     private Instance<ReporterConfiguration> reporterConfiguration;
@@ -75,6 +78,11 @@ public class SkipperReporter {
         }
     }
 
+    // before the governor scanner decides the executions of the test class
+    public void on(@Observes(precedence = 100) BeforeClass beforeClass) {
+        holder.set(new SkipperReportHolder());
+    }
+
     public void on(@Observes AfterClass afterClass) {
 
         final List<TestSpec> testSpecs = holder.get().getAll();
@@ -16,9 +16,25 @@
  */
 package org.arquillian.extension.governor.spi.event;
 
+import org.jboss.arquillian.core.spi.Validate;
+
 /**
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
  */
 public class DecideMethodExecutions {
 
+    private final Class<?> testClass;
+
+    public DecideMethodExecutions(final Class<?> testClass) {
+        Validate.notNull(testClass, "Test class has to be specified.");
+
+        this.testClass = testClass;
+    }
+
+    /**
+     * @return test class the execution of the methods is decided for
+     */
+    public Class<?> getTestClass() {
+        return testClass;
+    }
 }
@@ -17,23 +17,57 @@
 package org.arquillian.extension.governor.spi.event;
 
 import org.jboss.arquillian.core.spi.Validate;
+import org.jboss.arquillian.test.spi.execution.ExecutionDecision;
 
 import java.lang.annotation.Annotation;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 /**
+ * Asks the deciders for the execution decision about an annotation. A decider either sets the class scoped
+ * {@link ExecutionDecision} or, when it resolves the annotation in the background, sets the pending decision of the
+ * event.
+ *
  * @author <a href="mailto:smikloso@redhat.com">Stefan Miklosovic</a>
  */
 public class ExecutionDecisionEvent {
 
     private final Annotation annotation;
 
+    private final Executor executor;
+
+    private Future<ExecutionDecision> decision;
+
     public ExecutionDecisionEvent(final Annotation annotation) {
+        this(annotation, null);
+    }
+
+    public ExecutionDecisionEvent(final Annotation annotation, final Executor executor) {
         Validate.notNull(annotation, "Annotation has to be specified.");
 
         this.annotation = annotation;
+        this.executor = executor;
     }
 
     public Annotation getAnnotation() {
         return annotation;
     }
+
+    /**
+     * @return executor the deciders resolve the annotation in, null when they have to resolve it synchronously
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return pending decision set by a decider, null when the deciders decided synchronously
+     */
+    public Future<ExecutionDecision> getDecision() {
+        return decision;
+    }
+
+    public void setDecision(Future<ExecutionDecision> decision) {
+        this.decision = decision;
+    }
 }